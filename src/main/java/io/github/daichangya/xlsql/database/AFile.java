@@ -56,6 +56,10 @@ public abstract class AFile {
     private String[] columnTypes;
     /** 变更标志数组，索引对应操作类型（ADD/UPDATE/DELETE） */
     protected boolean[] isChanged = new boolean[3];
+    /** 是否已经读取文件（延迟挂载时首次使用前为false） */
+    private volatile boolean resolved = true;
+    /** 延迟读取文件时使用的锁 */
+    private final Object resolveLock = new Object();
 
     /**
      * 创建文件对象（读取文件）
@@ -96,6 +100,36 @@ public abstract class AFile {
         isChanged[xlConstants.ADD] = bdirty;
     }
 
+    /**
+     * 延迟读取文件
+     * 
+     * <p>标记文件尚未读取：标题验证、列类型推断和行数统计推迟到首次使用
+     * （isValid、获取列名/列类型/行数或数据）时执行，并且每个文件只执行一次。</p>
+     */
+    protected void deferRead() {
+        resolved = false;
+    }
+
+    /**
+     * 确保文件已经读取（线程安全，最多读取一次）
+     */
+    protected final void ensureResolved() {
+        if (resolved) {
+            return;
+        }
+        synchronized (resolveLock) {
+            if (!resolved) {
+                try {
+                    validAsSqlTable = readFile();
+                } catch (xlDatabaseException e) {
+                    logger.warning("XLSQL: unable to read " + fileName + "." + sheetName + ": " + e.getMessage());
+                    validAsSqlTable = false;
+                }
+                resolved = true;
+            }
+        }
+    }
+
     /**
      * 读取文件（抽象方法）
      * 
@@ -134,6 +168,7 @@ public abstract class AFile {
      * <p>增加行计数器，用于跟踪数据行数。</p>
      */
     void addRow() {
+        ensureResolved();
         rowCount++;
     }
     
@@ -143,6 +178,7 @@ public abstract class AFile {
      * @return 列名数组
      */
     String[] getColumnNames() {
+        ensureResolved();
         return this.columnNames;
     }
     
@@ -164,6 +200,7 @@ public abstract class AFile {
      * @return 行数
      */
     int getRows() {
+        ensureResolved();
         return rowCount;
     }
     
@@ -182,6 +219,7 @@ public abstract class AFile {
      * @return 列类型数组（SQL类型名称）
      */
     String[] getColumnTypes() {
+        ensureResolved();
         return this.columnTypes;
     }
 
@@ -202,6 +240,7 @@ public abstract class AFile {
      * @return 如果文件可以作为SQL表使用则返回true
      */
     public boolean isValid() {
+        ensureResolved();
         return validAsSqlTable;
     }
     
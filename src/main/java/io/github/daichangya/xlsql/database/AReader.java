@@ -23,6 +23,8 @@ package io.github.daichangya.xlsql.database;
 import java.io.File;
 import java.util.Map;
 
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+
 
 /**
  * AReader - 读取器抽象基类
@@ -162,6 +164,47 @@ public abstract class AReader extends AFolder {
         return ret;
     }
 
+    /**
+     * 获取编码后的列向量
+     * 
+     * <p>从共享缓存（TableDataCache）中取得指定列的列向量，每列只在第一次被请求时编码。
+     * 返回的列向量在多个查询之间共享，只能读取不能修改。</p>
+     * 
+     * @param subfolder 文档的模式类型标识符（对应Excel文件名）
+     * @param docname 文档名称（对应Excel工作表名）
+     * @param columnIndexes 列下标（为null时返回全部列）
+     * 
+     * @return 与columnIndexes一一对应的列向量，下标超出范围时对应元素为null
+     * 
+     * @throws xlDatabaseException 如果读取数据时发生错误则抛出异常
+     * @throws IllegalArgumentException 如果子文件夹或文档不存在则抛出异常
+     */
+    public ColumnVector[] getColumns(String subfolder, String docname, int[] columnIndexes)
+                         throws xlDatabaseException {
+        String subfolderU = toUpperCase(subfolder);
+        String docnameU = toUpperCase(docname);
+
+        ASubFolder wb = getSubfolder(subfolderU);
+        if (wb != null) {
+
+            Map<String, AFile> files = wb.getFiles();
+            if (files.containsKey(docnameU)) {
+                AFile doc = (AFile) files.get(docnameU);
+
+                if (doc.isValid()) {
+                    return TableDataCache.getShared().getColumns(doc.getFile(), doc.getSheetName(),
+                            doc::getValues, columnIndexes);
+                } else {
+                    throw new IllegalArgumentException(NOARGS);
+                }
+            } else {
+                throw new IllegalArgumentException(NOARGS);
+            }
+        } else {
+            throw new IllegalArgumentException(NOARGS);
+        }
+    }
+
     /**
      * 获取所有模式（工作簿）名称
      * 
@@ -192,16 +235,11 @@ public abstract class AReader extends AFolder {
 
         if (getSubfolders().containsKey(subfolderU)) {
             ASubFolder wb = (ASubFolder) getSubfolders().get(subfolderU);
-            String[] t = (String[]) wb.validfiles.keySet()
-                                                 .toArray(new String[0]);
-            String[] tables = new String[t.length];
-
-            for (int i = 0; i < t.length; i++) {
-                AFile doc = (AFile) wb.validfiles.get(t[i]);
-                tables[i] = doc.getSName();
-            }
-
-            ret = tables;
+            // 延迟挂载时validfiles中可能包含尚未验证的工作表，这里触发验证并过滤
+            ret = wb.validfiles.values().stream()
+                .filter(AFile::isValid)
+                .map(AFile::getSName)
+                .toArray(String[]::new);
         } else {
             throw new IllegalArgumentException(NOARGS);
         }
@@ -233,7 +271,8 @@ public abstract class AReader extends AFolder {
      * 获取数据值矩阵
      * 
      * <p>从指定的文档中获取所有数据值，返回二维字符串数组。
-     * 第一维是列，第二维是行。</p>
+     * 第一维是列，第二维是行。文件未修改时直接返回共享缓存（TableDataCache）中
+     * 已解码的数据，返回的矩阵只能读取不能修改。</p>
      * 
      * @param subfolder 文档的模式类型标识符（对应Excel文件名）
      * @param docname 文档名称（对应Excel工作表名）
@@ -260,7 +299,7 @@ public abstract class AReader extends AFolder {
                 AFile doc = (AFile) files.get(docnameU);
 
                 if (doc.isValid()) {
-                    ret = doc.getValues();
+                    ret = TableDataCache.getShared().get(doc.getFile(), doc.getSheetName(), doc::getValues);
                 } else {
                     throw new IllegalArgumentException(NOARGS);
                 }
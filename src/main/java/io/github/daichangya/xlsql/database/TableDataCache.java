@@ -0,0 +1,422 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
+import io.github.daichangya.xlsql.engine.column.StringColumnVector;
+import io.github.daichangya.xlsql.util.XlSqlConfig;
+
+
+/**
+ * TableDataCache - 解码后的表数据缓存
+ * 
+ * <p>缓存工作表解码后的数据矩阵（String[列][行]），键为工作簿文件、工作表名称，
+ * 并记录文件的修改时间和大小：文件被修改后旧数据自动失效。
+ * 缓存按估算的字节数限制总大小，超出预算时按最近最少使用（LRU）顺序淘汰。</p>
+ * 
+ * <p>预算通过系统属性 -Dxlsql.cache.maxBytes（或环境变量 XLSQL_CACHE_MAXBYTES）配置，
+ * 设置为0时关闭缓存。缓存返回的数据矩阵在多个查询之间共享，调用方只能读取不能修改。</p>
+ * 
+ * <p>查询引擎通过{@link #getColumns(File, String, Loader, int[])}按列取得编码后的列向量。
+ * 列向量和数据矩阵一起缓存、一起淘汰；一列编码为数值、布尔或字典向量后，
+ * 缓存不再持有该列的原始字符串，需要矩阵时再从列向量还原。
+ * 已返回给调用方的矩阵不会被修改。</p>
+ * 
+ * @author daichangya
+ */
+public final class TableDataCache {
+    /** 日志记录器 */
+    private static final Logger LOGGER = Logger.getLogger(TableDataCache.class.getName());
+
+    /** 系统属性键：缓存字节预算 */
+    public static final String PROP_MAX_BYTES = "xlsql.cache.maxBytes";
+
+    /** 默认缓存字节预算（128MB） */
+    public static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;
+
+    /** 共享缓存实例 */
+    private static final TableDataCache SHARED =
+            new TableDataCache(XlSqlConfig.getLong(PROP_MAX_BYTES, DEFAULT_MAX_BYTES));
+
+    /** 缓存条目（访问顺序，用于LRU淘汰） */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** 字节预算 */
+    private long maxBytes;
+
+    /** 当前缓存占用的估算字节数 */
+    private long currentBytes;
+
+    /** 命中次数 */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** 未命中次数 */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** 淘汰次数 */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * 数据加载接口（缓存未命中时调用）
+     */
+    public interface Loader {
+        /**
+         * 加载数据矩阵
+         * 
+         * @return 数据矩阵（String[列][行]）
+         * @throws xlDatabaseException 如果加载失败则抛出异常
+         */
+        String[][] load() throws xlDatabaseException;
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry {
+        final long lastModified;
+        final long length;
+        final long bytes;
+
+        /** 数据矩阵（可能已返回给调用方，只替换不修改；已编码后释放的列为null） */
+        private String[][] values;
+
+        /** 是否有列已释放原始字符串 */
+        private boolean released;
+
+        /** 已编码的列向量（尚未编码的列为null） */
+        private final ColumnVector[] columns;
+
+        Entry(long lastModified, long length, String[][] values, long bytes) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.values = values;
+            this.bytes = bytes;
+            this.columns = new ColumnVector[values.length];
+        }
+
+        /**
+         * 获取数据矩阵，有列已释放时从列向量还原该列
+         */
+        synchronized String[][] matrix() {
+            if (!released) {
+                return values;
+            }
+            String[][] result = new String[values.length][];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = values[i] != null ? values[i] : columns[i].toStrings();
+            }
+            return result;
+        }
+
+        /**
+         * 获取指定列的列向量，每列只编码一次
+         * 
+         * @param columnIndexes 列下标（为null时返回全部列）
+         * @return 与columnIndexes一一对应的列向量，下标超出矩阵范围时对应元素为null
+         */
+        ColumnVector[] columns(int[] columnIndexes) {
+            int count = columnIndexes != null ? columnIndexes.length : columns.length;
+            ColumnVector[] result = new ColumnVector[count];
+            for (int i = 0; i < count; i++) {
+                int column = columnIndexes != null ? columnIndexes[i] : i;
+                if (column < 0 || column >= columns.length) {
+                    continue;
+                }
+                ColumnVector vector;
+                String[] raw;
+                synchronized (this) {
+                    vector = columns[column];
+                    raw = values[column];
+                }
+                if (vector == null) {
+                    // 在锁外编码，其他列和其他查询不必等待
+                    vector = ColumnVectors.encode(raw);
+                    synchronized (this) {
+                        if (columns[column] == null) {
+                            columns[column] = vector;
+                            release(column, vector);
+                        } else {
+                            vector = columns[column];
+                        }
+                    }
+                }
+                result[i] = vector;
+            }
+            return result;
+        }
+
+        /**
+         * 列向量不引用原始数组时释放该列的原始字符串
+         * 
+         * <p>矩阵可能已经返回给调用方，所以替换为新的外层数组，而不是修改原数组。</p>
+         */
+        private void release(int column, ColumnVector vector) {
+            if (values[column] == null || vector instanceof StringColumnVector) {
+                return;
+            }
+            String[][] copy = values.clone();
+            copy[column] = null;
+            values = copy;
+            released = true;
+        }
+    }
+
+    /**
+     * 创建缓存
+     * 
+     * @param maxBytes 字节预算（小于等于0时不缓存）
+     */
+    public TableDataCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取共享缓存实例
+     * 
+     * @return 共享缓存实例
+     */
+    public static TableDataCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取工作表数据，缓存中没有或已失效时调用加载器并缓存结果
+     * 
+     * @param file 工作簿文件
+     * @param sheetName 工作表名称（不区分大小写）
+     * @param loader 数据加载器
+     * @return 数据矩阵（String[列][行]）
+     * @throws xlDatabaseException 如果加载失败则抛出异常
+     */
+    public String[][] get(File file, String sheetName, Loader loader) throws xlDatabaseException {
+        return entry(file, sheetName, loader).matrix();
+    }
+
+    /**
+     * 获取工作表中指定列的列向量
+     * 
+     * <p>每列在第一次被请求时编码，之后随缓存条目缓存；未被引用的列不会被编码。
+     * 返回的列向量在调用方之间共享，不能修改。</p>
+     * 
+     * @param file 工作簿文件
+     * @param sheetName 工作表名称（不区分大小写）
+     * @param loader 数据加载器
+     * @param columnIndexes 列下标（为null时返回全部列）
+     * @return 与columnIndexes一一对应的列向量，下标超出矩阵范围时对应元素为null
+     * @throws xlDatabaseException 如果加载失败则抛出异常
+     */
+    public ColumnVector[] getColumns(File file, String sheetName, Loader loader, int[] columnIndexes)
+            throws xlDatabaseException {
+        return entry(file, sheetName, loader).columns(columnIndexes);
+    }
+
+    /**
+     * 获取缓存条目，缓存中没有或已失效时调用加载器（超出预算时返回不缓存的条目）
+     */
+    private Entry entry(File file, String sheetName, Loader loader) throws xlDatabaseException {
+        String key = key(file, sheetName);
+        long lastModified = file.lastModified();
+        long length = file.length();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.lastModified == lastModified && entry.length == length) {
+                    hits.incrementAndGet();
+                    return entry;
+                }
+                // 文件已修改，旧数据失效
+                remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        String[][] values = loader.load();
+        Entry entry = new Entry(lastModified, length, values, estimateBytes(values));
+        put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 使指定工作簿的所有缓存数据失效
+     * 
+     * @param file 工作簿文件
+     */
+    public synchronized void invalidate(File file) {
+        String prefix = file.getAbsolutePath() + '\u0000';
+        Iterator<Map.Entry<String, Entry>> i = entries.entrySet().iterator();
+        while (i.hasNext()) {
+            Map.Entry<String, Entry> e = i.next();
+            if (e.getKey().startsWith(prefix)) {
+                currentBytes -= e.getValue().bytes;
+                i.remove();
+            }
+        }
+    }
+
+    /**
+     * 清空缓存（不重置统计计数）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    /**
+     * 设置字节预算，超出新预算的条目立即被淘汰
+     * 
+     * @param maxBytes 字节预算（小于等于0时不缓存）
+     */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * 获取字节预算
+     * 
+     * @return 字节预算
+     */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 获取当前缓存占用的估算字节数
+     * 
+     * @return 估算字节数
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    /**
+     * 获取缓存条目数
+     * 
+     * @return 条目数
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取命中次数
+     * 
+     * @return 命中次数
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * 获取未命中次数
+     * 
+     * @return 未命中次数
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * 获取淘汰次数
+     * 
+     * @return 淘汰次数
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * 加入缓存条目（超出预算的单个条目不缓存）
+     */
+    private synchronized void put(String key, Entry entry) {
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        remove(key);
+        entries.put(key, entry);
+        currentBytes += entry.bytes;
+        evict();
+    }
+
+    /**
+     * 移除缓存条目
+     */
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            currentBytes -= old.bytes;
+        }
+    }
+
+    /**
+     * 按LRU顺序淘汰条目，直到占用不超过预算
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> i = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && i.hasNext()) {
+            Map.Entry<String, Entry> e = i.next();
+            currentBytes -= e.getValue().bytes;
+            i.remove();
+            evictions.incrementAndGet();
+            LOGGER.fine("XLSQL: evicted cached table data " + e.getKey().replace('\u0000', '!'));
+        }
+    }
+
+    /**
+     * 生成缓存键
+     */
+    private static String key(File file, String sheetName) {
+        return file.getAbsolutePath() + '\u0000' + sheetName.toUpperCase();
+    }
+
+    /**
+     * 估算数据矩阵占用的字节数
+     * 
+     * <p>按每个数组16字节头加4字节引用、每个字符串40字节加每字符2字节估算。
+     * 缓存条目按原始矩阵计算，编码后的列向量不大于它替换的原始列。</p>
+     * 
+     * @param values 数据矩阵
+     * @return 估算字节数
+     */
+    static long estimateBytes(String[][] values) {
+        long bytes = 16L + 4L * values.length;
+        for (String[] column : values) {
+            if (column == null) {
+                continue;
+            }
+            bytes += 16L + 4L * column.length;
+            for (String value : column) {
+                if (value != null) {
+                    bytes += 40L + 2L * value.length();
+                }
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,98 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.database.excel.io.SheetStructure;
+
+/**
+ * ISheetReader - 工作表流式读取接口
+ * 
+ * <p>定义不构建POI用户模型（Workbook/Row/Cell）的工作表读取方式，
+ * 由xlWorkbook和xlSheet在挂载和查询时使用。实现类需要与POI用户模型的
+ * 读取结果保持一致：数值单元格为String.valueOf(double)，布尔单元格为
+ * "true"/"false"，空白、公式和错误单元格为空字符串。</p>
+ * 
+ * @author daichangya
+ */
+public interface ISheetReader {
+
+    /**
+     * 获取工作簿中的所有工作表名称
+     * 
+     * @param file Excel文件
+     * @return 工作表名称数组（按工作簿中的顺序）
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    public String[] getSheetNames(File file) throws xlDatabaseException;
+
+    /**
+     * 读取工作表结构（标题行、第一数据行的单元格类型和物理行数）
+     * 
+     * @param file Excel文件
+     * @param sheetName 工作表名称（不区分大小写）
+     * @return 工作表结构，如果工作表不存在则返回null
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    public SheetStructure readStructure(File file, String sheetName) throws xlDatabaseException;
+
+    /**
+     * 一次读取工作簿中所有工作表的结构
+     * 
+     * <p>文件只打开一次，每个工作表只解析一遍，用于挂载工作簿时
+     * 避免为每个工作表重新打开文件。</p>
+     * 
+     * @param file Excel文件
+     * @return 工作表结构列表（按工作簿中的顺序）
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    public List<SheetStructure> readStructures(File file) throws xlDatabaseException;
+
+    /**
+     * 一次读取工作簿中所有工作表的结构和数据
+     * 
+     * <p>文件只打开一次，每个工作表只解析一遍，用于挂载时同时写入快照。
+     * 不使用探测模式，行数为全部物理行。</p>
+     * 
+     * @param file Excel文件
+     * @param values 接收每个工作表的数据（工作表名 -> String[列][行]，不包括标题行）
+     * @return 工作表结构列表（按工作簿中的顺序）
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    public List<SheetStructure> readStructures(File file, Map<String, String[][]> values)
+            throws xlDatabaseException;
+
+    /**
+     * 读取工作表数据（不包括标题行）
+     * 
+     * @param file Excel文件
+     * @param sheetName 工作表名称（不区分大小写）
+     * @param columnCount 列数
+     * @param rowCount 行数（包括标题行）
+     * @return 数据值矩阵（String[列][行]），如果工作表不存在则返回null
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    public String[][] readValues(File file, String sheetName, int columnCount, int rowCount)
+            throws xlDatabaseException;
+}
@@ -0,0 +1,126 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * ContentCollector - 工作表结构和数据收集器
+ * 
+ * <p>解析一遍工作表，同时收集结构（见{@link StructureCollector}）和数据。
+ * 数据的列数和行数要到结构确定后才知道，所以先按列保存数据单元格，
+ * 结构确定后再整理为与{@link ValuesCollector}相同的数据矩阵。
+ * 用于挂载时写入快照，不使用探测模式。</p>
+ * 
+ * @author daichangya
+ */
+class ContentCollector implements SheetCellHandler {
+
+    /** 结构收集器 */
+    private final StructureCollector structure = new StructureCollector();
+
+    /** 已出现的物理行 */
+    private final BitSet rows = new BitSet();
+
+    /** 数据单元格（String[列][数据行]，按需扩容） */
+    private String[][] columns = new String[0][];
+
+    /** 每列的初始容量（有使用范围时取范围内的数据行数） */
+    private int capacity = 16;
+
+    @Override
+    public void dimension(int lastRow) {
+        structure.dimension(lastRow);
+        capacity = Math.max(capacity, lastRow);
+    }
+
+    @Override
+    public void row(int rowIndex) {
+        structure.row(rowIndex);
+        rows.set(rowIndex);
+    }
+
+    @Override
+    public void cell(int rowIndex, int columnIndex, CellType type, String value) {
+        structure.cell(rowIndex, columnIndex, type, value);
+        int i = rowIndex - 1;
+        if (i < 0 || columnIndex < 0) {
+            return;
+        }
+        if (columnIndex >= columns.length) {
+            columns = Arrays.copyOf(columns, columnIndex + 1);
+        }
+        String[] column = columns[columnIndex];
+        if (column == null) {
+            column = new String[Math.max(capacity, i + 1)];
+            columns[columnIndex] = column;
+        } else if (i >= column.length) {
+            column = Arrays.copyOf(column, Math.max(column.length * 2, i + 1));
+            columns[columnIndex] = column;
+        }
+        column[i] = ValuesCollector.toValue(type, value);
+    }
+
+    @Override
+    public boolean isDone() {
+        return false;
+    }
+
+    /**
+     * 构建工作表结构信息
+     * 
+     * @param sheetName 工作表名称
+     * @return 工作表结构信息
+     */
+    SheetStructure build(String sheetName) {
+        return structure.build(sheetName);
+    }
+
+    /**
+     * 按工作表结构整理数据矩阵（不包括标题行）
+     * 
+     * <p>列数取标题行单元格数，行数取结构中的行数。存在的物理行中缺失的单元格为空字符串，
+     * 不存在的行保持为null。</p>
+     * 
+     * @param sheetStructure 由{@link #build(String)}构建的工作表结构
+     * @return 数据值矩阵（String[列][行]）
+     */
+    String[][] getValues(SheetStructure sheetStructure) {
+        int columnCount = Math.max(sheetStructure.getHeaderCellCount(), 0);
+        int dataRowCount = Math.max(sheetStructure.getRowCount() - 1, 0);
+        String[][] values = new String[columnCount][dataRowCount];
+        for (int j = 0; j < columnCount && j < columns.length; j++) {
+            if (columns[j] != null) {
+                System.arraycopy(columns[j], 0, values[j], 0, Math.min(columns[j].length, dataRowCount));
+            }
+        }
+        for (int r = rows.nextSetBit(1); r >= 0 && r <= dataRowCount; r = rows.nextSetBit(r + 1)) {
+            for (int j = 0; j < columnCount; j++) {
+                if (values[j][r - 1] == null) {
+                    values[j][r - 1] = "";
+                }
+            }
+        }
+        return values;
+    }
+}
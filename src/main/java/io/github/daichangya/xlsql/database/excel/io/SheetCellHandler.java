@@ -0,0 +1,68 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * SheetCellHandler - 流式读取的单元格回调接口
+ * 
+ * <p>XLSX（SAX）和XLS（HSSF事件模型）读取器把解析出的行和单元格
+ * 统一转换为该接口的回调，由具体的收集器决定如何保存。</p>
+ * 
+ * <p>约定：同一行的row回调可能出现多次（XLS中单元格记录可以没有对应的
+ * RowRecord），读取器保证在某行的第一个cell回调之前至少调用一次row。</p>
+ * 
+ * @author daichangya
+ */
+interface SheetCellHandler {
+
+    /**
+     * 通知工作表声明的使用范围（XLSX的&lt;dimension&gt;或XLS的DIMENSIONS记录），
+     * 在第一个row回调之前调用；没有声明时不调用
+     * 
+     * @param lastRow 使用范围的最后一行索引（从0开始）
+     */
+    void dimension(int lastRow);
+
+    /**
+     * 通知物理行存在
+     * 
+     * @param rowIndex 行索引（从0开始）
+     */
+    void row(int rowIndex);
+
+    /**
+     * 通知单元格值
+     * 
+     * @param rowIndex 行索引（从0开始）
+     * @param columnIndex 列索引（从0开始）
+     * @param type 单元格类型（与POI用户模型的getCellType一致）
+     * @param value 单元格值（数值为String.valueOf(double)，布尔为"true"/"false"）
+     */
+    void cell(int rowIndex, int columnIndex, CellType type, String value);
+
+    /**
+     * 是否已收集到足够的数据，读取器可以据此提前结束解析
+     * 
+     * @return 如果不再需要后续行则返回true
+     */
+    boolean isDone();
+}
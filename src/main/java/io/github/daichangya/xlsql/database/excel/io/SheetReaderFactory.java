@@ -0,0 +1,89 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import io.github.daichangya.xlsql.database.FileType;
+import io.github.daichangya.xlsql.database.excel.ISheetReader;
+import io.github.daichangya.xlsql.util.XlSqlConfig;
+
+/**
+ * SheetReaderFactory - 工作表流式读取器工厂
+ * 
+ * <p>根据文件类型返回对应的流式读取器。流式读取默认开启，
+ * 可以通过系统属性 -Dxlsql.excel.streaming=false（或环境变量
+ * XLSQL_EXCEL_STREAMING=false）关闭，此时回退到POI用户模型读取。</p>
+ * 
+ * @author daichangya
+ */
+public class SheetReaderFactory {
+
+    /** 系统属性键：是否启用流式读取 */
+    public static final String PROP_STREAMING = "xlsql.excel.streaming";
+
+    /** 系统属性键：读取工作表结构时是否只探测标题行和第一数据行 */
+    public static final String PROP_PROBE = "xlsql.excel.probe";
+
+    /** .xlsx流式读取器（无状态，可共享） */
+    private static final ISheetReader XLSX_READER = new XlsxSheetReader();
+
+    /** .xls流式读取器（无状态，可共享） */
+    private static final ISheetReader XLS_READER = new XlsSheetReader();
+
+    /**
+     * 检查是否启用了流式读取
+     * 
+     * @return 如果启用流式读取则返回true
+     */
+    public static boolean isStreamingEnabled() {
+        return XlSqlConfig.getBoolean(PROP_STREAMING, true);
+    }
+
+    /**
+     * 检查读取工作表结构时是否使用探测模式
+     * 
+     * <p>探测模式默认开启：行数取工作表声明的使用范围，读取完标题行和第一数据行后
+     * 即停止解析。可以通过 -Dxlsql.excel.probe=false 关闭，此时统计全部物理行。</p>
+     * 
+     * @return 如果使用探测模式则返回true
+     */
+    public static boolean isProbeEnabled() {
+        return XlSqlConfig.getBoolean(PROP_PROBE, true);
+    }
+
+    /**
+     * 获取指定文件类型的流式读取器
+     * 
+     * @param fileType 文件类型
+     * @return 流式读取器，如果流式读取被关闭或该类型不支持则返回null
+     */
+    public static ISheetReader create(FileType fileType) {
+        if (fileType == null || !isStreamingEnabled()) {
+            return null;
+        }
+        switch (fileType) {
+            case XLSX:
+                return XLSX_READER;
+            case XLS:
+                return XLS_READER;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import io.github.daichangya.xlsql.util.XlSqlConfig;
+
+/**
+ * SheetSnapshot - 工作簿的持久化列式快照
+ * 
+ * <p>把工作簿中所有工作表的结构以及有效工作表的数据按列写入缓存目录中的二进制文件，
+ * 下次挂载时如果源文件的路径、大小和修改时间都没有变化，则直接内存映射快照文件，
+ * 不再用POI解析工作簿。</p>
+ * 
+ * <p>快照默认关闭，通过系统属性 -Dxlsql.snapshot.dir=目录（或环境变量
+ * XLSQL_SNAPSHOT_DIR）启用。文件格式：</p>
+ * <pre>
+ * int magic, int version, long metadataOffset
+ * 数据区：每个有效工作表的每一列依次写入该列所有数据行的字符串
+ * 元数据区：源文件路径、大小、修改时间，各工作表的结构及其数据区偏移
+ * </pre>
+ * <p>字符串编码为int字节长度（null为-1）加UTF-8字节。</p>
+ * 
+ * @author daichangya
+ */
+public class SheetSnapshot {
+    /** 日志记录器 */
+    private static final Logger LOGGER = Logger.getLogger(SheetSnapshot.class.getName());
+
+    /** 系统属性键：快照目录 */
+    public static final String PROP_DIR = "xlsql.snapshot.dir";
+
+    /** 快照文件扩展名 */
+    private static final String SUFFIX = ".xlsnap";
+
+    /** 文件标识（"XLSN"） */
+    private static final int MAGIC = 0x584C534E;
+
+    /** 文件格式版本 */
+    private static final int VERSION = 1;
+
+    /** 源文件 */
+    private final File source;
+
+    /** 创建快照时源文件的大小 */
+    private final long sourceLength;
+
+    /** 创建快照时源文件的修改时间 */
+    private final long sourceModified;
+
+    /** 工作表结构（按工作簿中的顺序） */
+    private final List<SheetStructure> structures;
+
+    /** 工作表数据区（大写工作表名 -> 数据区） */
+    private final Map<String, ValueSection> sections;
+
+    /** 快照文件的内存映射 */
+    private final ByteBuffer buffer;
+
+    /**
+     * 工作表数据区的位置
+     */
+    private static final class ValueSection {
+        final int columnCount;
+        final int dataRowCount;
+        final int offset;
+
+        ValueSection(int columnCount, int dataRowCount, int offset) {
+            this.columnCount = columnCount;
+            this.dataRowCount = dataRowCount;
+            this.offset = offset;
+        }
+    }
+
+    private SheetSnapshot(File source, long sourceLength, long sourceModified,
+                          List<SheetStructure> structures, Map<String, ValueSection> sections,
+                          ByteBuffer buffer) {
+        this.source = source;
+        this.sourceLength = sourceLength;
+        this.sourceModified = sourceModified;
+        this.structures = structures;
+        this.sections = sections;
+        this.buffer = buffer;
+    }
+
+    /**
+     * 获取配置的快照目录
+     * 
+     * @return 快照目录，未配置时返回null（快照关闭）
+     */
+    public static File getCacheDir() {
+        String dir = XlSqlConfig.getString(PROP_DIR, null);
+        return dir == null || dir.trim().isEmpty() ? null : new File(dir.trim());
+    }
+
+    /**
+     * 打开源文件对应的快照
+     * 
+     * @param cacheDir 快照目录
+     * @param source 源Excel文件
+     * @return 快照，如果快照不存在、已过期或无法读取则返回null
+     */
+    public static SheetSnapshot open(File cacheDir, File source) {
+        File file = snapshotFile(cacheDir, source);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            buffer.position((int) buffer.getLong());
+
+            String path = readString(buffer);
+            long length = buffer.getLong();
+            long modified = buffer.getLong();
+            if (!source.getAbsolutePath().equals(path)
+                    || source.length() != length || source.lastModified() != modified) {
+                return null;
+            }
+
+            int sheetCount = buffer.getInt();
+            List<SheetStructure> structures = new ArrayList<>(sheetCount);
+            Map<String, ValueSection> sections = new HashMap<>();
+            for (int s = 0; s < sheetCount; s++) {
+                String name = readString(buffer);
+                int rowCount = buffer.getInt();
+                int headerCellCount = buffer.getInt();
+                String[] headerValues = readStrings(buffer);
+                String[] firstRowTypes = readStrings(buffer);
+                structures.add(new SheetStructure(name, rowCount, headerCellCount, headerValues, firstRowTypes));
+
+                int offset = buffer.getInt();
+                if (offset >= 0) {
+                    sections.put(name.toUpperCase(),
+                            new ValueSection(buffer.getInt(), buffer.getInt(), offset));
+                }
+            }
+            return new SheetSnapshot(source, length, modified,
+                    Collections.unmodifiableList(structures), sections, buffer);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("XLSQL: unable to read snapshot " + file.getPath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入源文件的快照（先写临时文件再替换，写入失败不影响挂载）
+     * 
+     * @param cacheDir 快照目录
+     * @param source 源Excel文件
+     * @param sourceLength 读取前源文件的大小
+     * @param sourceModified 读取前源文件的修改时间
+     * @param structures 工作表结构（按工作簿中的顺序）
+     * @param values 有效工作表的数据（工作表名 -> String[列][行]）
+     * @return 如果写入成功则返回true
+     */
+    public static boolean write(File cacheDir, File source, long sourceLength, long sourceModified,
+                                List<SheetStructure> structures, Map<String, String[][]> values) {
+        File file = snapshotFile(cacheDir, source);
+        File tmp = new File(cacheDir, file.getName() + ".tmp");
+        try {
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+                throw new IOException("cannot create " + cacheDir.getPath());
+            }
+            Map<String, Integer> offsets = new HashMap<>();
+            long metadataOffset;
+            try (CountingOutput out = new CountingOutput(tmp)) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(0L); // 元数据偏移，写完后回填
+
+                // 数据区：按列连续存放
+                for (Map.Entry<String, String[][]> e : values.entrySet()) {
+                    offsets.put(e.getKey(), out.offset());
+                    for (String[] column : e.getValue()) {
+                        for (String value : column) {
+                            out.writeString(value);
+                        }
+                    }
+                }
+
+                // 元数据区
+                metadataOffset = out.offset();
+                out.writeString(source.getAbsolutePath());
+                out.writeLong(sourceLength);
+                out.writeLong(sourceModified);
+                out.writeInt(structures.size());
+                for (SheetStructure structure : structures) {
+                    out.writeString(structure.getSheetName());
+                    out.writeInt(structure.getRowCount());
+                    out.writeInt(structure.getHeaderCellCount());
+                    out.writeStrings(structure.getHeaderValues());
+                    out.writeStrings(structure.getFirstRowTypes());
+
+                    String[][] matrix = values.get(structure.getSheetName());
+                    if (matrix == null) {
+                        out.writeInt(-1);
+                    } else {
+                        out.writeInt(offsets.get(structure.getSheetName()));
+                        out.writeInt(matrix.length);
+                        out.writeInt(matrix.length > 0 ? matrix[0].length : 0);
+                    }
+                }
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                raf.seek(8);
+                raf.writeLong(metadataOffset);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warning("XLSQL: unable to write snapshot for " + source.getPath() + ": " + e.getMessage());
+            tmp.delete();
+            return false;
+        }
+    }
+
+    /**
+     * 检查源文件自快照创建以来是否没有变化
+     * 
+     * @return 如果源文件的大小和修改时间与快照一致则返回true
+     */
+    public boolean isCurrent() {
+        return source.length() == sourceLength && source.lastModified() == sourceModified;
+    }
+
+    /**
+     * 获取所有工作表的结构
+     * 
+     * @return 工作表结构列表（按工作簿中的顺序）
+     */
+    public List<SheetStructure> getStructures() {
+        return structures;
+    }
+
+    /**
+     * 从快照中读取工作表数据
+     * 
+     * @param sheetName 工作表名称（不区分大小写）
+     * @return 数据矩阵（String[列][行]），如果快照中没有该工作表的数据则返回null
+     */
+    public String[][] readValues(String sheetName) {
+        ValueSection section = sections.get(sheetName.toUpperCase());
+        if (section == null) {
+            return null;
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(section.offset);
+        String[][] values = new String[section.columnCount][section.dataRowCount];
+        for (int j = 0; j < section.columnCount; j++) {
+            String[] column = values[j];
+            for (int i = 0; i < column.length; i++) {
+                column[i] = readString(in);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 获取源文件对应的快照文件（文件名由源文件绝对路径生成）
+     */
+    static File snapshotFile(File cacheDir, File source) {
+        String path = source.getAbsolutePath();
+        return new File(cacheDir, UUID.nameUUIDFromBytes(path.getBytes(StandardCharsets.UTF_8)) + SUFFIX);
+    }
+
+    /**
+     * 读取一个可以为null的字符串
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取一个可以为null的字符串数组
+     */
+    private static String[] readStrings(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+
+    /**
+     * CountingOutput - 记录写入位置的快照输出流
+     */
+    private static final class CountingOutput implements AutoCloseable {
+        private final DataOutputStream out;
+        private long offset;
+
+        CountingOutput(File file) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        }
+
+        int offset() throws IOException {
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("snapshot exceeds 2GB");
+            }
+            return (int) offset;
+        }
+
+        void writeInt(int v) throws IOException {
+            out.writeInt(v);
+            offset += 4;
+        }
+
+        void writeLong(long v) throws IOException {
+            out.writeLong(v);
+            offset += 8;
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            out.write(bytes);
+            offset += bytes.length;
+        }
+
+        void writeStrings(String[] values) throws IOException {
+            if (values == null) {
+                writeInt(-1);
+                return;
+            }
+            writeInt(values.length);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+/**
+ * SheetStructure - 工作表结构信息
+ * 
+ * <p>保存判断工作表能否作为SQL表使用所需的原始信息：物理行数、
+ * 标题行的单元格以及第一数据行推断出的列类型。
+ * 校验规则由xlSheet统一执行，这里只记录读取到的事实。</p>
+ * 
+ * @author daichangya
+ */
+public class SheetStructure {
+
+    /** 工作表名称 */
+    private final String sheetName;
+
+    /** 物理行数（包括标题行） */
+    private final int rowCount;
+
+    /** 标题行的物理单元格数，标题行不存在时为-1 */
+    private final int headerCellCount;
+
+    /** 标题行单元格值（按列位置），非字符串或缺失的单元格为null */
+    private final String[] headerValues;
+
+    /** 第一数据行推断出的列类型（按列位置），数据行不存在时为null */
+    private final String[] firstRowTypes;
+
+    /**
+     * 创建工作表结构信息
+     * 
+     * @param sheetName 工作表名称
+     * @param rowCount 物理行数
+     * @param headerCellCount 标题行物理单元格数（-1表示没有标题行）
+     * @param headerValues 标题行单元格值
+     * @param firstRowTypes 第一数据行推断的列类型
+     */
+    public SheetStructure(String sheetName, int rowCount, int headerCellCount,
+                          String[] headerValues, String[] firstRowTypes) {
+        this.sheetName = sheetName;
+        this.rowCount = rowCount;
+        this.headerCellCount = headerCellCount;
+        this.headerValues = headerValues;
+        this.firstRowTypes = firstRowTypes;
+    }
+
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public boolean hasHeaderRow() {
+        return headerCellCount >= 0;
+    }
+
+    public int getHeaderCellCount() {
+        return headerCellCount;
+    }
+
+    public String[] getHeaderValues() {
+        return headerValues;
+    }
+
+    public String[] getFirstRowTypes() {
+        return firstRowTypes;
+    }
+}
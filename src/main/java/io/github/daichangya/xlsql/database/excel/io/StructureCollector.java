@@ -0,0 +1,156 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * StructureCollector - 工作表结构收集器
+ * 
+ * <p>统计物理行数，记录标题行单元格和第一数据行的单元格类型，
+ * 结果与xlSheet基于POI用户模型的判断方式一致。</p>
+ * 
+ * <p>探测模式下，如果工作表声明了使用范围（至少包含一个数据行），
+ * 读取完标题行和第一数据行后即结束，行数取使用范围的行数，
+ * 不再扫描其余数据行。没有声明使用范围时仍然统计全部物理行。</p>
+ * 
+ * @author daichangya
+ */
+class StructureCollector implements SheetCellHandler {
+
+    /** 已出现的物理行 */
+    private final BitSet rows = new BitSet();
+
+    /** 标题行单元格（列位置 -> 字符串值，非字符串单元格为null） */
+    private final Map<Integer, String> headerCells = new HashMap<>();
+
+    /** 第一数据行单元格类型（列位置 -> SQL类型） */
+    private final Map<Integer, String> firstRowTypes = new HashMap<>();
+
+    /** 是否为探测模式 */
+    private final boolean probe;
+
+    /** 使用范围声明的行数，未声明时为-1 */
+    private int dimensionRows = -1;
+
+    /** 已经读取到单元格的最大行索引 */
+    private int lastCellRow = -1;
+
+    /** 是否因为探测模式提前结束 */
+    private boolean stopped;
+
+    /**
+     * 创建结构收集器（统计全部物理行）
+     */
+    StructureCollector() {
+        this(false);
+    }
+
+    /**
+     * 创建结构收集器
+     * 
+     * @param probe 是否为探测模式（只读取标题行和第一数据行）
+     */
+    StructureCollector(boolean probe) {
+        this.probe = probe;
+    }
+
+    @Override
+    public void dimension(int lastRow) {
+        // 只有一行的范围可能是写入方没有维护使用范围（如"A1"），不作为依据
+        dimensionRows = lastRow >= 1 ? lastRow + 1 : -1;
+    }
+
+    @Override
+    public void row(int rowIndex) {
+        rows.set(rowIndex);
+    }
+
+    @Override
+    public void cell(int rowIndex, int columnIndex, CellType type, String value) {
+        lastCellRow = Math.max(lastCellRow, rowIndex);
+        if (rowIndex == 0) {
+            headerCells.put(columnIndex, type == CellType.STRING ? value : null);
+        } else if (rowIndex == 1) {
+            firstRowTypes.put(columnIndex, toSqlType(type));
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        // 非探测模式或没有使用范围时需要统计全部物理行
+        if (probe && dimensionRows > 0 && lastCellRow > 1) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * 构建工作表结构信息
+     * 
+     * @param sheetName 工作表名称
+     * @return 工作表结构信息
+     */
+    SheetStructure build(String sheetName) {
+        int headerCellCount = rows.get(0) ? headerCells.size() : -1;
+        String[] headerValues = null;
+        String[] types = null;
+
+        if (headerCellCount >= 0) {
+            headerValues = new String[headerCellCount];
+            for (int i = 0; i < headerCellCount; i++) {
+                headerValues[i] = headerCells.get(i);
+            }
+            if (rows.get(1)) {
+                types = new String[headerCellCount];
+                for (int i = 0; i < headerCellCount; i++) {
+                    String type = firstRowTypes.get(i);
+                    // 空单元格默认为VARCHAR类型
+                    types[i] = type != null ? type : "VARCHAR";
+                }
+            }
+        }
+        int rowCount = stopped ? dimensionRows : rows.cardinality();
+        return new SheetStructure(sheetName, rowCount, headerCellCount, headerValues, types);
+    }
+
+    /**
+     * 根据单元格类型推断SQL类型
+     * 
+     * @param type 单元格类型
+     * @return SQL类型名称
+     */
+    static String toSqlType(CellType type) {
+        switch (type) {
+            case NUMERIC:
+                return "DOUBLE";
+            case BOOLEAN:
+                return "BIT";
+            case STRING:
+            default:
+                // 其他类型默认为VARCHAR
+                return "VARCHAR";
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * ValuesCollector - 工作表数据收集器
+ * 
+ * <p>把单元格值直接写入列优先的数据矩阵（String[列][行]），不包括标题行。
+ * 存在的物理行中缺失的单元格为空字符串，不存在的行保持为null，
+ * 与xlSheet基于POI用户模型的读取结果一致。</p>
+ * 
+ * @author daichangya
+ */
+class ValuesCollector implements SheetCellHandler {
+
+    /** 列数 */
+    private final int columnCount;
+
+    /** 数据行数（不包括标题行） */
+    private final int dataRowCount;
+
+    /** 数据值矩阵（String[列][行]） */
+    private final String[][] values;
+
+    /** 已经读取到单元格的最大行索引（XLS的RowRecord会成块提前出现，因此只按单元格统计） */
+    private int lastRow = -1;
+
+    /**
+     * 创建数据收集器
+     * 
+     * @param columnCount 列数
+     * @param rowCount 行数（包括标题行）
+     */
+    ValuesCollector(int columnCount, int rowCount) {
+        this.columnCount = columnCount;
+        this.dataRowCount = Math.max(rowCount - 1, 0);
+        this.values = new String[columnCount][dataRowCount];
+    }
+
+    @Override
+    public void dimension(int lastRow) {
+        // 数据矩阵的大小由行数决定，不需要使用范围
+    }
+
+    @Override
+    public void row(int rowIndex) {
+        int i = rowIndex - 1;
+        if (i < 0 || i >= dataRowCount || columnCount == 0 || values[0][i] != null) {
+            return;
+        }
+        for (int j = 0; j < columnCount; j++) {
+            values[j][i] = "";
+        }
+    }
+
+    @Override
+    public void cell(int rowIndex, int columnIndex, CellType type, String value) {
+        lastRow = Math.max(lastRow, rowIndex);
+        int i = rowIndex - 1;
+        if (i < 0 || i >= dataRowCount || columnIndex >= columnCount) {
+            return;
+        }
+        values[columnIndex][i] = toValue(type, value);
+    }
+
+    /**
+     * 把单元格转换为数据矩阵中的值
+     * 
+     * @param type 单元格类型
+     * @param value 单元格值
+     * @return 数值、字符串和布尔单元格返回原值，其他类型返回空字符串
+     */
+    static String toValue(CellType type, String value) {
+        switch (type) {
+            case NUMERIC:
+            case STRING:
+            case BOOLEAN:
+                return value;
+            default:
+                // 其他类型返回空字符串
+                return "";
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        return lastRow > dataRowCount;
+    }
+
+    /**
+     * 获取数据值矩阵
+     * 
+     * @return 数据值矩阵（String[列][行]）
+     */
+    String[][] getValues() {
+        return values;
+    }
+}
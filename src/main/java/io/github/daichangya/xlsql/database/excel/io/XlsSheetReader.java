@@ -0,0 +1,374 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+
+import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.database.excel.ISheetReader;
+
+/**
+ * XlsSheetReader - 基于HSSF事件模型的.xls流式读取器
+ * 
+ * <p>使用HSSFEventFactory按顺序处理BIFF记录，把单元格记录直接转换为
+ * SheetCellHandler回调，不创建HSSFWorkbook以及Row/Cell对象。
+ * 目标工作表的子流结束后立即中止处理，后续工作表不会被解码。</p>
+ * 
+ * <p>POI的记录流已经把RK/MulRK记录转换为NumberRecord；
+ * MulBlank记录在这里展开为空白单元格，与HSSFSheet的处理方式一致。</p>
+ * 
+ * @author daichangya
+ */
+public class XlsSheetReader implements ISheetReader {
+
+    @Override
+    public String[] getSheetNames(File file) throws xlDatabaseException {
+        SheetListener listener = new SheetListener(null, null);
+        process(file, listener);
+        List<String> names = new ArrayList<>(listener.boundSheets.size());
+        for (BoundSheetRecord bsr : listener.boundSheets) {
+            names.add(bsr.getSheetname());
+        }
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public SheetStructure readStructure(File file, String sheetName) throws xlDatabaseException {
+        StructureCollector collector = new StructureCollector(SheetReaderFactory.isProbeEnabled());
+        SheetListener listener = new SheetListener(sheetName, collector);
+        process(file, listener);
+        String name = listener.getTargetName();
+        if (name == null) {
+            return null;
+        }
+        return collector.build(name);
+    }
+
+    @Override
+    public List<SheetStructure> readStructures(File file) throws xlDatabaseException {
+        return readStructures(file, null);
+    }
+
+    @Override
+    public List<SheetStructure> readStructures(File file, Map<String, String[][]> values)
+            throws xlDatabaseException {
+        SheetListener listener = new SheetListener(null, null);
+        listener.allSheets = true;
+        listener.contents = values != null;
+        process(file, listener);
+        List<SheetStructure> structures = new ArrayList<>(listener.boundSheets.size());
+        for (BoundSheetRecord bsr : listener.boundSheets) {
+            SheetCellHandler handler = listener.handlerOf(bsr);
+            if (values == null) {
+                structures.add(((StructureCollector) handler).build(bsr.getSheetname()));
+            } else {
+                ContentCollector collector = (ContentCollector) handler;
+                SheetStructure structure = collector.build(bsr.getSheetname());
+                structures.add(structure);
+                values.put(bsr.getSheetname(), collector.getValues(structure));
+            }
+        }
+        return structures;
+    }
+
+    @Override
+    public String[][] readValues(File file, String sheetName, int columnCount, int rowCount)
+            throws xlDatabaseException {
+        ValuesCollector collector = new ValuesCollector(columnCount, rowCount);
+        SheetListener listener = new SheetListener(sheetName, collector);
+        process(file, listener);
+        if (listener.getTargetName() == null) {
+            return null;
+        }
+        return collector.getValues();
+    }
+
+    /**
+     * 使用HSSF事件模型处理工作簿记录
+     * 
+     * @param file Excel文件
+     * @param listener 记录监听器
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    private void process(File file, SheetListener listener) throws xlDatabaseException {
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, true)) {
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(listener);
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+        } catch (IOException | HSSFUserException | RuntimeException e) {
+            throw new xlDatabaseException("XLSQL: -excel> ERR: " + e.getMessage());
+        }
+    }
+
+    /**
+     * SheetListener - BIFF记录监听器
+     * 
+     * <p>在工作簿全局子流中收集BoundSheet和SST记录，之后按BOF顺序定位工作表子流，
+     * 把目标工作表的单元格交给对应的处理器。只统计顶层子流，嵌入图表等内层BOF/EOF
+     * 不会影响工作表计数。所有目标工作表处理完毕（或没有目标工作表，只获取工作表名称）
+     * 时中止处理。</p>
+     */
+    static class SheetListener extends AbortableHSSFListener {
+
+        /** 继续处理 */
+        private static final short CONTINUE = 0;
+
+        /** 中止处理 */
+        private static final short ABORT = 1;
+
+        /** 目标工作表名称（不区分大小写），为null时不读取单个工作表 */
+        private final String sheetName;
+
+        /** 目标工作表的单元格处理器 */
+        private final SheetCellHandler handler;
+
+        /** 是否为所有工作表收集结构 */
+        private boolean allSheets;
+
+        /** 为所有工作表收集结构时是否同时收集数据 */
+        private boolean contents;
+
+        /** 工作表记录（按工作簿中的顺序） */
+        private final List<BoundSheetRecord> boundSheets = new ArrayList<>();
+
+        /** 工作表记录（按BOF位置，即子流顺序） */
+        private BoundSheetRecord[] ordered = new BoundSheetRecord[0];
+
+        /** 各子流的单元格处理器（按BOF位置，不需要读取的工作表为null） */
+        private SheetCellHandler[] handlers = new SheetCellHandler[0];
+
+        /** 尚未处理完的目标工作表数 */
+        private int pending;
+
+        /** 共享字符串表 */
+        private SSTRecord sst;
+
+        /** 当前BOF嵌套深度 */
+        private int depth;
+
+        /** 已经开始的顶层子流数（第一个是工作簿全局子流） */
+        private int substreams;
+
+        /** 当前子流的单元格处理器（不在目标工作表中时为null） */
+        private SheetCellHandler current;
+
+        SheetListener(String sheetName, SheetCellHandler handler) {
+            this.sheetName = sheetName;
+            this.handler = handler;
+        }
+
+        /**
+         * 获取目标工作表的实际名称
+         * 
+         * @return 工作表名称，如果没有找到目标工作表则返回null
+         */
+        String getTargetName() {
+            for (int i = 0; i < handlers.length; i++) {
+                if (handlers[i] != null) {
+                    return ordered[i].getSheetname();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 获取指定工作表的单元格处理器
+         * 
+         * @param bsr 工作表记录
+         * @return 单元格处理器，如果该工作表没有被读取则返回null
+         */
+        SheetCellHandler handlerOf(BoundSheetRecord bsr) {
+            for (int i = 0; i < ordered.length; i++) {
+                if (ordered[i] == bsr) {
+                    return handlers[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public short abortableProcessRecord(Record record) {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    depth++;
+                    if (depth == 1) {
+                        substreams++;
+                        // 第一个子流是工作簿全局子流，之后的顺序与BOF位置一致
+                        int index = substreams - 2;
+                        current = index >= 0 && index < handlers.length ? handlers[index] : null;
+                    }
+                    return CONTINUE;
+                case EOFRecord.sid:
+                    depth--;
+                    if (depth == 0) {
+                        if (substreams == 1) {
+                            return startSheets();
+                        }
+                        if (current != null) {
+                            return finishCurrent();
+                        }
+                    }
+                    return CONTINUE;
+                case BoundSheetRecord.sid:
+                    boundSheets.add((BoundSheetRecord) record);
+                    return CONTINUE;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    return CONTINUE;
+                default:
+                    break;
+            }
+
+            if (current == null || depth != 1) {
+                return CONTINUE;
+            }
+            return cellRecord(record);
+        }
+
+        /**
+         * 工作簿全局子流结束：确定需要读取的工作表子流
+         * 
+         * @return 如果不需要继续读取工作表子流则返回ABORT
+         */
+        private short startSheets() {
+            ordered = BoundSheetRecord.orderByBofPosition(boundSheets);
+            handlers = new SheetCellHandler[ordered.length];
+            for (int i = 0; i < ordered.length; i++) {
+                if (allSheets) {
+                    handlers[i] = contents ? new ContentCollector()
+                            : new StructureCollector(SheetReaderFactory.isProbeEnabled());
+                    pending++;
+                } else if (sheetName != null && ordered[i].getSheetname().equalsIgnoreCase(sheetName)) {
+                    handlers[i] = handler;
+                    pending++;
+                    break;
+                }
+            }
+            return pending > 0 ? CONTINUE : ABORT;
+        }
+
+        /**
+         * 当前目标工作表处理完毕
+         * 
+         * @return 如果所有目标工作表都已处理完毕则返回ABORT
+         */
+        private short finishCurrent() {
+            current = null;
+            pending--;
+            return pending > 0 ? CONTINUE : ABORT;
+        }
+
+        /**
+         * 处理目标工作表中的行和单元格记录
+         * 
+         * @param record BIFF记录
+         * @return 如果所有目标工作表都已收集到足够数据则返回ABORT
+         */
+        private short cellRecord(Record record) {
+            switch (record.getSid()) {
+                case DimensionsRecord.sid:
+                    current.dimension(((DimensionsRecord) record).getLastRow() - 1);
+                    return CONTINUE;
+                case RowRecord.sid:
+                    current.row(((RowRecord) record).getRowNumber());
+                    return CONTINUE;
+                case NumberRecord.sid: {
+                    NumberRecord r = (NumberRecord) record;
+                    emit(r.getRow(), r.getColumn(), CellType.NUMERIC, String.valueOf(r.getValue()));
+                    break;
+                }
+                case LabelSSTRecord.sid: {
+                    LabelSSTRecord r = (LabelSSTRecord) record;
+                    emit(r.getRow(), r.getColumn(), CellType.STRING,
+                            sst.getString(r.getSSTIndex()).getString());
+                    break;
+                }
+                case LabelRecord.sid: {
+                    LabelRecord r = (LabelRecord) record;
+                    emit(r.getRow(), r.getColumn(), CellType.STRING, r.getValue());
+                    break;
+                }
+                case BoolErrRecord.sid: {
+                    BoolErrRecord r = (BoolErrRecord) record;
+                    if (r.isBoolean()) {
+                        emit(r.getRow(), r.getColumn(), CellType.BOOLEAN,
+                                String.valueOf(r.getBooleanValue()));
+                    } else {
+                        emit(r.getRow(), r.getColumn(), CellType.ERROR, "");
+                    }
+                    break;
+                }
+                case FormulaRecord.sid: {
+                    FormulaRecord r = (FormulaRecord) record;
+                    emit(r.getRow(), r.getColumn(), CellType.FORMULA, "");
+                    break;
+                }
+                case BlankRecord.sid: {
+                    BlankRecord r = (BlankRecord) record;
+                    emit(r.getRow(), r.getColumn(), CellType.BLANK, "");
+                    break;
+                }
+                case MulBlankRecord.sid: {
+                    MulBlankRecord r = (MulBlankRecord) record;
+                    for (int col = r.getFirstColumn(); col <= r.getLastColumn(); col++) {
+                        emit(r.getRow(), col, CellType.BLANK, "");
+                    }
+                    break;
+                }
+                default:
+                    return CONTINUE;
+            }
+            return current.isDone() ? finishCurrent() : CONTINUE;
+        }
+
+        /**
+         * 通知当前处理器一个单元格（保证先通知所在的行）
+         */
+        private void emit(int row, int column, CellType type, String value) {
+            current.row(row);
+            current.cell(row, column, type, value);
+        }
+    }
+}
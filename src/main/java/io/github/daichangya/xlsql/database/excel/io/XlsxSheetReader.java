@@ -0,0 +1,428 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.database.excel.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.database.excel.ISheetReader;
+
+/**
+ * XlsxSheetReader - 基于XSSF事件模型的.xlsx流式读取器
+ * 
+ * <p>使用XSSFReader直接读取工作表XML，配合只读共享字符串表和SAX处理器，
+ * 把单元格值直接写入列数组，不创建XSSFWorkbook以及Row/Cell对象，
+ * 内存占用只与结果矩阵和共享字符串表相关。</p>
+ * 
+ * @author daichangya
+ */
+public class XlsxSheetReader implements ISheetReader {
+
+    /**
+     * 获取工作簿中的所有工作表名称
+     * 
+     * <p>只解析workbook.xml中的&lt;sheet&gt;元素，不打开任何工作表部件。</p>
+     */
+    @Override
+    public String[] getSheetNames(File file) throws xlDatabaseException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            final List<String> names = new ArrayList<>();
+            try (InputStream in = reader.getWorkbookData()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        String name = localName != null && !localName.isEmpty() ? localName : qName;
+                        if ("sheet".equals(name)) {
+                            names.add(attributes.getValue("name"));
+                        }
+                    }
+                });
+                parser.parse(new InputSource(in));
+            }
+            return names.toArray(new String[0]);
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new xlDatabaseException("XLSQL: -excel> ERR: " + e.getMessage());
+        } finally {
+            revertQuietly(pkg);
+        }
+    }
+
+    @Override
+    public SheetStructure readStructure(File file, String sheetName) throws xlDatabaseException {
+        StructureCollector collector = new StructureCollector(SheetReaderFactory.isProbeEnabled());
+        if (!parseSheet(file, sheetName, collector)) {
+            return null;
+        }
+        return collector.build(sheetName);
+    }
+
+    @Override
+    public List<SheetStructure> readStructures(File file) throws xlDatabaseException {
+        return readStructures(file, null);
+    }
+
+    @Override
+    public List<SheetStructure> readStructures(File file, Map<String, String[][]> values)
+            throws xlDatabaseException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            List<SheetStructure> structures = new ArrayList<>();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    String name = sheets.getSheetName();
+                    if (values == null) {
+                        StructureCollector collector = new StructureCollector(SheetReaderFactory.isProbeEnabled());
+                        parse(in, new SheetXmlHandler(strings, collector));
+                        structures.add(collector.build(name));
+                    } else {
+                        ContentCollector collector = new ContentCollector();
+                        parse(in, new SheetXmlHandler(strings, collector));
+                        SheetStructure structure = collector.build(name);
+                        structures.add(structure);
+                        values.put(name, collector.getValues(structure));
+                    }
+                }
+            }
+            return structures;
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException
+                | RuntimeException e) {
+            throw new xlDatabaseException("XLSQL: -excel> ERR: " + e.getMessage());
+        } finally {
+            revertQuietly(pkg);
+        }
+    }
+
+    @Override
+    public String[][] readValues(File file, String sheetName, int columnCount, int rowCount)
+            throws xlDatabaseException {
+        ValuesCollector collector = new ValuesCollector(columnCount, rowCount);
+        if (!parseSheet(file, sheetName, collector)) {
+            return null;
+        }
+        return collector.getValues();
+    }
+
+    /**
+     * 解析指定工作表并把单元格交给处理器
+     * 
+     * @param file Excel文件
+     * @param sheetName 工作表名称（不区分大小写）
+     * @param handler 单元格处理器
+     * @return 如果找到工作表则返回true
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    private boolean parseSheet(File file, String sheetName, SheetCellHandler handler)
+            throws xlDatabaseException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    if (sheets.getSheetName().equalsIgnoreCase(sheetName)) {
+                        ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+                        parse(in, new SheetXmlHandler(strings, handler));
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException
+                | RuntimeException e) {
+            throw new xlDatabaseException("XLSQL: -excel> ERR: " + e.getMessage());
+        } finally {
+            revertQuietly(pkg);
+        }
+    }
+
+    /**
+     * 关闭只读打开的包（只读包不能保存，使用revert释放文件句柄）
+     * 
+     * @param pkg OPC包（可以为null）
+     */
+    private static void revertQuietly(OPCPackage pkg) {
+        if (pkg != null) {
+            pkg.revert();
+        }
+    }
+
+    /**
+     * 使用SAX解析工作表XML
+     * 
+     * @param in 工作表XML输入流
+     * @param handler SAX处理器
+     * @throws IOException 如果读取失败则抛出异常
+     * @throws SAXException 如果XML解析失败则抛出异常
+     * @throws ParserConfigurationException 如果解析器创建失败则抛出异常
+     */
+    static void parse(InputStream in, SheetXmlHandler handler)
+            throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(handler);
+        try {
+            parser.parse(new InputSource(in));
+        } catch (StopParsingException e) {
+            // 处理器已收集到所需数据，提前结束解析
+        }
+    }
+
+    /**
+     * 将单元格引用（如"AB12"）的列部分转换为列索引
+     * 
+     * @param ref 单元格引用
+     * @return 列索引（从0开始），如果引用中没有列字母则返回-1
+     */
+    static int columnIndex(String ref) {
+        int col = 0;
+        int i = 0;
+        for (; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                col = col * 26 + (c - 'A' + 1);
+            } else if (c >= 'a' && c <= 'z') {
+                col = col * 26 + (c - 'a' + 1);
+            } else {
+                break;
+            }
+        }
+        return i == 0 ? -1 : col - 1;
+    }
+
+    /**
+     * 获取单元格引用（如"AB12"）中的行号
+     * 
+     * @param ref 单元格引用
+     * @return 行号（从1开始），如果引用中没有行号则返回-1
+     */
+    static int rowNumber(String ref) {
+        int i = 0;
+        while (i < ref.length() && Character.isLetter(ref.charAt(i))) {
+            i++;
+        }
+        try {
+            return Integer.parseInt(ref.substring(i));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 用于提前结束SAX解析的异常（不填充堆栈以减少开销）
+     */
+    static final class StopParsingException extends SAXException {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * SheetXmlHandler - 工作表XML的SAX处理器
+     * 
+     * <p>识别&lt;row&gt;、&lt;c&gt;、&lt;v&gt;、&lt;f&gt;和内联字符串&lt;is&gt;&lt;t&gt;元素，
+     * 按POI用户模型的单元格类型规则转换后回调SheetCellHandler。</p>
+     */
+    static class SheetXmlHandler extends DefaultHandler {
+
+        /** 共享字符串表 */
+        private final ReadOnlySharedStringsTable strings;
+
+        /** 单元格处理器 */
+        private final SheetCellHandler handler;
+
+        /** 当前值文本缓冲 */
+        private final StringBuilder text = new StringBuilder();
+
+        /** 当前行索引 */
+        private int rowIndex = -1;
+
+        /** 当前列索引 */
+        private int columnIndex = -1;
+
+        /** 当前单元格的t属性 */
+        private String cellType;
+
+        /** 当前单元格是否包含公式 */
+        private boolean hasFormula;
+
+        /** 当前单元格是否包含值 */
+        private boolean hasValue;
+
+        /** 是否正在收集文本 */
+        private boolean collecting;
+
+        /** 是否位于拼音（rPh）元素内 */
+        private boolean inPhonetic;
+
+        SheetXmlHandler(ReadOnlySharedStringsTable strings, SheetCellHandler handler) {
+            this.strings = strings;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes)
+                throws SAXException {
+            String name = localName != null && !localName.isEmpty() ? localName : qName;
+            switch (name) {
+                case "dimension": {
+                    String ref = attributes.getValue("ref");
+                    if (ref != null) {
+                        String last = ref.substring(ref.indexOf(':') + 1);
+                        int row = rowNumber(last);
+                        if (row > 0) {
+                            handler.dimension(row - 1);
+                        }
+                    }
+                    break;
+                }
+                case "row": {
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    columnIndex = -1;
+                    if (handler.isDone()) {
+                        throw new StopParsingException();
+                    }
+                    handler.row(rowIndex);
+                    break;
+                }
+                case "c": {
+                    String r = attributes.getValue("r");
+                    int col = r != null ? columnIndex(r) : -1;
+                    columnIndex = col >= 0 ? col : columnIndex + 1;
+                    cellType = attributes.getValue("t");
+                    hasFormula = false;
+                    hasValue = false;
+                    text.setLength(0);
+                    break;
+                }
+                case "f":
+                    hasFormula = true;
+                    break;
+                case "v":
+                    hasValue = true;
+                    collecting = true;
+                    text.setLength(0);
+                    break;
+                case "is":
+                    hasValue = true;
+                    text.setLength(0);
+                    break;
+                case "rPh":
+                    inPhonetic = true;
+                    break;
+                case "t":
+                    // 内联字符串（包括富文本的多个片段）
+                    collecting = !inPhonetic && "inlineStr".equals(cellType);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            String name = localName != null && !localName.isEmpty() ? localName : qName;
+            switch (name) {
+                case "v":
+                case "t":
+                    collecting = false;
+                    break;
+                case "rPh":
+                    inPhonetic = false;
+                    break;
+                case "c":
+                    endCell();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        /**
+         * 单元格结束：按POI用户模型的规则确定类型和值
+         */
+        private void endCell() {
+            CellType type;
+            String value = "";
+            if (hasFormula) {
+                type = CellType.FORMULA;
+            } else if (!hasValue || ((cellType == null || "n".equals(cellType)) && text.length() == 0)) {
+                type = CellType.BLANK;
+            } else if (cellType == null || "n".equals(cellType)) {
+                type = CellType.NUMERIC;
+                value = String.valueOf(Double.parseDouble(text.toString()));
+            } else if ("s".equals(cellType)) {
+                type = CellType.STRING;
+                value = strings.getItemAt(Integer.parseInt(text.toString().trim())).getString();
+            } else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+                type = CellType.STRING;
+                value = text.toString();
+            } else if ("b".equals(cellType)) {
+                type = CellType.BOOLEAN;
+                value = String.valueOf("1".equals(text.toString().trim()));
+            } else if ("e".equals(cellType)) {
+                type = CellType.ERROR;
+            } else {
+                // d（ISO日期）等其他类型按字符串处理
+                type = CellType.STRING;
+                value = text.toString();
+            }
+            handler.cell(rowIndex, columnIndex, type, value);
+        }
+    }
+}
@@ -43,6 +43,9 @@ import io.github.daichangya.xlsql.database.AFile;
 import io.github.daichangya.xlsql.database.FileType;
 import io.github.daichangya.xlsql.database.xlConstants;
 import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.database.excel.io.SheetReaderFactory;
+import io.github.daichangya.xlsql.database.excel.io.SheetSnapshot;
+import io.github.daichangya.xlsql.database.excel.io.SheetStructure;
 import io.github.daichangya.xlsql.database.sql.ASqlSelect;
 
 
@@ -70,6 +73,9 @@ public class xlSheet extends AFile {
     /** GMT时区，用于日期时间处理 */
     private static final TimeZone gmtZone = TimeZone.getTimeZone("GMT");
 
+    /** 挂载时使用的工作簿快照（没有快照时为null） */
+    private SheetSnapshot snapshot;
+
     /**
      * 创建xlSheet对象（读取文件）
      * 
@@ -84,6 +90,53 @@ public class xlSheet extends AFile {
         super(file, fileName, sheetName);
     }
 
+    /**
+     * 创建延迟读取的xlSheet对象
+     * 
+     * <p>只根据工作表名称注册工作表，标题验证、列类型推断和行数统计
+     * 在首次使用时执行。</p>
+     *
+     * @param file Excel文件对象
+     * @param fileName 工作簿名称（不含扩展名）
+     * @param sheetName Excel中的工作表名称
+     * @return 尚未读取的工作表对象
+     */
+    static xlSheet lazy(File file, String fileName, String sheetName) {
+        xlSheet sheet = new xlSheet(file, fileName, sheetName, false);
+        sheet.deferRead();
+        return sheet;
+    }
+
+    /**
+     * 创建xlSheet对象（使用已经读取的工作表结构）
+     * 
+     * <p>挂载工作簿时一次读取所有工作表的结构，再用该构造方法创建工作表对象，
+     * 不再为每个工作表重新打开文件。</p>
+     *
+     * @param file Excel文件对象
+     * @param fileName 工作簿名称（不含扩展名）
+     * @param structure 工作表结构
+     */
+    xlSheet(File file, String fileName, SheetStructure structure) {
+        this(file, fileName, structure, null);
+    }
+
+    /**
+     * 创建xlSheet对象（使用工作簿快照中的工作表结构）
+     * 
+     * <p>源文件没有变化时，数据直接从快照中读取。</p>
+     *
+     * @param file Excel文件对象
+     * @param fileName 工作簿名称（不含扩展名）
+     * @param structure 工作表结构
+     * @param snapshot 工作簿快照（可以为null）
+     */
+    xlSheet(File file, String fileName, SheetStructure structure, SheetSnapshot snapshot) {
+        super(file, fileName, structure.getSheetName(), false);
+        this.snapshot = snapshot;
+        validAsSqlTable = applyStructure(structure);
+    }
+
     /**
      * 创建xlSheet对象（不读取文件）
      * 
@@ -230,104 +283,168 @@ public class xlSheet extends AFile {
      *   <li>第一行必须是标题行，所有单元格必须是字符串类型</li>
      *   <li>列名不能重复（不区分大小写）</li>
      * </ul>
+     * 
+     * <p>优先使用流式读取器获取工作表结构，流式读取失败或被关闭时
+     * 回退到POI用户模型。</p>
      *
      * @return 如果文件有效则返回true，否则返回false
      * @throws xlDatabaseException 当读取Excel文件失败时抛出异常
      */
     protected boolean readFile() throws xlDatabaseException {
+        SheetStructure structure = null;
+        ISheetReader reader = SheetReaderFactory.create(getFileType());
+        if (reader != null) {
+            try {
+                structure = reader.readStructure(getFile(), getSheetName());
+            } catch (xlDatabaseException e) {
+                logger.warning("XLSQL: streaming read failed for " + getFile().getPath()
+                        + ", falling back to POI usermodel: " + e.getMessage());
+                structure = readStructureDom();
+            }
+        } else {
+            structure = readStructureDom();
+        }
+        return applyStructure(structure);
+    }
+
+    /**
+     * 使用POI用户模型读取工作表结构
+     * 
+     * @return 工作表结构，如果工作簿无法打开或工作表不存在则返回null
+     * @throws xlDatabaseException 当读取Excel文件失败时抛出异常
+     */
+    private SheetStructure readStructureDom() throws xlDatabaseException {
         Workbook wb = null;
         try {
             wb = openWorkbook();
             if (wb == null) {
-                return false;
+                return null;
             }
             
             Sheet sheet = wb.getSheet(getSheetName());
             if (sheet == null) {
-                return false;
+                return null;
             }
-            
-            boolean ret = true;
-            // 获取列数和行数
-            columnCount = sheet.getRow(0).getPhysicalNumberOfCells();
-            rowCount = sheet.getPhysicalNumberOfRows();
-
-            // 验证工作表：列数或行数为0的工作表无效
-            if (columnCount == 0 || rowCount == 0) {
-                ret = false;
-            } else {
-                // 检查标题行（第一行）
-                Row headerRow = sheet.getRow(0);
-                if (headerRow == null || headerRow.getPhysicalNumberOfCells() != columnCount) {
-                    ret = false;
+            return readStructure(sheet);
+        } finally {
+            IOUtils.closeQuietly(wb);
+        }
+    }
+
+    /**
+     * 从POI工作表中读取结构（标题行、第一数据行的单元格类型和物理行数）
+     * 
+     * @param sheet POI工作表
+     * @return 工作表结构
+     */
+    static SheetStructure readStructure(Sheet sheet) {
+        Row headerRow = sheet.getRow(0);
+        if (headerRow == null) {
+            return new SheetStructure(sheet.getSheetName(), sheet.getPhysicalNumberOfRows(), -1, null, null);
+        }
+        
+        int headerCellCount = headerRow.getPhysicalNumberOfCells();
+        String[] headerValues = new String[headerCellCount];
+        for (int i = 0; i < headerCellCount; i++) {
+            Cell cell = headerRow.getCell(i);
+            if (cell != null && cell.getCellType() == CellType.STRING) {
+                headerValues[i] = cell.getStringCellValue();
+            }
+        }
+        
+        // 从第二行（第一行数据）推断列类型
+        String[] firstRowTypes = null;
+        Row dataRow = sheet.getRow(1);
+        if (dataRow != null) {
+            firstRowTypes = new String[headerCellCount];
+            for (int j = 0; j < headerCellCount; j++) {
+                Cell cell = dataRow.getCell(j);
+                if (cell == null) {
+                    // 空单元格默认为VARCHAR类型
+                    firstRowTypes[j] = "VARCHAR";
                 } else {
-                    columnNames = new String[columnCount];
-                    String[] columnTypes = new String[columnCount];
-
-                    // 检查列名是否有效：所有单元格必须是字符串类型
-                    for (int i = 0; i < columnCount; i++) {
-                        Cell cell = headerRow.getCell(i);
-                        if (cell == null || cell.getCellType() != CellType.STRING) {
-                            ret = false;
+                    // 根据单元格类型推断SQL类型
+                    switch (cell.getCellType()) {
+                        case NUMERIC:
+                            firstRowTypes[j] = "DOUBLE";
+                            break;
+                        case BOOLEAN:
+                            firstRowTypes[j] = "BIT";
                             break;
-                        }
-                        columnNames[i] = cell.getStringCellValue();
+                        default:
+                            // 字符串及其他类型默认为VARCHAR
+                            firstRowTypes[j] = "VARCHAR";
                     }
+                }
+            }
+        }
+        return new SheetStructure(sheet.getSheetName(), sheet.getPhysicalNumberOfRows(),
+                headerCellCount, headerValues, firstRowTypes);
+    }
 
-                    // 检查列名是否重复（不区分大小写）
-                    if (ret) {
-                        HashMap<String, String> index = new HashMap<>();
-                        for (int n = 0; n < columnNames.length; n++) {
-                            String key = columnNames[n].toUpperCase();
-                            if (index.containsKey(key)) {
-                                // 发现重复列名
-                                ret = false;
-                                break;
-                            } else {
-                                index.put(key, columnNames[n]);
-                            }
-                        }
-                    }
+    /**
+     * 根据工作表结构设置列名、列类型和行数，并判断是否可以作为SQL表使用
+     * 
+     * @param structure 工作表结构（可以为null）
+     * @return 如果工作表有效则返回true
+     */
+    private boolean applyStructure(SheetStructure structure) {
+        if (structure == null) {
+            return false;
+        }
+
+        boolean ret = true;
+        // 获取列数和行数
+        columnCount = Math.max(structure.getHeaderCellCount(), 0);
+        rowCount = structure.getRowCount();
+
+        // 验证工作表：列数或行数为0的工作表无效
+        if (columnCount == 0 || rowCount == 0) {
+            ret = false;
+        } else {
+            columnNames = new String[columnCount];
+            String[] columnTypes = new String[columnCount];
 
-                    // 检查数据类型：从第二行（第一行数据）推断列类型
-                    if (ret && rowCount >= 1) {
-                        Row dataRow = sheet.getRow(1);
-                        for (int j = 0; j < columnCount; j++) {
-                            Cell cell = dataRow.getCell(j);
-                            if (cell == null) {
-                                // 空单元格默认为VARCHAR类型
-                                columnTypes[j] = "VARCHAR";
-                            } else {
-                                // 根据单元格类型推断SQL类型
-                                switch (cell.getCellType()) {
-                                    case NUMERIC:
-                                        columnTypes[j] = "DOUBLE";
-                                        break;
-                                    case STRING:
-                                        columnTypes[j] = "VARCHAR";
-                                        break;
-                                    case BOOLEAN:
-                                        columnTypes[j] = "BIT";
-                                        break;
-                                    default:
-                                        // 其他类型默认为VARCHAR
-                                        columnTypes[j] = "VARCHAR";
-                                }
-                            }
-                        }
+            // 检查列名是否有效：所有单元格必须是字符串类型
+            String[] headerValues = structure.getHeaderValues();
+            for (int i = 0; i < columnCount; i++) {
+                if (headerValues[i] == null) {
+                    ret = false;
+                    break;
+                }
+                columnNames[i] = headerValues[i];
+            }
+
+            // 检查列名是否重复（不区分大小写）
+            if (ret) {
+                HashMap<String, String> index = new HashMap<>();
+                for (int n = 0; n < columnNames.length; n++) {
+                    String key = columnNames[n].toUpperCase();
+                    if (index.containsKey(key)) {
+                        // 发现重复列名
+                        ret = false;
+                        break;
+                    } else {
+                        index.put(key, columnNames[n]);
                     }
-                    // 设置列类型数组
-                    this.setColumnTypes(columnTypes);
                 }
             }
 
-            if (!ret) {
-                logger.info(getFileName() + " 包含非 SQL 数据：已失效");
+            // 检查数据类型：使用第二行（第一行数据）推断的列类型
+            if (ret) {
+                String[] firstRowTypes = structure.getFirstRowTypes();
+                for (int j = 0; j < columnCount; j++) {
+                    columnTypes[j] = firstRowTypes != null ? firstRowTypes[j] : "VARCHAR";
+                }
             }
-            return ret;
-        } finally {
-            IOUtils.closeQuietly(wb);
+            // 设置列类型数组
+            this.setColumnTypes(columnTypes);
         }
+
+        if (!ret) {
+            logger.info(getFileName() + " 包含非 SQL 数据：已失效");
+        }
+        return ret;
     }
 
     /**
@@ -390,17 +507,45 @@ public class xlSheet extends AFile {
      * 将工作表作为字符串矩阵返回
      * 
      * <p>读取工作表的所有数据行（不包括标题行），返回二维字符串数组。
-     * 第一维是列，第二维是行。</p>
+     * 第一维是列，第二维是行。源文件没有变化时从挂载时的快照中读取；
+     * 否则优先使用流式读取器，流式读取失败或被关闭时回退到POI用户模型。</p>
      *
      * @return 二维数组形式的表格数据（String[列][行]）
      * @throws xlDatabaseException 如果读取失败则抛出异常
      * @throws IllegalArgumentException 如果工作表无效则抛出异常
      */
     public String[][] getValues() throws xlDatabaseException {
-        if (!validAsSqlTable) {
+        if (!isValid()) {
             throw new IllegalArgumentException(xlConstants.NOARGS);
         }
 
+        if (snapshot != null && snapshot.isCurrent()) {
+            String[][] ret = snapshot.readValues(getSheetName());
+            if (ret != null) {
+                return ret;
+            }
+        }
+
+        ISheetReader reader = SheetReaderFactory.create(getFileType());
+        if (reader != null) {
+            try {
+                String[][] ret = reader.readValues(getFile(), getSheetName(), columnCount, rowCount);
+                return ret != null ? ret : new String[][]{{""}};
+            } catch (xlDatabaseException e) {
+                logger.warning("XLSQL: streaming read failed for " + getFile().getPath()
+                        + ", falling back to POI usermodel: " + e.getMessage());
+            }
+        }
+        return getValuesDom();
+    }
+
+    /**
+     * 使用POI用户模型读取工作表数据
+     *
+     * @return 二维数组形式的表格数据（String[列][行]）
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    private String[][] getValuesDom() throws xlDatabaseException {
         // 使用withWorkbook确保资源正确管理
         return withWorkbook(wb -> {
             Sheet sheet = wb.getSheet(getSheetName());
@@ -408,41 +553,53 @@ public class xlSheet extends AFile {
                 return new String[][]{{""}};
             }
             
-            // 创建结果数组：列数 x (行数-1)，排除标题行
-            String[][] ret = new String[columnCount][rowCount - 1];
-
-            // 遍历所有数据行（从第二行开始）
-            for (int i = 0; i < (rowCount - 1); i++) {
-                Row row = sheet.getRow(i + 1); // i+1跳过标题行
-                if (row == null) {
-                    continue;
-                }
-                // 遍历所有列
-                for (int j = 0; j < columnCount; j++) {
-                    Cell cell = row.getCell(j);
-                    if (cell == null) {
-                        // 空单元格返回空字符串
-                        ret[j][i] = "";
-                    } else {
-                        // 根据单元格类型转换为字符串
-                        switch (cell.getCellType()) {
-                            case NUMERIC:
-                                ret[j][i] = String.valueOf(cell.getNumericCellValue());
-                                break;
-                            case STRING:
-                                ret[j][i] = cell.getStringCellValue();
-                                break;
-                            case BOOLEAN:
-                                ret[j][i] = String.valueOf(cell.getBooleanCellValue());
-                                break;
-                            default:
-                                // 其他类型返回空字符串
-                                ret[j][i] = "";
-                        }
+            return readValues(sheet, columnCount, rowCount);
+        });
+    }
+
+    /**
+     * 使用POI用户模型读取工作表数据（不包括标题行）
+     *
+     * @param sheet 工作表
+     * @param columnCount 列数
+     * @param rowCount 行数（包括标题行）
+     * @return 二维数组形式的表格数据（String[列][行]）
+     */
+    static String[][] readValues(Sheet sheet, int columnCount, int rowCount) {
+        // 创建结果数组：列数 x (行数-1)，排除标题行
+        String[][] ret = new String[columnCount][rowCount - 1];
+
+        // 遍历所有数据行（从第二行开始）
+        for (int i = 0; i < (rowCount - 1); i++) {
+            Row row = sheet.getRow(i + 1); // i+1跳过标题行
+            if (row == null) {
+                continue;
+            }
+            // 遍历所有列
+            for (int j = 0; j < columnCount; j++) {
+                Cell cell = row.getCell(j);
+                if (cell == null) {
+                    // 空单元格返回空字符串
+                    ret[j][i] = "";
+                } else {
+                    // 根据单元格类型转换为字符串
+                    switch (cell.getCellType()) {
+                        case NUMERIC:
+                            ret[j][i] = String.valueOf(cell.getNumericCellValue());
+                            break;
+                        case STRING:
+                            ret[j][i] = cell.getStringCellValue();
+                            break;
+                        case BOOLEAN:
+                            ret[j][i] = String.valueOf(cell.getBooleanCellValue());
+                            break;
+                        default:
+                            // 其他类型返回空字符串
+                            ret[j][i] = "";
                     }
                 }
             }
-            return ret;
-        });
+        }
+        return ret;
     }
 }
\ No newline at end of file
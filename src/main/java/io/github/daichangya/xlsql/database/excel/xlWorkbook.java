@@ -23,7 +23,11 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -31,10 +35,16 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import io.github.daichangya.xlsql.database.AFile;
 import io.github.daichangya.xlsql.database.ASubFolder;
 import io.github.daichangya.xlsql.database.FileType;
+import io.github.daichangya.xlsql.database.TableDataCache;
 import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.database.excel.io.SheetReaderFactory;
+import io.github.daichangya.xlsql.database.excel.io.SheetSnapshot;
+import io.github.daichangya.xlsql.database.excel.io.SheetStructure;
 import io.github.daichangya.xlsql.database.sql.ASqlSelect;
+import io.github.daichangya.xlsql.util.XlSqlConfig;
 
 
 /**
@@ -57,6 +67,9 @@ import io.github.daichangya.xlsql.database.sql.ASqlSelect;
  */
 public class xlWorkbook extends ASubFolder {
 
+    /** 系统属性键：是否延迟验证工作表（延迟挂载模式） */
+    public static final String PROP_LAZY = "xlsql.mount.lazy";
+
     /**
      * 创建xlWorkbook对象（读取文件）
      * 
@@ -91,42 +104,214 @@ public class xlWorkbook extends ASubFolder {
     /**
      * 读取工作簿中的所有工作表
      * 
-     * <p>根据文件类型（.xls或.xlsx）使用相应的POI类来读取工作簿，
-     * 然后遍历所有工作表并创建xlSheet对象。</p>
+     * <p>如果启用了快照且源文件没有变化，直接使用快照中的工作表结构，不解析工作簿。
+     * 在延迟挂载模式（-Dxlsql.mount.lazy=true）下只读取工作表名称列表，
+     * 每个工作表在首次使用时才验证。否则文件只打开一次：如果文件类型有流式读取器，
+     * 则一次读取所有工作表的结构，不构建POI用户模型；否则（或流式读取失败时）
+     * 根据文件类型（.xls或.xlsx）使用相应的POI类打开工作簿并读取所有工作表的结构。
+     * 然后根据这些结构创建xlSheet对象，不再为每个工作表重新打开文件。</p>
      * 
      * @throws xlDatabaseException 如果读取失败则抛出异常
      */
     @Override
     protected void readFiles() throws xlDatabaseException {
-        Workbook wb =  null;
-        try {
-            // 根据文件类型创建相应的Workbook对象
-            if (FileType.XLSX.equals(getFileType())) {
-                // Excel 2007+格式使用XSSFWorkbook
-                wb = new XSSFWorkbook(getWorkbookFile());
-            } else if (FileType.XLS.equals(getFileType())) {
-                // Excel 97-2003格式使用HSSFWorkbook
-                wb = new HSSFWorkbook(new FileInputStream(getWorkbookFile()));
-            } else {
-                logger.warning("XLSQL: Unsupported file format for: " + getWorkbookFile().getPath());
+        File cacheDir = SheetSnapshot.getCacheDir();
+        if (cacheDir != null) {
+            SheetSnapshot snapshot = SheetSnapshot.open(cacheDir, getWorkbookFile());
+            if (snapshot != null) {
+                addSheets(snapshot.getStructures(), snapshot);
                 return;
             }
+        }
+
+        if (XlSqlConfig.getBoolean(PROP_LAZY, false)) {
+            String[] names = readSheetNames();
+            if (names != null) {
+                addLazySheets(names);
+            }
+            return;
+        }
+
+        // 在读取之前记录文件状态，读取期间文件被修改时快照会自动失效
+        long length = getWorkbookFile().length();
+        long modified = getWorkbookFile().lastModified();
+        // 需要写入快照时在同一遍读取中收集数据
+        Map<String, String[][]> values = cacheDir != null ? new LinkedHashMap<>() : null;
+        List<SheetStructure> structures = readStructures(values);
+        if (structures == null) {
+            return;
+        }
+        addSheets(structures, null);
+        if (cacheDir != null) {
+            writeSnapshot(cacheDir, structures, values, length, modified);
+        }
+    }
+
+    /**
+     * 一次读取工作簿中所有工作表的结构
+     * 
+     * @param values 接收每个工作表的数据（工作表名 -> String[列][行]），为null时只读取结构
+     * @return 工作表结构列表，如果文件无法读取则返回null
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    private List<SheetStructure> readStructures(Map<String, String[][]> values) throws xlDatabaseException {
+        ISheetReader reader = SheetReaderFactory.create(getFileType());
+        if (reader != null) {
+            try {
+                return values != null
+                        ? reader.readStructures(getWorkbookFile(), values)
+                        : reader.readStructures(getWorkbookFile());
+            } catch (xlDatabaseException e) {
+                logger.warning("XLSQL: streaming read failed for " + getWorkbookFile().getPath()
+                        + ", falling back to POI usermodel: " + e.getMessage());
+            }
+        }
 
+        Workbook wb =  null;
+        try {
+            wb = openWorkbook();
+            if (wb == null) {
+                return null;
+            }
+            List<SheetStructure> structures = new ArrayList<>(wb.getNumberOfSheets());
             for (int i = 0; i < wb.getNumberOfSheets(); i++) {
-                String name = wb.getSheetName(i);
-                xlSheet obj = new xlSheet(getFile(), getSubFolderName(), name);
-                addFile(name.toUpperCase(), obj);
-                if (obj.isValid()) {
-                    addValidFile(name.toUpperCase(), obj);
+                SheetStructure structure = xlSheet.readStructure(wb.getSheetAt(i));
+                structures.add(structure);
+                if (values != null && structure.getHeaderCellCount() > 0 && structure.getRowCount() > 0) {
+                    values.put(structure.getSheetName(), xlSheet.readValues(wb.getSheetAt(i),
+                            structure.getHeaderCellCount(), structure.getRowCount()));
                 }
             }
+            return structures;
         } catch (IOException | InvalidFormatException e) {
             logger.warning("XLSQL: ERR on:" + getWorkbookFile().getPath() + " , NOT mounted.");
+            return null;
         }finally {
             IOUtils.closeQuietly(wb);
         }
     }
 
+    /**
+     * 读取工作簿中的所有工作表名称
+     * 
+     * @return 工作表名称数组，如果文件无法读取则返回null
+     * @throws xlDatabaseException 如果读取失败则抛出异常
+     */
+    private String[] readSheetNames() throws xlDatabaseException {
+        ISheetReader reader = SheetReaderFactory.create(getFileType());
+        if (reader != null) {
+            try {
+                return reader.getSheetNames(getWorkbookFile());
+            } catch (xlDatabaseException e) {
+                logger.warning("XLSQL: streaming read failed for " + getWorkbookFile().getPath()
+                        + ", falling back to POI usermodel: " + e.getMessage());
+            }
+        }
+
+        Workbook wb =  null;
+        try {
+            wb = openWorkbook();
+            if (wb == null) {
+                return null;
+            }
+            String[] names = new String[wb.getNumberOfSheets()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = wb.getSheetName(i);
+            }
+            return names;
+        } catch (IOException | InvalidFormatException e) {
+            logger.warning("XLSQL: ERR on:" + getWorkbookFile().getPath() + " , NOT mounted.");
+            return null;
+        }finally {
+            IOUtils.closeQuietly(wb);
+        }
+    }
+
+    /**
+     * 使用POI用户模型打开工作簿
+     * 
+     * @return 工作簿对象，如果文件格式不支持则返回null
+     * @throws IOException 如果读取失败则抛出异常
+     * @throws InvalidFormatException 如果文件格式无效则抛出异常
+     */
+    private Workbook openWorkbook() throws IOException, InvalidFormatException {
+        // 根据文件类型创建相应的Workbook对象
+        if (FileType.XLSX.equals(getFileType())) {
+            // Excel 2007+格式使用XSSFWorkbook
+            return new XSSFWorkbook(getWorkbookFile());
+        } else if (FileType.XLS.equals(getFileType())) {
+            // Excel 97-2003格式使用HSSFWorkbook
+            try (FileInputStream in = new FileInputStream(getWorkbookFile())) {
+                return new HSSFWorkbook(in);
+            }
+        } else {
+            logger.warning("XLSQL: Unsupported file format for: " + getWorkbookFile().getPath());
+            return null;
+        }
+    }
+
+    /**
+     * 注册延迟读取的工作表
+     * 
+     * <p>工作表是否有效要到首次使用时才能确定，因此先全部登记为有效文件，
+     * 使用方通过isValid()触发验证并过滤。</p>
+     * 
+     * @param names 工作表名称数组
+     */
+    private void addLazySheets(String[] names) {
+        for (String name : names) {
+            xlSheet obj = xlSheet.lazy(getFile(), getSubFolderName(), name);
+            addFile(name.toUpperCase(), obj);
+            addValidFile(name.toUpperCase(), obj);
+        }
+    }
+
+    /**
+     * 根据工作表结构创建xlSheet对象并注册
+     * 
+     * @param structures 工作表结构列表
+     * @param snapshot 工作簿快照（可以为null）
+     */
+    private void addSheets(List<SheetStructure> structures, SheetSnapshot snapshot) {
+        for (SheetStructure structure : structures) {
+            String name = structure.getSheetName();
+            xlSheet obj = new xlSheet(getFile(), getSubFolderName(), structure, snapshot);
+            addFile(name.toUpperCase(), obj);
+            if (obj.isValid()) {
+                addValidFile(name.toUpperCase(), obj);
+            }
+        }
+    }
+
+    /**
+     * 把所有工作表的结构和有效工作表的数据写入快照
+     * 
+     * <p>快照只是加速下次挂载，写入失败只记录日志，不影响本次挂载。</p>
+     * 
+     * @param cacheDir 快照目录
+     * @param structures 工作表结构列表
+     * @param values 挂载时读取的工作表数据（工作表名 -> String[列][行]）
+     * @param length 读取前文件的大小
+     * @param modified 读取前文件的修改时间
+     */
+    private void writeSnapshot(File cacheDir, List<SheetStructure> structures, Map<String, String[][]> values,
+                               long length, long modified) {
+        try {
+            Map<String, String[][]> valid = new LinkedHashMap<>();
+            for (SheetStructure structure : structures) {
+                AFile doc = getFiles().get(structure.getSheetName().toUpperCase());
+                String[][] matrix = values.get(structure.getSheetName());
+                if (doc != null && doc.isValid() && matrix != null) {
+                    valid.put(structure.getSheetName(), matrix);
+                }
+            }
+            SheetSnapshot.write(cacheDir, getWorkbookFile(), length, modified, structures, valid);
+        } catch (RuntimeException e) {
+            logger.warning("XLSQL: unable to write snapshot for " + getWorkbookFile().getPath()
+                    + ": " + e.getMessage());
+        }
+    }
+
 
     /**
      * 关闭工作簿并保存更改
@@ -156,12 +341,14 @@ public class xlWorkbook extends ASubFolder {
                 try (FileOutputStream out = new FileOutputStream(getWorkbookFile())) {
                     wb.write(out);
                 }
+                TableDataCache.getShared().invalidate(getWorkbookFile());
                 logger.info(getWorkbookFile().getPath() + " created/updated.");
             } catch (IOException e) {
                 logger.severe(getWorkbookFile().getPath() + " NOT created/updated. " + e.getMessage());
             }
         } else if (bDirty[DELETE]) {
             // 如果需要删除，删除工作簿文件
+            TableDataCache.getShared().invalidate(getWorkbookFile());
             if (getWorkbookFile().delete()) {
                 logger.info(getWorkbookFile().getPath() + " deleted.");
             } else {
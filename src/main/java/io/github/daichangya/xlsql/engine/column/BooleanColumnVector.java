@@ -0,0 +1,64 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+import java.util.BitSet;
+
+/**
+ * BooleanColumnVector - 布尔列向量
+ * 
+ * @author daichangya
+ */
+public final class BooleanColumnVector extends PrimitiveColumnVector {
+    
+    /** 值位图（true的行置位） */
+    private final BitSet values;
+    
+    BooleanColumnVector(int size, BitSet values, BitSet nulls, BitSet blanks) {
+        super(size, nulls, blanks);
+        this.values = values;
+    }
+    
+    @Override
+    public VectorType getType() {
+        return VectorType.BOOLEAN;
+    }
+    
+    @Override
+    public boolean getBoolean(int row) {
+        return values.get(row);
+    }
+    
+    @Override
+    public ColumnVector gather(int[] rows) {
+        BitSet result = new BitSet();
+        for (int i = 0; i < rows.length; i++) {
+            if (hasValue(rows[i]) && values.get(rows[i])) {
+                result.set(i);
+            }
+        }
+        return new BooleanColumnVector(rows.length, result, gatherNulls(rows), gatherBlanks(rows));
+    }
+    
+    @Override
+    protected String format(int row) {
+        return values.get(row) ? "true" : "false";
+    }
+}
@@ -0,0 +1,203 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+/**
+ * ColumnVector - 列向量
+ * 
+ * <p>以列为单位存储表数据。数值列存储为基本类型数组，布尔列存储为位图，
+ * 只有文本列保留String。每个单元格有三种“缺值”状态需要区分：</p>
+ * <ul>
+ *   <li>NULL - 行不存在（原始数据中的null）</li>
+ *   <li>空白 - 单元格为空字符串（公式、空白、错误单元格）</li>
+ *   <li>有值 - 存储在类型化数组中</li>
+ * </ul>
+ * 
+ * <p>{@link #getString(int)}始终返回与原始字符串完全相同的值，
+ * 因此按行处理的执行器可以透明地使用列向量。列向量是只读的，
+ * 可以在多个查询之间共享。</p>
+ * 
+ * @author daichangya
+ */
+public abstract class ColumnVector {
+    
+    /**
+     * 获取存储类型
+     * 
+     * @return 存储类型
+     */
+    public abstract VectorType getType();
+    
+    /**
+     * 获取向量长度
+     * 
+     * @return 行数
+     */
+    public abstract int size();
+    
+    /**
+     * 判断指定行是否为NULL
+     * 
+     * @param row 行索引（从0开始），超出范围视为NULL
+     * @return 如果为NULL返回true
+     */
+    public abstract boolean isNull(int row);
+    
+    /**
+     * 判断指定行是否为空字符串
+     * 
+     * @param row 行索引（从0开始）
+     * @return 如果为空字符串返回true
+     */
+    public abstract boolean isBlank(int row);
+    
+    /**
+     * 判断向量中是否包含空字符串
+     * 
+     * @return 如果存在空字符串返回true
+     */
+    public abstract boolean hasBlanks();
+    
+    /**
+     * 获取指定行的字符串形式（与原始数据一致）
+     * 
+     * @param row 行索引（从0开始）
+     * @return 字符串值，NULL返回null
+     */
+    public abstract String getString(int row);
+    
+    /**
+     * 判断指定行是否存放了类型化的值（既不是NULL也不是空字符串）
+     * 
+     * @param row 行索引（从0开始）
+     * @return 如果有值返回true
+     */
+    public boolean hasValue(int row) {
+        return !isNull(row) && !isBlank(row);
+    }
+    
+    /**
+     * 是否为数值向量（LONG或DOUBLE）
+     * 
+     * @return 如果是数值向量返回true
+     */
+    public boolean isNumeric() {
+        VectorType type = getType();
+        return type == VectorType.LONG || type == VectorType.DOUBLE;
+    }
+    
+    /**
+     * 获取long值（仅LONG向量支持）
+     * 
+     * @param row 行索引，调用前应通过{@link #hasValue(int)}检查
+     * @return long值
+     */
+    public long getLong(int row) {
+        throw new UnsupportedOperationException(getType() + " vector has no long values");
+    }
+    
+    /**
+     * 获取double值（仅数值向量支持）
+     * 
+     * @param row 行索引，调用前应通过{@link #hasValue(int)}检查
+     * @return double值
+     */
+    public double getDouble(int row) {
+        throw new UnsupportedOperationException(getType() + " vector has no double values");
+    }
+    
+    /**
+     * 获取boolean值（仅BOOLEAN向量支持）
+     * 
+     * @param row 行索引，调用前应通过{@link #hasValue(int)}检查
+     * @return boolean值
+     */
+    public boolean getBoolean(int row) {
+        throw new UnsupportedOperationException(getType() + " vector has no boolean values");
+    }
+    
+    /**
+     * 批量读取long值（仅LONG向量支持）
+     * 
+     * <p>向量化执行以批为单位把选中行的值读入基本类型数组，再在数组上做紧凑的循环。</p>
+     * 
+     * @param rows 行索引数组
+     * @param offset 在rows中的起始位置
+     * @param count 读取的行数
+     * @param target 目标数组，第i个元素对应rows[offset + i]行；没有值的行（NULL或空字符串）为0
+     */
+    public void getLongs(int[] rows, int offset, int count, long[] target) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[offset + i];
+            target[i] = hasValue(row) ? getLong(row) : 0L;
+        }
+    }
+    
+    /**
+     * 批量读取double值（仅数值向量支持）
+     * 
+     * @param rows 行索引数组
+     * @param offset 在rows中的起始位置
+     * @param count 读取的行数
+     * @param target 目标数组，第i个元素对应rows[offset + i]行；没有值的行（NULL或空字符串）为0
+     * @see #getLongs(int[], int, int, long[])
+     */
+    public void getDoubles(int[] rows, int offset, int count, double[] target) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[offset + i];
+            target[i] = hasValue(row) ? getDouble(row) : 0.0;
+        }
+    }
+    
+    /**
+     * 批量读取NULL标记
+     * 
+     * @param rows 行索引数组
+     * @param offset 在rows中的起始位置
+     * @param count 读取的行数
+     * @param target 目标数组，第i个元素表示rows[offset + i]行是否为NULL
+     */
+    public void getNulls(int[] rows, int offset, int count, boolean[] target) {
+        for (int i = 0; i < count; i++) {
+            target[i] = isNull(rows[offset + i]);
+        }
+    }
+    
+    /**
+     * 按行索引抽取子向量
+     * 
+     * @param rows 行索引数组（可以重复、无序；超出范围的行视为NULL）
+     * @return 新的列向量，第i行对应原向量的rows[i]行
+     */
+    public abstract ColumnVector gather(int[] rows);
+    
+    /**
+     * 将向量还原为字符串数组
+     * 
+     * @return 新分配的字符串数组
+     */
+    public String[] toStrings() {
+        String[] result = new String[size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = getString(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,364 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * ColumnVectors - 列向量工厂
+ * 
+ * <p>把读取器返回的字符串矩阵编码为类型化的列向量。存储类型按值推断：
+ * 只有当一列中所有非空值都能无损地还原为原始字符串时，才使用基本类型存储，
+ * 否则保留为文本。这样编码前后{@link ColumnVector#getString(int)}的结果完全一致。</p>
+ * 
+ * <p>低基数的文本列使用字典编码（见{@link DictionaryColumnVector}）。</p>
+ * 
+ * <p>读取器的结果由{@code TableDataCache}编码并缓存；
+ * 其他来源的矩阵以原始矩阵为弱键缓存编码结果，矩阵不再被引用后编码结果随之释放。</p>
+ * 
+ * @author daichangya
+ */
+public final class ColumnVectors {
+    
+    /** 最长的long候选数字位数（超过可能溢出，按文本处理） */
+    private static final int MAX_LONG_DIGITS = 18;
+    
+    /** 字典最大容量（超过则按普通文本存储） */
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+    
+    /** 已编码矩阵缓存（按数组身份比较） */
+    private static final Map<String[][], ColumnVector[]> ENCODED =
+            Collections.synchronizedMap(new WeakHashMap<String[][], ColumnVector[]>());
+    
+    private ColumnVectors() {
+    }
+    
+    /**
+     * 编码列优先的字符串矩阵
+     * 
+     * <p>同一个矩阵只编码一次，返回的数组在调用方之间共享，不能修改。</p>
+     * 
+     * @param data 数据值矩阵（String[列][行]）
+     * @return 列向量数组，data为null时返回空数组
+     */
+    public static ColumnVector[] encodeAll(String[][] data) {
+        if (data == null) {
+            return new ColumnVector[0];
+        }
+        int[] all = new int[data.length];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i;
+        }
+        encodeColumns(data, all);
+        return ENCODED.get(data);
+    }
+    
+    /**
+     * 只编码矩阵中的指定列
+     * 
+     * <p>每列在第一次被请求时编码，之后按矩阵缓存；未被任何查询引用的列不会被编码。</p>
+     * 
+     * @param data 数据值矩阵（String[列][行]）
+     * @param columnIndexes 要编码的列下标
+     * @return 与columnIndexes一一对应的列向量，下标超出矩阵范围时对应元素为null
+     */
+    public static ColumnVector[] encodeColumns(String[][] data, int[] columnIndexes) {
+        ColumnVector[] result = new ColumnVector[columnIndexes.length];
+        if (data == null) {
+            return result;
+        }
+        ColumnVector[] cached;
+        synchronized (ENCODED) {
+            cached = ENCODED.get(data);
+            if (cached == null) {
+                cached = new ColumnVector[data.length];
+                ENCODED.put(data, cached);
+            }
+        }
+        for (int i = 0; i < columnIndexes.length; i++) {
+            int column = columnIndexes[i];
+            if (column < 0 || column >= data.length) {
+                continue;
+            }
+            ColumnVector vector;
+            synchronized (cached) {
+                vector = cached[column];
+            }
+            if (vector == null) {
+                vector = encode(data[column]);
+                synchronized (cached) {
+                    if (cached[column] == null) {
+                        cached[column] = vector;
+                    } else {
+                        vector = cached[column];
+                    }
+                }
+            }
+            result[i] = vector;
+        }
+        return result;
+    }
+    
+    /**
+     * 编码单列
+     * 
+     * @param values 列值
+     * @return 列向量
+     */
+    public static ColumnVector encode(String[] values) {
+        if (values == null) {
+            return new StringColumnVector(new String[0]);
+        }
+        switch (detect(values)) {
+            case LONG:
+                return encodeLongs(values);
+            case DOUBLE:
+                return encodeDoubles(values);
+            case BOOLEAN:
+                return encodeBooleans(values);
+            default:
+                return encodeStrings(values);
+        }
+    }
+    
+    /**
+     * 把字符串矩阵包装为文本列向量（不做类型推断）
+     * 
+     * @param data 数据值矩阵（String[列][行]）
+     * @return 列向量数组
+     */
+    public static ColumnVector[] wrap(String[][] data) {
+        if (data == null) {
+            return new ColumnVector[0];
+        }
+        ColumnVector[] columns = new ColumnVector[data.length];
+        for (int i = 0; i < data.length; i++) {
+            columns[i] = new StringColumnVector(data[i]);
+        }
+        return columns;
+    }
+    
+    /**
+     * 推断一列的存储类型
+     */
+    static VectorType detect(String[] values) {
+        VectorType type = null;
+        for (String value : values) {
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (type == null) {
+                type = classify(value);
+                if (type == VectorType.STRING) {
+                    return type;
+                }
+            } else if (!matches(type, value)) {
+                return VectorType.STRING;
+            }
+        }
+        return type != null ? type : VectorType.STRING;
+    }
+    
+    private static VectorType classify(String value) {
+        if (isBooleanText(value)) {
+            return VectorType.BOOLEAN;
+        }
+        if (isLongText(value)) {
+            return VectorType.LONG;
+        }
+        if (isDoubleText(value)) {
+            return VectorType.DOUBLE;
+        }
+        return VectorType.STRING;
+    }
+    
+    private static boolean matches(VectorType type, String value) {
+        switch (type) {
+            case BOOLEAN:
+                return isBooleanText(value);
+            case LONG:
+                return isLongText(value);
+            case DOUBLE:
+                return isDoubleText(value);
+            default:
+                return true;
+        }
+    }
+    
+    private static boolean isBooleanText(String value) {
+        return "true".equals(value) || "false".equals(value);
+    }
+    
+    /**
+     * 是否为规范的整数文本（无前导零、无“-0”，能原样还原）
+     */
+    static boolean isLongText(String value) {
+        int start = value.charAt(0) == '-' ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits < 1 || digits > MAX_LONG_DIGITS) {
+            return false;
+        }
+        if (value.charAt(start) == '0' && (digits > 1 || start == 1)) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 是否为{@link Double#toString(double)}产生的规范浮点文本
+     */
+    static boolean isDoubleText(String value) {
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int n = value.length();
+        int intStart = i;
+        while (i < n && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == intStart || i >= n || value.charAt(i) != '.') {
+            return false;
+        }
+        int fracStart = ++i;
+        while (i < n && isDigit(value.charAt(i))) {
+            i++;
+        }
+        if (i == fracStart) {
+            return false;
+        }
+        if (i < n) {
+            if (value.charAt(i) != 'E') {
+                return false;
+            }
+            i++;
+            if (i < n && value.charAt(i) == '-') {
+                i++;
+            }
+            int expStart = i;
+            while (i < n && isDigit(value.charAt(i))) {
+                i++;
+            }
+            if (i == expStart || i != n) {
+                return false;
+            }
+        }
+        return Double.toString(Double.parseDouble(value)).equals(value);
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static LongColumnVector encodeLongs(String[] values) {
+        long[] longs = new long[values.length];
+        BitSet nulls = new BitSet();
+        BitSet blanks = new BitSet();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (value == null) {
+                nulls.set(i);
+            } else if (value.isEmpty()) {
+                blanks.set(i);
+            } else {
+                longs[i] = Long.parseLong(value);
+            }
+        }
+        return new LongColumnVector(longs, nulls, blanks);
+    }
+    
+    private static DoubleColumnVector encodeDoubles(String[] values) {
+        double[] doubles = new double[values.length];
+        BitSet nulls = new BitSet();
+        BitSet blanks = new BitSet();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (value == null) {
+                nulls.set(i);
+            } else if (value.isEmpty()) {
+                blanks.set(i);
+            } else {
+                doubles[i] = Double.parseDouble(value);
+            }
+        }
+        return new DoubleColumnVector(doubles, nulls, blanks);
+    }
+    
+    /**
+     * 编码文本列：不同值不超过行数一半时使用字典编码
+     * 
+     * <p>输入数组可能被其他读者共享，这里只读取不修改。
+     * 原数组不再被引用后，重复的String对象随之释放，只保留字典中的实例。</p>
+     */
+    private static ColumnVector encodeStrings(String[] values) {
+        int limit = Math.min(values.length / 2, MAX_DICTIONARY_SIZE);
+        Map<String, Integer> codesByValue = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (value == null) {
+                codes[i] = DictionaryColumnVector.NULL_CODE;
+                continue;
+            }
+            Integer code = codesByValue.get(value);
+            if (code == null) {
+                if (dictionary.size() >= limit) {
+                    return new StringColumnVector(values);
+                }
+                code = dictionary.size();
+                codesByValue.put(value, code);
+                dictionary.add(value);
+            }
+            codes[i] = code;
+        }
+        if (dictionary.isEmpty()) {
+            return new StringColumnVector(values);
+        }
+        
+        return new DictionaryColumnVector(codes, dictionary.toArray(new String[0]));
+    }
+    
+    private static BooleanColumnVector encodeBooleans(String[] values) {
+        BitSet bits = new BitSet();
+        BitSet nulls = new BitSet();
+        BitSet blanks = new BitSet();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i];
+            if (value == null) {
+                nulls.set(i);
+            } else if (value.isEmpty()) {
+                blanks.set(i);
+            } else if ("true".equals(value)) {
+                bits.set(i);
+            }
+        }
+        return new BooleanColumnVector(values.length, bits, nulls, blanks);
+    }
+}
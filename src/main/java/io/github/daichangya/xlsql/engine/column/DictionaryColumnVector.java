@@ -0,0 +1,142 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+/**
+ * DictionaryColumnVector - 字典编码的文本列向量
+ * 
+ * <p>低基数文本列（地区、状态、产品编码等）按“编码数组 + 字典”存储：
+ * 每行只保存一个int编码，相同的字符串在字典中只出现一次。
+ * 等值比较、IN和GROUP BY可以直接比较编码，不需要逐行比较或哈希字符串。</p>
+ * 
+ * @author daichangya
+ */
+public final class DictionaryColumnVector extends ColumnVector {
+    
+    /** NULL的编码 */
+    public static final int NULL_CODE = -1;
+    
+    /** 每行的编码 */
+    private final int[] codes;
+    
+    /** 字典（编码 -> 字符串） */
+    private final String[] dictionary;
+    
+    /** 空字符串的编码，不存在时为NULL_CODE */
+    private final int blankCode;
+    
+    DictionaryColumnVector(int[] codes, String[] dictionary) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+        this.blankCode = lookup("");
+    }
+    
+    @Override
+    public VectorType getType() {
+        return VectorType.STRING;
+    }
+    
+    @Override
+    public int size() {
+        return codes.length;
+    }
+    
+    @Override
+    public boolean isNull(int row) {
+        return getCode(row) == NULL_CODE;
+    }
+    
+    @Override
+    public boolean isBlank(int row) {
+        return blankCode != NULL_CODE && getCode(row) == blankCode;
+    }
+    
+    @Override
+    public boolean hasBlanks() {
+        return blankCode != NULL_CODE;
+    }
+    
+    @Override
+    public String getString(int row) {
+        int code = getCode(row);
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+    
+    /**
+     * 按行索引抽取子向量（共享字典）
+     */
+    @Override
+    public ColumnVector gather(int[] rows) {
+        int[] result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = getCode(rows[i]);
+        }
+        return new DictionaryColumnVector(result, dictionary);
+    }
+    
+    /**
+     * 获取指定行的编码
+     * 
+     * @param row 行索引（从0开始），超出范围视为NULL
+     * @return 编码，NULL返回{@link #NULL_CODE}
+     */
+    public int getCode(int row) {
+        return row < 0 || row >= codes.length ? NULL_CODE : codes[row];
+    }
+    
+    /**
+     * 获取字典大小
+     * 
+     * @return 不同值的个数（不含NULL）
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+    
+    /**
+     * 获取编码对应的字符串
+     * 
+     * @param code 编码
+     * @return 字符串值
+     */
+    public String getDictionaryValue(int code) {
+        return dictionary[code];
+    }
+    
+    /**
+     * 查找字符串的编码
+     * 
+     * <p>线性查找字典，每个查询的每个字面量只需要调用一次。</p>
+     * 
+     * @param value 字符串值
+     * @return 编码，如果字典中不存在（或value为null）返回{@link #NULL_CODE}
+     */
+    public int lookup(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return NULL_CODE;
+    }
+}
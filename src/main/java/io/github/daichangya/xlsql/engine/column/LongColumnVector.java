@@ -0,0 +1,78 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+import java.util.BitSet;
+
+/**
+ * LongColumnVector - 整数列向量
+ * 
+ * @author daichangya
+ */
+public final class LongColumnVector extends PrimitiveColumnVector {
+    
+    /** 值数组（没有值的行为0） */
+    private final long[] values;
+    
+    LongColumnVector(long[] values, BitSet nulls, BitSet blanks) {
+        super(values.length, nulls, blanks);
+        this.values = values;
+    }
+    
+    @Override
+    public VectorType getType() {
+        return VectorType.LONG;
+    }
+    
+    @Override
+    public long getLong(int row) {
+        return values[row];
+    }
+    
+    @Override
+    public double getDouble(int row) {
+        return values[row];
+    }
+    
+    @Override
+    public void getLongs(int[] rows, int offset, int count, long[] target) {
+        // NULL和空字符串行在值数组中为0，无需逐行检查位图
+        for (int i = 0; i < count; i++) {
+            int row = rows[offset + i];
+            target[i] = row >= 0 && row < size ? values[row] : 0L;
+        }
+    }
+    
+    @Override
+    public ColumnVector gather(int[] rows) {
+        long[] result = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            if (hasValue(rows[i])) {
+                result[i] = values[rows[i]];
+            }
+        }
+        return new LongColumnVector(result, gatherNulls(rows), gatherBlanks(rows));
+    }
+    
+    @Override
+    protected String format(int row) {
+        return Long.toString(values[row]);
+    }
+}
@@ -0,0 +1,112 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+import java.util.BitSet;
+
+/**
+ * PrimitiveColumnVector - 基本类型列向量的公共部分
+ * 
+ * <p>用两个位图分别记录NULL和空字符串，值本身由子类存储在基本类型数组中。</p>
+ * 
+ * @author daichangya
+ */
+abstract class PrimitiveColumnVector extends ColumnVector {
+    
+    /** 行数 */
+    protected final int size;
+    
+    /** NULL位图 */
+    private final BitSet nulls;
+    
+    /** 空字符串位图 */
+    private final BitSet blanks;
+    
+    PrimitiveColumnVector(int size, BitSet nulls, BitSet blanks) {
+        this.size = size;
+        this.nulls = nulls;
+        this.blanks = blanks;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isNull(int row) {
+        return row < 0 || row >= size || nulls.get(row);
+    }
+    
+    @Override
+    public boolean isBlank(int row) {
+        return row >= 0 && row < size && blanks.get(row);
+    }
+    
+    @Override
+    public boolean hasBlanks() {
+        return !blanks.isEmpty();
+    }
+    
+    @Override
+    public String getString(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        if (blanks.get(row)) {
+            return "";
+        }
+        return format(row);
+    }
+    
+    /**
+     * 按行索引抽取NULL位图（超出范围的行视为NULL）
+     */
+    protected BitSet gatherNulls(int[] rows) {
+        BitSet result = new BitSet();
+        for (int i = 0; i < rows.length; i++) {
+            if (isNull(rows[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 按行索引抽取空字符串位图
+     */
+    protected BitSet gatherBlanks(int[] rows) {
+        BitSet result = new BitSet();
+        for (int i = 0; i < rows.length; i++) {
+            if (isBlank(rows[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 将有值的行格式化为字符串
+     * 
+     * @param row 行索引
+     * @return 字符串形式
+     */
+    protected abstract String format(int row);
+}
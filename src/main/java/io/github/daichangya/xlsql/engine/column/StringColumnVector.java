@@ -0,0 +1,97 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+/**
+ * StringColumnVector - 文本列向量
+ * 
+ * <p>直接包装字符串数组，不复制数据。</p>
+ * 
+ * @author daichangya
+ */
+public final class StringColumnVector extends ColumnVector {
+    
+    /** 值数组 */
+    private final String[] values;
+    
+    /** 是否包含空字符串 */
+    private final boolean blanks;
+    
+    /**
+     * 创建StringColumnVector实例
+     * 
+     * @param values 字符串数组（不会被复制，调用方不应再修改）
+     */
+    public StringColumnVector(String[] values) {
+        this.values = values != null ? values : new String[0];
+        boolean found = false;
+        for (String value : this.values) {
+            if (value != null && value.isEmpty()) {
+                found = true;
+                break;
+            }
+        }
+        this.blanks = found;
+    }
+    
+    @Override
+    public VectorType getType() {
+        return VectorType.STRING;
+    }
+    
+    @Override
+    public int size() {
+        return values.length;
+    }
+    
+    @Override
+    public boolean isNull(int row) {
+        return row < 0 || row >= values.length || values[row] == null;
+    }
+    
+    @Override
+    public boolean isBlank(int row) {
+        return !isNull(row) && values[row].isEmpty();
+    }
+    
+    @Override
+    public boolean hasBlanks() {
+        return blanks;
+    }
+    
+    @Override
+    public String getString(int row) {
+        return row < 0 || row >= values.length ? null : values[row];
+    }
+    
+    @Override
+    public ColumnVector gather(int[] rows) {
+        String[] result = new String[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = getString(rows[i]);
+        }
+        return new StringColumnVector(result);
+    }
+    
+    @Override
+    public String[] toStrings() {
+        return values.clone();
+    }
+}
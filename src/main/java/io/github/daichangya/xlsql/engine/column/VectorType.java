@@ -0,0 +1,42 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.column;
+
+/**
+ * VectorType - 列向量的物理存储类型
+ * 
+ * <p>描述{@link ColumnVector}内部使用的存储方式，而不是SQL列类型。
+ * 同一个声明为DOUBLE的Excel列，如果混入了文本值，会退化为STRING存储。</p>
+ * 
+ * @author daichangya
+ */
+public enum VectorType {
+    /** LONG - 整数，存储为long[] */
+    LONG,
+    
+    /** DOUBLE - 浮点数，存储为double[] */
+    DOUBLE,
+    
+    /** BOOLEAN - 布尔值，存储为位图 */
+    BOOLEAN,
+    
+    /** STRING - 文本，存储为String[] */
+    STRING
+}
@@ -47,6 +47,7 @@ import io.github.daichangya.xlsql.database.xlDatabaseException;
 import io.github.daichangya.xlsql.database.xlDatabaseFactory;
 import io.github.daichangya.xlsql.database.sql.xlSqlParserFactory;
 import io.github.daichangya.xlsql.engine.core.NativeSqlEngine;
+import io.github.daichangya.xlsql.engine.executor.ParallelExecution;
 import io.github.daichangya.xlsql.engine.statement.xlNativePreparedStatement;
 import io.github.daichangya.xlsql.engine.statement.xlNativeStatement;
 import io.github.daichangya.xlsql.jdbc.DatabaseType;
@@ -226,22 +227,76 @@ public class xlConnectionNative extends xlConnection {
         return !closed;
     }
 
+    /**
+     * 设置客户端信息
+     * 
+     * <p>支持{@link ParallelExecution#PROP_PARALLELISM}：设置本连接查询的并行度，
+     * 其他名称忽略。</p>
+     */
     @Override
     public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        if (!ParallelExecution.PROP_PARALLELISM.equals(name) || value == null) {
+            return;
+        }
+        try {
+            setQueryParallelism(ParallelExecution.parseParallelism(value));
+        } catch (SQLException e) {
+            throw new SQLClientInfoException(e.getMessage(), null, e);
+        }
     }
 
     @Override
     public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        if (properties != null) {
+            setClientInfo(ParallelExecution.PROP_PARALLELISM,
+                    properties.getProperty(ParallelExecution.PROP_PARALLELISM));
+        }
     }
 
     @Override
     public String getClientInfo(String name) throws SQLException {
+        if (ParallelExecution.PROP_PARALLELISM.equals(name)) {
+            return String.valueOf(getQueryParallelism());
+        }
         return "";
     }
 
     @Override
     public Properties getClientInfo() throws SQLException {
-        return new Properties();
+        Properties properties = new Properties();
+        if (nativeEngine != null) {
+            properties.setProperty(ParallelExecution.PROP_PARALLELISM,
+                    String.valueOf(getQueryParallelism()));
+        }
+        return properties;
+    }
+    
+    /**
+     * 设置本连接查询过滤和聚合的并行度
+     * 
+     * <p>默认值取系统属性{@code xlsql.query.parallelism}，未配置时为可用处理器数。</p>
+     * 
+     * @param parallelism 并行度，1表示顺序执行
+     * @throws SQLException 如果连接已关闭，或并行度不在1到{@link ParallelExecution#MAX_PARALLELISM}之间
+     */
+    public void setQueryParallelism(int parallelism) throws SQLException {
+        if (nativeEngine == null) {
+            throw new SQLException("Connection is closed");
+        }
+        nativeEngine.setParallelism(parallelism);
+    }
+    
+    /**
+     * 获取本连接查询过滤和聚合的并行度
+     * 
+     * @return 并行度
+     * @throws SQLException 如果连接已关闭
+     */
+    public int getQueryParallelism() throws SQLException {
+        if (nativeEngine == null) {
+            throw new SQLException("Connection is closed");
+        }
+        return nativeEngine.getParallelism();
     }
 
     @Override
@@ -397,13 +452,13 @@ public class xlConnectionNative extends xlConnection {
     @Override
     public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency)
             throws SQLException {
-        return new xlNativeStatement(this);
+        return new xlNativeStatement(this, resultSetType);
     }
 
     @Override
     public java.sql.Statement createStatement(int resultSetType, int resultSetConcurrency, 
             int resultSetHoldability) throws SQLException {
-        return new xlNativeStatement(this);
+        return new xlNativeStatement(this, resultSetType);
     }
 
     @Override
@@ -448,13 +503,13 @@ public class xlConnectionNative extends xlConnection {
     @Override
     public java.sql.PreparedStatement prepareStatement(String sql, int resultSetType, 
             int resultSetConcurrency) throws SQLException {
-        return new xlNativePreparedStatement(this, sql);
+        return new xlNativePreparedStatement(this, sql, resultSetType);
     }
 
     @Override
     public java.sql.PreparedStatement prepareStatement(String sql, int resultSetType, 
             int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        return new xlNativePreparedStatement(this, sql);
+        return new xlNativePreparedStatement(this, sql, resultSetType);
     }
 
     @Override
@@ -1036,7 +1036,7 @@ class xlNativeDatabaseMetaData implements DatabaseMetaData {
     
     @Override
     public boolean supportsResultSetType(int type) throws SQLException {
-        return type == ResultSet.TYPE_FORWARD_ONLY;
+        return type == ResultSet.TYPE_FORWARD_ONLY || type == ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
     
     @Override
@@ -25,6 +25,7 @@ import java.util.logging.Logger;
 
 import io.github.daichangya.xlsql.database.ADatabase;
 import io.github.daichangya.xlsql.jdbc.DatabaseType;
+import io.github.daichangya.xlsql.engine.executor.ParallelExecution;
 import io.github.daichangya.xlsql.engine.executor.xlNativeSelect;
 
 /**
@@ -86,6 +87,22 @@ public class NativeSqlEngine implements ISqlExecutionEngine {
         return queryExecutor.executeQuery(sql);
     }
     
+    /**
+     * 执行查询，返回指定类型的结果集
+     * 
+     * @param sql SQL查询语句
+     * @param resultSetType 结果集类型（TYPE_FORWARD_ONLY以外的类型都按TYPE_SCROLL_INSENSITIVE处理）
+     * @return 查询结果集
+     * @throws SQLException 如果引擎未初始化或查询失败
+     */
+    public ResultSet executeQuery(String sql, int resultSetType) throws SQLException {
+        if (!initialized) {
+            throw new SQLException("Engine not initialized. Call initialize() first.");
+        }
+        logger.info("Executing native query: " + sql);
+        return queryExecutor.executeQuery(sql, resultSetType);
+    }
+    
     @Override
     public int executeUpdate(String sql) throws SQLException {
         if (!initialized) {
@@ -121,6 +138,33 @@ public class NativeSqlEngine implements ISqlExecutionEngine {
         }
     }
     
+    /**
+     * 设置查询过滤和聚合的并行度
+     * 
+     * @param parallelism 并行度，1表示顺序执行
+     * @throws SQLException 如果引擎未初始化，或并行度不在1到{@link ParallelExecution#MAX_PARALLELISM}之间
+     */
+    public void setParallelism(int parallelism) throws SQLException {
+        if (!initialized) {
+            throw new SQLException("Engine not initialized. Call initialize() first.");
+        }
+        ParallelExecution.checkParallelism(parallelism);
+        queryExecutor.setParallelism(parallelism);
+    }
+    
+    /**
+     * 获取查询过滤和聚合的并行度
+     * 
+     * @return 并行度
+     * @throws SQLException 如果引擎未初始化
+     */
+    public int getParallelism() throws SQLException {
+        if (!initialized) {
+            throw new SQLException("Engine not initialized. Call initialize() first.");
+        }
+        return queryExecutor.getParallelism();
+    }
+    
     /**
      * 获取数据存储对象
      * 
@@ -0,0 +1,302 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.daichangya.xlsql.engine.model.AggregateFunction;
+import io.github.daichangya.xlsql.engine.model.AggregateType;
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+/**
+ * AggregateAccumulator - 聚合函数累加器
+ * 
+ * <p>每个分组的每个聚合函数持有一个累加器，逐行调用{@link #add(String[])}更新状态，
+ * 最后由{@link #result()}给出聚合值。累加器只保存聚合状态（计数、和、当前最值），
+ * 不保存行；DISTINCT聚合额外保存已出现过的值。</p>
+ * 
+ * <p>并行聚合时每个分片各自累加，再用{@link #merge(AggregateAccumulator)}
+ * 按分片顺序合并：COUNT、SUM、MIN、MAX直接合并，AVG合并和与个数，
+ * DISTINCT聚合合并已出现过的值。</p>
+ * 
+ * @author daichangya
+ */
+abstract class AggregateAccumulator {
+    
+    /** 参数列下标，COUNT(*)或列不存在时为-1 */
+    final int index;
+    
+    /** DISTINCT聚合已出现过的值，非DISTINCT时为null */
+    private final Set<String> distinctValues;
+    
+    AggregateAccumulator(int index, boolean distinct) {
+        this.index = index;
+        this.distinctValues = distinct ? new LinkedHashSet<String>() : null;
+    }
+    
+    /**
+     * 为聚合函数创建累加器
+     * 
+     * @param func 聚合函数
+     * @param columnIndexMap 列名到索引的映射
+     * @return 新的累加器
+     * @throws SQLException 如果聚合函数不受支持
+     */
+    static AggregateAccumulator create(AggregateFunction func, Map<String, Integer> columnIndexMap)
+            throws SQLException {
+        String column = func.getColumn();
+        boolean star = column == null || "*".equals(column);
+        if (star && func.getType() != AggregateType.COUNT) {
+            throw new SQLException(func.getType() + "(*) is not allowed");
+        }
+        Integer index = star ? null : columnIndexMap.get(column.toUpperCase());
+        int columnIndex = index != null ? index : -1;
+        
+        switch (func.getType()) {
+            case COUNT:
+                return star ? new CountAll() : new Count(columnIndex, func.isDistinct());
+            case SUM:
+                return new Sum(columnIndex, func.isDistinct());
+            case AVG:
+                return new Avg(columnIndex, func.isDistinct());
+            case MAX:
+            case MIN:
+                return new MaxMin(columnIndex, func.isDistinct(), func.getType() == AggregateType.MAX);
+            default:
+                throw new SQLException("Unsupported aggregate function: " + func.getType());
+        }
+    }
+    
+    /**
+     * 用一行数据更新累加器
+     * 
+     * @param row 数据行
+     */
+    void add(String[] row) {
+        if (index < 0 || row == null || index >= row.length) {
+            return;
+        }
+        String value = row[index];
+        if (value == null) {
+            return; // 忽略NULL值
+        }
+        if (distinctValues != null && !distinctValues.add(value)) {
+            return; // 已处理过，跳过
+        }
+        accept(value);
+    }
+    
+    /**
+     * 合并同一聚合函数在后续分片上的累加器
+     * 
+     * @param other 另一个累加器（由同一个聚合函数创建）
+     */
+    void merge(AggregateAccumulator other) {
+        if (distinctValues != null) {
+            for (String value : other.distinctValues) {
+                if (distinctValues.add(value)) {
+                    accept(value);
+                }
+            }
+            return;
+        }
+        mergeState(other);
+    }
+    
+    /**
+     * 合并非DISTINCT累加器的状态
+     * 
+     * @param other 另一个同类型的累加器
+     */
+    abstract void mergeState(AggregateAccumulator other);
+    
+    /**
+     * 累加一个非NULL（且DISTINCT时首次出现）的值
+     * 
+     * @param value 值
+     */
+    abstract void accept(String value);
+    
+    /**
+     * 获取聚合值
+     * 
+     * @return 聚合值
+     */
+    abstract Object result();
+    
+    /**
+     * COUNT(*)：统计所有行（包括NULL）
+     */
+    private static final class CountAll extends AggregateAccumulator {
+        private long count;
+        
+        CountAll() {
+            super(-1, false);
+        }
+        
+        @Override
+        void add(String[] row) {
+            count++;
+        }
+        
+        @Override
+        void accept(String value) {
+            count++;
+        }
+        
+        @Override
+        void mergeState(AggregateAccumulator other) {
+            count += ((CountAll) other).count;
+        }
+        
+        @Override
+        Object result() {
+            return count;
+        }
+    }
+    
+    /**
+     * COUNT(column)：统计非NULL值
+     */
+    private static final class Count extends AggregateAccumulator {
+        private long count;
+        
+        Count(int index, boolean distinct) {
+            super(index, distinct);
+        }
+        
+        @Override
+        void accept(String value) {
+            count++;
+        }
+        
+        @Override
+        void mergeState(AggregateAccumulator other) {
+            count += ((Count) other).count;
+        }
+        
+        @Override
+        Object result() {
+            return count;
+        }
+    }
+    
+    /**
+     * SUM：累加可以解析为数字的值，其余值忽略
+     */
+    private static class Sum extends AggregateAccumulator {
+        NumericValue sum = NumericValue.ZERO;
+        
+        /** 非NULL值的个数（包括不是数字的值） */
+        long count;
+        
+        Sum(int index, boolean distinct) {
+            super(index, distinct);
+        }
+        
+        @Override
+        void accept(String value) {
+            count++;
+            NumericValue number = NumericValue.parse(value);
+            if (number != null) {
+                sum = sum.add(number);
+            }
+        }
+        
+        @Override
+        void mergeState(AggregateAccumulator other) {
+            sum = sum.add(((Sum) other).sum);
+            count += ((Sum) other).count;
+        }
+        
+        @Override
+        Object result() {
+            return sum.toBigDecimal();
+        }
+    }
+    
+    /**
+     * AVG：和除以非NULL值的个数
+     */
+    private static final class Avg extends Sum {
+        
+        Avg(int index, boolean distinct) {
+            super(index, distinct);
+        }
+        
+        @Override
+        Object result() {
+            if (count == 0) {
+                return null; // 没有非NULL值，返回NULL
+            }
+            return sum.toBigDecimal().divide(new BigDecimal(count), 10, BigDecimal.ROUND_HALF_UP);
+        }
+    }
+    
+    /**
+     * MAX/MIN：都是数字时按数值比较，否则按字符串比较
+     */
+    private static final class MaxMin extends AggregateAccumulator {
+        private final boolean max;
+        private String result;
+        private NumericValue resultNum;
+        
+        MaxMin(int index, boolean distinct, boolean max) {
+            super(index, distinct);
+            this.max = max;
+        }
+        
+        @Override
+        void accept(String value) {
+            offer(value, NumericValue.parse(value));
+        }
+        
+        @Override
+        void mergeState(AggregateAccumulator other) {
+            MaxMin partial = (MaxMin) other;
+            if (partial.result != null) {
+                offer(partial.result, partial.resultNum);
+            }
+        }
+        
+        private void offer(String value, NumericValue number) {
+            if (result == null) {
+                result = value;
+                resultNum = number;
+                return;
+            }
+            int cmp = number != null && resultNum != null
+                    ? number.compareTo(resultNum) : value.compareTo(result);
+            if (max ? cmp > 0 : cmp < 0) {
+                result = value;
+                resultNum = number;
+            }
+        }
+        
+        @Override
+        Object result() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.plan.QueryPlan;
+
+/**
+ * AggregateOperator - 聚合算子
+ * 
+ * <p>阻塞算子：open时拉取全部输入，由{@link AggregationExecutor}边拉取边更新各分组的累加器
+ * （并行时按批拉取、分区聚合后合并），不保留输入行，再逐行输出聚合结果。</p>
+ * 
+ * @author daichangya
+ */
+final class AggregateOperator implements Operator {
+    
+    private final Operator child;
+    
+    private final QueryPlan plan;
+    
+    private final Map<String, Integer> columnIndexMap;
+    
+    private final int parallelism;
+    
+    private List<String[]> result;
+    
+    private int position;
+    
+    /**
+     * 创建聚合算子
+     * 
+     * @param child 子算子
+     * @param plan 查询计划
+     * @param columnIndexMap 列名到索引的映射
+     * @param parallelism 并行度
+     */
+    AggregateOperator(Operator child, QueryPlan plan, Map<String, Integer> columnIndexMap,
+                      int parallelism) {
+        this.child = child;
+        this.plan = plan;
+        this.columnIndexMap = columnIndexMap;
+        this.parallelism = parallelism;
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+        result = new AggregationExecutor(parallelism).execute(child, plan, columnIndexMap);
+        position = 0;
+    }
+    
+    @Override
+    public String[] next() {
+        return position < result.size() ? result.get(position++) : null;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        result = null;
+        child.close();
+    }
+}
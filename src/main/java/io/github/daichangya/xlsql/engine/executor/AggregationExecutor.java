@@ -22,26 +22,57 @@ package io.github.daichangya.xlsql.engine.executor;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
 
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.DictionaryColumnVector;
+import io.github.daichangya.xlsql.engine.column.VectorType;
 import io.github.daichangya.xlsql.engine.model.AggregateFunction;
 import io.github.daichangya.xlsql.engine.model.AggregateType;
 import io.github.daichangya.xlsql.engine.plan.QueryPlan;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
 
 /**
  * AggregationExecutor - 聚合执行器
  * 
  * <p>执行GROUP BY分组和聚合函数计算。
- * 支持COUNT、SUM、AVG、MAX、MIN等聚合函数。</p>
+ * 支持COUNT、SUM、AVG、MAX、MIN等聚合函数。
+ * 按行聚合的输入较大时按分片并行执行（见{@link ParallelExecution}）。</p>
  * 
  * @author daichangya
  */
 public class AggregationExecutor {
     
+    /** 按字典编码分组时允许的最大分组槽位数 */
+    private static final int MAX_GROUP_SLOTS = 1 << 20;
+    
+    /** 按行聚合的并行度，为1时顺序执行 */
+    private final int parallelism;
+    
+    /**
+     * 创建聚合执行器，并行度取配置的默认值
+     * 
+     * @see ParallelExecution#defaultParallelism()
+     */
+    public AggregationExecutor() {
+        this(ParallelExecution.defaultParallelism());
+    }
+    
+    /**
+     * 创建聚合执行器
+     * 
+     * @param parallelism 按行聚合的并行度（小于1时按1处理）
+     */
+    public AggregationExecutor(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
     /**
      * 执行聚合操作
      * 
@@ -59,74 +90,108 @@ public class AggregationExecutor {
             return rows;
         }
         
+        int[] keyColumns = keyColumns(plan, columnIndexMap);
+        return finish(aggregate(rows, keyColumns, plan.getAggregateFunctions(), columnIndexMap),
+                plan, columnIndexMap);
+    }
+    
+    /**
+     * 从已打开的算子拉取行并执行聚合操作
+     * 
+     * <p>每行拉取后直接更新所属分组的累加器，不保留输入行，
+     * 内存占用与分组数成正比。并行度大于1时每次拉取一批
+     * （{@link ParallelExecution#MIN_ROWS_PER_PARTITION}乘以并行度行），
+     * 按分片并行聚合后按批次顺序合并，结果与顺序执行一致。</p>
+     * 
+     * @param input 输入算子（已打开）
+     * @param plan 查询计划（包含GROUP BY或聚合函数）
+     * @param columnIndexMap 列名到索引的映射
+     * @return 聚合后的数据行列表
+     * @throws SQLException 如果执行失败则抛出异常
+     */
+    List<String[]> execute(Operator input, QueryPlan plan,
+                           Map<String, Integer> columnIndexMap) throws SQLException {
+        int[] keyColumns = keyColumns(plan, columnIndexMap);
+        List<AggregateFunction> functions = plan.getAggregateFunctions();
+        Map<GroupKey, GroupState> groups = new LinkedHashMap<>();
+        String[] row;
+        if (parallelism <= 1) {
+            while ((row = input.next()) != null) {
+                add(groups, row, keyColumns, functions, columnIndexMap);
+            }
+        } else {
+            int batchSize = ParallelExecution.MIN_ROWS_PER_PARTITION * parallelism;
+            List<String[]> batch = new ArrayList<>(ParallelExecution.MIN_ROWS_PER_PARTITION);
+            while ((row = input.next()) != null) {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    merge(groups, aggregate(batch, keyColumns, functions, columnIndexMap));
+                    batch.clear();
+                }
+            }
+            merge(groups, aggregate(batch, keyColumns, functions, columnIndexMap));
+        }
+        return finish(groups, plan, columnIndexMap);
+    }
+    
+    /**
+     * GROUP BY列的下标，全局聚合时为空数组
+     */
+    private int[] keyColumns(QueryPlan plan, Map<String, Integer> columnIndexMap) {
+        return plan.hasGroupBy() ? resolveKeyColumns(plan.getGroupByColumns(), columnIndexMap) : new int[0];
+    }
+    
+    /**
+     * 由各分组的聚合状态构建结果行
+     */
+    private List<String[]> finish(Map<GroupKey, GroupState> groups, QueryPlan plan,
+                                  Map<String, Integer> columnIndexMap) throws SQLException {
         if (plan.hasGroupBy()) {
             // 有GROUP BY，执行分组聚合
-            return executeGroupByAggregation(rows, plan, columnIndexMap);
+            return executeGroupByAggregation(groups, plan, columnIndexMap);
         } else {
             // 没有GROUP BY但有聚合函数，执行全局聚合（返回一行）
-            return executeGlobalAggregation(rows, plan, columnIndexMap);
+            return executeGlobalAggregation(groups, plan, columnIndexMap);
         }
     }
     
     /**
      * 执行GROUP BY分组聚合
      * 
-     * @param rows 数据行列表
+     * <p>单遍哈希聚合：每行找到所属分组后直接更新该分组的累加器，
+     * 每个分组只保留第一行（用于普通列）和各聚合函数的累加状态，
+     * 内存占用与分组数成正比。分组按首次出现的顺序输出。
+     * 输入较大时按{@link #aggregate(List, int[], List, Map)}并行执行。</p>
+     * 
+     * @param groups 分组键到聚合状态的映射
      * @param plan 查询计划
      * @param columnIndexMap 列名到索引的映射
      * @return 聚合后的数据行列表
      * @throws SQLException 如果执行失败则抛出异常
      */
-    private List<String[]> executeGroupByAggregation(List<String[]> rows, QueryPlan plan,
+    private List<String[]> executeGroupByAggregation(Map<GroupKey, GroupState> groups, QueryPlan plan,
                                                       Map<String, Integer> columnIndexMap) 
             throws SQLException {
-        
-        // 执行分组
-        Map<String, List<String[]>> groups = groupBy(rows, plan.getGroupByColumns(), columnIndexMap);
+        List<AggregateFunction> functions = plan.getAggregateFunctions();
         
         // 对每个分组计算聚合函数
         List<String[]> result = new ArrayList<>();
-        ConditionEvaluator evaluator = new ConditionEvaluator();
+        ConditionEvaluator.HavingPredicate having = plan.getHavingClause() != null
+                ? new ConditionEvaluator().compileHaving(plan.getHavingClause()) : null;
         
-        for (Map.Entry<String, List<String[]>> entry : groups.entrySet()) {
-            List<String[]> group = entry.getValue();
-            
-            // 计算聚合函数值
-            Map<String, Object> aggregateValues = new HashMap<>();
-            for (AggregateFunction func : plan.getAggregateFunctions()) {
-                Object value = calculateAggregate(group, func, columnIndexMap);
-                String alias = func.getAlias();
-                String displayName = func.getDisplayName();
-                String functionExpression = func.getFunctionExpression();
-                
-                // 使用别名作为键（如果有）
-                if (alias != null && !alias.isEmpty()) {
-                    aggregateValues.put(alias, value);
-                    aggregateValues.put(alias.toUpperCase(), value); // 也存储大写版本
-                }
-                
-                // 使用显示名称作为键
-                aggregateValues.put(displayName, value);
-                aggregateValues.put(displayName.toUpperCase(), value); // 也存储大写版本
-                
-                // 使用函数表达式作为键（用于HAVING子句中的 COUNT(*) 等）
-                aggregateValues.put(functionExpression, value);
-                aggregateValues.put(functionExpression.toUpperCase(), value); // 也存储大写版本
-                
-                // 也存储去掉空格的版本（用于匹配）
-                aggregateValues.put(functionExpression.replaceAll("\\s+", ""), value);
-                aggregateValues.put(functionExpression.replaceAll("\\s+", "").toUpperCase(), value);
-            }
+        for (GroupState state : groups.values()) {
+            Map<String, Object> aggregateValues = state.aggregateValues(functions);
             
             // 应用HAVING过滤
-            if (plan.getHavingClause() != null) {
-                if (!evaluator.evaluateHaving(plan.getHavingClause(), aggregateValues)) {
+            if (having != null) {
+                if (!having.test(aggregateValues)) {
                     continue; // 不满足HAVING条件，跳过
                 }
             }
             
             // 构建结果行
-            String[] resultRow = buildResultRow(group, plan, aggregateValues, columnIndexMap);
+            String[] resultRow = buildResultRow(Collections.singletonList(state.firstRow), plan,
+                    aggregateValues, columnIndexMap);
             result.add(resultRow);
         }
         
@@ -136,45 +201,24 @@ public class AggregationExecutor {
     /**
      * 执行全局聚合（无GROUP BY）
      * 
-     * @param rows 数据行列表
+     * @param groups 分组键到聚合状态的映射（至多一个分组）
      * @param plan 查询计划
      * @param columnIndexMap 列名到索引的映射
      * @return 聚合后的数据行列表（只有一行）
      * @throws SQLException 如果执行失败则抛出异常
      */
-    private List<String[]> executeGlobalAggregation(List<String[]> rows, QueryPlan plan,
+    private List<String[]> executeGlobalAggregation(Map<GroupKey, GroupState> groups, QueryPlan plan,
                                                      Map<String, Integer> columnIndexMap) 
             throws SQLException {
-        
-        // 计算聚合函数值
-        Map<String, Object> aggregateValues = new HashMap<>();
-        for (AggregateFunction func : plan.getAggregateFunctions()) {
-            Object value = calculateAggregate(rows, func, columnIndexMap);
-            String alias = func.getAlias();
-            String displayName = func.getDisplayName();
-            String functionExpression = func.getFunctionExpression();
-            
-            // 使用别名作为键（如果有）
-            if (alias != null && !alias.isEmpty()) {
-                aggregateValues.put(alias, value);
-                aggregateValues.put(alias.toUpperCase(), value);
-            }
-            
-            // 使用显示名称作为键
-            aggregateValues.put(displayName, value);
-            aggregateValues.put(displayName.toUpperCase(), value);
-            
-            // 使用函数表达式作为键
-            aggregateValues.put(functionExpression, value);
-            aggregateValues.put(functionExpression.toUpperCase(), value);
-            
-            // 也存储去掉空格的版本
-            aggregateValues.put(functionExpression.replaceAll("\\s+", ""), value);
-            aggregateValues.put(functionExpression.replaceAll("\\s+", "").toUpperCase(), value);
-        }
+        List<AggregateFunction> functions = plan.getAggregateFunctions();
+        // 没有输入行时也要输出一行（COUNT为0，其余为NULL）
+        GroupState state = groups.isEmpty()
+                ? new GroupState(null, functions, columnIndexMap) : groups.values().iterator().next();
         
         // 构建结果行
-        String[] resultRow = buildResultRow(rows, plan, aggregateValues, columnIndexMap);
+        List<String[]> firstRow = state.firstRow != null
+                ? Collections.singletonList(state.firstRow) : Collections.<String[]>emptyList();
+        String[] resultRow = buildResultRow(firstRow, plan, state.aggregateValues(functions), columnIndexMap);
         
         List<String[]> result = new ArrayList<>();
         result.add(resultRow);
@@ -182,287 +226,418 @@ public class AggregationExecutor {
     }
     
     /**
-     * 执行分组操作
+     * 按分组键聚合输入行
+     * 
+     * <p>输入足够大且并行度大于1时，把输入按顺序切成若干分片，
+     * 每个分片在fork/join线程池上独立聚合出局部结果，
+     * 再按分片顺序合并，分组顺序和每组的第一行与顺序执行一致。</p>
      * 
      * @param rows 数据行列表
-     * @param groupByColumns 分组列列表
+     * @param keyColumns 分组列下标（全局聚合时为空数组）
+     * @param functions 聚合函数
      * @param columnIndexMap 列名到索引的映射
-     * @return 分组映射（分组键 -> 行列表）
+     * @return 分组键到聚合状态的映射（按首次出现的顺序）
+     * @throws SQLException 如果执行失败则抛出异常
      */
-    private Map<String, List<String[]>> groupBy(List<String[]> rows, List<String> groupByColumns,
-                                                Map<String, Integer> columnIndexMap) {
-        Map<String, List<String[]>> groups = new HashMap<>();
+    private Map<GroupKey, GroupState> aggregate(List<String[]> rows, int[] keyColumns,
+                                                List<AggregateFunction> functions,
+                                                Map<String, Integer> columnIndexMap) throws SQLException {
+        int partitions = ParallelExecution.partitions(rows.size(), parallelism);
+        if (partitions <= 1) {
+            return aggregatePartition(rows, keyColumns, functions, columnIndexMap);
+        }
         
-        for (String[] row : rows) {
-            // 生成分组键
-            String groupKey = generateGroupKey(row, groupByColumns, columnIndexMap);
-            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(row);
+        List<Callable<Map<GroupKey, GroupState>>> tasks = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final List<String[]> partition = rows.subList(
+                    ParallelExecution.partitionStart(rows.size(), partitions, i),
+                    ParallelExecution.partitionStart(rows.size(), partitions, i + 1));
+            tasks.add(() -> aggregatePartition(partition, keyColumns, functions, columnIndexMap));
         }
+        List<Map<GroupKey, GroupState>> partials = ParallelExecution.invokeAll(tasks);
         
+        Map<GroupKey, GroupState> groups = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            merge(groups, partials.get(i));
+        }
+        return groups;
+    }
+    
+    private Map<GroupKey, GroupState> aggregatePartition(List<String[]> rows, int[] keyColumns,
+                                                         List<AggregateFunction> functions,
+                                                         Map<String, Integer> columnIndexMap)
+            throws SQLException {
+        Map<GroupKey, GroupState> groups = new LinkedHashMap<>();
+        for (String[] row : rows) {
+            add(groups, row, keyColumns, functions, columnIndexMap);
+        }
         return groups;
     }
     
     /**
-     * 生成分组键
+     * 把一行计入所属分组（新分组以该行作为第一行）
+     */
+    private void add(Map<GroupKey, GroupState> groups, String[] row, int[] keyColumns,
+                     List<AggregateFunction> functions, Map<String, Integer> columnIndexMap)
+            throws SQLException {
+        GroupKey key = new GroupKey(row, keyColumns);
+        GroupState state = groups.get(key);
+        if (state == null) {
+            state = new GroupState(row, functions, columnIndexMap);
+            groups.put(key, state);
+        }
+        state.add(row);
+    }
+    
+    /**
+     * 把后续输入的局部聚合结果按顺序合并进已有结果
      * 
-     * @param row 数据行
-     * @param groupByColumns 分组列列表
-     * @param columnIndexMap 列名到索引的映射
-     * @return 分组键字符串
+     * @param groups 已有结果（就地更新）
+     * @param later 后续输入的局部结果
      */
-    private String generateGroupKey(String[] row, List<String> groupByColumns,
-                                   Map<String, Integer> columnIndexMap) {
-        StringBuilder key = new StringBuilder();
-        
-        for (int i = 0; i < groupByColumns.size(); i++) {
-            if (i > 0) {
-                key.append("|"); // 使用|分隔多列
+    private void merge(Map<GroupKey, GroupState> groups, Map<GroupKey, GroupState> later) {
+        for (Map.Entry<GroupKey, GroupState> entry : later.entrySet()) {
+            GroupState state = groups.get(entry.getKey());
+            if (state == null) {
+                groups.put(entry.getKey(), entry.getValue());
+            } else {
+                state.merge(entry.getValue());
             }
-            
+        }
+    }
+    
+    /**
+     * 把GROUP BY列解析为行中的下标
+     * 
+     * @return 下标数组，不存在的列为-1（按NULL分组）
+     */
+    private int[] resolveKeyColumns(List<String> groupByColumns, Map<String, Integer> columnIndexMap) {
+        int[] indexes = new int[groupByColumns.size()];
+        for (int i = 0; i < indexes.length; i++) {
             String columnName = groupByColumns.get(i).toUpperCase();
             // 去掉表别名
             if (columnName.contains(".")) {
                 columnName = columnName.substring(columnName.indexOf(".") + 1);
             }
-            
             Integer index = columnIndexMap.get(columnName);
-            if (index != null && index >= 0 && index < row.length) {
-                String value = row[index];
-                key.append(value != null ? value : "NULL");
-            } else {
-                key.append("NULL");
-            }
+            indexes[i] = index != null ? index : -1;
         }
-        
-        return key.toString();
+        return indexes;
     }
     
     /**
-     * 计算聚合函数值
+     * 判断聚合能否直接在列向量上执行
      * 
-     * @param rows 数据行列表
-     * @param func 聚合函数
+     * <p>两种情况可以使用列向量：</p>
+     * <ul>
+     *   <li>GROUP BY的每一列都是字典编码列：按编码分组，
+     *       聚合函数能在列向量上计算的直接计算，其余按分组展开为行计算</li>
+     *   <li>没有GROUP BY，且每个聚合函数都能在列向量上计算</li>
+     * </ul>
+     * 
+     * <p>能在列向量上计算的聚合函数：COUNT(*)；非DISTINCT的COUNT(column)；
+     * 作用于数值列向量的非DISTINCT SUM/AVG，以及不含空字符串的数值列向量上的MAX/MIN。</p>
+     * 
+     * @param table 表信息（已加载数据）
+     * @param plan 查询计划
      * @param columnIndexMap 列名到索引的映射
-     * @return 聚合值
-     * @throws SQLException 如果计算失败则抛出异常
+     * @return 如果可以使用列向量执行返回true
      */
-    private Object calculateAggregate(List<String[]> rows, AggregateFunction func,
-                                     Map<String, Integer> columnIndexMap) throws SQLException {
-        
-        switch (func.getType()) {
-            case COUNT:
-                return calculateCount(rows, func, columnIndexMap);
-            case SUM:
-                return calculateSum(rows, func, columnIndexMap);
-            case AVG:
-                return calculateAvg(rows, func, columnIndexMap);
-            case MAX:
-                return calculateMaxMin(rows, func, columnIndexMap, AggregateType.MAX);
-            case MIN:
-                return calculateMaxMin(rows, func, columnIndexMap, AggregateType.MIN);
-            default:
-                throw new SQLException("Unsupported aggregate function: " + func.getType());
+    public boolean canExecuteOnColumns(TableInfo table, QueryPlan plan,
+                                       Map<String, Integer> columnIndexMap) {
+        if (table.getColumns() == null) {
+            return false;
         }
+        if (plan.hasGroupBy()) {
+            return resolveGroupColumns(table, plan.getGroupByColumns(), columnIndexMap) != null;
+        }
+        if (!plan.hasAggregation()) {
+            return false;
+        }
+        for (AggregateFunction func : plan.getAggregateFunctions()) {
+            if (!isColumnAggregate(table, func, columnIndexMap)) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
-     * 计算COUNT聚合函数
+     * 直接在列向量上执行聚合
      * 
-     * @param rows 数据行列表
-     * @param func 聚合函数
+     * <p>调用前应通过{@link #canExecuteOnColumns(TableInfo, QueryPlan, Map)}检查。
+     * 数值直接从基本类型数组读取，分组直接比较字典编码，结果与按行执行一致；
+     * 分组按首次出现的顺序输出。</p>
+     * 
+     * @param table 表信息（已加载数据）
+     * @param selection 参与聚合的行索引（升序），为null表示全部行
+     * @param plan 查询计划
      * @param columnIndexMap 列名到索引的映射
-     * @return COUNT值
+     * @return 聚合后的数据行列表
+     * @throws SQLException 如果执行失败则抛出异常
      */
-    private Long calculateCount(List<String[]> rows, AggregateFunction func,
-                                Map<String, Integer> columnIndexMap) {
-        String column = func.getColumn();
+    public List<String[]> executeOnColumns(TableInfo table, int[] selection, QueryPlan plan,
+                                           Map<String, Integer> columnIndexMap) throws SQLException {
+        if (selection == null) {
+            selection = new int[table.getRowCount()];
+            for (int i = 0; i < selection.length; i++) {
+                selection[i] = i;
+            }
+        }
+        if (!plan.hasGroupBy()) {
+            List<String[]> result = new ArrayList<>();
+            String[] row = aggregateOnColumns(table, selection, plan, columnIndexMap, null);
+            result.add(row);
+            return result;
+        }
         
-        if (column == null || "*".equals(column)) {
-            // COUNT(*) - 统计所有行（包括NULL）
-            return (long) rows.size();
+        DictionaryColumnVector[] groupColumns =
+                resolveGroupColumns(table, plan.getGroupByColumns(), columnIndexMap);
+        
+        // 以各列编码（NULL编码为0）按混合进制组合出分组槽位
+        int slots = 1;
+        for (DictionaryColumnVector column : groupColumns) {
+            slots *= column.getDictionarySize() + 1;
+        }
+        int[] groupOfSlot = new int[slots];
+        Arrays.fill(groupOfSlot, -1);
+        int[] groupOfRow = new int[selection.length];
+        int[] groupSizes = new int[Math.min(slots, selection.length)];
+        int groupCount = 0;
+        for (int i = 0; i < selection.length; i++) {
+            int slot = 0;
+            for (DictionaryColumnVector column : groupColumns) {
+                slot = slot * (column.getDictionarySize() + 1) + column.getCode(selection[i]) + 1;
+            }
+            int group = groupOfSlot[slot];
+            if (group < 0) {
+                group = groupCount++;
+                groupOfSlot[slot] = group;
+            }
+            groupOfRow[i] = group;
+            groupSizes[group]++;
         }
         
-        // COUNT(column) - 统计非NULL值
-        Integer index = columnIndexMap.get(column.toUpperCase());
-        if (index == null) {
-            return 0L;
+        int[][] groups = new int[groupCount][];
+        for (int g = 0; g < groupCount; g++) {
+            groups[g] = new int[groupSizes[g]];
+            groupSizes[g] = 0;
+        }
+        for (int i = 0; i < selection.length; i++) {
+            int group = groupOfRow[i];
+            groups[group][groupSizes[group]++] = selection[i];
         }
         
-        if (func.isDistinct()) {
-            // COUNT(DISTINCT column)
-            Set<String> distinctValues = new HashSet<>();
-            for (String[] row : rows) {
-                if (row != null && index < row.length && row[index] != null) {
-                    distinctValues.add(row[index]);
-                }
+        ConditionEvaluator.HavingPredicate having = plan.getHavingClause() != null
+                ? new ConditionEvaluator().compileHaving(plan.getHavingClause()) : null;
+        List<String[]> result = new ArrayList<>();
+        for (int[] group : groups) {
+            String[] row = aggregateOnColumns(table, group, plan, columnIndexMap, having);
+            if (row != null) {
+                result.add(row);
             }
-            return (long) distinctValues.size();
-        } else {
-            // COUNT(column) - 统计非NULL值
-            long count = 0;
-            for (String[] row : rows) {
-                if (row != null && index < row.length && row[index] != null) {
-                    count++;
+        }
+        return result;
+    }
+    
+    /**
+     * 在列向量上计算一组行的聚合结果行
+     * 
+     * @param having 编译后的HAVING条件，为null表示不应用HAVING
+     * @return 结果行，不满足HAVING条件时返回null
+     */
+    private String[] aggregateOnColumns(TableInfo table, int[] rows, QueryPlan plan,
+                                        Map<String, Integer> columnIndexMap,
+                                        ConditionEvaluator.HavingPredicate having) throws SQLException {
+        List<String[]> materialized = null;
+        Map<String, Object> aggregateValues = new HashMap<>();
+        for (AggregateFunction func : plan.getAggregateFunctions()) {
+            Object value;
+            if (isColumnAggregate(table, func, columnIndexMap)) {
+                value = calculateAggregate(table, rows, rows.length, func, columnIndexMap);
+            } else {
+                if (materialized == null) {
+                    materialized = materialize(table, rows);
                 }
+                value = calculateAggregate(materialized, func, columnIndexMap);
             }
-            return count;
+            putAggregateValue(aggregateValues, func, value);
         }
+        
+        if (having != null && !having.test(aggregateValues)) {
+            return null;
+        }
+        
+        // 普通列取第一行的值，与按行执行保持一致
+        List<String[]> firstRow = new ArrayList<>();
+        if (rows.length > 0) {
+            firstRow.add(materialized != null ? materialized.get(0) : table.getRow(rows[0]));
+        }
+        return buildResultRow(firstRow, plan, aggregateValues, columnIndexMap);
+    }
+    
+    private List<String[]> materialize(TableInfo table, int[] rows) {
+        List<String[]> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(table.getRow(row));
+        }
+        return result;
     }
     
     /**
-     * 计算SUM聚合函数
+     * 把GROUP BY列解析为字典编码列
      * 
-     * @param rows 数据行列表
-     * @param func 聚合函数
-     * @param columnIndexMap 列名到索引的映射
-     * @return SUM值
-     * @throws SQLException 如果计算失败则抛出异常
+     * @return 字典编码列数组，如果有列不是字典编码或组合后的分组空间过大则返回null
      */
-    private BigDecimal calculateSum(List<String[]> rows, AggregateFunction func,
-                                    Map<String, Integer> columnIndexMap) throws SQLException {
+    private DictionaryColumnVector[] resolveGroupColumns(TableInfo table, List<String> groupByColumns,
+                                                         Map<String, Integer> columnIndexMap) {
+        DictionaryColumnVector[] columns = new DictionaryColumnVector[groupByColumns.size()];
+        long slots = 1;
+        for (int i = 0; i < columns.length; i++) {
+            String columnName = groupByColumns.get(i).toUpperCase();
+            // 去掉表别名
+            if (columnName.contains(".")) {
+                columnName = columnName.substring(columnName.indexOf(".") + 1);
+            }
+            Integer index = columnIndexMap.get(columnName);
+            ColumnVector vector = index != null ? table.getColumn(index) : null;
+            if (!(vector instanceof DictionaryColumnVector)) {
+                return null;
+            }
+            columns[i] = (DictionaryColumnVector) vector;
+            slots *= columns[i].getDictionarySize() + 1;
+            if (slots > MAX_GROUP_SLOTS) {
+                return null;
+            }
+        }
+        return columns;
+    }
+    
+    /**
+     * 判断聚合函数能否直接在列向量上计算
+     */
+    private boolean isColumnAggregate(TableInfo table, AggregateFunction func,
+                                      Map<String, Integer> columnIndexMap) {
         String column = func.getColumn();
         if (column == null || "*".equals(column)) {
-            throw new SQLException("SUM(*) is not allowed");
+            return func.getType() == AggregateType.COUNT;
+        }
+        if (func.isDistinct()) {
+            return false;
         }
-        
         Integer index = columnIndexMap.get(column.toUpperCase());
-        if (index == null) {
-            return BigDecimal.ZERO;
+        if (index == null || func.getType() == AggregateType.COUNT) {
+            return true;
         }
-        
-        BigDecimal sum = BigDecimal.ZERO;
-        Set<String> distinctValues = null;
-        
-        if (func.isDistinct()) {
-            distinctValues = new HashSet<>();
+        ColumnVector vector = table.getColumn(index);
+        if (vector == null || !vector.isNumeric()) {
+            return false;
+        }
+        return !((func.getType() == AggregateType.MAX || func.getType() == AggregateType.MIN)
+                && vector.hasBlanks());
+    }
+    
+    /**
+     * 在列向量上计算聚合函数值（计数、整数求和与最值使用向量化核函数，见{@link VectorizedAggregates}）
+     */
+    private Object calculateAggregate(TableInfo table, int[] selection, int count,
+                                      AggregateFunction func,
+                                      Map<String, Integer> columnIndexMap) throws SQLException {
+        String column = func.getColumn();
+        if (column == null || "*".equals(column)) {
+            return (long) count;
         }
         
-        for (String[] row : rows) {
-            if (row == null || index >= row.length) {
-                continue;
-            }
-            
-            String value = row[index];
-            if (value == null) {
-                continue; // 忽略NULL值
-            }
-            
-            if (func.isDistinct()) {
-                if (distinctValues.contains(value)) {
-                    continue; // 已处理过，跳过
+        Integer index = columnIndexMap.get(column.toUpperCase());
+        ColumnVector vector = index != null ? table.getColumn(index) : null;
+        switch (func.getType()) {
+            case COUNT:
+                return vector != null ? VectorizedAggregates.countNonNull(vector, selection, count) : 0L;
+            case SUM:
+                return vector != null ? sum(vector, selection, count) : BigDecimal.ZERO;
+            case AVG:
+                if (vector == null) {
+                    return null;
                 }
-                distinctValues.add(value);
-            }
-            
-            try {
-                BigDecimal num = new BigDecimal(value);
-                sum = sum.add(num);
-            } catch (NumberFormatException e) {
-                // 不是数字，忽略
-            }
+                long nonNull = VectorizedAggregates.countNonNull(vector, selection, count);
+                if (nonNull == 0) {
+                    return null; // 没有非NULL值，返回NULL
+                }
+                return sum(vector, selection, count)
+                        .divide(new BigDecimal(nonNull), 10, BigDecimal.ROUND_HALF_UP);
+            case MAX:
+            case MIN:
+                return vector != null ? VectorizedAggregates.maxMin(vector, selection, count,
+                        func.getType() == AggregateType.MAX) : null;
+            default:
+                throw new SQLException("Unsupported aggregate function: " + func.getType());
+        }
+    }
+    
+    private BigDecimal sum(ColumnVector vector, int[] selection, int count) {
+        if (vector.getType() == VectorType.LONG) {
+            return VectorizedAggregates.sumLongs(vector, selection, count);
         }
         
+        // BigDecimal.valueOf(double)基于Double.toString，与解析原始字符串的结果一致
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < count; i++) {
+            int row = selection[i];
+            if (vector.hasValue(row)) {
+                sum = sum.add(BigDecimal.valueOf(vector.getDouble(row)));
+            }
+        }
         return sum;
     }
     
     /**
-     * 计算AVG聚合函数
+     * 以HAVING和结果构建需要的各种键登记聚合函数值
      * 
-     * @param rows 数据行列表
+     * @param aggregateValues 聚合函数值映射
      * @param func 聚合函数
-     * @param columnIndexMap 列名到索引的映射
-     * @return AVG值
-     * @throws SQLException 如果计算失败则抛出异常
+     * @param value 聚合值
      */
-    private BigDecimal calculateAvg(List<String[]> rows, AggregateFunction func,
-                                   Map<String, Integer> columnIndexMap) throws SQLException {
-        String column = func.getColumn();
-        if (column == null || "*".equals(column)) {
-            throw new SQLException("AVG(*) is not allowed");
+    private void putAggregateValue(Map<String, Object> aggregateValues, AggregateFunction func,
+                                   Object value) {
+        String alias = func.getAlias();
+        String displayName = func.getDisplayName();
+        String functionExpression = func.getFunctionExpression();
+        
+        // 使用别名作为键（如果有）
+        if (alias != null && !alias.isEmpty()) {
+            aggregateValues.put(alias, value);
+            aggregateValues.put(alias.toUpperCase(), value); // 也存储大写版本
         }
         
-        BigDecimal sum = calculateSum(rows, func, columnIndexMap);
-        long count = calculateCount(rows, new AggregateFunction(AggregateType.COUNT, column, false, null), 
-                                   columnIndexMap);
+        // 使用显示名称作为键
+        aggregateValues.put(displayName, value);
+        aggregateValues.put(displayName.toUpperCase(), value); // 也存储大写版本
         
-        if (count == 0) {
-            return null; // 没有非NULL值，返回NULL
-        }
+        // 使用函数表达式作为键（用于HAVING子句中的 COUNT(*) 等）
+        aggregateValues.put(functionExpression, value);
+        aggregateValues.put(functionExpression.toUpperCase(), value); // 也存储大写版本
         
-        return sum.divide(new BigDecimal(count), 10, BigDecimal.ROUND_HALF_UP);
+        // 也存储去掉空格的版本（用于匹配）
+        aggregateValues.put(functionExpression.replaceAll("\\s+", ""), value);
+        aggregateValues.put(functionExpression.replaceAll("\\s+", "").toUpperCase(), value);
     }
     
     /**
-     * 计算MAX/MIN聚合函数
+     * 计算聚合函数值
      * 
      * @param rows 数据行列表
      * @param func 聚合函数
      * @param columnIndexMap 列名到索引的映射
-     * @param type MAX或MIN
-     * @return MAX/MIN值
+     * @return 聚合值
      * @throws SQLException 如果计算失败则抛出异常
      */
-    private String calculateMaxMin(List<String[]> rows, AggregateFunction func,
-                                   Map<String, Integer> columnIndexMap, AggregateType type) 
-            throws SQLException {
-        String column = func.getColumn();
-        if (column == null || "*".equals(column)) {
-            throw new SQLException(type + "(*) is not allowed");
-        }
-        
-        Integer index = columnIndexMap.get(column.toUpperCase());
-        if (index == null) {
-            return null;
-        }
-        
-        String result = null;
-        Set<String> distinctValues = null;
-        
-        if (func.isDistinct()) {
-            distinctValues = new HashSet<>();
-        }
-        
+    private Object calculateAggregate(List<String[]> rows, AggregateFunction func,
+                                     Map<String, Integer> columnIndexMap) throws SQLException {
+        AggregateAccumulator accumulator = AggregateAccumulator.create(func, columnIndexMap);
         for (String[] row : rows) {
-            if (row == null || index >= row.length) {
-                continue;
-            }
-            
-            String value = row[index];
-            if (value == null) {
-                continue; // 忽略NULL值
-            }
-            
-            if (func.isDistinct()) {
-                if (distinctValues.contains(value)) {
-                    continue;
-                }
-                distinctValues.add(value);
-            }
-            
-            if (result == null) {
-                result = value;
-            } else {
-                // 尝试数值比较
-                try {
-                    BigDecimal num1 = new BigDecimal(result);
-                    BigDecimal num2 = new BigDecimal(value);
-                    int cmp = num2.compareTo(num1);
-                    if ((type == AggregateType.MAX && cmp > 0) || 
-                        (type == AggregateType.MIN && cmp < 0)) {
-                        result = value;
-                    }
-                } catch (NumberFormatException e) {
-                    // 不是数字，进行字符串比较
-                    int cmp = value.compareTo(result);
-                    if ((type == AggregateType.MAX && cmp > 0) || 
-                        (type == AggregateType.MIN && cmp < 0)) {
-                        result = value;
-                    }
-                }
-            }
+            accumulator.add(row);
         }
-        
-        return result;
+        return accumulator.result();
     }
     
     /**
@@ -510,5 +685,69 @@ public class AggregationExecutor {
         
         return resultValues.toArray(new String[0]);
     }
+    
+    /**
+     * 分组键：GROUP BY列的值（NULL与其他值区分）
+     */
+    private static final class GroupKey {
+        private final String[] values;
+        private final int hash;
+        
+        GroupKey(String[] row, int[] keyColumns) {
+            values = new String[keyColumns.length];
+            for (int i = 0; i < keyColumns.length; i++) {
+                int index = keyColumns[i];
+                values[i] = index >= 0 && index < row.length ? row[index] : null;
+            }
+            hash = Arrays.hashCode(values);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof GroupKey && hash == ((GroupKey) obj).hash
+                    && Arrays.equals(values, ((GroupKey) obj).values);
+        }
+    }
+    
+    /**
+     * 一个分组的聚合状态：第一行和各聚合函数的累加器
+     */
+    private final class GroupState {
+        private final String[] firstRow;
+        private final AggregateAccumulator[] accumulators;
+        
+        GroupState(String[] firstRow, List<AggregateFunction> functions,
+                   Map<String, Integer> columnIndexMap) throws SQLException {
+            this.firstRow = firstRow;
+            this.accumulators = new AggregateAccumulator[functions.size()];
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i] = AggregateAccumulator.create(functions.get(i), columnIndexMap);
+            }
+        }
+        
+        void add(String[] row) {
+            for (AggregateAccumulator accumulator : accumulators) {
+                accumulator.add(row);
+            }
+        }
+        
+        void merge(GroupState other) {
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i].merge(other.accumulators[i]);
+            }
+        }
+        
+        Map<String, Object> aggregateValues(List<AggregateFunction> functions) {
+            Map<String, Object> aggregateValues = new HashMap<>();
+            for (int i = 0; i < accumulators.length; i++) {
+                putAggregateValue(aggregateValues, functions.get(i), accumulators[i].result());
+            }
+            return aggregateValues;
+        }
+    }
 }
-
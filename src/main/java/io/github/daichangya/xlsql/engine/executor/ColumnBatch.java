@@ -0,0 +1,80 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+/**
+ * ColumnBatch - 向量化执行的列批
+ * 
+ * <p>一批最多{@link #SIZE}行，由选择向量（被选中的行号）和若干基本类型缓冲区组成。
+ * 算子按批把列值读入缓冲区（见{@code ColumnVector#getLongs}），在缓冲区上做紧凑的基本类型循环，
+ * 再通过压缩选择向量传递结果，不再为每行分配字符串数组。</p>
+ * 
+ * <p>列批只在一个线程内使用，可以在批与批之间重复使用。</p>
+ * 
+ * @author daichangya
+ */
+final class ColumnBatch {
+    
+    /** 每批的最大行数 */
+    static final int SIZE = 1024;
+    
+    /** 选择向量：当前批中被选中的行号（升序） */
+    final int[] selection = new int[SIZE];
+    
+    /** 选择向量中的有效行数 */
+    int count;
+    
+    /** long值缓冲区 */
+    final long[] longs = new long[SIZE];
+    
+    /** double值缓冲区 */
+    final double[] doubles = new double[SIZE];
+    
+    /** NULL标记缓冲区 */
+    final boolean[] nulls = new boolean[SIZE];
+    
+    /** 比较结果缓冲区 */
+    final boolean[] matches = new boolean[SIZE];
+    
+    /**
+     * 选中连续的行区间
+     * 
+     * @param from 起始行号（包含）
+     * @param to 结束行号（不包含），区间长度不能超过{@link #SIZE}
+     */
+    void selectRange(int from, int to) {
+        count = to - from;
+        for (int i = 0; i < count; i++) {
+            selection[i] = from + i;
+        }
+    }
+    
+    /**
+     * 选中行号数组中的一段
+     * 
+     * @param rows 行号数组
+     * @param offset 在rows中的起始位置
+     * @param length 行数，不能超过{@link #SIZE}
+     */
+    void select(int[] rows, int offset, int length) {
+        System.arraycopy(rows, offset, selection, 0, length);
+        count = length;
+    }
+}
@@ -0,0 +1,75 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.Select;
+
+/**
+ * ColumnReferences - 收集表达式中的列引用
+ * 
+ * <p>遇到子查询时只做标记而不深入，调用方据此放弃依赖列引用的优化。</p>
+ * 
+ * @author daichangya
+ */
+final class ColumnReferences extends ExpressionVisitorAdapter {
+    
+    private final List<Column> columns = new ArrayList<>();
+    
+    private boolean subquery;
+    
+    @Override
+    public void visit(Column column) {
+        columns.add(column);
+    }
+    
+    @Override
+    public void visit(ParenthesedSelect select) {
+        subquery = true;
+    }
+    
+    @Override
+    public void visit(Select select) {
+        subquery = true;
+    }
+    
+    /**
+     * 获取收集到的列引用
+     * 
+     * @return 列引用列表
+     */
+    List<Column> getColumns() {
+        return columns;
+    }
+    
+    /**
+     * 是否遇到了子查询
+     * 
+     * @return 含子查询时返回true
+     */
+    boolean hasSubquery() {
+        return subquery;
+    }
+}
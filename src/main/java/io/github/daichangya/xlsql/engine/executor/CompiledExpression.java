@@ -0,0 +1,49 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+/**
+ * CompiledExpression - 编译后的表达式
+ * 
+ * <p>由{@link ExpressionCompiler}生成，列引用已解析为行下标，可以对任意多行重复求值。
+ * 实例不保存逐行状态，可以在线程之间共享。</p>
+ * 
+ * @author daichangya
+ */
+abstract class CompiledExpression {
+    
+    /**
+     * 对一行求值
+     * 
+     * @param row 数据行
+     * @return 求值结果（String、Number、Boolean或null）
+     */
+    abstract Object evaluate(String[] row);
+    
+    /**
+     * 把求值结果解释为条件
+     * 
+     * @param row 数据行
+     * @return 满足条件返回true（规则见{@link ExpressionEvaluator#isTrue(Object)}）
+     */
+    boolean test(String[] row) {
+        return ExpressionEvaluator.isTrue(evaluate(row));
+    }
+}
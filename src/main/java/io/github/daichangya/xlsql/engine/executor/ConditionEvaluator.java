@@ -19,16 +19,22 @@
 */
 package io.github.daichangya.xlsql.engine.executor;
 
-import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.function.IntPredicate;
 
 import io.github.daichangya.xlsql.engine.model.AggregateFunction;
 import io.github.daichangya.xlsql.engine.plan.JoinCondition;
 import io.github.daichangya.xlsql.engine.plan.TableInfo;
 import io.github.daichangya.xlsql.engine.plan.WhereCondition;
+import io.github.daichangya.xlsql.engine.value.NumericValue;
 
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 
 /**
  * ConditionEvaluator - 条件评估器
@@ -41,6 +47,27 @@ import net.sf.jsqlparser.expression.Expression;
  */
 public class ConditionEvaluator {
     
+    /** 单表过滤的并行度，为1时顺序执行 */
+    private final int parallelism;
+    
+    /**
+     * 创建条件评估器，并行度取配置的默认值
+     * 
+     * @see ParallelExecution#defaultParallelism()
+     */
+    public ConditionEvaluator() {
+        this(ParallelExecution.defaultParallelism());
+    }
+    
+    /**
+     * 创建条件评估器
+     * 
+     * @param parallelism 单表过滤的并行度（小于1时按1处理）
+     */
+    public ConditionEvaluator(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
     /**
      * 评估WHERE条件（使用JSqlParser Expression）
      * 
@@ -62,6 +89,125 @@ public class ConditionEvaluator {
         return evaluator.evaluateAsBoolean(expression, row, columnIndexMap, tables);
     }
     
+    /**
+     * 对单表执行WHERE过滤，返回满足条件的行索引
+     * 
+     * <p>WHERE按AND拆分为若干合取项。作用于数值列的比较条件按批向量化求值
+     * （见{@link VectorizedFilter}），作用于字典编码列的等值/IN条件在编码上求值
+     * （见{@link DictionaryPredicates}），都先于其他条件执行；
+     * 只有通过这些条件的行才会展开为字符串行，交给剩余条件逐行求值。
+     * 剩余条件在过滤开始前由{@link ExpressionCompiler}编译一次。
+     * 行数较多时按固定大小的行区间并行过滤（见{@link ParallelExecution}）。</p>
+     * 
+     * @param expression WHERE表达式
+     * @param table 表信息
+     * @param columnIndexMap 列名到索引的映射
+     * @param tables 表信息列表（用于解析表别名）
+     * @return 满足条件的行索引（升序）
+     * @throws SQLException 如果评估失败则抛出异常
+     */
+    public int[] filter(Expression expression, TableInfo table,
+                        Map<String, Integer> columnIndexMap,
+                        List<TableInfo> tables) throws SQLException {
+        List<Expression> conjuncts = expression != null
+                ? splitConjuncts(expression) : new ArrayList<Expression>();
+        return filter(conjuncts, table, columnIndexMap, tables);
+    }
+    
+    /**
+     * 对单表执行一组AND合取项的过滤，返回满足全部条件的行索引
+     * 
+     * @param conjuncts 合取项列表
+     * @param table 表信息
+     * @param columnIndexMap 列名到索引的映射
+     * @param tables 表信息列表（用于解析表别名）
+     * @return 满足条件的行索引（升序）
+     * @throws SQLException 如果评估失败则抛出异常
+     * @see #filter(Expression, TableInfo, Map, List)
+     */
+    public int[] filter(List<Expression> conjuncts, TableInfo table,
+                        Map<String, Integer> columnIndexMap,
+                        List<TableInfo> tables) throws SQLException {
+        if (table.getColumns() == null) {
+            return new int[0];
+        }
+        
+        List<Expression> scalar = new ArrayList<>();
+        VectorizedFilter vectorized = VectorizedFilter.compile(conjuncts, table, columnIndexMap, scalar);
+        
+        List<IntPredicate> encoded = new ArrayList<>();
+        List<Expression> remaining = new ArrayList<>();
+        for (Expression conjunct : scalar) {
+            IntPredicate predicate = DictionaryPredicates.compile(conjunct, table, columnIndexMap);
+            if (predicate != null) {
+                encoded.add(predicate);
+            } else {
+                remaining.add(conjunct);
+            }
+        }
+        
+        List<CompiledExpression> compiled =
+                new ExpressionCompiler(columnIndexMap, tables).compileAll(remaining);
+        
+        // 编译后的表达式、向量化核函数和字典谓词都是无状态的，可以被各工作线程共享
+        return ParallelExecution.select(table.getRowCount(), parallelism,
+                (from, to) -> filterRange(table, from, to, vectorized, encoded, compiled));
+    }
+    
+    private static int[] filterRange(TableInfo table, int from, int to, VectorizedFilter vectorized,
+                                     List<IntPredicate> encoded, List<CompiledExpression> compiled) {
+        int[] selection = new int[to - from];
+        int count = 0;
+        ColumnBatch batch = new ColumnBatch();
+        for (int start = from; start < to; start += ColumnBatch.SIZE) {
+            batch.selectRange(start, Math.min(to, start + ColumnBatch.SIZE));
+            vectorized.filter(batch);
+            rows:
+            for (int j = 0; j < batch.count; j++) {
+                int i = batch.selection[j];
+                for (IntPredicate predicate : encoded) {
+                    if (!predicate.test(i)) {
+                        continue rows;
+                    }
+                }
+                if (!compiled.isEmpty()) {
+                    String[] row = table.getRow(i);
+                    for (CompiledExpression conjunct : compiled) {
+                        if (!conjunct.test(row)) {
+                            continue rows;
+                        }
+                    }
+                }
+                selection[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selection, count);
+    }
+    
+    /**
+     * 把条件按顶层AND拆分为合取项（括号会被展开）
+     * 
+     * @param expression 条件表达式
+     * @return 合取项列表
+     */
+    static List<Expression> splitConjuncts(Expression expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(expression, conjuncts);
+        return conjuncts;
+    }
+    
+    private static void collectConjuncts(Expression expression, List<Expression> conjuncts) {
+        if (expression instanceof Parenthesis
+                && ((Parenthesis) expression).getExpression() instanceof AndExpression) {
+            collectConjuncts(((Parenthesis) expression).getExpression(), conjuncts);
+        } else if (expression instanceof AndExpression) {
+            collectConjuncts(((AndExpression) expression).getLeftExpression(), conjuncts);
+            collectConjuncts(((AndExpression) expression).getRightExpression(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+    
     /**
      * 评估WHERE条件（使用WhereCondition，保持向后兼容）
      * 
@@ -125,6 +271,65 @@ public class ConditionEvaluator {
         return false;
     }
     
+    /**
+     * 编译后的HAVING条件
+     */
+    interface HavingPredicate {
+        
+        /**
+         * 判断分组是否满足条件
+         * 
+         * @param aggregateValues 聚合函数值映射（函数别名 -> 值）
+         * @return 如果分组满足条件返回true
+         * @throws SQLException 如果评估失败则抛出异常
+         */
+        boolean test(Map<String, Object> aggregateValues) throws SQLException;
+    }
+    
+    /**
+     * 把HAVING条件编译一次，供每个分组重复使用
+     * 
+     * <p>条件树的结构和左操作数的各种规范化形式在编译时确定，
+     * 每个分组只做映射查找和比较。语义与{@link #evaluateHaving(WhereCondition, Map)}一致。</p>
+     * 
+     * @param condition HAVING条件对象（可以为null）
+     * @return 编译后的条件
+     */
+    HavingPredicate compileHaving(final WhereCondition condition) {
+        if (condition == null) {
+            return values -> true;
+        }
+        if (condition.isAggregate()) {
+            return values -> evaluateAggregateCondition(condition, values);
+        }
+        if (condition.isSimple()) {
+            final String leftOperand = condition.getLeftOperand();
+            final String upperOperand = leftOperand.toUpperCase();
+            final String compactOperand = leftOperand.replaceAll("\\s+", "");
+            final String operator = condition.getOperator();
+            final String rightValue = condition.getRightOperand();
+            return values -> {
+                Object leftValueObj = findHavingValue(leftOperand, upperOperand, compactOperand, values);
+                if (leftValueObj == null) {
+                    throw new SQLException("Column or aggregate not found in HAVING: " + leftOperand + 
+                                         ". Available keys: " + values.keySet());
+                }
+                return compareValues(leftValueObj.toString(), operator, rightValue);
+            };
+        }
+        if (condition.isCompound()) {
+            final HavingPredicate left = compileHaving(condition.getLeftCondition());
+            final HavingPredicate right = compileHaving(condition.getRightCondition());
+            String op = condition.getLogicalOperator();
+            if ("AND".equalsIgnoreCase(op)) {
+                return values -> left.test(values) & right.test(values);
+            } else if ("OR".equalsIgnoreCase(op)) {
+                return values -> left.test(values) | right.test(values);
+            }
+        }
+        return values -> false;
+    }
+    
     /**
      * 评估简单条件
      * 
@@ -226,19 +431,47 @@ public class ConditionEvaluator {
         String rightOperand = condition.getRightOperand();
         
         // 左操作数应该是聚合函数别名或列名
-        // 尝试多种键名匹配：原始字符串、大写、去掉空格等
+        Object leftValueObj = findHavingValue(leftOperand, leftOperand.toUpperCase(),
+                leftOperand.replaceAll("\\s+", ""), aggregateValues);
+        if (leftValueObj == null) {
+            throw new SQLException("Column or aggregate not found in HAVING: " + leftOperand + 
+                                 ". Available keys: " + aggregateValues.keySet());
+        }
+        
+        String leftValue = leftValueObj.toString();
+        String rightValue = rightOperand;
+        
+        return compareValues(leftValue, operator, rightValue);
+    }
+    
+    /**
+     * 在聚合值中查找HAVING左操作数的值
+     * 
+     * <p>依次尝试原始字符串、大写、去掉空格的键，最后在所有键中模糊匹配。</p>
+     * 
+     * @param leftOperand 左操作数
+     * @param upperOperand 左操作数的大写形式
+     * @param compactOperand 左操作数去掉空格的形式
+     * @param aggregateValues 聚合函数值映射
+     * @return 找到的值，找不到返回null
+     */
+    private static Object findHavingValue(String leftOperand, String upperOperand, String compactOperand,
+                                          Map<String, Object> aggregateValues) {
         Object leftValueObj = aggregateValues.get(leftOperand);
         if (leftValueObj == null) {
             // 尝试大写匹配
-            leftValueObj = aggregateValues.get(leftOperand.toUpperCase());
+            leftValueObj = aggregateValues.get(upperOperand);
         }
         if (leftValueObj == null) {
             // 尝试去掉空格匹配
-            leftValueObj = aggregateValues.get(leftOperand.replaceAll("\\s+", ""));
+            leftValueObj = aggregateValues.get(compactOperand);
+        }
+        if (leftValueObj != null) {
+            return leftValueObj;
         }
         if (leftValueObj == null) {
             // 尝试匹配所有键（包含leftOperand的键）
-            String normalizedLeft = leftOperand.replaceAll("\\s+", "").toUpperCase();
+            String normalizedLeft = compactOperand.toUpperCase();
             for (Map.Entry<String, Object> entry : aggregateValues.entrySet()) {
                 String key = entry.getKey();
                 if (key != null) {
@@ -247,7 +480,7 @@ public class ConditionEvaluator {
                     if (normalizedKey.equals(normalizedLeft) || 
                         key.equalsIgnoreCase(leftOperand) ||
                         // 如果leftOperand是聚合函数表达式（如COUNT(*))，尝试匹配所有值
-                        (leftOperand.toUpperCase().startsWith("COUNT") && normalizedKey.contains("COUNT"))) {
+                        (upperOperand.startsWith("COUNT") && normalizedKey.contains("COUNT"))) {
                         leftValueObj = entry.getValue();
                         break;
                     }
@@ -257,7 +490,7 @@ public class ConditionEvaluator {
         if (leftValueObj == null) {
             // 如果leftOperand是聚合函数表达式（如COUNT(*))，尝试从所有值中查找
             // 因为可能有多个聚合函数，需要找到匹配的那个
-            String normalizedLeft = leftOperand.replaceAll("\\s+", "").toUpperCase();
+            String normalizedLeft = compactOperand.toUpperCase();
             for (Map.Entry<String, Object> entry : aggregateValues.entrySet()) {
                 String key = entry.getKey();
                 if (key != null) {
@@ -270,15 +503,7 @@ public class ConditionEvaluator {
                 }
             }
         }
-        if (leftValueObj == null) {
-            throw new SQLException("Column or aggregate not found in HAVING: " + leftOperand + 
-                                 ". Available keys: " + aggregateValues.keySet());
-        }
-        
-        String leftValue = leftValueObj.toString();
-        String rightValue = rightOperand;
-        
-        return compareValues(leftValue, operator, rightValue);
+        return leftValueObj;
     }
     
     /**
@@ -378,59 +603,36 @@ public class ConditionEvaluator {
             return false; // NULL比较总是false（除了IS NULL）
         }
         
-        // 尝试数值比较
-        try {
-            BigDecimal leftNum = new BigDecimal(leftValue);
-            BigDecimal rightNum = new BigDecimal(rightValue);
-            
-            int cmp = leftNum.compareTo(rightNum);
-            
-            switch (operator) {
-                case "=":
-                    return cmp == 0;
-                case "!=":
-                case "<>":
-                    return cmp != 0;
-                case ">":
-                    return cmp > 0;
-                case ">=":
-                    return cmp >= 0;
-                case "<":
-                    return cmp < 0;
-                case "<=":
-                    return cmp <= 0;
-                default:
-                    return false;
-            }
-        } catch (NumberFormatException e) {
-            // 不是数字，进行字符串比较
-            int cmp = leftValue.compareTo(rightValue);
-            
-            switch (operator) {
-                case "=":
-                    return cmp == 0;
-                case "!=":
-                case "<>":
-                    return cmp != 0;
-                case ">":
-                    return cmp > 0;
-                case ">=":
-                    return cmp >= 0;
-                case "<":
-                    return cmp < 0;
-                case "<=":
-                    return cmp <= 0;
-                case "LIKE":
-                    // 简单的LIKE匹配（支持%通配符）
-                    return likeMatch(leftValue, rightValue);
-                default:
-                    return false;
-            }
+        // 都是数字时按数值比较，否则按字符串比较
+        NumericValue leftNum = NumericValue.parse(leftValue);
+        NumericValue rightNum = leftNum != null ? NumericValue.parse(rightValue) : null;
+        boolean numeric = leftNum != null && rightNum != null;
+        int cmp = numeric ? leftNum.compareTo(rightNum) : leftValue.compareTo(rightValue);
+        
+        switch (operator) {
+            case "=":
+                return cmp == 0;
+            case "!=":
+            case "<>":
+                return cmp != 0;
+            case ">":
+                return cmp > 0;
+            case ">=":
+                return cmp >= 0;
+            case "<":
+                return cmp < 0;
+            case "<=":
+                return cmp <= 0;
+            case "LIKE":
+                // 简单的LIKE匹配（支持%通配符），只对非数字生效
+                return !numeric && likeMatch(leftValue, rightValue);
+            default:
+                return false;
         }
     }
     
     /**
-     * LIKE模式匹配（简单实现，支持%通配符）
+     * LIKE模式匹配（支持%和_通配符）
      * 
      * @param value 值
      * @param pattern 模式
@@ -441,9 +643,7 @@ public class ConditionEvaluator {
             return false;
         }
         
-        // 将SQL LIKE模式转换为正则表达式
-        String regex = pattern.replace("%", ".*").replace("_", ".");
-        return value.matches(regex);
+        return LikePattern.of(pattern).matches(value);
     }
 }
 
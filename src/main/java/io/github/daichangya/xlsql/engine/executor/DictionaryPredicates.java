@@ -0,0 +1,191 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.DictionaryColumnVector;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.NotEqualsTo;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+
+/**
+ * DictionaryPredicates - 字典编码列上的条件编译
+ * 
+ * <p>把作用于字典编码列的等值、不等、IN条件（以及它们的AND/OR组合）
+ * 编译为按行号判断的谓词：字面量在编译时查找一次编码，逐行只比较int编码。
+ * 语义与{@link ExpressionEvaluator}逐行比较字符串完全一致
+ * （例如NULL与字面量比较时“不等”成立）。</p>
+ * 
+ * @author daichangya
+ */
+final class DictionaryPredicates {
+    
+    private DictionaryPredicates() {
+    }
+    
+    /**
+     * 编译条件
+     * 
+     * @param expression 条件表达式
+     * @param table 表信息（单表查询的主表）
+     * @param columnIndexMap 列名到索引的映射
+     * @return 按行号判断的谓词，如果表达式不能在编码上求值则返回null
+     */
+    static IntPredicate compile(Expression expression, TableInfo table,
+                                Map<String, Integer> columnIndexMap) {
+        if (expression instanceof Parenthesis) {
+            return compile(((Parenthesis) expression).getExpression(), table, columnIndexMap);
+        }
+        if (expression instanceof AndExpression) {
+            AndExpression and = (AndExpression) expression;
+            IntPredicate left = compile(and.getLeftExpression(), table, columnIndexMap);
+            IntPredicate right = left != null ? compile(and.getRightExpression(), table, columnIndexMap) : null;
+            return right != null ? left.and(right) : null;
+        }
+        if (expression instanceof OrExpression) {
+            OrExpression or = (OrExpression) expression;
+            IntPredicate left = compile(or.getLeftExpression(), table, columnIndexMap);
+            IntPredicate right = left != null ? compile(or.getRightExpression(), table, columnIndexMap) : null;
+            return right != null ? left.or(right) : null;
+        }
+        if (expression instanceof EqualsTo) {
+            EqualsTo equalsTo = (EqualsTo) expression;
+            return compileEquality(equalsTo.getLeftExpression(), equalsTo.getRightExpression(),
+                    false, table, columnIndexMap);
+        }
+        if (expression instanceof NotEqualsTo) {
+            NotEqualsTo notEqualsTo = (NotEqualsTo) expression;
+            return compileEquality(notEqualsTo.getLeftExpression(), notEqualsTo.getRightExpression(),
+                    true, table, columnIndexMap);
+        }
+        if (expression instanceof InExpression) {
+            return compileIn((InExpression) expression, table, columnIndexMap);
+        }
+        return null;
+    }
+    
+    private static IntPredicate compileEquality(Expression left, Expression right, boolean negate,
+                                                TableInfo table, Map<String, Integer> columnIndexMap) {
+        DictionaryColumnVector column = resolve(left, table, columnIndexMap);
+        Expression literal = right;
+        if (column == null) {
+            column = resolve(right, table, columnIndexMap);
+            literal = left;
+        }
+        if (column == null || !(literal instanceof StringValue)) {
+            return null;
+        }
+        
+        final DictionaryColumnVector vector = column;
+        final int code = vector.lookup(((StringValue) literal).getValue());
+        if (code == DictionaryColumnVector.NULL_CODE) {
+            // 字典中没有该值：没有行相等，所有行（包括NULL）都不等
+            return row -> negate;
+        }
+        return negate ? row -> vector.getCode(row) != code : row -> vector.getCode(row) == code;
+    }
+    
+    private static IntPredicate compileIn(InExpression in, TableInfo table,
+                                          Map<String, Integer> columnIndexMap) {
+        // NOT IN的逐行语义保持由ExpressionEvaluator处理
+        if (in.isNot() || !(in.getRightExpression() instanceof ExpressionList)) {
+            return null;
+        }
+        final DictionaryColumnVector vector = resolve(in.getLeftExpression(), table, columnIndexMap);
+        if (vector == null) {
+            return null;
+        }
+        
+        final BitSet codes = new BitSet(vector.getDictionarySize());
+        for (Object item : (List<?>) ((ExpressionList<?>) in.getRightExpression()).getExpressions()) {
+            if (!(item instanceof StringValue)) {
+                return null;
+            }
+            int code = vector.lookup(((StringValue) item).getValue());
+            if (code != DictionaryColumnVector.NULL_CODE) {
+                codes.set(code);
+            }
+        }
+        return row -> {
+            int code = vector.getCode(row);
+            return code != DictionaryColumnVector.NULL_CODE && codes.get(code);
+        };
+    }
+    
+    /**
+     * 把列引用解析为字典编码列
+     */
+    private static DictionaryColumnVector resolve(Expression expression, TableInfo table,
+                                                  Map<String, Integer> columnIndexMap) {
+        ColumnVector vector = resolveColumn(expression, table, columnIndexMap);
+        return vector instanceof DictionaryColumnVector ? (DictionaryColumnVector) vector : null;
+    }
+    
+    /**
+     * 把列引用解析为表中的列向量（解析规则与ExpressionEvaluator一致）
+     * 
+     * @param expression 表达式
+     * @param table 表信息
+     * @param columnIndexMap 列名到索引的映射
+     * @return 列向量，如果表达式不是列引用或列不存在则返回null
+     */
+    static ColumnVector resolveColumn(Expression expression, TableInfo table,
+                                      Map<String, Integer> columnIndexMap) {
+        if (!(expression instanceof Column)) {
+            return null;
+        }
+        Column column = (Column) expression;
+        String columnName = column.getColumnName();
+        if (columnName == null) {
+            return null;
+        }
+        
+        String key = columnName.toUpperCase();
+        Table columnTable = column.getTable();
+        if (columnTable != null) {
+            String tableAlias = columnTable.getAlias() != null ? columnTable.getAlias().getName()
+                    : columnTable.getName();
+            if (tableAlias != null && !tableAlias.isEmpty()) {
+                key = tableAlias.toUpperCase() + "." + key;
+            }
+        }
+        Integer index = columnIndexMap.get(key);
+        if (index == null) {
+            index = columnIndexMap.get(columnName.toUpperCase());
+        }
+        
+        return index != null ? table.getColumn(index) : null;
+    }
+}
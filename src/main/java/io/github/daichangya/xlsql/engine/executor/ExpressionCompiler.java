@@ -0,0 +1,673 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.expression.HexValue;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.NotExpression;
+import net.sf.jsqlparser.expression.NullValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.operators.arithmetic.Addition;
+import net.sf.jsqlparser.expression.operators.arithmetic.Concat;
+import net.sf.jsqlparser.expression.operators.arithmetic.Division;
+import net.sf.jsqlparser.expression.operators.arithmetic.Modulo;
+import net.sf.jsqlparser.expression.operators.arithmetic.Multiplication;
+import net.sf.jsqlparser.expression.operators.arithmetic.Subtraction;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.ExpressionList;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
+import net.sf.jsqlparser.expression.operators.relational.LikeExpression;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.NotEqualsTo;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+
+/**
+ * ExpressionCompiler - 表达式编译器
+ * 
+ * <p>把JSqlParser表达式在查询开始时编译为一棵小型求值器对象树：
+ * 列引用在编译时解析为行中的下标，常量在编译时求值，LIKE的常量模式只编译一次。
+ * 之后每行只需沿树调用{@link CompiledExpression#evaluate(String[])}，
+ * 不再遍历AST、也不再按列名查找映射。</p>
+ * 
+ * <p>求值语义与{@link ExpressionEvaluator}逐一对应（比较和算术共用其静态方法）；
+ * 编译器不认识的表达式类型编译为委托给{@link ExpressionEvaluator}的节点，结果保持一致。</p>
+ * 
+ * @author daichangya
+ */
+final class ExpressionCompiler {
+    
+    /** 列名到索引的映射 */
+    private final Map<String, Integer> columnIndexMap;
+    
+    /** 表信息列表（用于委托解释执行的节点） */
+    private final List<TableInfo> tables;
+    
+    /**
+     * 创建表达式编译器
+     * 
+     * @param columnIndexMap 列名到索引的映射
+     * @param tables 表信息列表
+     */
+    ExpressionCompiler(Map<String, Integer> columnIndexMap, List<TableInfo> tables) {
+        this.columnIndexMap = columnIndexMap;
+        this.tables = tables;
+    }
+    
+    /**
+     * 编译一组表达式
+     * 
+     * @param expressions 表达式列表
+     * @return 编译结果（顺序与输入一致）
+     */
+    List<CompiledExpression> compileAll(List<Expression> expressions) {
+        List<CompiledExpression> compiled = new ArrayList<>(expressions.size());
+        for (Expression expression : expressions) {
+            compiled.add(compile(expression));
+        }
+        return compiled;
+    }
+    
+    /**
+     * 编译表达式
+     * 
+     * @param expression 表达式（null编译为NULL常量）
+     * @return 编译后的求值器
+     */
+    CompiledExpression compile(Expression expression) {
+        if (expression == null || expression instanceof NullValue) {
+            return new Constant(null);
+        }
+        if (expression instanceof StringValue) {
+            return new Constant(((StringValue) expression).getValue());
+        }
+        if (expression instanceof LongValue) {
+            return new Constant(((LongValue) expression).getValue());
+        }
+        if (expression instanceof DoubleValue) {
+            return new Constant(((DoubleValue) expression).getValue());
+        }
+        if (expression instanceof HexValue) {
+            return new Constant(hexValue((HexValue) expression));
+        }
+        if (expression instanceof Column) {
+            return compileColumn((Column) expression);
+        }
+        if (expression instanceof Parenthesis) {
+            return compile(((Parenthesis) expression).getExpression());
+        }
+        if (expression instanceof AndExpression) {
+            AndExpression and = (AndExpression) expression;
+            return new And(compile(and.getLeftExpression()), compile(and.getRightExpression()));
+        }
+        if (expression instanceof OrExpression) {
+            OrExpression or = (OrExpression) expression;
+            return new Or(compile(or.getLeftExpression()), compile(or.getRightExpression()));
+        }
+        if (expression instanceof NotExpression) {
+            return new Not(compile(((NotExpression) expression).getExpression()));
+        }
+        if (expression instanceof ComparisonOperator) {
+            CompiledExpression comparison = compileComparison((ComparisonOperator) expression);
+            if (comparison != null) {
+                return comparison;
+            }
+        }
+        if (expression instanceof Addition) {
+            return compileArithmetic((Addition) expression, "+");
+        }
+        if (expression instanceof Subtraction) {
+            return compileArithmetic((Subtraction) expression, "-");
+        }
+        if (expression instanceof Multiplication) {
+            return compileArithmetic((Multiplication) expression, "*");
+        }
+        if (expression instanceof Division) {
+            return compileArithmetic((Division) expression, "/");
+        }
+        if (expression instanceof Modulo) {
+            return compileArithmetic((Modulo) expression, "%");
+        }
+        if (expression instanceof Concat) {
+            Concat concat = (Concat) expression;
+            return new ConcatNode(compile(concat.getLeftExpression()), compile(concat.getRightExpression()));
+        }
+        if (expression instanceof LikeExpression) {
+            return compileLike((LikeExpression) expression);
+        }
+        if (expression instanceof InExpression) {
+            CompiledExpression in = compileIn((InExpression) expression);
+            if (in != null) {
+                return in;
+            }
+        }
+        if (expression instanceof Between) {
+            Between between = (Between) expression;
+            return new BetweenNode(compile(between.getLeftExpression()),
+                    compile(between.getBetweenExpressionStart()),
+                    compile(between.getBetweenExpressionEnd()), between.isNot());
+        }
+        if (expression instanceof IsNullExpression) {
+            IsNullExpression isNull = (IsNullExpression) expression;
+            return new IsNull(compile(isNull.getLeftExpression()), isNull.isNot());
+        }
+        if (expression instanceof Function) {
+            return compileFunction((Function) expression);
+        }
+        return new Interpreted(expression, columnIndexMap, tables);
+    }
+    
+    private static Object hexValue(HexValue hexValue) {
+        try {
+            return Long.parseLong(hexValue.getValue(), 16);
+        } catch (NumberFormatException e) {
+            return hexValue.getValue();
+        }
+    }
+    
+    /**
+     * 把列引用解析为下标（规则与ExpressionEvaluator一致）
+     */
+    private CompiledExpression compileColumn(Column column) {
+        String columnName = column.getColumnName();
+        if (columnName == null) {
+            return new Constant(null);
+        }
+        Table table = column.getTable();
+        String tableAlias = null;
+        if (table != null) {
+            tableAlias = table.getAlias() != null ? table.getAlias().getName() : table.getName();
+        }
+        String key = columnName.toUpperCase();
+        if (tableAlias != null && !tableAlias.isEmpty()) {
+            key = tableAlias.toUpperCase() + "." + key;
+        }
+        Integer index = columnIndexMap.get(key);
+        if (index == null) {
+            index = columnIndexMap.get(columnName.toUpperCase());
+        }
+        if (index == null || index < 0) {
+            return new Constant(null);
+        }
+        return new ColumnRef(index);
+    }
+    
+    private CompiledExpression compileComparison(ComparisonOperator comparison) {
+        int operator;
+        if (comparison instanceof EqualsTo) {
+            operator = Comparison.EQ;
+        } else if (comparison instanceof NotEqualsTo) {
+            operator = Comparison.NE;
+        } else if (comparison instanceof GreaterThan) {
+            operator = Comparison.GT;
+        } else if (comparison instanceof GreaterThanEquals) {
+            operator = Comparison.GE;
+        } else if (comparison instanceof MinorThan) {
+            operator = Comparison.LT;
+        } else if (comparison instanceof MinorThanEquals) {
+            operator = Comparison.LE;
+        } else {
+            return null;
+        }
+        return new Comparison(operator, compile(comparison.getLeftExpression()),
+                compile(comparison.getRightExpression()));
+    }
+    
+    private CompiledExpression compileArithmetic(
+            net.sf.jsqlparser.expression.BinaryExpression expression, String operator) {
+        return new Arithmetic(operator, compile(expression.getLeftExpression()),
+                compile(expression.getRightExpression()));
+    }
+    
+    private CompiledExpression compileLike(LikeExpression like) {
+        CompiledExpression value = compile(like.getLeftExpression());
+        CompiledExpression pattern = compile(like.getRightExpression());
+        if (pattern instanceof Constant) {
+            Object constant = ((Constant) pattern).value;
+            if (constant == null) {
+                return new Constant(Boolean.FALSE);
+            }
+            return new LikeConstant(value, LikePattern.compile(constant.toString()), like.isNot());
+        }
+        return new Like(value, pattern, like.isNot());
+    }
+    
+    private CompiledExpression compileIn(InExpression in) {
+        Expression right = in.getRightExpression();
+        if (right instanceof Parenthesis) {
+            right = ((Parenthesis) right).getExpression();
+        }
+        if (!(right instanceof ExpressionList)) {
+            // 子查询等不支持的形式交给解释执行
+            return null;
+        }
+        List<?> items = ((ExpressionList<?>) right).getExpressions();
+        CompiledExpression[] compiledItems = new CompiledExpression[items != null ? items.size() : 0];
+        boolean constant = true;
+        for (int i = 0; i < compiledItems.length; i++) {
+            compiledItems[i] = compile((Expression) items.get(i));
+            constant &= compiledItems[i] instanceof Constant;
+        }
+        CompiledExpression left = compile(in.getLeftExpression());
+        if (constant) {
+            // 常量列表预先整理成哈希集合
+            Object[] values = new Object[compiledItems.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = ((Constant) compiledItems[i]).value;
+            }
+            return new InSet(left, new InValueSet(values), in.isNot());
+        }
+        return new In(left, compiledItems, in.isNot());
+    }
+    
+    private CompiledExpression compileFunction(Function function) {
+        if (function.getParameters() == null || function.getParameters().getExpressions().isEmpty()) {
+            return new Constant(null);
+        }
+        List<?> params = function.getParameters().getExpressions();
+        String functionName = function.getName().toUpperCase();
+        int kind;
+        switch (functionName) {
+            case "UPPER":
+            case "UCASE":
+                kind = FunctionCall.UPPER;
+                break;
+            case "LOWER":
+            case "LCASE":
+                kind = FunctionCall.LOWER;
+                break;
+            case "TRIM":
+                kind = FunctionCall.TRIM;
+                break;
+            case "LENGTH":
+            case "CHAR_LENGTH":
+                kind = FunctionCall.LENGTH;
+                break;
+            default:
+                // 其他函数暂不支持，返回第一个参数的值
+                return compile((Expression) params.get(0));
+        }
+        if (params.size() != 1) {
+            return new Constant(null);
+        }
+        return new FunctionCall(kind, compile((Expression) params.get(0)));
+    }
+    
+    // ========== 求值器节点 ==========
+    
+    /**
+     * 常量
+     */
+    private static final class Constant extends CompiledExpression {
+        private final Object value;
+        
+        Constant(Object value) {
+            this.value = value;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            return value;
+        }
+    }
+    
+    /**
+     * 列引用（已解析为行中的下标）
+     */
+    private static final class ColumnRef extends CompiledExpression {
+        private final int index;
+        
+        ColumnRef(int index) {
+            this.index = index;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            return index < row.length ? row[index] : null;
+        }
+    }
+    
+    /**
+     * 返回布尔值的节点：按基本类型实现test，evaluate只做装箱
+     */
+    private abstract static class Predicate extends CompiledExpression {
+        @Override
+        final Object evaluate(String[] row) {
+            return Boolean.valueOf(test(row));
+        }
+        
+        @Override
+        abstract boolean test(String[] row);
+    }
+    
+    private static final class And extends Predicate {
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+        
+        And(CompiledExpression left, CompiledExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            return left.test(row) && right.test(row);
+        }
+    }
+    
+    private static final class Or extends Predicate {
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+        
+        Or(CompiledExpression left, CompiledExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            return left.test(row) || right.test(row);
+        }
+    }
+    
+    private static final class Not extends Predicate {
+        private final CompiledExpression operand;
+        
+        Not(CompiledExpression operand) {
+            this.operand = operand;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            return !operand.test(row);
+        }
+    }
+    
+    private static final class Comparison extends Predicate {
+        static final int EQ = 0;
+        static final int NE = 1;
+        static final int GT = 2;
+        static final int GE = 3;
+        static final int LT = 4;
+        static final int LE = 5;
+        
+        private final int operator;
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+        
+        Comparison(int operator, CompiledExpression left, CompiledExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            int cmp = ExpressionEvaluator.compareValues(left.evaluate(row), right.evaluate(row));
+            switch (operator) {
+                case EQ:
+                    return cmp == 0;
+                case NE:
+                    return cmp != 0;
+                case GT:
+                    return cmp > 0;
+                case GE:
+                    return cmp >= 0;
+                case LT:
+                    return cmp < 0;
+                default:
+                    return cmp <= 0;
+            }
+        }
+    }
+    
+    private static final class Arithmetic extends CompiledExpression {
+        private final String operator;
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+        
+        Arithmetic(String operator, CompiledExpression left, CompiledExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            return ExpressionEvaluator.performArithmetic(left.evaluate(row), right.evaluate(row), operator);
+        }
+    }
+    
+    private static final class ConcatNode extends CompiledExpression {
+        private final CompiledExpression left;
+        private final CompiledExpression right;
+        
+        ConcatNode(CompiledExpression left, CompiledExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            Object l = left.evaluate(row);
+            Object r = right.evaluate(row);
+            return (l != null ? l.toString() : "") + (r != null ? r.toString() : "");
+        }
+    }
+    
+    /**
+     * 常量模式的LIKE（模式只分析一次）
+     */
+    private static final class LikeConstant extends Predicate {
+        private final CompiledExpression value;
+        private final LikePattern pattern;
+        private final boolean not;
+        
+        LikeConstant(CompiledExpression value, LikePattern pattern, boolean not) {
+            this.value = value;
+            this.pattern = pattern;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            Object v = value.evaluate(row);
+            if (v == null) {
+                return false;
+            }
+            return pattern.matches(v.toString()) != not;
+        }
+    }
+    
+    private static final class Like extends Predicate {
+        private final CompiledExpression value;
+        private final CompiledExpression pattern;
+        private final boolean not;
+        
+        Like(CompiledExpression value, CompiledExpression pattern, boolean not) {
+            this.value = value;
+            this.pattern = pattern;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            Object v = value.evaluate(row);
+            Object p = pattern.evaluate(row);
+            if (v == null || p == null) {
+                return false;
+            }
+            return LikePattern.of(p.toString()).matches(v.toString()) != not;
+        }
+    }
+    
+    private static final class In extends Predicate {
+        private final CompiledExpression left;
+        private final CompiledExpression[] items;
+        private final boolean not;
+        
+        In(CompiledExpression left, CompiledExpression[] items, boolean not) {
+            this.left = left;
+            this.items = items;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            Object value = left.evaluate(row);
+            for (CompiledExpression item : items) {
+                if (ExpressionEvaluator.compareValues(value, item.evaluate(row)) == 0) {
+                    return !not;
+                }
+            }
+            return not;
+        }
+    }
+    
+    /**
+     * 常量列表的IN（每行一次哈希探测）
+     */
+    private static final class InSet extends Predicate {
+        private final CompiledExpression left;
+        private final InValueSet values;
+        private final boolean not;
+        
+        InSet(CompiledExpression left, InValueSet values, boolean not) {
+            this.left = left;
+            this.values = values;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            return values.contains(left.evaluate(row)) != not;
+        }
+    }
+    
+    private static final class BetweenNode extends Predicate {
+        private final CompiledExpression value;
+        private final CompiledExpression min;
+        private final CompiledExpression max;
+        private final boolean not;
+        
+        BetweenNode(CompiledExpression value, CompiledExpression min, CompiledExpression max, boolean not) {
+            this.value = value;
+            this.min = min;
+            this.max = max;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            Object v = value.evaluate(row);
+            boolean between = ExpressionEvaluator.compareValues(v, min.evaluate(row)) >= 0
+                    && ExpressionEvaluator.compareValues(v, max.evaluate(row)) <= 0;
+            return between != not;
+        }
+    }
+    
+    private static final class IsNull extends Predicate {
+        private final CompiledExpression operand;
+        private final boolean not;
+        
+        IsNull(CompiledExpression operand, boolean not) {
+            this.operand = operand;
+            this.not = not;
+        }
+        
+        @Override
+        boolean test(String[] row) {
+            return (operand.evaluate(row) == null) != not;
+        }
+    }
+    
+    private static final class FunctionCall extends CompiledExpression {
+        static final int UPPER = 0;
+        static final int LOWER = 1;
+        static final int TRIM = 2;
+        static final int LENGTH = 3;
+        
+        private final int kind;
+        private final CompiledExpression argument;
+        
+        FunctionCall(int kind, CompiledExpression argument) {
+            this.kind = kind;
+            this.argument = argument;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            Object value = argument.evaluate(row);
+            String str = value != null ? value.toString() : null;
+            switch (kind) {
+                case UPPER:
+                    return str != null ? str.toUpperCase() : null;
+                case LOWER:
+                    return str != null ? str.toLowerCase() : null;
+                case TRIM:
+                    return str != null ? str.trim() : null;
+                default:
+                    return str != null ? str.length() : 0;
+            }
+        }
+    }
+    
+    /**
+     * 编译器不认识的表达式：委托给ExpressionEvaluator解释执行
+     */
+    private static final class Interpreted extends CompiledExpression {
+        private final Expression expression;
+        private final Map<String, Integer> columnIndexMap;
+        private final List<TableInfo> tables;
+        
+        Interpreted(Expression expression, Map<String, Integer> columnIndexMap, List<TableInfo> tables) {
+            this.expression = expression;
+            this.columnIndexMap = columnIndexMap;
+            this.tables = tables;
+        }
+        
+        @Override
+        Object evaluate(String[] row) {
+            try {
+                return new ExpressionEvaluator().evaluate(expression, row, columnIndexMap, tables);
+            } catch (java.sql.SQLException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -20,12 +20,14 @@
 package io.github.daichangya.xlsql.engine.executor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
 import io.github.daichangya.xlsql.engine.plan.TableInfo;
+import io.github.daichangya.xlsql.engine.value.NumericValue;
 
 import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
@@ -33,6 +35,7 @@ import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
 import net.sf.jsqlparser.expression.Function;
 import net.sf.jsqlparser.expression.HexValue;
 import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.NotExpression;
 import net.sf.jsqlparser.expression.NullValue;
 import net.sf.jsqlparser.expression.Parenthesis;
 import net.sf.jsqlparser.expression.StringValue;
@@ -146,7 +149,16 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
     public boolean evaluateAsBoolean(Expression expression, String[] row,
                                     Map<String, Integer> columnIndexMap,
                                     List<TableInfo> tables) throws SQLException {
-        Object value = evaluate(expression, row, columnIndexMap, tables);
+        return isTrue(evaluate(expression, row, columnIndexMap, tables));
+    }
+    
+    /**
+     * 把评估结果解释为布尔值
+     * 
+     * @param value 评估结果
+     * @return NULL为false，数值非零为true，字符串非空为true
+     */
+    static boolean isTrue(Object value) {
         if (value instanceof Boolean) {
             return (Boolean) value;
         }
@@ -312,9 +324,8 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
             return;
         }
         
-        // 简单的LIKE匹配（支持%和_通配符）
-        String regex = pattern.replace("%", ".*").replace("_", ".");
-        result = value.matches(regex);
+        // LIKE匹配（支持%和_通配符）
+        result = LikePattern.of(pattern).matches(value) != likeExpression.isNot();
     }
     
     public void visit(InExpression inExpression) {
@@ -332,88 +343,25 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
             // 如果不是子查询，可能是值列表，继续处理
         }
         
-        // JSqlParser 4.7的API：使用反射获取getRightItemsList方法
-        try {
-            // 尝试使用反射获取getRightItemsList方法
-            java.lang.reflect.Method getRightItemsList = inExpression.getClass().getMethod("getRightItemsList");
-            Object rightItemsList = getRightItemsList.invoke(inExpression);
-            
-            if (rightItemsList != null) {
-                // 如果返回的是ExpressionList，直接使用
-                if (rightItemsList instanceof ExpressionList) {
-                    ExpressionList exprList = (ExpressionList) rightItemsList;
-                    List<Expression> items = exprList.getExpressions();
-                    if (items != null) {
-                        for (Expression item : items) {
-                            Object right = evaluateOperand(item);
-                            if (compareValues(left, right) == 0) {
-                                result = true;
-                                return;
-                            }
-                        }
-                    }
-                } else {
-                    // 尝试使用反射获取expressions（用于其他ItemsList实现）
-                    try {
-                        java.lang.reflect.Method getExpressions = rightItemsList.getClass().getMethod("getExpressions");
-                        @SuppressWarnings("unchecked")
-                        List<Expression> items = (List<Expression>) getExpressions.invoke(rightItemsList);
-                        if (items != null) {
-                            for (Expression item : items) {
-                                Object right = evaluateOperand(item);
-                                if (compareValues(left, right) == 0) {
-                                    result = true;
-                                    return;
-                                }
-                            }
-                        }
-                    } catch (Exception e) {
-                        // 如果方法不存在，记录警告
-                        logger.warning("Cannot get expressions from ItemsList: " + rightItemsList.getClass().getName() + ", error: " + e.getMessage());
-                    }
-                }
-            }
-        } catch (NoSuchMethodException e) {
-            // getRightItemsList方法不存在，尝试解析getRightExpression
-            // 如果getRightExpression返回的是Parenthesis，尝试解析内部表达式
-            Expression rightExpr = inExpression.getRightExpression();
-            if (rightExpr instanceof Parenthesis) {
-                Parenthesis paren = (Parenthesis) rightExpr;
-                Expression innerExpr = paren.getExpression();
-                // 如果内部表达式是ExpressionList，解析它
-                if (innerExpr instanceof ExpressionList) {
-                    ExpressionList exprList = (ExpressionList) innerExpr;
-                    List<Expression> items = exprList.getExpressions();
-                    if (items != null) {
-                        for (Expression item : items) {
-                            Object right = evaluateOperand(item);
-                            if (compareValues(left, right) == 0) {
-                                result = true;
-                                return;
-                            }
-                        }
-                    }
-                }
-            } else if (rightExpr instanceof ExpressionList) {
-                // 直接是ExpressionList
-                ExpressionList exprList = (ExpressionList) rightExpr;
-                List<Expression> items = exprList.getExpressions();
-                if (items != null) {
-                    for (Expression item : items) {
-                        Object right = evaluateOperand(item);
-                        if (compareValues(left, right) == 0) {
-                            result = true;
-                            return;
-                        }
+        // 值列表：(a, b, c)，旧版本的JSqlParser会包一层Parenthesis
+        Expression rightExpr = inExpression.getRightExpression();
+        if (rightExpr instanceof Parenthesis) {
+            rightExpr = ((Parenthesis) rightExpr).getExpression();
+        }
+        if (rightExpr instanceof ExpressionList) {
+            List<?> items = ((ExpressionList<?>) rightExpr).getExpressions();
+            if (items != null) {
+                for (Object item : items) {
+                    Object right = evaluateOperand((Expression) item);
+                    if (compareValues(left, right) == 0) {
+                        result = !inExpression.isNot();
+                        return;
                     }
                 }
             }
-        } catch (Exception e) {
-            // 如果反射失败，记录警告
-            logger.warning("Cannot get right items list from InExpression: " + e.getMessage());
         }
         
-        result = false;
+        result = inExpression.isNot();
     }
     
     public void visit(Between between) {
@@ -423,7 +371,7 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
         
         int cmp1 = compareValues(value, min);
         int cmp2 = compareValues(value, max);
-        result = cmp1 >= 0 && cmp2 <= 0;
+        result = (cmp1 >= 0 && cmp2 <= 0) != between.isNot();
     }
     
     public void visit(IsNullExpression isNullExpression) {
@@ -445,6 +393,10 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
         result = left || right;
     }
     
+    public void visit(NotExpression notExpression) {
+        result = !evaluateOperandAsBoolean(notExpression.getExpression());
+    }
+    
     // ========== 其他表达式 ==========
     
     public void visit(Parenthesis parenthesis) {
@@ -558,57 +510,63 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
     
     /**
      * 执行算术运算
+     * 
+     * <p>操作数为数值对象时直接使用，字符串按十进制解析，不能解析的字符串视为0；
+     * 无法表示为十进制数的数值（NaN、无穷大）使结果为NULL。</p>
      */
-    private Object performArithmetic(Object left, Object right, String operator) {
+    static Object performArithmetic(Object left, Object right, String operator) {
         if (left == null || right == null) {
             return null;
         }
         
-        try {
-            BigDecimal leftNum = toBigDecimal(left);
-            BigDecimal rightNum = toBigDecimal(right);
-            
-            switch (operator) {
-                case "+":
-                    return leftNum.add(rightNum);
-                case "-":
-                    return leftNum.subtract(rightNum);
-                case "*":
-                    return leftNum.multiply(rightNum);
-                case "/":
-                    if (rightNum.compareTo(BigDecimal.ZERO) == 0) {
-                        return null; // 除零
-                    }
-                    return leftNum.divide(rightNum, 10, BigDecimal.ROUND_HALF_UP);
-                case "%":
-                    return leftNum.remainder(rightNum);
-                default:
-                    return null;
-            }
-        } catch (NumberFormatException e) {
+        NumericValue leftNum = toNumeric(left);
+        NumericValue rightNum = toNumeric(right);
+        if (leftNum == null || rightNum == null) {
             return null;
         }
+        
+        switch (operator) {
+            case "+":
+                return leftNum.add(rightNum);
+            case "-":
+                return leftNum.subtract(rightNum);
+            case "*":
+                return leftNum.multiply(rightNum);
+            case "/":
+                if (rightNum.signum() == 0) {
+                    return null; // 除零
+                }
+                return leftNum.divide(rightNum, 10, RoundingMode.HALF_UP);
+            case "%":
+                return leftNum.remainder(rightNum);
+            default:
+                return null;
+        }
     }
     
     /**
-     * 转换为BigDecimal
+     * 转换为算术运算的操作数
+     * 
+     * @return 数值；非数字的字符串返回0，无法表示的数值返回null
      */
-    private BigDecimal toBigDecimal(Object value) {
-        if (value instanceof Number) {
-            return new BigDecimal(value.toString());
-        }
-        try {
-            return new BigDecimal(value.toString());
-        } catch (NumberFormatException e) {
-            return BigDecimal.ZERO;
+    private static NumericValue toNumeric(Object value) {
+        NumericValue number = NumericValue.valueOf(value);
+        if (number == null && !(value instanceof Number)) {
+            return NumericValue.ZERO;
         }
+        return number;
     }
     
     /**
      * 比较两个值
+     * 
+     * <p>两个字符串按字符串比较。否则，只有两边都是规范形式的数字
+     * （与其十进制值的标准字符串表示一致，允许前导0）时才按数值比较，
+     * 其余情况比较去掉首尾空白的字符串。</p>
      */
-    private int compareValues(Object left, Object right) {
-        if (left == null && right == null) {
+    static int compareValues(Object left, Object right) {
+        if (left == right) {
+            // 同一实例（包括都为NULL）；字典编码列的相同值共享同一个String实例
             return 0;
         }
         if (left == null) {
@@ -623,29 +581,117 @@ public class ExpressionEvaluator extends ExpressionVisitorAdapter {
             return ((String) left).compareTo((String) right);
         }
         
+        if (isNonFinite(left) || isNonFinite(right)) {
+            return left.toString().compareTo(right.toString());
+        }
+        
         // 尝试数值比较
-        try {
-            BigDecimal leftNum = toBigDecimal(left);
-            BigDecimal rightNum = toBigDecimal(right);
-            // 检查是否真的都是数字（通过比较原始字符串和BigDecimal字符串）
-            String leftStr = left.toString().trim();
-            String rightStr = right.toString().trim();
-            String leftNumStr = leftNum.toString();
-            String rightNumStr = rightNum.toString();
-            
-            // 如果原始字符串和BigDecimal字符串不匹配，说明不是纯数字，使用字符串比较
-            if (!leftStr.equals(leftNumStr) && !leftStr.replaceFirst("^0+", "").equals(leftNumStr.replaceFirst("^0+", ""))) {
-                return leftStr.compareTo(rightStr);
+        String leftStr = left.toString().trim();
+        String rightStr = right.toString().trim();
+        NumericValue leftNum = canonicalNumber(left, leftStr);
+        NumericValue rightNum = leftNum != null ? canonicalNumber(right, rightStr) : null;
+        if (leftNum == null || rightNum == null) {
+            // 不是纯数字，使用字符串比较
+            return leftStr.compareTo(rightStr);
+        }
+        return leftNum.compareTo(rightNum);
+    }
+    
+    static boolean isNonFinite(Object value) {
+        return (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite()))
+                || (value instanceof Float && (((Float) value).isNaN() || ((Float) value).isInfinite()));
+    }
+    
+    /**
+     * 把值解析为规范形式的数字
+     * 
+     * @param value 原始值
+     * @param text 去掉首尾空白的字符串形式
+     * @return 数值；不是规范形式的数字时返回null
+     */
+    static NumericValue canonicalNumber(Object value, String text) {
+        if (value instanceof NumericValue || value instanceof BigDecimal || value instanceof Long
+                || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            // 这些类型的toString本身就是规范形式
+            return NumericValue.valueOf(value);
+        }
+        NumericValue number = NumericValue.parse(value.toString());
+        if (number == null) {
+            // 无法解析的值按0处理，只有全由0组成（包括空串）的文本才算规范形式
+            return isAllZeros(text) ? NumericValue.ZERO : null;
+        }
+        boolean canonical = hasExponentOrPlus(text)
+                ? isCanonicalForm(text, number.toString()) : isCanonicalPlain(text);
+        return canonical ? number : null;
+    }
+    
+    private static boolean isAllZeros(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != '0') {
+                return false;
             }
-            if (!rightStr.equals(rightNumStr) && !rightStr.replaceFirst("^0+", "").equals(rightNumStr.replaceFirst("^0+", ""))) {
-                return leftStr.compareTo(rightStr);
+        }
+        return true;
+    }
+    
+    private static boolean hasExponentOrPlus(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == 'e' || c == 'E' || c == '+') {
+                return true;
             }
-            
-            return leftNum.compareTo(rightNum);
-        } catch (NumberFormatException e) {
-            // 不是数字，进行字符串比较
-            return left.toString().compareTo(right.toString());
         }
+        return false;
+    }
+    
+    /**
+     * 判断不带指数和正号的十进制字符串是否为规范形式（不分配对象）
+     * 
+     * <p>规范形式与BigDecimal的字符串表示一致，只允许整数部分带前导0；
+     * 负数不能带前导0，负零和需要科学计数法表示的小数不是规范形式。</p>
+     */
+    private static boolean isCanonicalPlain(String text) {
+        int length = text.length();
+        boolean negative = text.charAt(0) == '-';
+        int start = negative ? 1 : 0;
+        int dot = -1;
+        int firstNonZero = -1;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                dot = i;
+            } else if (c != '0' && firstNonZero < 0) {
+                firstNonZero = i;
+            }
+        }
+        int integerLength = (dot >= 0 ? dot : length) - start;
+        int scale = dot >= 0 ? length - dot - 1 : 0;
+        if (dot >= 0 && scale == 0) {
+            return false; // "5." 的规范形式是 "5"
+        }
+        boolean zero = firstNonZero < 0;
+        int adjusted;
+        if (zero) {
+            adjusted = -scale;
+        } else {
+            int precision = length - firstNonZero - (dot > firstNonZero ? 1 : 0);
+            adjusted = precision - 1 - scale;
+        }
+        if (adjusted < -6) {
+            return false; // 规范形式为科学计数法
+        }
+        if (!negative) {
+            return true;
+        }
+        return !zero && integerLength > 0
+                && (text.charAt(start) != '0' || integerLength == 1);
+    }
+    
+    /**
+     * 通用的规范形式判断：与标准表示相同，或去掉前导0后相同
+     */
+    private static boolean isCanonicalForm(String text, String canonical) {
+        return text.equals(canonical)
+                || text.replaceFirst("^0+", "").equals(canonical.replaceFirst("^0+", ""));
     }
 }
-
@@ -0,0 +1,391 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.logging.Logger;
+
+import io.github.daichangya.xlsql.util.XlSqlConfig;
+
+/**
+ * ExternalSorter - 带内存预算的外部归并排序
+ * 
+ * <p>输入行按顺序放入内存缓冲区，估算的占用超过内存预算时，
+ * 把缓冲区排序后作为一个有序段写入临时文件并清空缓冲区。
+ * 输入结束后，如果没有写出过有序段，直接返回内存中排好序的行；
+ * 否则对各有序段（最后一段留在内存中）做k路归并，逐行输出。
+ * 比较相等时先出现的行优先，结果与稳定排序一致。每行的排序键
+ * （见{@link RowOrder}）只在放入缓冲区或从有序段读出时计算一次；
+ * 较大的缓冲区用{@link ParallelExecution#sort}并行排序。</p>
+ * 
+ * <p>内存预算可以通过系统属性 -Dxlsql.sort.memory=字节数（或环境变量
+ * XLSQL_SORT_MEMORY）配置，默认取64MB与最大堆的1/4中的较小值。
+ * 有序段文件格式：每行为int列数（null行为-1）加各列的字符串，
+ * 字符串编码为int字节长度（null为-1）加UTF-8字节，与{@code SheetSnapshot}一致。</p>
+ * 
+ * @author daichangya
+ */
+public final class ExternalSorter {
+    
+    /** 日志记录器 */
+    private static final Logger logger = Logger.getLogger(ExternalSorter.class.getName());
+    
+    /** 系统属性键：排序的内存预算（字节） */
+    public static final String PROP_MEMORY = "xlsql.sort.memory";
+    
+    /** 默认内存预算上限 */
+    private static final long DEFAULT_MEMORY = 64L << 20;
+    
+    /** 读写有序段文件的缓冲区大小 */
+    private static final int IO_BUFFER = 1 << 16;
+    
+    private final RowOrder order;
+    
+    private final long memoryBudget;
+    
+    private final int parallelism;
+    
+    /**
+     * 创建外部排序器
+     * 
+     * @param order 行顺序
+     * @param memoryBudget 内存缓冲区预算（字节）
+     * @param parallelism 缓冲区排序的并行度
+     */
+    ExternalSorter(RowOrder order, long memoryBudget, int parallelism) {
+        this.order = order;
+        this.memoryBudget = Math.max(1, memoryBudget);
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    /**
+     * 获取配置的内存预算
+     * 
+     * @return 内存预算（字节）
+     */
+    public static long defaultMemoryBudget() {
+        long fallback = Math.min(DEFAULT_MEMORY, Runtime.getRuntime().maxMemory() / 4);
+        return XlSqlConfig.getLong(PROP_MEMORY, fallback);
+    }
+    
+    /**
+     * 估算一行在堆中占用的字节数
+     * 
+     * @param row 数据行
+     * @return 估算的字节数
+     */
+    static long estimateSize(String[] row) {
+        if (row == null) {
+            return 8;
+        }
+        long size = 24 + 8L * row.length;
+        for (String value : row) {
+            if (value != null) {
+                size += 48 + value.length();
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * 排序输入行
+     * 
+     * @param rows 输入行
+     * @return 排序后的行，使用完后应关闭以删除临时文件
+     * @throws SQLException 如果写出有序段失败
+     */
+    SortedRows sort(Iterator<String[]> rows) throws SQLException {
+        List<RowOrder.Key> buffer = new ArrayList<>();
+        List<File> runs = new ArrayList<>();
+        long used = 0;
+        try {
+            while (rows.hasNext()) {
+                String[] row = rows.next();
+                buffer.add(order.key(row));
+                used += estimateSize(row);
+                if (used > memoryBudget) {
+                    runs.add(writeRun(sortBuffer(buffer)));
+                    buffer = new ArrayList<>();
+                    used = 0;
+                }
+            }
+        } catch (IOException e) {
+            deleteAll(runs);
+            throw new SQLException("Failed to spill sort run: " + e.getMessage(), e);
+        } catch (SQLException | RuntimeException e) {
+            deleteAll(runs);
+            throw e;
+        }
+        Iterator<RowOrder.Key> last = Arrays.asList(sortBuffer(buffer)).iterator();
+        if (runs.isEmpty()) {
+            return new SortedRows(last, runs);
+        }
+        
+        logger.fine(() -> "Merging " + (runs.size() + 1) + " sorted runs");
+        List<Iterator<RowOrder.Key>> sources = new ArrayList<>(runs.size() + 1);
+        try {
+            for (File run : runs) {
+                sources.add(new RunReader(run, order));
+            }
+        } catch (IOException e) {
+            for (Iterator<RowOrder.Key> source : sources) {
+                ((RunReader) source).close();
+            }
+            deleteAll(runs);
+            throw new SQLException("Failed to read sort run: " + e.getMessage(), e);
+        }
+        sources.add(last);
+        return new SortedRows(new MergeIterator(sources, order), runs);
+    }
+    
+    private RowOrder.Key[] sortBuffer(List<RowOrder.Key> buffer) throws SQLException {
+        RowOrder.Key[] keys = buffer.toArray(new RowOrder.Key[0]);
+        ParallelExecution.sort(keys, order, parallelism);
+        return keys;
+    }
+    
+    private static File writeRun(RowOrder.Key[] keys) throws IOException {
+        File file = File.createTempFile("xlsql-sort-", ".run");
+        file.deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER))) {
+            out.writeInt(keys.length);
+            for (RowOrder.Key key : keys) {
+                String[] row = key.row;
+                if (row == null) {
+                    out.writeInt(-1);
+                    continue;
+                }
+                out.writeInt(row.length);
+                for (String value : row) {
+                    if (value == null) {
+                        out.writeInt(-1);
+                    } else {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            file.delete();
+            throw e;
+        }
+        return file;
+    }
+    
+    private static void deleteAll(List<File> files) {
+        for (File file : files) {
+            if (!file.delete()) {
+                logger.fine(() -> "Could not delete sort run " + file);
+            }
+        }
+    }
+    
+    /**
+     * SortedRows - 排序结果
+     * 
+     * <p>逐行读取排序后的行。读取有序段文件失败时抛出{@link UncheckedIOException}。
+     * 关闭时删除临时文件。</p>
+     */
+    static final class SortedRows implements Iterator<String[]>, Closeable {
+        private final Iterator<RowOrder.Key> rows;
+        private final List<File> runs;
+        
+        private SortedRows(Iterator<RowOrder.Key> rows, List<File> runs) {
+            this.rows = rows;
+            this.runs = runs;
+        }
+        
+        /**
+         * 是否写出过有序段（用于测试和诊断）
+         * 
+         * @return 如果排序使用了临时文件返回true
+         */
+        boolean isSpilled() {
+            return !runs.isEmpty();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+        
+        @Override
+        public String[] next() {
+            return rows.next().row;
+        }
+        
+        @Override
+        public void close() {
+            if (rows instanceof MergeIterator) {
+                ((MergeIterator) rows).close();
+            }
+            deleteAll(runs);
+        }
+    }
+    
+    /**
+     * 有序段文件的读取器
+     */
+    private static final class RunReader implements Iterator<RowOrder.Key>, Closeable {
+        private final DataInputStream in;
+        private final RowOrder order;
+        private int remaining;
+        
+        RunReader(File file, RowOrder order) throws IOException {
+            this.order = order;
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), IO_BUFFER));
+            try {
+                this.remaining = in.readInt();
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+        
+        @Override
+        public RowOrder.Key next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                remaining--;
+                String[] row = readRow();
+                if (remaining == 0) {
+                    close();
+                }
+                return order.key(row);
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Failed to read sort run", e);
+            }
+        }
+        
+        private String[] readRow() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            String[] row = new String[length];
+            for (int i = 0; i < length; i++) {
+                int bytes = in.readInt();
+                if (bytes >= 0) {
+                    byte[] buffer = new byte[bytes];
+                    in.readFully(buffer);
+                    row[i] = new String(buffer, StandardCharsets.UTF_8);
+                }
+            }
+            return row;
+        }
+        
+        @Override
+        public void close() {
+            remaining = 0;
+            try {
+                in.close();
+            } catch (IOException e) {
+                // 关闭失败不影响结果
+            }
+        }
+    }
+    
+    /**
+     * 各有序段的k路归并（相等时段号小的优先）
+     */
+    private static final class MergeIterator implements Iterator<RowOrder.Key> {
+        private final PriorityQueue<Cursor> heap;
+        private final List<Iterator<RowOrder.Key>> sources;
+        
+        MergeIterator(List<Iterator<RowOrder.Key>> sources, RowOrder order) {
+            this.sources = sources;
+            this.heap = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+                int cmp = order.compare(a.key, b.key);
+                return cmp != 0 ? cmp : Integer.compare(a.source, b.source);
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).hasNext()) {
+                    heap.add(new Cursor(i, sources.get(i).next()));
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+        
+        @Override
+        public RowOrder.Key next() {
+            Cursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            RowOrder.Key key = cursor.key;
+            Iterator<RowOrder.Key> source = sources.get(cursor.source);
+            if (source.hasNext()) {
+                cursor.key = source.next();
+                heap.add(cursor);
+            }
+            return key;
+        }
+        
+        void close() {
+            heap.clear();
+            for (Iterator<RowOrder.Key> source : sources) {
+                if (source instanceof RunReader) {
+                    ((RunReader) source).close();
+                }
+            }
+        }
+    }
+    
+    private static final class Cursor {
+        private final int source;
+        private RowOrder.Key key;
+        
+        Cursor(int source, RowOrder.Key key) {
+            this.source = source;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * FilterOperator - 过滤算子
+ * 
+ * <p>只输出满足所有条件的行。并行度为1时逐行拉取和判断，读到足够的行即可停止；
+ * 并行度大于1时每次从子算子拉取一批行，用{@link ParallelExecution#select}并行判断，
+ * 输出顺序与逐行执行相同。</p>
+ * 
+ * @author daichangya
+ */
+final class FilterOperator implements Operator {
+    
+    private final Operator child;
+    
+    /** 编译后的AND合取项（无状态，可以被各工作线程共享） */
+    private final List<CompiledExpression> conjuncts;
+    
+    private final int parallelism;
+    
+    /** 当前批次中满足条件的行 */
+    private List<String[]> batch;
+    
+    private int position;
+    
+    private boolean exhausted;
+    
+    /**
+     * 创建过滤算子
+     * 
+     * @param child 子算子
+     * @param conjuncts 编译后的AND合取项
+     * @param parallelism 并行度
+     */
+    FilterOperator(Operator child, List<CompiledExpression> conjuncts, int parallelism) {
+        this.child = child;
+        this.conjuncts = conjuncts;
+        this.parallelism = Math.max(1, parallelism);
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+        batch = null;
+        position = 0;
+        exhausted = false;
+    }
+    
+    @Override
+    public String[] next() throws SQLException {
+        if (parallelism == 1) {
+            String[] row;
+            while ((row = child.next()) != null) {
+                if (matches(row)) {
+                    return row;
+                }
+            }
+            return null;
+        }
+        while (batch == null || position >= batch.size()) {
+            if (exhausted) {
+                return null;
+            }
+            batch = nextBatch();
+            position = 0;
+        }
+        return batch.get(position++);
+    }
+    
+    /**
+     * 拉取一批行并行过滤
+     */
+    private List<String[]> nextBatch() throws SQLException {
+        int batchSize = parallelism * ParallelExecution.MIN_ROWS_PER_PARTITION;
+        List<String[]> input = new ArrayList<>();
+        String[] row;
+        while (input.size() < batchSize && (row = child.next()) != null) {
+            input.add(row);
+        }
+        if (input.size() < batchSize) {
+            exhausted = true;
+        }
+        
+        int[] selection = ParallelExecution.select(input.size(), parallelism, (from, to) -> {
+            int[] matched = new int[to - from];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (matches(input.get(i))) {
+                    matched[count++] = i;
+                }
+            }
+            return Arrays.copyOf(matched, count);
+        });
+        List<String[]> output = new ArrayList<>(selection.length);
+        for (int rowIndex : selection) {
+            output.add(input.get(rowIndex));
+        }
+        return output;
+    }
+    
+    private boolean matches(String[] row) {
+        for (CompiledExpression conjunct : conjuncts) {
+            if (!conjunct.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        batch = null;
+        child.close();
+    }
+}
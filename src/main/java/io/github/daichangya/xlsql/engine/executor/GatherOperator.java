@@ -0,0 +1,101 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * GatherOperator - 列值收集算子
+ * 
+ * <p>把JOIN输出的行号元组展开为数据行：只从基表列向量读取JOIN之后仍被引用的列，
+ * 输出行只包含这些列（按给定顺序），不为其余列（例如只出现在连接条件中的列）占位。
+ * 每个输出行只分配一次，不再在每一级JOIN复制前面各表的列。
+ * 下游按{@link #outputColumnIndexMap(Map)}转换后的列映射读取输出行。</p>
+ * 
+ * @author daichangya
+ */
+final class GatherOperator implements Operator {
+    
+    private final RowIdOperator child;
+    
+    private final JoinedTables layout;
+    
+    /** 需要读取的布局列下标（升序），第i个对应输出行的第i列 */
+    private final int[] columns;
+    
+    /**
+     * 创建列值收集算子
+     * 
+     * @param child 输出行号元组的子算子
+     * @param layout JOIN结果的列布局
+     * @param columns 需要读取的布局列下标
+     */
+    GatherOperator(RowIdOperator child, JoinedTables layout, int[] columns) {
+        this.child = child;
+        this.layout = layout;
+        this.columns = columns;
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+    }
+    
+    @Override
+    public String[] next() throws SQLException {
+        int[] rowIds = child.next();
+        if (rowIds == null) {
+            return null;
+        }
+        String[] row = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = layout.getString(rowIds, columns[i]);
+        }
+        return row;
+    }
+    
+    /**
+     * 把JOIN结果的列映射转换为输出行的列映射
+     * 
+     * @param columnIndexMap 列名到JOIN结果列下标的映射
+     * @return 列名到输出行列下标的映射（不包含没有被读取的列）
+     */
+    Map<String, Integer> outputColumnIndexMap(Map<String, Integer> columnIndexMap) {
+        Map<Integer, Integer> positions = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            positions.put(columns[i], i);
+        }
+        Map<String, Integer> result = new HashMap<>();
+        for (Map.Entry<String, Integer> e : columnIndexMap.entrySet()) {
+            Integer position = positions.get(e.getValue());
+            if (position != null) {
+                result.put(e.getKey(), position);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        child.close();
+    }
+}
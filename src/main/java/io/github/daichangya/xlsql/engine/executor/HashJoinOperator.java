@@ -0,0 +1,358 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.model.JoinType;
+import io.github.daichangya.xlsql.engine.plan.JoinInfo;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * HashJoinOperator - 哈希连接算子
+ * 
+ * <p>输入和输出都是行号元组（见{@link RowIdOperator}）：连接键直接从基表的列向量读取，
+ * 输出只在左侧元组后追加右表行号，不复制任何列值。
+ * 输出顺序与嵌套循环连接相同，NULL键永远不匹配。</p>
+ * 
+ * <p>INNER和LEFT JOIN在右表的连接列上建立哈希链，逐个拉取左侧元组探测：
+ * 按左侧顺序，同一左侧元组的匹配按右表行顺序。
+ * INNER JOIN在较小的一侧建哈希表：open时先缓冲至多右表行数个左侧元组，
+ * 左侧更小时改为在左侧元组上建哈希链、顺序扫描右表探测，匹配按左侧元组分桶后按左侧顺序输出；
+ * 否则先重放缓冲的元组，再继续流式拉取左侧输入。
+ * RIGHT和FULL OUTER JOIN需要知道所有左侧元组，open时读完左侧输入后一次算出全部结果。</p>
+ * 
+ * @author daichangya
+ */
+final class HashJoinOperator implements RowIdOperator {
+    
+    private final RowIdOperator left;
+    
+    private final JoinedTables leftLayout;
+    
+    private final TableInfo rightTable;
+    
+    private final JoinInfo join;
+    
+    private final Map<String, Integer> leftColumnIndexMap;
+    
+    private int leftColumnIndex;
+    
+    /** 右表的连接列（数据未加载时为null） */
+    private ColumnVector rightKeys;
+    
+    /** 每个连接键在右表中的第一行 */
+    private Map<String, Integer> heads;
+    
+    /** 同键右表行的链表（-1表示链尾） */
+    private int[] chain;
+    
+    /** 当前左侧元组及其下一个匹配的右表行号 */
+    private int[] currentLeft;
+    private int currentMatch = -1;
+    
+    /** INNER JOIN选择建表侧时缓冲的左侧元组（在右表上建哈希表时先重放） */
+    private List<int[]> buffered;
+    private int bufferPosition;
+    
+    /** 在左侧建哈希表的INNER JOIN以及RIGHT/FULL OUTER JOIN的结果 */
+    private List<int[]> materialized;
+    private int position;
+    
+    /**
+     * 创建哈希连接算子
+     * 
+     * @param left 左侧输入
+     * @param leftLayout 左侧的列布局
+     * @param rightTable 右表（已加载数据，可以已按下推条件过滤）
+     * @param join JOIN信息
+     * @param leftColumnIndexMap 左侧列名到布局列下标的映射
+     */
+    HashJoinOperator(RowIdOperator left, JoinedTables leftLayout, TableInfo rightTable, JoinInfo join,
+                     Map<String, Integer> leftColumnIndexMap) {
+        this.left = left;
+        this.leftLayout = leftLayout;
+        this.rightTable = rightTable;
+        this.join = join;
+        this.leftColumnIndexMap = leftColumnIndexMap;
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        left.open();
+        int[] keyColumns = JoinExecutor.resolveKeyColumns(rightTable, join, leftColumnIndexMap);
+        leftColumnIndex = keyColumns[0];
+        currentLeft = null;
+        currentMatch = -1;
+        buffered = null;
+        materialized = null;
+        
+        int rightCount = rightTable.getColumns() != null ? rightTable.getRowCount() : 0;
+        rightKeys = rightTable.getColumn(keyColumns[1]);
+        
+        JoinType type = join.getType();
+        if (type == JoinType.INNER) {
+            // 左侧元组比右表行少时在左侧建哈希表，不再为整张右表建哈希链
+            List<int[]> leftRows = new ArrayList<>();
+            int[] rowIds;
+            while (leftRows.size() < rightCount && (rowIds = left.next()) != null) {
+                leftRows.add(rowIds);
+            }
+            if (leftRows.size() < rightCount) {
+                materialized = innerJoinBuildLeft(leftRows, rightCount);
+                position = 0;
+                return;
+            }
+            buffered = leftRows;
+            bufferPosition = 0;
+        }
+        
+        chain = new int[rightCount];
+        heads = rightKeys != null ? JoinExecutor.buildChains(rightKeys, rightCount, chain) : null;
+        
+        if (type != JoinType.INNER && type != JoinType.LEFT) {
+            List<int[]> leftRows = new ArrayList<>();
+            int[] rowIds;
+            while ((rowIds = left.next()) != null) {
+                leftRows.add(rowIds);
+            }
+            if (type == JoinType.RIGHT) {
+                materialized = rightJoin(leftRows, rightCount);
+            } else if (type == JoinType.FULL_OUTER) {
+                materialized = fullOuterJoin(leftRows, rightCount);
+            } else {
+                throw new SQLException("Unsupported JOIN type: " + type);
+            }
+            position = 0;
+        }
+    }
+    
+    @Override
+    public int[] next() throws SQLException {
+        if (materialized != null) {
+            return position < materialized.size() ? materialized.get(position++) : null;
+        }
+        boolean outer = join.getType() == JoinType.LEFT;
+        while (true) {
+            if (currentMatch >= 0) {
+                int r = currentMatch;
+                currentMatch = chain[r];
+                return extend(currentLeft, r);
+            }
+            
+            int[] rowIds = nextLeft();
+            if (rowIds == null) {
+                return null;
+            }
+            Integer head = match(rowIds);
+            if (head != null) {
+                currentLeft = rowIds;
+                currentMatch = head;
+            } else if (outer) {
+                // 没有匹配，右表用NULL填充
+                return extend(rowIds, -1);
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        heads = null;
+        chain = null;
+        rightKeys = null;
+        buffered = null;
+        materialized = null;
+        left.close();
+    }
+    
+    /**
+     * 拉取下一个左侧元组（先重放缓冲的元组）
+     */
+    private int[] nextLeft() throws SQLException {
+        if (buffered != null) {
+            if (bufferPosition < buffered.size()) {
+                return buffered.get(bufferPosition++);
+            }
+            buffered = null;
+        }
+        return left.next();
+    }
+    
+    /**
+     * 在左侧元组上建哈希链执行INNER JOIN，输出顺序与在右表上建哈希表相同
+     * 
+     * <p>顺序扫描右表探测，第一遍统计每个左侧元组的匹配数，
+     * 第二遍按左侧元组分桶记录匹配的右表行（右表行号递增），最后按左侧顺序输出。</p>
+     */
+    private List<int[]> innerJoinBuildLeft(List<int[]> leftRows, int rightCount) {
+        List<int[]> result = new ArrayList<>();
+        if (rightKeys == null || leftRows.isEmpty()) {
+            return result;
+        }
+        int[] leftChain = new int[leftRows.size()];
+        Map<String, Integer> leftHeads = buildLeftChains(leftRows, leftChain);
+        
+        // 第一遍：统计每个左侧元组的匹配数
+        int[] matchCounts = new int[leftRows.size()];
+        int total = 0;
+        for (int r = 0; r < rightCount; r++) {
+            String key = rightKeys.getString(r);
+            Integer head = key != null ? leftHeads.get(key) : null;
+            if (head == null) {
+                continue;
+            }
+            for (int l = head; l >= 0; l = leftChain[l]) {
+                matchCounts[l]++;
+                total++;
+            }
+        }
+        if (total == 0) {
+            return result;
+        }
+        
+        // 第二遍：按左侧元组分桶记录匹配的右表行
+        int[] offsets = new int[leftRows.size()];
+        for (int l = 1; l < offsets.length; l++) {
+            offsets[l] = offsets[l - 1] + matchCounts[l - 1];
+        }
+        int[] matches = new int[total];
+        for (int r = 0; r < rightCount; r++) {
+            String key = rightKeys.getString(r);
+            Integer head = key != null ? leftHeads.get(key) : null;
+            if (head == null) {
+                continue;
+            }
+            for (int l = head; l >= 0; l = leftChain[l]) {
+                matches[offsets[l]++] = r;
+            }
+        }
+        
+        int position = 0;
+        for (int l = 0; l < leftRows.size(); l++) {
+            for (int k = 0; k < matchCounts[l]; k++) {
+                result.add(extend(leftRows.get(l), matches[position++]));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 查找左侧元组在右表中的第一个匹配行（NULL键永远不匹配）
+     */
+    private Integer match(int[] rowIds) {
+        String key = leftLayout.getString(rowIds, leftColumnIndex);
+        return key != null && heads != null ? heads.get(key) : null;
+    }
+    
+    /**
+     * 执行RIGHT JOIN：按右表行顺序，同一右表行的匹配按左侧顺序
+     */
+    private List<int[]> rightJoin(List<int[]> leftRows, int rightCount) {
+        int[] leftChain = new int[leftRows.size()];
+        Map<String, Integer> leftHeads = buildLeftChains(leftRows, leftChain);
+        int[] nullLeft = nullRowIds();
+        List<int[]> result = new ArrayList<>();
+        for (int r = 0; r < rightCount; r++) {
+            String key = rightKeys != null ? rightKeys.getString(r) : null;
+            Integer head = key != null ? leftHeads.get(key) : null;
+            if (head == null) {
+                // 没有匹配，左侧用NULL填充
+                result.add(extend(nullLeft, r));
+                continue;
+            }
+            for (int l = head; l >= 0; l = leftChain[l]) {
+                result.add(extend(leftRows.get(l), r));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 执行FULL OUTER JOIN：先输出LEFT JOIN的结果，再输出没有匹配的右表行
+     */
+    private List<int[]> fullOuterJoin(List<int[]> leftRows, int rightCount) {
+        List<int[]> result = new ArrayList<>();
+        for (int[] rowIds : leftRows) {
+            Integer head = match(rowIds);
+            if (head == null) {
+                result.add(extend(rowIds, -1));
+                continue;
+            }
+            for (int r = head; r >= 0; r = chain[r]) {
+                result.add(extend(rowIds, r));
+            }
+        }
+        
+        int[] leftChain = new int[leftRows.size()];
+        Map<String, Integer> leftHeads = buildLeftChains(leftRows, leftChain);
+        int[] nullLeft = nullRowIds();
+        for (int r = 0; r < rightCount; r++) {
+            String key = rightKeys != null ? rightKeys.getString(r) : null;
+            if (key == null || !leftHeads.containsKey(key)) {
+                // 右表独有的行，左侧用NULL填充
+                result.add(extend(nullLeft, r));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 为左侧元组建立哈希链（同键的元组按输入顺序串联，NULL键不索引）
+     */
+    private Map<String, Integer> buildLeftChains(List<int[]> leftRows, int[] next) {
+        Map<String, Integer> leftHeads = new HashMap<>();
+        for (int l = leftRows.size() - 1; l >= 0; l--) {
+            next[l] = -1;
+            String key = leftLayout.getString(leftRows.get(l), leftColumnIndex);
+            if (key == null) {
+                continue;
+            }
+            Integer head = leftHeads.put(key, l);
+            if (head != null) {
+                next[l] = head;
+            }
+        }
+        return leftHeads;
+    }
+    
+    /**
+     * 左侧全部用NULL填充的元组
+     */
+    private int[] nullRowIds() {
+        int[] rowIds = new int[leftLayout.getTableCount()];
+        Arrays.fill(rowIds, -1);
+        return rowIds;
+    }
+    
+    /**
+     * 在左侧元组后追加右表行号
+     */
+    private static int[] extend(int[] leftRowIds, int rightRow) {
+        int[] rowIds = Arrays.copyOf(leftRowIds, leftRowIds.length + 1);
+        rowIds[leftRowIds.length] = rightRow;
+        return rowIds;
+    }
+}
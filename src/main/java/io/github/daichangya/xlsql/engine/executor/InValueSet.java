@@ -0,0 +1,120 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+/**
+ * InValueSet - IN列表的哈希集合
+ * 
+ * <p>把全部由常量组成的IN列表预先整理成哈希集合，每行只需一次探测。
+ * 匹配语义与逐项调用{@link ExpressionEvaluator#compareValues}完全一致：</p>
+ * <ul>
+ *   <li>字符串常量与字符串值按字符串相等比较</li>
+ *   <li>数字常量与规范形式的数字文本按数值比较（{@code '1.0'}等于{@code 1}）</li>
+ *   <li>其余情况比较去掉首尾空白的字符串</li>
+ * </ul>
+ * 
+ * <p>非字符串的值（例如算术表达式的结果）很少出现，按原来的方式逐项比较。</p>
+ * 
+ * @author daichangya
+ */
+final class InValueSet {
+    
+    /** 原始常量（用于非字符串值的逐项比较） */
+    private final Object[] items;
+    
+    /** 列表中是否包含NULL */
+    private boolean containsNull;
+    
+    /** 与字符串值按原样比较的文本：字符串常量以及NaN、Infinity */
+    private final Set<String> exactTexts = new HashSet<>();
+    
+    /** 规范形式的数字常量 */
+    private final Set<NumericValue> numbers = new HashSet<>();
+    
+    /** 全部非字符串常量去掉首尾空白后的文本 */
+    private final Set<String> trimmedTexts = new HashSet<>();
+    
+    /** 不是规范形式数字的非字符串常量文本（总是按字符串比较） */
+    private final Set<String> textOnly = new HashSet<>();
+    
+    /**
+     * 创建IN列表的哈希集合
+     * 
+     * @param items 常量值（可以包含null）
+     */
+    InValueSet(Object[] items) {
+        this.items = items;
+        for (Object item : items) {
+            if (item == null) {
+                containsNull = true;
+            } else if (item instanceof String || ExpressionEvaluator.isNonFinite(item)) {
+                exactTexts.add(item.toString());
+            } else {
+                String text = item.toString().trim();
+                NumericValue number = ExpressionEvaluator.canonicalNumber(item, text);
+                trimmedTexts.add(text);
+                if (number != null) {
+                    numbers.add(number);
+                } else {
+                    textOnly.add(text);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 判断值是否在列表中
+     * 
+     * @param value 值
+     * @return 如果有一项与值相等返回true
+     */
+    boolean contains(Object value) {
+        if (value == null) {
+            return containsNull;
+        }
+        if (!(value instanceof String)) {
+            for (Object item : items) {
+                if (ExpressionEvaluator.compareValues(value, item) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        String text = (String) value;
+        if (exactTexts.contains(text)) {
+            return true;
+        }
+        if (trimmedTexts.isEmpty()) {
+            return false;
+        }
+        String trimmed = text.trim();
+        NumericValue number = ExpressionEvaluator.canonicalNumber(text, trimmed);
+        if (number != null) {
+            return numbers.contains(number) || textOnly.contains(trimmed);
+        }
+        return trimmedTexts.contains(trimmed);
+    }
+}
@@ -21,11 +21,13 @@ package io.github.daichangya.xlsql.engine.executor;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import io.github.daichangya.xlsql.engine.model.JoinType;
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
 import io.github.daichangya.xlsql.engine.plan.JoinCondition;
 import io.github.daichangya.xlsql.engine.plan.JoinInfo;
 import io.github.daichangya.xlsql.engine.plan.TableInfo;
@@ -33,8 +35,9 @@ import io.github.daichangya.xlsql.engine.plan.TableInfo;
 /**
  * JoinExecutor - JOIN执行器
  * 
- * <p>执行SQL JOIN操作，支持INNER、LEFT、RIGHT和FULL OUTER JOIN。
- * 使用嵌套循环连接算法（适合小数据集）和哈希连接算法（适合大数据集）。</p>
+ * <p>对已经物化的左表数据行执行SQL JOIN，支持INNER、LEFT、RIGHT和FULL OUTER JOIN。
+ * JOIN本身由{@link HashJoinOperator}执行，这里只把数据行包装为左表并收集结果；
+ * 同时提供解析连接列、为连接键建立哈希链的工具方法。</p>
  * 
  * @author daichangya
  */
@@ -47,323 +50,128 @@ public class JoinExecutor {
      * @param rightTable 右表信息
      * @param joinInfo JOIN信息
      * @param leftColumnIndexMap 左表列名到索引的映射
-     * @return JOIN后的数据行列表
+     * @return JOIN后的数据行列表（左表列在前，右表列在后）
      * @throws SQLException 如果执行失败则抛出异常
      */
     public List<String[]> execute(List<String[]> leftRows, TableInfo rightTable,
                                  JoinInfo joinInfo, Map<String, Integer> leftColumnIndexMap) 
             throws SQLException {
-        
-        JoinType joinType = joinInfo.getType();
-        JoinCondition condition = joinInfo.getCondition();
-        
-        // 解析连接条件
-        String[] leftColParts = JoinCondition.parseColumnRef(condition.getLeftColumn());
-        String[] rightColParts = JoinCondition.parseColumnRef(condition.getRightColumn());
-        
-        String leftColumnName = leftColParts[1].toUpperCase();
-        String rightColumnName = rightColParts[1].toUpperCase();
-        
-        // 获取右表列索引
-        int rightColumnIndex = rightTable.getColumnIndex(rightColumnName);
-        if (rightColumnIndex == -1) {
-            throw new SQLException("Column not found in right table: " + rightColumnName);
+        TableInfo leftTable = rowTable(leftRows, leftColumnIndexMap);
+        JoinedTables layout = new JoinedTables(leftTable);
+        RowIdOperator joined = new HashJoinOperator(new RowIdScanOperator(leftTable, null), layout,
+                rightTable, joinInfo, leftColumnIndexMap);
+        layout = layout.join(rightTable);
+        int[] columns = new int[layout.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
         }
         
-        // 获取左表列索引
-        Integer leftColumnIndexObj = leftColumnIndexMap.get(leftColumnName);
-        if (leftColumnIndexObj == null) {
-            throw new SQLException("Column not found in left table: " + leftColumnName);
-        }
-        int leftColumnIndex = leftColumnIndexObj;
-        
-        // 根据JOIN类型执行
-        switch (joinType) {
-            case INNER:
-                return executeInnerJoin(leftRows, rightTable, leftColumnIndex, rightColumnIndex);
-            case LEFT:
-                return executeLeftJoin(leftRows, rightTable, leftColumnIndex, rightColumnIndex);
-            case RIGHT:
-                return executeRightJoin(leftRows, rightTable, leftColumnIndex, rightColumnIndex);
-            case FULL_OUTER:
-                return executeFullOuterJoin(leftRows, rightTable, leftColumnIndex, rightColumnIndex);
-            default:
-                throw new SQLException("Unsupported JOIN type: " + joinType);
-        }
-    }
-    
-    /**
-     * 执行INNER JOIN（嵌套循环连接）
-     * 
-     * @param leftRows 左表数据行
-     * @param rightTable 右表信息
-     * @param leftColumnIndex 左表连接列索引
-     * @param rightColumnIndex 右表连接列索引
-     * @return JOIN后的数据行列表
-     */
-    private List<String[]> executeInnerJoin(List<String[]> leftRows, TableInfo rightTable,
-                                           int leftColumnIndex, int rightColumnIndex) {
+        Operator root = new GatherOperator(joined, layout, columns);
         List<String[]> result = new ArrayList<>();
-        
-        // 嵌套循环连接
-        for (String[] leftRow : leftRows) {
-            if (leftRow == null || leftColumnIndex >= leftRow.length) {
-                continue;
-            }
-            
-            String leftValue = leftRow[leftColumnIndex];
-            if (leftValue == null) {
-                continue; // NULL值不匹配
-            }
-            
-            // 在右表中查找匹配的行
-            for (int i = 0; i < rightTable.getRowCount(); i++) {
-                String[] rightRow = rightTable.getRow(i);
-                if (rightRow == null || rightColumnIndex >= rightRow.length) {
-                    continue;
-                }
-                
-                String rightValue = rightRow[rightColumnIndex];
-                if (leftValue.equals(rightValue)) {
-                    // 匹配，合并行
-                    String[] joinedRow = combineRows(leftRow, rightRow);
-                    result.add(joinedRow);
-                }
-            }
+        root.open();
+        try {
+            String[] row;
+            while ((row = root.next()) != null) {
+                result.add(row);
+            }
+        } finally {
+            root.close();
         }
-        
         return result;
     }
     
     /**
-     * 执行LEFT JOIN
+     * 把数据行包装为列存储的左表
      * 
-     * @param leftRows 左表数据行
-     * @param rightTable 右表信息
-     * @param leftColumnIndex 左表连接列索引
-     * @param rightColumnIndex 右表连接列索引
-     * @return JOIN后的数据行列表
+     * <p>列数取最长的行（没有行时取列映射中的最大下标），较短的行缺少的列为NULL。</p>
      */
-    private List<String[]> executeLeftJoin(List<String[]> leftRows, TableInfo rightTable,
-                                           int leftColumnIndex, int rightColumnIndex) {
-        List<String[]> result = new ArrayList<>();
-        
-        // 为右表构建哈希索引（优化查找）
-        Map<String, List<String[]>> rightIndex = buildHashIndex(rightTable, rightColumnIndex);
-        
-        for (String[] leftRow : leftRows) {
-            if (leftRow == null || leftColumnIndex >= leftRow.length) {
-                continue;
-            }
-            
-            String leftValue = leftRow[leftColumnIndex];
-            boolean matched = false;
-            
-            if (leftValue != null) {
-                List<String[]> matchingRightRows = rightIndex.get(leftValue);
-                if (matchingRightRows != null && !matchingRightRows.isEmpty()) {
-                    // 有匹配
-                    for (String[] rightRow : matchingRightRows) {
-                        String[] joinedRow = combineRows(leftRow, rightRow);
-                        result.add(joinedRow);
-                    }
-                    matched = true;
+    private static TableInfo rowTable(List<String[]> rows, Map<String, Integer> columnIndexMap) {
+        int columnCount = 0;
+        for (String[] row : rows) {
+            columnCount = Math.max(columnCount, row.length);
+        }
+        if (rows.isEmpty()) {
+            for (Integer index : columnIndexMap.values()) {
+                if (index != null) {
+                    columnCount = Math.max(columnCount, index + 1);
                 }
             }
-            
-            if (!matched) {
-                // 没有匹配，使用NULL填充右表列
-                String[] rightNullRow = createNullRow(rightTable.getColumnNames().length);
-                String[] joinedRow = combineRows(leftRow, rightNullRow);
-                result.add(joinedRow);
-            }
         }
         
-        return result;
-    }
-    
-    /**
-     * 执行RIGHT JOIN
-     * 
-     * @param leftRows 左表数据行
-     * @param rightTable 右表信息
-     * @param leftColumnIndex 左表连接列索引
-     * @param rightColumnIndex 右表连接列索引
-     * @return JOIN后的数据行列表
-     */
-    private List<String[]> executeRightJoin(List<String[]> leftRows, TableInfo rightTable,
-                                           int leftColumnIndex, int rightColumnIndex) {
-        List<String[]> result = new ArrayList<>();
-        
-        // 为左表构建哈希索引
-        Map<String, List<String[]>> leftIndex = buildHashIndex(leftRows, leftColumnIndex);
-        
-        // 遍历右表
-        for (int i = 0; i < rightTable.getRowCount(); i++) {
-            String[] rightRow = rightTable.getRow(i);
-            if (rightRow == null || rightColumnIndex >= rightRow.length) {
-                continue;
-            }
-            
-            String rightValue = rightRow[rightColumnIndex];
-            boolean matched = false;
-            
-            if (rightValue != null) {
-                List<String[]> matchingLeftRows = leftIndex.get(rightValue);
-                if (matchingLeftRows != null && !matchingLeftRows.isEmpty()) {
-                    // 有匹配
-                    for (String[] leftRow : matchingLeftRows) {
-                        String[] joinedRow = combineRows(leftRow, rightRow);
-                        result.add(joinedRow);
-                    }
-                    matched = true;
-                }
-            }
-            
-            if (!matched) {
-                // 没有匹配，使用NULL填充左表列
-                String[] leftNullRow = createNullRow(leftRows.isEmpty() ? 0 : leftRows.get(0).length);
-                String[] joinedRow = combineRows(leftNullRow, rightRow);
-                result.add(joinedRow);
+        String[] names = new String[columnCount];
+        String[][] values = new String[columnCount][rows.size()];
+        for (int c = 0; c < columnCount; c++) {
+            names[c] = "C" + c;
+        }
+        for (int r = 0; r < rows.size(); r++) {
+            String[] row = rows.get(r);
+            for (int c = 0; c < row.length; c++) {
+                values[c][r] = row[c];
             }
         }
+        String[] types = new String[columnCount];
+        Arrays.fill(types, "VARCHAR");
         
-        return result;
+        TableInfo table = new TableInfo("", "", null);
+        table.loadData(names, types, ColumnVectors.wrap(values), rows.size());
+        return table;
     }
     
     /**
-     * 执行FULL OUTER JOIN
+     * 解析连接条件两侧的列索引
      * 
-     * @param leftRows 左表数据行
      * @param rightTable 右表信息
-     * @param leftColumnIndex 左表连接列索引
-     * @param rightColumnIndex 右表连接列索引
-     * @return JOIN后的数据行列表
+     * @param joinInfo JOIN信息
+     * @param leftColumnIndexMap 左表列名到索引的映射
+     * @return {左表连接列索引, 右表连接列索引}
+     * @throws SQLException 如果连接列不存在
      */
-    private List<String[]> executeFullOuterJoin(List<String[]> leftRows, TableInfo rightTable,
-                                                int leftColumnIndex, int rightColumnIndex) {
-        List<String[]> result = new ArrayList<>();
+    static int[] resolveKeyColumns(TableInfo rightTable, JoinInfo joinInfo,
+                                   Map<String, Integer> leftColumnIndexMap) throws SQLException {
+        JoinCondition condition = joinInfo.getCondition();
         
-        // 先执行LEFT JOIN
-        List<String[]> leftJoinResult = executeLeftJoin(leftRows, rightTable, 
-                                                        leftColumnIndex, rightColumnIndex);
-        result.addAll(leftJoinResult);
+        // 解析连接条件
+        String[] leftColParts = JoinCondition.parseColumnRef(condition.getLeftColumn());
+        String[] rightColParts = JoinCondition.parseColumnRef(condition.getRightColumn());
         
-        // 为左表构建哈希索引（用于查找哪些右表行已经匹配）
-        Map<String, List<String[]>> leftIndex = buildHashIndex(leftRows, leftColumnIndex);
+        String leftColumnName = leftColParts[1].toUpperCase();
+        String rightColumnName = rightColParts[1].toUpperCase();
         
-        // 查找右表中未匹配的行
-        for (int i = 0; i < rightTable.getRowCount(); i++) {
-            String[] rightRow = rightTable.getRow(i);
-            if (rightRow == null || rightColumnIndex >= rightRow.length) {
-                continue;
-            }
-            
-            String rightValue = rightRow[rightColumnIndex];
-            boolean matched = false;
-            
-            if (rightValue != null) {
-                List<String[]> matchingLeftRows = leftIndex.get(rightValue);
-                if (matchingLeftRows != null && !matchingLeftRows.isEmpty()) {
-                    matched = true; // 已经在LEFT JOIN中处理了
-                }
-            }
-            
-            if (!matched) {
-                // 右表独有的行，使用NULL填充左表列
-                String[] leftNullRow = createNullRow(leftRows.isEmpty() ? 0 : leftRows.get(0).length);
-                String[] joinedRow = combineRows(leftNullRow, rightRow);
-                result.add(joinedRow);
-            }
+        // 获取右表列索引
+        int rightColumnIndex = rightTable.getColumnIndex(rightColumnName);
+        if (rightColumnIndex == -1) {
+            throw new SQLException("Column not found in right table: " + rightColumnName);
         }
         
-        return result;
-    }
-    
-    /**
-     * 构建哈希索引（用于优化JOIN查找）
-     * 
-     * @param rows 数据行列表
-     * @param columnIndex 列索引
-     * @return 值到行列表的映射
-     */
-    private Map<String, List<String[]>> buildHashIndex(List<String[]> rows, int columnIndex) {
-        Map<String, List<String[]>> index = new HashMap<>();
-        
-        for (String[] row : rows) {
-            if (row == null || columnIndex >= row.length) {
-                continue;
-            }
-            
-            String value = row[columnIndex];
-            if (value == null) {
-                continue; // NULL值不索引
-            }
-            
-            index.computeIfAbsent(value, k -> new ArrayList<>()).add(row);
+        // 获取左表列索引
+        Integer leftColumnIndexObj = leftColumnIndexMap.get(leftColumnName);
+        if (leftColumnIndexObj == null) {
+            throw new SQLException("Column not found in left table: " + leftColumnName);
         }
-        
-        return index;
+        return new int[] {leftColumnIndexObj, rightColumnIndex};
     }
     
     /**
-     * 为表构建哈希索引
+     * 为列向量建立哈希链：heads保存每个键的第一行，next把同键的行按行号递增串联
      * 
-     * @param table 表信息
-     * @param columnIndex 列索引
-     * @return 值到行列表的映射
+     * @param keys 连接键列向量
+     * @param rowCount 行数
+     * @param next 链表数组（长度为rowCount，-1表示链尾）
+     * @return 键到第一行的映射（NULL键不索引）
      */
-    private Map<String, List<String[]>> buildHashIndex(TableInfo table, int columnIndex) {
-        Map<String, List<String[]>> index = new HashMap<>();
-        
-        for (int i = 0; i < table.getRowCount(); i++) {
-            String[] row = table.getRow(i);
-            if (row == null || columnIndex >= row.length) {
-                continue;
-            }
-            
-            String value = row[columnIndex];
-            if (value == null) {
+    static Map<String, Integer> buildChains(ColumnVector keys, int rowCount, int[] next) {
+        Map<String, Integer> heads = new HashMap<>();
+        for (int i = rowCount - 1; i >= 0; i--) {
+            next[i] = -1;
+            String key = keys.getString(i);
+            if (key == null) {
                 continue; // NULL值不索引
             }
-            
-            index.computeIfAbsent(value, k -> new ArrayList<>()).add(row);
-        }
-        
-        return index;
-    }
-    
-    /**
-     * 合并两行数据
-     * 
-     * @param leftRow 左表行
-     * @param rightRow 右表行
-     * @return 合并后的行
-     */
-    private String[] combineRows(String[] leftRow, String[] rightRow) {
-        int leftLen = leftRow != null ? leftRow.length : 0;
-        int rightLen = rightRow != null ? rightRow.length : 0;
-        
-        String[] combined = new String[leftLen + rightLen];
-        
-        if (leftRow != null) {
-            System.arraycopy(leftRow, 0, combined, 0, leftLen);
-        }
-        if (rightRow != null) {
-            System.arraycopy(rightRow, 0, combined, leftLen, rightLen);
+            Integer head = heads.put(key, i);
+            if (head != null) {
+                next[i] = head;
+            }
         }
-        
-        return combined;
-    }
-    
-    /**
-     * 创建NULL行（用于OUTER JOIN）
-     * 
-     * @param columnCount 列数
-     * @return NULL行
-     */
-    private String[] createNullRow(int columnCount) {
-        return new String[columnCount];
+        return heads;
     }
 }
-
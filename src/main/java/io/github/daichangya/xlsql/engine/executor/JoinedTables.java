@@ -0,0 +1,110 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.Arrays;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * JoinedTables - JOIN结果的列布局
+ * 
+ * <p>JOIN结果的列依次是各基表的列（与列索引映射中的下标一致）。
+ * 给定行号元组（见{@link RowIdOperator}），按布局中的列下标直接从基表的列向量读取值。</p>
+ * 
+ * @author daichangya
+ */
+final class JoinedTables {
+    
+    private final TableInfo[] tables;
+    
+    /** 每个布局列所在的基表（在tables中的位置） */
+    private final int[] tableOfColumn;
+    
+    /** 每个布局列对应的列向量（数据未加载时为null） */
+    private final ColumnVector[] vectors;
+    
+    /**
+     * 创建只包含一张表的布局
+     * 
+     * @param table 表信息（已加载数据）
+     */
+    JoinedTables(TableInfo table) {
+        this(new TableInfo[0], new int[0], new ColumnVector[0], table);
+    }
+    
+    private JoinedTables(TableInfo[] leftTables, int[] leftTableOfColumn, ColumnVector[] leftVectors,
+                         TableInfo table) {
+        int width = table.getColumnNames().length;
+        this.tables = Arrays.copyOf(leftTables, leftTables.length + 1);
+        this.tables[leftTables.length] = table;
+        this.tableOfColumn = Arrays.copyOf(leftTableOfColumn, leftTableOfColumn.length + width);
+        this.vectors = Arrays.copyOf(leftVectors, leftVectors.length + width);
+        for (int c = 0; c < width; c++) {
+            tableOfColumn[leftTableOfColumn.length + c] = leftTables.length;
+            vectors[leftVectors.length + c] = table.getColumn(c);
+        }
+    }
+    
+    /**
+     * 在右侧追加一张表
+     * 
+     * @param table 表信息（已加载数据）
+     * @return 新的布局
+     */
+    JoinedTables join(TableInfo table) {
+        return new JoinedTables(tables, tableOfColumn, vectors, table);
+    }
+    
+    /**
+     * 基表数量（即行号元组的长度）
+     * 
+     * @return 基表数量
+     */
+    int getTableCount() {
+        return tables.length;
+    }
+    
+    /**
+     * 布局中的列数
+     * 
+     * @return 列数
+     */
+    int getColumnCount() {
+        return vectors.length;
+    }
+    
+    /**
+     * 读取行号元组在指定列上的值
+     * 
+     * @param rowIds 行号元组
+     * @param column 布局中的列下标
+     * @return 列值，该表用NULL填充或列不存在时返回null
+     */
+    String getString(int[] rowIds, int column) {
+        if (column < 0 || column >= vectors.length) {
+            return null;
+        }
+        int row = rowIds[tableOfColumn[column]];
+        ColumnVector vector = vectors[column];
+        return row >= 0 && vector != null ? vector.getString(row) : null;
+    }
+}
@@ -0,0 +1,170 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * LikePattern - 预先分析的LIKE模式
+ * 
+ * <p>模式只分析一次：不含通配符的模式按相等比较，
+ * {@code abc%}、{@code %abc}、{@code %abc%}分别转换为
+ * startsWith、endsWith和indexOf检查，其余模式编译为正则表达式，
+ * 模式中的正则元字符按字面量处理。</p>
+ * 
+ * <p>逐行变化的模式通过{@link #of(String)}从一个有界缓存中获取，
+ * 避免每行都重新编译正则。</p>
+ * 
+ * @author daichangya
+ */
+final class LikePattern {
+    
+    /** 缓存的模式数量上限 */
+    private static final int CACHE_SIZE = 256;
+    
+    private static final Map<String, LikePattern> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<String, LikePattern>(64, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+                
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LikePattern> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+    
+    private enum Kind { ANY, EXACT, PREFIX, SUFFIX, CONTAINS, REGEX }
+    
+    private final Kind kind;
+    
+    /** 字面量部分（ANY和REGEX时为null） */
+    private final String literal;
+    
+    /** 通用模式的正则（仅REGEX时非null） */
+    private final Pattern regex;
+    
+    private LikePattern(Kind kind, String literal, Pattern regex) {
+        this.kind = kind;
+        this.literal = literal;
+        this.regex = regex;
+    }
+    
+    /**
+     * 获取（必要时分析并缓存）LIKE模式
+     * 
+     * @param pattern SQL LIKE模式
+     * @return 分析后的模式
+     */
+    static LikePattern of(String pattern) {
+        LikePattern compiled = CACHE.get(pattern);
+        if (compiled == null) {
+            compiled = compile(pattern);
+            CACHE.put(pattern, compiled);
+        }
+        return compiled;
+    }
+    
+    /**
+     * 分析LIKE模式（不经过缓存）
+     * 
+     * @param pattern SQL LIKE模式（%匹配任意字符序列，_匹配单个字符）
+     * @return 分析后的模式
+     */
+    static LikePattern compile(String pattern) {
+        if (pattern.indexOf('_') < 0) {
+            int length = pattern.length();
+            int first = pattern.indexOf('%');
+            if (first < 0) {
+                return new LikePattern(Kind.EXACT, pattern, null);
+            }
+            // 去掉首尾的%后，中间不再含%的模式可以走快速路径
+            int start = 0;
+            while (start < length && pattern.charAt(start) == '%') {
+                start++;
+            }
+            int end = length;
+            while (end > start && pattern.charAt(end - 1) == '%') {
+                end--;
+            }
+            String body = pattern.substring(start, end);
+            if (body.indexOf('%') < 0) {
+                boolean leading = start > 0;
+                boolean trailing = end < length;
+                if (body.isEmpty()) {
+                    return new LikePattern(Kind.ANY, null, null);
+                }
+                if (leading && trailing) {
+                    return new LikePattern(Kind.CONTAINS, body, null);
+                }
+                return new LikePattern(leading ? Kind.SUFFIX : Kind.PREFIX, body, null);
+            }
+        }
+        return new LikePattern(Kind.REGEX, null, Pattern.compile(toRegex(pattern), Pattern.DOTALL));
+    }
+    
+    /**
+     * 把LIKE模式转换为正则表达式，字面量部分加引号
+     */
+    private static String toRegex(String pattern) {
+        StringBuilder regex = new StringBuilder(pattern.length() + 16);
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '%' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+    
+    /**
+     * 判断值是否匹配模式
+     * 
+     * @param value 值（不能为null）
+     * @return 如果匹配返回true
+     */
+    boolean matches(String value) {
+        switch (kind) {
+            case ANY:
+                return true;
+            case EXACT:
+                return value.equals(literal);
+            case PREFIX:
+                return value.startsWith(literal);
+            case SUFFIX:
+                return value.endsWith(literal);
+            case CONTAINS:
+                return value.indexOf(literal) >= 0;
+            default:
+                return regex.matcher(value).matches();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+
+/**
+ * LimitOperator - LIMIT/OFFSET算子
+ * 
+ * <p>跳过前OFFSET行，输出LIMIT行后不再从子算子拉取。
+ * LIMIT为null或负数时不限制行数，为0时不输出任何行。</p>
+ * 
+ * @author daichangya
+ */
+final class LimitOperator implements Operator {
+    
+    private final Operator child;
+    
+    private final int offset;
+    
+    /** 最多输出的行数，-1表示不限制 */
+    private final long limit;
+    
+    private long remaining;
+    
+    /**
+     * 创建LIMIT算子
+     * 
+     * @param child 子算子
+     * @param limit LIMIT值（可以为null）
+     * @param offset OFFSET值（可以为null）
+     */
+    LimitOperator(Operator child, Integer limit, Integer offset) {
+        this.child = child;
+        this.offset = (offset != null && offset > 0) ? offset : 0;
+        this.limit = limit == null || limit < 0 ? -1 : limit;
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+        remaining = limit;
+        if (remaining == 0) {
+            return;
+        }
+        for (int i = 0; i < offset; i++) {
+            if (child.next() == null) {
+                remaining = 0;
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public String[] next() throws SQLException {
+        if (remaining == 0) {
+            return null;
+        }
+        String[] row = child.next();
+        if (row == null) {
+            remaining = 0;
+        } else if (remaining > 0) {
+            remaining--;
+        }
+        return row;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        child.close();
+    }
+}
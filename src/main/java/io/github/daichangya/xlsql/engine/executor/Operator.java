@@ -0,0 +1,45 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+
+import io.github.daichangya.xlsql.engine.resultset.RowSource;
+
+/**
+ * Operator - 物理执行算子
+ * 
+ * <p>查询按算子树执行（Volcano模型）：先调用{@link #open()}，再反复调用{@link #next()}
+ * 从子算子拉取行，返回null表示结束，最后调用{@link #close()}。
+ * 过滤、投影、LIMIT等流式算子每次只处理一行；聚合和排序等阻塞算子在open时读完输入。
+ * 根算子直接作为{@link io.github.daichangya.xlsql.engine.resultset.xlNativeResultSet}的行来源，
+ * 结果集只在游标需要时才拉取下一行。</p>
+ * 
+ * @author daichangya
+ */
+interface Operator extends RowSource {
+    
+    /**
+     * 打开算子（同时打开子算子）
+     * 
+     * @throws SQLException 如果打开失败则抛出异常
+     */
+    void open() throws SQLException;
+}
@@ -0,0 +1,262 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import io.github.daichangya.xlsql.util.XlSqlConfig;
+
+/**
+ * ParallelExecution - 查询并行执行工具类
+ * 
+ * <p>大输入按固定顺序切分成若干分片，在fork/join线程池上并行处理，
+ * 结果按分片顺序返回。并行度可以通过系统属性
+ * -Dxlsql.query.parallelism=N（或环境变量XLSQL_QUERY_PARALLELISM）配置，
+ * 默认为可用处理器数，设为1时关闭并行执行。</p>
+ * 
+ * <p>所有查询共享同一个线程池，线程数取可用处理器数和默认并行度中较大的一个；
+ * 每个查询的并行度只限制同时提交的任务数，不会为不同的并行度另建线程池。</p>
+ * 
+ * @author daichangya
+ */
+public final class ParallelExecution {
+    
+    /** 系统属性键：查询执行的并行度 */
+    public static final String PROP_PARALLELISM = "xlsql.query.parallelism";
+    
+    /** 允许设置的最大并行度 */
+    public static final int MAX_PARALLELISM = 256;
+    
+    /** 每个分片至少包含的行数，输入更小时不值得并行 */
+    static final int MIN_ROWS_PER_PARTITION = 16384;
+    
+    private ParallelExecution() {
+    }
+    
+    /**
+     * 获取配置的默认并行度
+     * 
+     * <p>配置值超出1到{@link #MAX_PARALLELISM}时取最近的边界值，不是整数时取可用处理器数。</p>
+     * 
+     * @return 并行度（1到{@link #MAX_PARALLELISM}）
+     */
+    public static int defaultParallelism() {
+        int parallelism = XlSqlConfig.getInt(PROP_PARALLELISM, Runtime.getRuntime().availableProcessors());
+        return Math.min(MAX_PARALLELISM, Math.max(1, parallelism));
+    }
+    
+    /**
+     * 解析并校验并行度设置
+     * 
+     * @param value 并行度字符串
+     * @return 并行度
+     * @throws SQLException 如果不是整数或不在1到{@link #MAX_PARALLELISM}之间
+     */
+    public static int parseParallelism(String value) throws SQLException {
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new SQLException("Invalid " + PROP_PARALLELISM + ": " + value, e);
+        }
+        checkParallelism(parallelism);
+        return parallelism;
+    }
+    
+    /**
+     * 校验并行度设置
+     * 
+     * @param parallelism 并行度
+     * @throws SQLException 如果不在1到{@link #MAX_PARALLELISM}之间
+     */
+    public static void checkParallelism(int parallelism) throws SQLException {
+        if (parallelism < 1 || parallelism > MAX_PARALLELISM) {
+            throw new SQLException("Invalid " + PROP_PARALLELISM + ": " + parallelism
+                    + " (must be between 1 and " + MAX_PARALLELISM + ")");
+        }
+    }
+    
+    /**
+     * 计算输入应切分的分片数
+     * 
+     * @param rows 输入行数
+     * @param parallelism 并行度
+     * @return 分片数，为1表示应顺序执行
+     */
+    static int partitions(int rows, int parallelism) {
+        return Math.max(1, Math.min(parallelism, rows / MIN_ROWS_PER_PARTITION));
+    }
+    
+    /**
+     * 第i个分片的起始位置（分片i覆盖[start(i), start(i + 1))）
+     * 
+     * @param rows 输入行数
+     * @param partitions 分片数
+     * @param i 分片序号（0到partitions）
+     * @return 起始行号
+     */
+    static int partitionStart(int rows, int partitions, int i) {
+        return (int) ((long) rows * i / partitions);
+    }
+    
+    /**
+     * 按固定大小的行区间并行筛选行
+     * 
+     * <p>输入按{@link #MIN_ROWS_PER_PARTITION}行切成区间，各区间的筛选结果按区间顺序拼接，
+     * 与顺序执行的结果相同。输入不足两个区间或并行度为1时直接在调用线程上执行。</p>
+     * 
+     * @param rowCount 行数
+     * @param parallelism 并行度
+     * @param selector 区间筛选器
+     * @return 满足条件的行号（升序）
+     * @throws SQLException 如果筛选失败则抛出异常
+     */
+    static int[] select(int rowCount, int parallelism, RangeSelector selector) throws SQLException {
+        int chunks = (rowCount + MIN_ROWS_PER_PARTITION - 1) / MIN_ROWS_PER_PARTITION;
+        if (parallelism <= 1 || chunks < 2) {
+            return selector.select(0, rowCount);
+        }
+        
+        // 区间多于并行度时每个任务按顺序处理一段连续的区间，同时提交的任务数不超过并行度
+        int taskCount = Math.min(parallelism, chunks);
+        List<Callable<int[]>> tasks = new ArrayList<>(taskCount);
+        for (int t = 0; t < taskCount; t++) {
+            final int firstChunk = partitionStart(chunks, taskCount, t);
+            final int lastChunk = partitionStart(chunks, taskCount, t + 1);
+            tasks.add(() -> {
+                List<int[]> parts = new ArrayList<>(lastChunk - firstChunk);
+                for (int i = firstChunk; i < lastChunk; i++) {
+                    int from = i * MIN_ROWS_PER_PARTITION;
+                    parts.add(selector.select(from, Math.min(rowCount, from + MIN_ROWS_PER_PARTITION)));
+                }
+                return concat(parts);
+            });
+        }
+        return concat(invokeAll(tasks));
+    }
+    
+    private static int[] concat(List<int[]> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        int total = 0;
+        for (int[] part : parts) {
+            total += part.length;
+        }
+        int[] selection = new int[total];
+        int offset = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, selection, offset, part.length);
+            offset += part.length;
+        }
+        return selection;
+    }
+    
+    /**
+     * 排序数组（稳定）
+     * 
+     * <p>数组较大且并行度大于1时在共享线程池中执行{@link Arrays#parallelSort(Object[], Comparator)}，
+     * 否则在调用线程上执行{@link Arrays#sort(Object[], Comparator)}，两者结果相同。</p>
+     * 
+     * @param array 待排序数组
+     * @param comparator 比较器
+     * @param parallelism 并行度
+     * @throws SQLException 如果排序被中断
+     */
+    static <T> void sort(T[] array, Comparator<? super T> comparator, int parallelism) throws SQLException {
+        if (parallelism <= 1 || array.length < 2 * MIN_ROWS_PER_PARTITION) {
+            Arrays.sort(array, comparator);
+            return;
+        }
+        invokeAll(Collections.singletonList(() -> {
+            Arrays.parallelSort(array, comparator);
+            return null;
+        }));
+    }
+    
+    /**
+     * 行区间筛选器
+     * 
+     * <p>实现会被多个线程同时调用，只能读取共享状态。</p>
+     */
+    interface RangeSelector {
+        
+        /**
+         * 筛选区间内满足条件的行
+         * 
+         * @param from 起始行号（包含）
+         * @param to 结束行号（不包含）
+         * @return 满足条件的行号（升序）
+         * @throws SQLException 如果筛选失败则抛出异常
+         */
+        int[] select(int from, int to) throws SQLException;
+    }
+    
+    /**
+     * 在共享线程池中并行执行任务，按任务顺序返回结果
+     * 
+     * <p>调用方按并行度决定任务数。</p>
+     * 
+     * @param tasks 任务列表
+     * @return 各任务的结果
+     * @throws SQLException 如果有任务失败（任务抛出的SQLException原样抛出）
+     */
+    static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) throws SQLException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : SharedPool.POOL.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Query execution interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException("Parallel query execution failed: " + cause, cause);
+        }
+        return results;
+    }
+    
+    /**
+     * 共享线程池（首次并行执行时创建，工作线程为守护线程）
+     */
+    private static final class SharedPool {
+        static final ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(Runtime.getRuntime().availableProcessors(), defaultParallelism()));
+    }
+}
@@ -0,0 +1,190 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.model.JoinType;
+import io.github.daichangya.xlsql.engine.plan.JoinInfo;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+
+/**
+ * PredicatePushdown - WHERE条件下推
+ * 
+ * <p>把WHERE按AND拆分为合取项，只引用一张表的合取项下推到该表，
+ * 在JOIN之前过滤；其余（跨表、常量、无法解析的）合取项保留到JOIN之后。</p>
+ * 
+ * <p>列引用的解析规则与{@link ExpressionEvaluator}在JOIN结果上的解析一致：
+ * 先查“限定名.列名”，再查列名（同名列解析到最后一张包含它的表）。
+ * 外连接中可能被NULL填充的一侧不接受下推，否则会改变结果。</p>
+ * 
+ * @author daichangya
+ */
+final class PredicatePushdown {
+    
+    /** 每张表的下推条件（下标与表列表一致） */
+    private final List<List<Expression>> tableConjuncts;
+    
+    /** JOIN之后仍需评估的条件 */
+    private final List<Expression> residual;
+    
+    private PredicatePushdown(int tableCount) {
+        this.tableConjuncts = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            tableConjuncts.add(new ArrayList<>());
+        }
+        this.residual = new ArrayList<>();
+    }
+    
+    /**
+     * 规划WHERE条件的下推
+     * 
+     * @param where WHERE表达式（可以为null）
+     * @param tables 表信息列表（主表在前，随后按JOIN顺序）
+     * @param joins JOIN列表
+     * @param columnIndexMap JOIN结果的列名到索引的映射
+     * @return 下推计划
+     */
+    static PredicatePushdown plan(Expression where, List<TableInfo> tables, List<JoinInfo> joins,
+                                  Map<String, Integer> columnIndexMap) {
+        PredicatePushdown pushdown = new PredicatePushdown(tables.size());
+        if (where == null) {
+            return pushdown;
+        }
+        
+        int[] offsets = new int[tables.size() + 1];
+        for (int i = 0; i < tables.size(); i++) {
+            offsets[i + 1] = offsets[i] + tables.get(i).getColumnNames().length;
+        }
+        boolean[] pushable = pushableTables(tables.size(), joins);
+        
+        for (Expression conjunct : ConditionEvaluator.splitConjuncts(where)) {
+            int table = referencedTable(conjunct, columnIndexMap, offsets);
+            if (table >= 0 && pushable[table]) {
+                pushdown.tableConjuncts.get(table).add(conjunct);
+            } else {
+                pushdown.residual.add(conjunct);
+            }
+        }
+        return pushdown;
+    }
+    
+    /**
+     * 获取下推到指定表的条件
+     * 
+     * @param tableIndex 表下标（0为主表）
+     * @return 条件列表（可能为空）
+     */
+    List<Expression> getTableConjuncts(int tableIndex) {
+        return tableConjuncts.get(tableIndex);
+    }
+    
+    /**
+     * 获取JOIN之后仍需评估的条件
+     * 
+     * @return 条件列表（可能为空）
+     */
+    List<Expression> getResidual() {
+        return residual;
+    }
+    
+    /**
+     * 计算哪些表可以接受下推：表不能处在任何外连接中被NULL填充的一侧
+     */
+    private static boolean[] pushableTables(int tableCount, List<JoinInfo> joins) {
+        boolean[] pushable = new boolean[tableCount];
+        for (int t = 0; t < tableCount; t++) {
+            pushable[t] = true;
+        }
+        for (int j = 0; j < joins.size() && j + 1 < tableCount; j++) {
+            JoinType type = joins.get(j).getType();
+            int right = j + 1;
+            if (type == JoinType.LEFT || type == JoinType.FULL_OUTER) {
+                pushable[right] = false;
+            }
+            if (type == JoinType.RIGHT || type == JoinType.FULL_OUTER) {
+                for (int t = 0; t < right; t++) {
+                    pushable[t] = false;
+                }
+            }
+        }
+        return pushable;
+    }
+    
+    /**
+     * 找出合取项引用的唯一一张表
+     * 
+     * @return 表下标；不引用列、引用多张表、含子查询或有无法解析的列时返回-1
+     */
+    private static int referencedTable(Expression conjunct, Map<String, Integer> columnIndexMap,
+                                       int[] offsets) {
+        ColumnReferences collector = new ColumnReferences();
+        conjunct.accept(collector);
+        if (collector.hasSubquery() || collector.getColumns().isEmpty()) {
+            return -1;
+        }
+        
+        int table = -1;
+        for (Column column : collector.getColumns()) {
+            Integer index = resolve(column, columnIndexMap);
+            if (index == null) {
+                return -1;
+            }
+            int owner = ownerOf(index, offsets);
+            if (owner < 0 || (table >= 0 && owner != table)) {
+                return -1;
+            }
+            table = owner;
+        }
+        return table;
+    }
+    
+    private static Integer resolve(Column column, Map<String, Integer> columnIndexMap) {
+        String columnName = column.getColumnName();
+        if (columnName == null) {
+            return null;
+        }
+        String key = columnName.toUpperCase();
+        Table table = column.getTable();
+        if (table != null) {
+            String tableAlias = table.getAlias() != null ? table.getAlias().getName() : table.getName();
+            if (tableAlias != null && !tableAlias.isEmpty()) {
+                key = tableAlias.toUpperCase() + "." + key;
+            }
+        }
+        Integer index = columnIndexMap.get(key);
+        return index != null ? index : columnIndexMap.get(columnName.toUpperCase());
+    }
+    
+    private static int ownerOf(int columnIndex, int[] offsets) {
+        for (int t = 0; t + 1 < offsets.length; t++) {
+            if (columnIndex >= offsets[t] && columnIndex < offsets[t + 1]) {
+                return t;
+            }
+        }
+        return -1;
+    }
+}
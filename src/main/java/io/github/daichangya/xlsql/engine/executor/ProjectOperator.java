@@ -0,0 +1,168 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.plan.JoinInfo;
+import io.github.daichangya.xlsql.engine.plan.QueryPlan;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * ProjectOperator - 投影算子
+ * 
+ * <p>按SELECT列表逐行计算输出列：能直接找到的列按下标读取，
+ * 其余按表达式编译后求值（如 UPPER(a)），无法解析或求值失败时为null。
+ * 行中在选择列之后的值（聚合函数结果）原样保留。SELECT *时直接输出输入行。</p>
+ * 
+ * @author daichangya
+ */
+final class ProjectOperator implements Operator {
+    
+    private final Operator child;
+    
+    /** 是否直接输出输入行（SELECT *） */
+    private final boolean passThrough;
+    
+    private final List<String> selectColumns;
+    
+    /** 每个选择列在输入行中的下标（找不到时为null） */
+    private final Integer[] indexes;
+    
+    private final CompiledExpression[] expressions;
+    
+    private final boolean[] compiled;
+    
+    private final ExpressionCompiler compiler;
+    
+    /**
+     * 创建投影算子
+     * 
+     * @param child 子算子
+     * @param plan 查询计划
+     * @param columnIndexMap 列名到索引的映射
+     */
+    ProjectOperator(Operator child, QueryPlan plan, Map<String, Integer> columnIndexMap) {
+        this.child = child;
+        this.passThrough = plan.getSelectColumns().isEmpty() && plan.getAggregateFunctions().isEmpty();
+        
+        // 每个选择列只解析一次：能直接找到的列记下下标，其余在第一次用到时编译
+        this.selectColumns = plan.getSelectColumns();
+        this.indexes = new Integer[selectColumns.size()];
+        for (int c = 0; c < indexes.length; c++) {
+            indexes[c] = columnIndexMap.get(ResultSetBuilder.stripTableAlias(selectColumns.get(c)));
+        }
+        this.expressions = new CompiledExpression[indexes.length];
+        this.compiled = new boolean[indexes.length];
+        this.compiler = new ExpressionCompiler(columnIndexMap, planTables(plan));
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+    }
+    
+    @Override
+    public String[] next() throws SQLException {
+        String[] row = child.next();
+        if (row == null || passThrough) {
+            return row;
+        }
+        
+        String[] result = new String[Math.max(indexes.length, row.length)];
+        for (int c = 0; c < indexes.length; c++) {
+            Integer index = indexes[c];
+            if (index != null && index >= 0 && index < row.length) {
+                // 找到列，直接使用
+                result[c] = row[index];
+            } else {
+                // 列名查找失败，可能是表达式，按编译后的表达式求值
+                if (!compiled[c]) {
+                    expressions[c] = compileExpression(selectColumns.get(c));
+                    compiled[c] = true;
+                }
+                result[c] = evaluateExpression(expressions[c], row);
+            }
+        }
+        
+        // 聚合函数值已经在AggregationExecutor中处理了，位于选择列之后，原样保留
+        if (row.length > indexes.length) {
+            System.arraycopy(row, indexes.length, result, indexes.length, row.length - indexes.length);
+        }
+        return result;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        child.close();
+    }
+    
+    /**
+     * 解析并编译选择列表达式（如 UPPER(a)、LOWER(name) 等）
+     * 
+     * @param exprStr 表达式字符串
+     * @return 编译后的表达式，无法解析时返回null
+     */
+    private CompiledExpression compileExpression(String exprStr) {
+        try {
+            return compiler.compile(net.sf.jsqlparser.parser.CCJSqlParserUtil.parseExpression(exprStr));
+        } catch (Exception e) {
+            // 解析失败，该列的值为null
+            return null;
+        }
+    }
+    
+    /**
+     * 对一行计算选择列表达式
+     * 
+     * @param expression 编译后的表达式（可以为null）
+     * @param row 数据行
+     * @return 评估结果字符串，如果评估失败返回null
+     */
+    private static String evaluateExpression(CompiledExpression expression, String[] row) {
+        if (expression == null) {
+            return null;
+        }
+        try {
+            Object result = expression.evaluate(row);
+            return result != null ? result.toString() : null;
+        } catch (RuntimeException e) {
+            // 评估失败，返回null
+            return null;
+        }
+    }
+    
+    /**
+     * 查询计划中的表（主表和JOIN表），用于解析表达式中的表别名
+     */
+    private static List<TableInfo> planTables(QueryPlan plan) {
+        List<TableInfo> result = new ArrayList<>();
+        if (plan.getMainTable() != null) {
+            result.add(plan.getMainTable());
+        }
+        for (JoinInfo join : plan.getJoins()) {
+            result.add(join.getTable());
+        }
+        return result;
+    }
+}
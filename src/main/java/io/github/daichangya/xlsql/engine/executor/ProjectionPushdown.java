@@ -0,0 +1,206 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.AllColumns;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.SelectItem;
+
+/**
+ * ProjectionPushdown - 列裁剪
+ * 
+ * <p>收集SELECT、WHERE、JOIN、GROUP BY、HAVING和ORDER BY中引用的列名，
+ * 加载表时只编码并保留这些列，后续的过滤、JOIN和结果构建都只处理保留的列。</p>
+ * 
+ * <p>裁剪按列名进行，不区分限定名：被引用的列名在每张包含它的表中都会保留，
+ * 因此无论列引用最终解析到哪张表，结果都与不裁剪时一致。
+ * 查询包含{@code *}、{@code t.*}或子查询时不裁剪。</p>
+ * 
+ * @author daichangya
+ */
+final class ProjectionPushdown {
+    
+    /** 被引用的列名（大写），null表示需要全部列 */
+    private final Set<String> referencedColumns;
+    
+    private ProjectionPushdown(Set<String> referencedColumns) {
+        this.referencedColumns = referencedColumns;
+    }
+    
+    /**
+     * 分析查询引用的列
+     * 
+     * @param plainSelect 解析后的SELECT语句
+     * @return 列裁剪计划
+     */
+    static ProjectionPushdown plan(PlainSelect plainSelect) {
+        return new ProjectionPushdown(collect(plainSelect, true));
+    }
+    
+    /**
+     * 分析JOIN之后仍然引用的列
+     * 
+     * <p>与{@link #plan(PlainSelect)}相同，但不包括只在连接条件（ON/USING）中出现的列：
+     * JOIN直接从基表读取连接键，这些列不需要出现在JOIN结果行中。</p>
+     * 
+     * @param plainSelect 解析后的SELECT语句
+     * @return 列裁剪计划
+     */
+    static ProjectionPushdown planAfterJoins(PlainSelect plainSelect) {
+        return new ProjectionPushdown(collect(plainSelect, false));
+    }
+    
+    /**
+     * 收集被引用的列名
+     * 
+     * @return 列名集合（大写），需要全部列时返回null
+     */
+    private static Set<String> collect(PlainSelect plainSelect, boolean includeJoinConditions) {
+        if (!(plainSelect.getFromItem() instanceof Table)) {
+            return null;
+        }
+        
+        ColumnReferences collector = new ColumnReferences();
+        for (SelectItem<?> item : plainSelect.getSelectItems()) {
+            if (item.getExpression() instanceof AllColumns) {
+                // SELECT * 与 SELECT t.*（AllTableColumns是AllColumns的子类）
+                return null;
+            }
+            item.getExpression().accept(collector);
+        }
+        if (plainSelect.getDistinct() != null && plainSelect.getDistinct().getOnSelectItems() != null) {
+            for (SelectItem<?> item : plainSelect.getDistinct().getOnSelectItems()) {
+                accept(item.getExpression(), collector);
+            }
+        }
+        accept(plainSelect.getWhere(), collector);
+        accept(plainSelect.getHaving(), collector);
+        if (plainSelect.getGroupBy() != null && plainSelect.getGroupBy().getGroupByExpressionList() != null) {
+            for (Object expression : plainSelect.getGroupBy().getGroupByExpressionList()) {
+                accept((Expression) expression, collector);
+            }
+        }
+        if (plainSelect.getOrderByElements() != null) {
+            for (OrderByElement element : plainSelect.getOrderByElements()) {
+                accept(element.getExpression(), collector);
+            }
+        }
+        if (plainSelect.getJoins() != null) {
+            for (Join join : plainSelect.getJoins()) {
+                if (!(join.getFromItem() instanceof Table)) {
+                    return null;
+                }
+                if (!includeJoinConditions) {
+                    continue;
+                }
+                for (Expression on : join.getOnExpressions()) {
+                    accept(on, collector);
+                }
+                if (join.getUsingColumns() != null) {
+                    for (Column column : join.getUsingColumns()) {
+                        column.accept(collector);
+                    }
+                }
+            }
+        }
+        if (collector.hasSubquery()) {
+            return null;
+        }
+        
+        Set<String> columns = new HashSet<>();
+        for (Column column : collector.getColumns()) {
+            if (column.getColumnName() != null) {
+                columns.add(unquote(column.getColumnName()).toUpperCase());
+            }
+        }
+        return columns;
+    }
+    
+    private static void accept(Expression expression, ColumnReferences collector) {
+        if (expression != null) {
+            expression.accept(collector);
+        }
+    }
+    
+    /**
+     * 去掉标识符两侧的引号、反引号或方括号
+     */
+    private static String unquote(String name) {
+        if (name.length() >= 2) {
+            char first = name.charAt(0);
+            char last = name.charAt(name.length() - 1);
+            if ((first == '"' && last == '"') || (first == '`' && last == '`')
+                    || (first == '[' && last == ']')) {
+                return name.substring(1, name.length() - 1);
+            }
+        }
+        return name;
+    }
+    
+    /**
+     * 计算一张表需要保留的列
+     * 
+     * @param columnNames 表的全部列名
+     * @return 需要保留的列下标（升序）；需要全部列时返回null
+     */
+    int[] requiredColumns(String[] columnNames) {
+        if (referencedColumns == null || columnNames == null) {
+            return null;
+        }
+        int[] required = new int[columnNames.length];
+        int count = 0;
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i] != null && referencedColumns.contains(columnNames[i].toUpperCase())) {
+                required[count++] = i;
+            }
+        }
+        if (count == columnNames.length) {
+            return null;
+        }
+        return Arrays.copyOf(required, count);
+    }
+    
+    /**
+     * 按下标挑选数组元素
+     * 
+     * @param values 原数组（可以为null）
+     * @param indexes 下标
+     * @return 挑选后的数组；values为null时返回null
+     */
+    static String[] pick(String[] values, int[] indexes) {
+        if (values == null) {
+            return null;
+        }
+        String[] picked = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            picked[i] = indexes[i] < values.length ? values[indexes[i]] : null;
+        }
+        return picked;
+    }
+}
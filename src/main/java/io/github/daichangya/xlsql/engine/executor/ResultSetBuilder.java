@@ -22,11 +22,13 @@ package io.github.daichangya.xlsql.engine.executor;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
 import io.github.daichangya.xlsql.engine.model.AggregateFunction;
 import io.github.daichangya.xlsql.engine.plan.OrderByItem;
 import io.github.daichangya.xlsql.engine.plan.QueryPlan;
@@ -42,6 +44,42 @@ import io.github.daichangya.xlsql.engine.resultset.xlNativeResultSet;
  */
 public class ResultSetBuilder {
     
+    /** 排序的并行度 */
+    private final int parallelism;
+    
+    /** 按需读取的结果集是否可滚动 */
+    private final boolean scrollable;
+    
+    /**
+     * 创建结果集构建器，并行度取配置的默认值
+     * 
+     * @see ParallelExecution#defaultParallelism()
+     */
+    public ResultSetBuilder() {
+        this(ParallelExecution.defaultParallelism());
+    }
+    
+    /**
+     * 创建构建TYPE_FORWARD_ONLY结果集的构建器
+     * 
+     * @param parallelism ORDER BY排序的并行度（小于1时按1处理）
+     */
+    public ResultSetBuilder(int parallelism) {
+        this(parallelism, false);
+    }
+    
+    /**
+     * 创建结果集构建器
+     * 
+     * @param parallelism ORDER BY排序的并行度（小于1时按1处理）
+     * @param scrollable true时按需读取的结果集为TYPE_SCROLL_INSENSITIVE（保留已读取的行），
+     *                   false时为TYPE_FORWARD_ONLY（只保留当前行）
+     */
+    public ResultSetBuilder(int parallelism, boolean scrollable) {
+        this.parallelism = Math.max(1, parallelism);
+        this.scrollable = scrollable;
+    }
+    
     /**
      * 构建结果集
      * 
@@ -55,268 +93,249 @@ public class ResultSetBuilder {
     public ResultSet build(List<String[]> rows, QueryPlan plan,
                           Map<String, Integer> columnIndexMap,
                           List<TableInfo> tables) throws SQLException {
-        
-        // 应用列选择
-        List<String[]> selectedRows = selectColumns(rows, plan, columnIndexMap);
-        
-        // 应用排序
-        if (!plan.getOrderBy().isEmpty()) {
-            selectedRows = applyOrderBy(selectedRows, plan, columnIndexMap);
-        }
-        
-        // 应用LIMIT和OFFSET
-        // 即使LIMIT为null，如果OFFSET存在，也需要应用OFFSET
-        if (plan.getLimit() != null || plan.getOffset() != null) {
-            selectedRows = applyLimit(selectedRows, plan.getLimit(), plan.getOffset());
-        }
-        
+        return build(new ScanOperator(rows), plan, columnIndexMap, tables);
+    }
+    
+    /**
+     * 在输入算子之上构建投影、排序和LIMIT算子，返回按需拉取行的结果集
+     * 
+     * <p>没有ORDER BY时，结果集每读取一行才从输入拉取一行，LIMIT读够后不再拉取。
+     * 排序是阻塞的，在这里打开算子树时完成，失败时直接抛出异常。</p>
+     * 
+     * @param input 输入算子（未打开）
+     * @param plan 查询计划
+     * @param columnIndexMap 列名到索引的映射
+     * @param tables 表信息列表
+     * @return ResultSet对象
+     * @throws SQLException 如果构建失败则抛出异常
+     */
+    ResultSet build(Operator input, QueryPlan plan,
+                    Map<String, Integer> columnIndexMap,
+                    List<TableInfo> tables) throws SQLException {
         // 构建列名和类型数组
         String[] columnNames = buildColumnNames(plan, tables);
         String[] columnTypes = buildColumnTypes(plan, columnNames.length);
         
-        // 对于SELECT *，确保行数据长度与列数匹配
-        if (plan.getSelectColumns().isEmpty() && plan.getAggregateFunctions().isEmpty() && !selectedRows.isEmpty()) {
-            // 检查并修复行数据长度
-            int expectedLength = columnNames.length;
-            for (int i = 0; i < selectedRows.size(); i++) {
-                String[] row = selectedRows.get(i);
-                if (row != null && row.length < expectedLength) {
-                    // 扩展行数据以匹配列数
-                    String[] extendedRow = new String[expectedLength];
-                    System.arraycopy(row, 0, extendedRow, 0, row.length);
-                    // 剩余部分保持为null
-                    selectedRows.set(i, extendedRow);
-                }
+        // 聚合后的行已经按输出列排列（选择列在前，聚合函数值在后），不再投影，
+        // 排序列按输出列解析；否则先按输入行排序（可以按未选择的列排序），再投影
+        boolean aggregated = plan.hasAggregation() || plan.hasGroupBy()
+                || !plan.getAggregateFunctions().isEmpty();
+        Operator root = input;
+        
+        // 应用排序；有LIMIT时只保留前LIMIT+OFFSET行
+        Integer limit = plan.getLimit();
+        Integer offset = plan.getOffset();
+        if (!plan.getOrderBy().isEmpty() && (limit == null || limit != 0)) {
+            int wanted = -1;
+            if (limit != null && limit > 0) {
+                wanted = (int) Math.min(Integer.MAX_VALUE,
+                        (long) limit + (offset != null && offset > 0 ? offset : 0));
             }
+            RowOrder order = aggregated ? outputRowOrder(plan) : rowOrder(plan, columnIndexMap);
+            root = new SortOperator(root, order, wanted, parallelism);
         }
         
-        // 转换为列优先的数据矩阵
-        String[][] data = convertToColumnMatrix(selectedRows, columnNames.length);
+        // 应用列选择
+        if (!aggregated) {
+            root = new ProjectOperator(root, plan, columnIndexMap);
+        }
         
-        // 确保rowCount与selectedRows.size()一致
-        int rowCount = selectedRows.size();
+        // 应用LIMIT和OFFSET
+        // 即使LIMIT为null，如果OFFSET存在，也需要应用OFFSET
+        if (limit != null || offset != null) {
+            root = new LimitOperator(root, limit, offset);
+        }
         
-        // 创建结果集
-        return new xlNativeResultSet(columnNames, columnTypes, data, rowCount);
+        try {
+            root.open();
+        } catch (SQLException | RuntimeException e) {
+            root.close();
+            throw e;
+        }
+        return xlNativeResultSet.fromSource(columnNames, columnTypes, root, scrollable);
     }
     
     /**
-     * 应用列选择
+     * 判断能否直接用表的列向量构建结果集
+     * 
+     * <p>适用于单表、无WHERE的简单投影：没有聚合、排序和LIMIT/OFFSET，
+     * 且每个选择列都能直接解析为表中的列。此时结果集与表共享列向量，无需逐行复制。</p>
      * 
-     * @param rows 数据行列表
      * @param plan 查询计划
      * @param columnIndexMap 列名到索引的映射
-     * @return 选择后的数据行列表
+     * @return 如果可以直接构建返回true
      */
-    private List<String[]> selectColumns(List<String[]> rows, QueryPlan plan,
-                                         Map<String, Integer> columnIndexMap) {
-        if (plan.getSelectColumns().isEmpty() && plan.getAggregateFunctions().isEmpty()) {
-            // SELECT *，返回所有列
-            return rows;
+    public boolean canBuildFromColumns(QueryPlan plan, Map<String, Integer> columnIndexMap) {
+        if (plan.hasAggregation() || plan.hasGroupBy() || !plan.getAggregateFunctions().isEmpty()
+                || !plan.getOrderBy().isEmpty() || plan.getLimit() != null || plan.getOffset() != null) {
+            return false;
         }
-        
-        List<String[]> result = new ArrayList<>();
-        
-        for (String[] row : rows) {
-            List<String> selectedValues = new ArrayList<>();
-            
-            // 添加普通列
-            for (String col : plan.getSelectColumns()) {
-                String columnName = col.toUpperCase();
-                // 去掉表别名
-                if (columnName.contains(".")) {
-                    columnName = columnName.substring(columnName.indexOf(".") + 1);
-                }
-                
-                Integer index = columnIndexMap.get(columnName);
-                if (index != null && index >= 0 && index < row.length) {
-                    // 找到列，直接使用
-                    selectedValues.add(row[index]);
-                } else {
-                    // 列名查找失败，可能是表达式（如 UPPER(a)）
-                    // 尝试解析并评估表达式
-                    String value = evaluateExpression(col, row, columnIndexMap, plan);
-                    selectedValues.add(value);
-                }
+        for (String col : plan.getSelectColumns()) {
+            if ("*".equals(col) || columnIndexMap.get(stripTableAlias(col)) == null) {
+                return false;
             }
-            
-            // 聚合函数值已经在AggregationExecutor中处理了
-            // 这里只需要确保行长度正确
-            if (row.length >= selectedValues.size()) {
-                // 如果行已经包含了聚合函数值，直接使用
-                for (int i = selectedValues.size(); i < row.length; i++) {
-                    selectedValues.add(row[i]);
-                }
-            }
-            
-            result.add(selectedValues.toArray(new String[0]));
         }
-        
-        return result;
+        return true;
     }
     
     /**
-     * 评估表达式（如 UPPER(a)、LOWER(name) 等）
+     * 直接用表的列向量构建结果集
      * 
-     * @param exprStr 表达式字符串
-     * @param row 数据行
-     * @param columnIndexMap 列名到索引的映射
+     * <p>调用前应通过{@link #canBuildFromColumns(QueryPlan, Map)}检查。</p>
+     * 
+     * @param table 表信息（已加载数据）
      * @param plan 查询计划
-     * @return 评估结果字符串，如果评估失败返回null
+     * @param columnIndexMap 列名到索引的映射
+     * @param tables 表信息列表
+     * @return ResultSet对象
      */
-    private String evaluateExpression(String exprStr, String[] row,
+    public ResultSet buildFromColumns(TableInfo table, QueryPlan plan,
                                       Map<String, Integer> columnIndexMap,
-                                      QueryPlan plan) {
-        try {
-            // 尝试解析表达式
-            net.sf.jsqlparser.expression.Expression expr = 
-                net.sf.jsqlparser.parser.CCJSqlParserUtil.parseExpression(exprStr);
-            
-            // 使用ExpressionEvaluator评估
-            ExpressionEvaluator evaluator = new ExpressionEvaluator();
-            Object result = evaluator.evaluate(expr, row, columnIndexMap, 
-                convertTablesForEvaluator(plan));
-            
-            return result != null ? result.toString() : null;
-        } catch (Exception e) {
-            // 解析或评估失败，返回null
-            return null;
+                                      List<TableInfo> tables) {
+        String[] columnNames = buildColumnNames(plan, tables);
+        String[] columnTypes = buildColumnTypes(plan, columnNames.length);
+        
+        ColumnVector[] columns;
+        if (plan.getSelectColumns().isEmpty()) {
+            columns = table.getColumns();
+        } else {
+            columns = new ColumnVector[columnNames.length];
+            for (int i = 0; i < columns.length; i++) {
+                int index = columnIndexMap.get(stripTableAlias(plan.getSelectColumns().get(i)));
+                columns[i] = table.getColumn(index);
+            }
         }
+        
+        return xlNativeResultSet.fromColumns(columnNames, columnTypes, columns, table.getRowCount());
     }
     
     /**
-     * 将QueryPlan中的表信息转换为ExpressionEvaluator需要的格式
+     * 转为大写并去掉表别名前缀
      */
-    private List<TableInfo> convertTablesForEvaluator(QueryPlan plan) {
-        List<TableInfo> result = new ArrayList<>();
-        
-        // 添加主表
-        if (plan.getMainTable() != null) {
-            result.add(plan.getMainTable());
+    static String stripTableAlias(String column) {
+        String columnName = column.toUpperCase();
+        if (columnName.contains(".")) {
+            columnName = columnName.substring(columnName.indexOf(".") + 1);
         }
-        
-        // 添加JOIN表
-        for (io.github.daichangya.xlsql.engine.plan.JoinInfo join : plan.getJoins()) {
-            result.add(join.getTable());
+        return columnName;
+    }
+    
+    /**
+     * 按输入行构建ORDER BY的行顺序（排序列只解析一次）
+     */
+    private RowOrder rowOrder(QueryPlan plan, Map<String, Integer> columnIndexMap) {
+        List<OrderByItem> items = plan.getOrderBy();
+        int[] indexes = new int[items.size()];
+        boolean[] descending = new boolean[items.size()];
+        int count = 0;
+        for (OrderByItem item : items) {
+            String column = item.getColumn().toUpperCase();
+            // 去掉表别名
+            if (column.contains(".")) {
+                column = column.substring(column.indexOf(".") + 1);
+            }
+            
+            Integer index = columnIndexMap.get(column);
+            if (index == null || index < 0) {
+                // 可能是聚合函数别名，尝试在行中查找
+                // 简化处理：假设聚合函数值在行的末尾
+                continue;
+            }
+            indexes[count] = index;
+            descending[count] = item.isDescending();
+            count++;
         }
-        
-        return result;
+        return new RowOrder(Arrays.copyOf(indexes, count), Arrays.copyOf(descending, count));
     }
     
     /**
-     * 应用ORDER BY排序
+     * 按聚合后的输出列构建ORDER BY的行顺序
      * 
-     * @param rows 数据行列表
-     * @param plan 查询计划
-     * @param columnIndexMap 列名到索引的映射
-     * @return 排序后的数据行列表
+     * <p>聚合后的行中选择列在前，聚合函数值在后。排序列先按选择列名匹配，
+     * 再按聚合函数的别名、显示名或表达式匹配（不区分大小写），都找不到时忽略。</p>
      */
-    private List<String[]> applyOrderBy(List<String[]> rows, QueryPlan plan,
-                                       Map<String, Integer> columnIndexMap) {
-        if (rows.isEmpty()) {
-            return rows;
-        }
-        
-        List<String[]> sortedRows = new ArrayList<>(rows);
-        
-        Collections.sort(sortedRows, new Comparator<String[]>() {
-            @Override
-            public int compare(String[] row1, String[] row2) {
-                for (OrderByItem item : plan.getOrderBy()) {
-                    String column = item.getColumn().toUpperCase();
-                    // 去掉表别名
-                    if (column.contains(".")) {
-                        column = column.substring(column.indexOf(".") + 1);
-                    }
-                    
-                    Integer index = columnIndexMap.get(column);
-                    if (index == null || index < 0) {
-                        // 可能是聚合函数别名，尝试在行中查找
-                        // 简化处理：假设聚合函数值在行的末尾
-                        continue;
-                    }
-                    
-                    if (index >= row1.length || index >= row2.length) {
-                        continue;
-                    }
-                    
-                    String val1 = row1[index];
-                    String val2 = row2[index];
-                    
-                    int cmp = compareValues(val1, val2);
-                    if (cmp != 0) {
-                        return item.isDescending() ? -cmp : cmp;
-                    }
+    private RowOrder outputRowOrder(QueryPlan plan) {
+        List<String> selectColumns = plan.getSelectColumns();
+        List<AggregateFunction> functions = plan.getAggregateFunctions();
+        List<OrderByItem> items = plan.getOrderBy();
+        int[] indexes = new int[items.size()];
+        boolean[] descending = new boolean[items.size()];
+        int count = 0;
+        for (OrderByItem item : items) {
+            int index = -1;
+            String column = stripTableAlias(item.getColumn());
+            for (int i = 0; i < selectColumns.size() && index < 0; i++) {
+                if (stripTableAlias(selectColumns.get(i)).equals(column)) {
+                    index = i;
                 }
-                return 0;
             }
-        });
-        
-        return sortedRows;
+            for (int j = 0; j < functions.size() && index < 0; j++) {
+                AggregateFunction function = functions.get(j);
+                if (item.getColumn().equalsIgnoreCase(function.getAlias())
+                        || item.getColumn().equalsIgnoreCase(function.getDisplayName())
+                        || item.getColumn().equalsIgnoreCase(function.getFunctionExpression())) {
+                    index = selectColumns.size() + j;
+                }
+            }
+            if (index < 0) {
+                continue;
+            }
+            indexes[count] = index;
+            descending[count] = item.isDescending();
+            count++;
+        }
+        return new RowOrder(Arrays.copyOf(indexes, count), Arrays.copyOf(descending, count));
     }
     
     /**
-     * 比较两个值
+     * 选出排序后的前n行
      * 
-     * @param val1 值1
-     * @param val2 值2
-     * @return 比较结果（-1, 0, 1）
+     * <p>用大小为n的最大堆保存当前最小的n行，每行最多一次O(log n)的堆操作，
+     * 内存为O(n)。比较相等时先出现的行优先，与稳定排序一致。</p>
+     * 
+     * @param rows 数据行
+     * @param comparator 行比较器
+     * @param n 需要的行数（大于0）
+     * @return 排序后的前n行（不足n行时为全部行）
      */
-    private int compareValues(String val1, String val2) {
-        if (val1 == null && val2 == null) {
-            return 0;
-        }
-        if (val1 == null) {
-            return -1;
-        }
-        if (val2 == null) {
-            return 1;
+    static <T> List<T> topN(Iterable<T> rows, Comparator<? super T> comparator, int n) {
+        Comparator<RankedRow<T>> order = (a, b) -> {
+            int cmp = comparator.compare(a.row, b.row);
+            return cmp != 0 ? cmp : Integer.compare(a.position, b.position);
+        };
+        PriorityQueue<RankedRow<T>> heap = new PriorityQueue<>(n + 1, order.reversed());
+        int position = 0;
+        for (T row : rows) {
+            if (heap.size() < n) {
+                heap.add(new RankedRow<>(row, position));
+            } else if (comparator.compare(row, heap.peek().row) < 0) {
+                // 相等时保留先出现的行
+                heap.poll();
+                heap.add(new RankedRow<>(row, position));
+            }
+            position++;
         }
         
-        // 尝试数值比较
-        try {
-            java.math.BigDecimal num1 = new java.math.BigDecimal(val1);
-            java.math.BigDecimal num2 = new java.math.BigDecimal(val2);
-            return num1.compareTo(num2);
-        } catch (NumberFormatException e) {
-            // 不是数字，进行字符串比较
-            return val1.compareTo(val2);
+        List<RankedRow<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(order);
+        List<T> result = new ArrayList<>(ranked.size());
+        for (RankedRow<T> entry : ranked) {
+            result.add(entry.row);
         }
+        return result;
     }
     
     /**
-     * 应用LIMIT限制
-     * 
-     * @param rows 数据行列表
-     * @param limit LIMIT值
-     * @param offset OFFSET值
-     * @return 限制后的数据行列表
+     * 带原始位置的行（用于Top-N堆）
      */
-    private List<String[]> applyLimit(List<String[]> rows, Integer limit, Integer offset) {
-        int start = (offset != null && offset > 0) ? offset : 0;
+    private static final class RankedRow<T> {
+        final T row;
+        final int position;
         
-        // 如果LIMIT为0，返回空列表
-        if (limit != null && limit == 0) {
-            return new ArrayList<>();
+        RankedRow(T row, int position) {
+            this.row = row;
+            this.position = position;
         }
-        
-        // 如果OFFSET超出范围，返回空列表
-        if (start >= rows.size()) {
-            return new ArrayList<>();
-        }
-        
-        int end = (limit != null && limit > 0) ? start + limit : rows.size();
-        
-        if (end > rows.size()) {
-            end = rows.size();
-        }
-        
-        // 使用subList可能导致问题，改为创建新列表
-        List<String[]> result = new ArrayList<>();
-        for (int i = start; i < end; i++) {
-            result.add(rows.get(i));
-        }
-        return result;
     }
     
     /**
@@ -382,42 +401,4 @@ public class ResultSetBuilder {
         }
         return types;
     }
-    
-    /**
-     * 将行优先的数据转换为列优先的矩阵
-     * 
-     * @param rows 数据行列表
-     * @param columnCount 列数
-     * @return 列优先的数据矩阵
-     */
-    private String[][] convertToColumnMatrix(List<String[]> rows, int columnCount) {
-        if (rows.isEmpty()) {
-            return new String[columnCount][0];
-        }
-        
-        String[][] matrix = new String[columnCount][rows.size()];
-        
-        for (int i = 0; i < rows.size(); i++) {
-            String[] row = rows.get(i);
-            if (row == null) {
-                // 如果行数据为null，所有列都设为null
-                for (int j = 0; j < columnCount; j++) {
-                    matrix[j][i] = null;
-                }
-            } else {
-                // 复制行数据到矩阵
-                for (int j = 0; j < columnCount; j++) {
-                    if (j < row.length) {
-                        matrix[j][i] = row[j];
-                    } else {
-                        // 如果行长度小于列数，剩余列设为null
-                        matrix[j][i] = null;
-                    }
-                }
-            }
-        }
-        
-        return matrix;
-    }
 }
-
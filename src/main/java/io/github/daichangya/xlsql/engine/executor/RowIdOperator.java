@@ -0,0 +1,57 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.sql.SQLException;
+
+/**
+ * RowIdOperator - 输出行号元组的算子
+ * 
+ * <p>JOIN阶段不复制列值：每个输出行是一个行号元组，第i个元素是参与连接的第i张基表中的行号，
+ * -1表示该表用NULL填充（外连接没有匹配时）。列值由{@link GatherOperator}在JOIN之后按需读取。
+ * 调用约定与{@link Operator}相同：open、反复next直到返回null、close。</p>
+ * 
+ * @author daichangya
+ * @see JoinedTables
+ */
+interface RowIdOperator {
+    
+    /**
+     * 打开算子（同时打开子算子）
+     * 
+     * @throws SQLException 如果打开失败则抛出异常
+     */
+    void open() throws SQLException;
+    
+    /**
+     * 获取下一个行号元组
+     * 
+     * @return 行号元组，没有更多行时返回null
+     * @throws SQLException 如果执行失败则抛出异常
+     */
+    int[] next() throws SQLException;
+    
+    /**
+     * 关闭算子，释放资源
+     * 
+     * @throws SQLException 如果关闭失败则抛出异常
+     */
+    void close() throws SQLException;
+}
@@ -0,0 +1,75 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * RowIdScanOperator - 行号扫描算子
+ * 
+ * <p>按顺序输出表中（选中）的行号，作为JOIN的最左侧输入。
+ * 数据未加载的表没有行，与{@link ScanOperator}跳过null行一致。</p>
+ * 
+ * @author daichangya
+ */
+final class RowIdScanOperator implements RowIdOperator {
+    
+    private final TableInfo table;
+    
+    /** 选中的行号（升序），为null时扫描全表 */
+    private final int[] selection;
+    
+    private int position;
+    
+    /**
+     * 扫描表
+     * 
+     * @param table 表信息（已加载数据）
+     * @param selection 选中的行号（升序），为null时扫描全表
+     */
+    RowIdScanOperator(TableInfo table, int[] selection) {
+        this.table = table;
+        this.selection = selection;
+    }
+    
+    @Override
+    public void open() {
+        position = 0;
+    }
+    
+    @Override
+    public int[] next() {
+        if (table.getColumns() == null) {
+            return null;
+        }
+        int end = selection != null ? selection.length : table.getRowCount();
+        if (position >= end) {
+            return null;
+        }
+        int rowIndex = selection != null ? selection[position] : position;
+        position++;
+        return new int[] {rowIndex};
+    }
+    
+    @Override
+    public void close() {
+        position = Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,145 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.Comparator;
+
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+/**
+ * RowOrder - ORDER BY的行顺序
+ * 
+ * <p>排序前为每行计算一次{@link Key}：各排序列能解析为数字的值预先解析，
+ * 并保存其double近似值。比较时不再解析字符串：两个值都是数字时先比较double
+ * （十进制到double的舍入是单调的，double不等时数值大小关系相同），
+ * 相等时才比较精确数值；否则按字符串比较。NULL排在所有值之前（降序时在最后）；
+ * 行中没有该列时跳过这一排序列。结果与逐次调用{@link NumericValue#compare(String, String)}相同。</p>
+ * 
+ * @author daichangya
+ */
+final class RowOrder implements Comparator<RowOrder.Key> {
+    
+    private final int[] indexes;
+    
+    private final boolean[] descending;
+    
+    /**
+     * 创建行顺序
+     * 
+     * @param indexes 各排序列在行中的下标
+     * @param descending 各排序列是否降序
+     */
+    RowOrder(int[] indexes, boolean[] descending) {
+        this.indexes = indexes.clone();
+        this.descending = descending.clone();
+    }
+    
+    /**
+     * 计算一行的排序键
+     * 
+     * @param row 数据行（null行的所有排序列都按缺失处理）
+     * @return 排序键
+     */
+    Key key(String[] row) {
+        NumericValue[] numbers = null;
+        double[] approx = null;
+        if (row != null) {
+            for (int k = 0; k < indexes.length; k++) {
+                int index = indexes[k];
+                if (index >= row.length || row[index] == null) {
+                    continue;
+                }
+                NumericValue number = NumericValue.parse(row[index]);
+                if (number != null) {
+                    if (numbers == null) {
+                        numbers = new NumericValue[indexes.length];
+                        approx = new double[indexes.length];
+                    }
+                    numbers[k] = number;
+                    approx[k] = number.doubleValue();
+                }
+            }
+        }
+        return new Key(row, numbers, approx);
+    }
+    
+    /**
+     * 行比较器（每次比较都计算排序键，适合比较次数少的场合）
+     * 
+     * @return 行比较器
+     */
+    Comparator<String[]> rows() {
+        return (a, b) -> compare(key(a), key(b));
+    }
+    
+    @Override
+    public int compare(Key a, Key b) {
+        for (int k = 0; k < indexes.length; k++) {
+            int index = indexes[k];
+            if (a.row == null || b.row == null || index >= a.row.length || index >= b.row.length) {
+                continue;
+            }
+            int cmp = compareAt(a, b, k, a.row[index], b.row[index]);
+            if (cmp != 0) {
+                return descending[k] ? -cmp : cmp;
+            }
+        }
+        return 0;
+    }
+    
+    private static int compareAt(Key a, Key b, int k, String x, String y) {
+        if (x == null || y == null) {
+            return x == null ? (y == null ? 0 : -1) : 1;
+        }
+        NumericValue nx = a.numbers != null ? a.numbers[k] : null;
+        NumericValue ny = b.numbers != null ? b.numbers[k] : null;
+        if (nx == null || ny == null) {
+            return x.compareTo(y);
+        }
+        double dx = a.approx[k];
+        double dy = b.approx[k];
+        if (dx < dy) {
+            return -1;
+        }
+        if (dx > dy) {
+            return 1;
+        }
+        return nx.compareTo(ny);
+    }
+    
+    /**
+     * 排序键：数据行及其排序列的预解析数值
+     */
+    static final class Key {
+        final String[] row;
+        
+        /** 各排序列的数值（不是数字时为null；都不是数字时整个数组为null） */
+        private final NumericValue[] numbers;
+        
+        /** 各排序列数值的double近似值 */
+        private final double[] approx;
+        
+        private Key(String[] row, NumericValue[] numbers, double[] approx) {
+            this.row = row;
+            this.numbers = numbers;
+            this.approx = approx;
+        }
+    }
+}
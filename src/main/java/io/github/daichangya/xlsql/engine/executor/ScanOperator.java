@@ -0,0 +1,94 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.util.List;
+
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * ScanOperator - 扫描算子
+ * 
+ * <p>按顺序输出表中的行（可以只输出选中的行号），或输出已有的行列表。
+ * 表中为null的行被跳过。</p>
+ * 
+ * @author daichangya
+ */
+final class ScanOperator implements Operator {
+    
+    private final TableInfo table;
+    
+    /** 选中的行号（升序），为null时扫描全表 */
+    private final int[] selection;
+    
+    private final List<String[]> rows;
+    
+    private int position;
+    
+    /**
+     * 扫描表
+     * 
+     * @param table 表信息（已加载数据）
+     * @param selection 选中的行号（升序），为null时扫描全表
+     */
+    ScanOperator(TableInfo table, int[] selection) {
+        this.table = table;
+        this.selection = selection;
+        this.rows = null;
+    }
+    
+    /**
+     * 扫描行列表
+     * 
+     * @param rows 数据行列表
+     */
+    ScanOperator(List<String[]> rows) {
+        this.table = null;
+        this.selection = null;
+        this.rows = rows;
+    }
+    
+    @Override
+    public void open() {
+        position = 0;
+    }
+    
+    @Override
+    public String[] next() {
+        if (rows != null) {
+            return position < rows.size() ? rows.get(position++) : null;
+        }
+        int end = selection != null ? selection.length : table.getRowCount();
+        while (position < end) {
+            int rowIndex = selection != null ? selection[position] : position;
+            position++;
+            String[] row = table.getRow(rowIndex);
+            if (row != null) {
+                return row;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public void close() {
+        position = Integer.MAX_VALUE;
+    }
+}
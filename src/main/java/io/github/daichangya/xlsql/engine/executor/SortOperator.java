@@ -0,0 +1,162 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
+
+/**
+ * SortOperator - 排序算子
+ * 
+ * <p>阻塞算子：open时读完输入并排序（稳定）。只需要前n行时（ORDER BY ... LIMIT）
+ * 用{@link ResultSetBuilder#topN(Iterable, java.util.Comparator, int)}在有界堆中选出这些行；
+ * 否则用{@link ExternalSorter}排序，超过内存预算的部分写入临时文件，结果逐行归并输出。
+ * 每行的排序键在读入时计算一次。</p>
+ * 
+ * @author daichangya
+ */
+final class SortOperator implements Operator {
+    
+    /** 使用Top-N堆的最大行数，更多时改用外部排序 */
+    static final int MAX_TOP_N = 1 << 16;
+    
+    private final Operator child;
+    
+    private final RowOrder order;
+    
+    /** 需要的行数，-1表示全部 */
+    private final int wanted;
+    
+    private final int parallelism;
+    
+    private Iterator<String[]> sorted;
+    
+    private ExternalSorter.SortedRows spilled;
+    
+    /**
+     * 创建排序算子
+     * 
+     * @param child 子算子
+     * @param order 行顺序
+     * @param wanted 需要的行数（LIMIT+OFFSET），-1表示全部
+     * @param parallelism 排序的并行度
+     */
+    SortOperator(Operator child, RowOrder order, int wanted, int parallelism) {
+        this.child = child;
+        this.order = order;
+        this.wanted = wanted;
+        this.parallelism = parallelism;
+    }
+    
+    @Override
+    public void open() throws SQLException {
+        child.open();
+        Iterator<String[]> input = new OperatorIterator(child);
+        try {
+            if (wanted >= 0 && wanted <= MAX_TOP_N) {
+                // 每行的排序键只在读入该行时计算一次
+                Iterable<RowOrder.Key> keys = () -> StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(input, Spliterator.ORDERED), false)
+                        .map(order::key).iterator();
+                sorted = ResultSetBuilder.topN(keys, order, wanted).stream().map(key -> key.row).iterator();
+            } else {
+                spilled = new ExternalSorter(order, ExternalSorter.defaultMemoryBudget(), parallelism)
+                        .sort(input);
+                sorted = spilled;
+            }
+        } catch (ChildFailure e) {
+            throw e.cause;
+        }
+    }
+    
+    @Override
+    public String[] next() throws SQLException {
+        try {
+            return sorted.hasNext() ? sorted.next() : null;
+        } catch (UncheckedIOException e) {
+            throw new SQLException("Failed to read sorted rows: " + e.getMessage(), e.getCause());
+        }
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        sorted = null;
+        if (spilled != null) {
+            spilled.close();
+            spilled = null;
+        }
+        child.close();
+    }
+    
+    /**
+     * 子算子抛出的SQLException（在迭代器中传递，open时还原）
+     */
+    private static final class ChildFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        
+        private final SQLException cause;
+        
+        ChildFailure(SQLException cause) {
+            super(cause);
+            this.cause = cause;
+        }
+    }
+    
+    /**
+     * 把子算子的输出包装为迭代器
+     */
+    private static final class OperatorIterator implements Iterator<String[]> {
+        private final Operator child;
+        private String[] pending;
+        private boolean done;
+        
+        OperatorIterator(Operator child) {
+            this.child = child;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (pending == null && !done) {
+                try {
+                    pending = child.next();
+                } catch (SQLException e) {
+                    throw new ChildFailure(e);
+                }
+                done = pending == null;
+            }
+            return pending != null;
+        }
+        
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] row = pending;
+            pending = null;
+            return row;
+        }
+    }
+}
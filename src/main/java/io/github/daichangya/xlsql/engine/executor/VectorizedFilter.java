@@ -0,0 +1,453 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.executor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.VectorType;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.NotEqualsTo;
+
+/**
+ * VectorizedFilter - 类型化列上的向量化过滤
+ * 
+ * <p>把作用于LONG/DOUBLE列的比较（与数值字面量）、BETWEEN和IS [NOT] NULL条件
+ * 编译为按批执行的核函数：每批把选中行的值读入基本类型数组，先在数组上算出比较结果，
+ * 再压缩选择向量（见{@link ColumnBatch}）。语义与{@link ExpressionEvaluator#compareValues(Object, Object)}
+ * 逐行比较完全一致：NULL小于任何值，空字符串按0比较。</p>
+ * 
+ * <p>DOUBLE列中以科学计数法表示的值（以及-0.0）不是规范形式的数字，逐行比较按字符串进行，
+ * 核函数对这些行退回逐行比较。</p>
+ * 
+ * @author daichangya
+ */
+final class VectorizedFilter {
+    
+    /** Double.toString不使用科学计数法的最小绝对值 */
+    private static final double MIN_PLAIN = 1e-3;
+    
+    /** Double.toString使用科学计数法的最小绝对值 */
+    private static final double MAX_PLAIN = 1e7;
+    
+    private static final BigDecimal MIN_LONG = BigDecimal.valueOf(Long.MIN_VALUE);
+    
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf(Long.MAX_VALUE);
+    
+    /** 按顺序执行的核函数 */
+    private final List<Kernel> kernels;
+    
+    private VectorizedFilter(List<Kernel> kernels) {
+        this.kernels = kernels;
+    }
+    
+    /**
+     * 编译一组AND合取项
+     * 
+     * @param conjuncts 合取项列表
+     * @param table 表信息（单表查询的主表）
+     * @param columnIndexMap 列名到索引的映射
+     * @param remaining 不能向量化的合取项按原顺序加入这个列表
+     * @return 向量化过滤器（可能不含任何核函数）
+     */
+    static VectorizedFilter compile(List<Expression> conjuncts, TableInfo table,
+                                    Map<String, Integer> columnIndexMap,
+                                    List<Expression> remaining) {
+        List<Kernel> kernels = new ArrayList<>();
+        for (Expression conjunct : conjuncts) {
+            Kernel kernel = compileKernel(conjunct, table, columnIndexMap);
+            if (kernel != null) {
+                kernels.add(kernel);
+            } else {
+                remaining.add(conjunct);
+            }
+        }
+        return new VectorizedFilter(kernels);
+    }
+    
+    /**
+     * 是否不含任何核函数
+     * 
+     * @return 没有可以向量化的条件时返回true
+     */
+    boolean isEmpty() {
+        return kernels.isEmpty();
+    }
+    
+    /**
+     * 过滤列批：依次执行各核函数，就地压缩选择向量
+     * 
+     * @param batch 列批
+     */
+    void filter(ColumnBatch batch) {
+        for (int i = 0; i < kernels.size() && batch.count > 0; i++) {
+            batch.count = kernels.get(i).filter(batch);
+        }
+    }
+    
+    private static Kernel compileKernel(Expression expression, TableInfo table,
+                                        Map<String, Integer> columnIndexMap) {
+        if (expression instanceof Parenthesis) {
+            return compileKernel(((Parenthesis) expression).getExpression(), table, columnIndexMap);
+        }
+        if (expression instanceof IsNullExpression) {
+            IsNullExpression isNull = (IsNullExpression) expression;
+            ColumnVector vector = typed(isNull.getLeftExpression(), table, columnIndexMap);
+            return vector != null ? new NullTest(vector, isNull.isNot()) : null;
+        }
+        if (expression instanceof Between) {
+            Between between = (Between) expression;
+            ColumnVector vector = typed(between.getLeftExpression(), table, columnIndexMap);
+            Object low = literal(between.getBetweenExpressionStart());
+            Object high = literal(between.getBetweenExpressionEnd());
+            if (vector == null || low == null || high == null) {
+                return null;
+            }
+            return range(vector, low, true, high, true, between.isNot());
+        }
+        if (expression instanceof ComparisonOperator) {
+            return compileComparison((ComparisonOperator) expression, table, columnIndexMap);
+        }
+        return null;
+    }
+    
+    private static Kernel compileComparison(ComparisonOperator comparison, TableInfo table,
+                                            Map<String, Integer> columnIndexMap) {
+        ColumnVector vector = typed(comparison.getLeftExpression(), table, columnIndexMap);
+        Object value = literal(comparison.getRightExpression());
+        boolean flipped = false;
+        if (vector == null) {
+            // 字面量在左边：a < col 等价于 col > a（NULL时两边同样不成立）
+            vector = typed(comparison.getRightExpression(), table, columnIndexMap);
+            value = literal(comparison.getLeftExpression());
+            flipped = true;
+        }
+        if (vector == null || value == null) {
+            return null;
+        }
+        
+        if (comparison instanceof EqualsTo) {
+            return range(vector, value, true, value, true, false);
+        }
+        if (comparison instanceof NotEqualsTo) {
+            return range(vector, value, true, value, true, true);
+        }
+        boolean greater = comparison instanceof GreaterThan || comparison instanceof GreaterThanEquals;
+        boolean less = comparison instanceof MinorThan || comparison instanceof MinorThanEquals;
+        if (!greater && !less) {
+            return null;
+        }
+        boolean inclusive = comparison instanceof GreaterThanEquals
+                || comparison instanceof MinorThanEquals;
+        if (greater != flipped) {
+            return range(vector, value, inclusive, null, false, false);
+        }
+        return range(vector, null, false, value, inclusive, false);
+    }
+    
+    /**
+     * 把列引用解析为数值列向量
+     */
+    private static ColumnVector typed(Expression expression, TableInfo table,
+                                      Map<String, Integer> columnIndexMap) {
+        ColumnVector vector = DictionaryPredicates.resolveColumn(expression, table, columnIndexMap);
+        return vector != null && vector.isNumeric() && vector.size() >= table.getRowCount()
+                ? vector : null;
+    }
+    
+    /**
+     * 取数值字面量的值（与ExpressionCompiler编译出的常量相同）
+     * 
+     * @return 字面量的值，不是能按数值比较的字面量时返回null
+     */
+    private static Object literal(Expression expression) {
+        Object value;
+        if (expression instanceof LongValue) {
+            value = ((LongValue) expression).getValue();
+        } else if (expression instanceof DoubleValue) {
+            value = ((DoubleValue) expression).getValue();
+        } else {
+            return null;
+        }
+        if (ExpressionEvaluator.isNonFinite(value)
+                || ExpressionEvaluator.canonicalNumber(value, value.toString().trim()) == null) {
+            return null; // 逐行比较会按字符串进行
+        }
+        return value;
+    }
+    
+    private static NumericValue number(Object literal) {
+        return ExpressionEvaluator.canonicalNumber(literal, literal.toString().trim());
+    }
+    
+    /**
+     * 构建区间条件：low OP1 col OP2 high，negate为true时取反
+     */
+    private static Kernel range(ColumnVector vector, Object low, boolean lowInclusive,
+                                Object high, boolean highInclusive, boolean negate) {
+        RangeBounds bounds = new RangeBounds(low, lowInclusive, high, highInclusive, negate);
+        if (vector.getType() == VectorType.LONG) {
+            long lo = Long.MIN_VALUE;
+            long hi = Long.MAX_VALUE;
+            if (low != null) {
+                BigDecimal value = number(low).toBigDecimal();
+                lo = clamp(lowInclusive ? value.setScale(0, RoundingMode.CEILING)
+                        : value.setScale(0, RoundingMode.FLOOR).add(BigDecimal.ONE));
+            }
+            if (high != null) {
+                BigDecimal value = number(high).toBigDecimal();
+                hi = clamp(highInclusive ? value.setScale(0, RoundingMode.FLOOR)
+                        : value.setScale(0, RoundingMode.CEILING).subtract(BigDecimal.ONE));
+            }
+            return new LongRange(vector, lo, hi, bounds);
+        }
+        
+        double lo = Double.NEGATIVE_INFINITY;
+        double hi = Double.POSITIVE_INFINITY;
+        if (low != null) {
+            double value = exactDouble(number(low));
+            if (Double.isNaN(value)) {
+                return null;
+            }
+            lo = lowInclusive ? value : Math.nextUp(value);
+        }
+        if (high != null) {
+            double value = exactDouble(number(high));
+            if (Double.isNaN(value)) {
+                return null;
+            }
+            hi = highInclusive ? value : Math.nextDown(value);
+        }
+        return new DoubleRange(vector, lo, hi, bounds);
+    }
+    
+    /**
+     * 把超出long范围的边界收到long范围内（LONG列的值最多18位，收缩不改变结果）
+     */
+    private static long clamp(BigDecimal value) {
+        if (value.compareTo(MIN_LONG) < 0) {
+            return Long.MIN_VALUE;
+        }
+        if (value.compareTo(MAX_LONG) > 0) {
+            return Long.MAX_VALUE;
+        }
+        return value.longValueExact();
+    }
+    
+    /**
+     * 取十进制数对应的double，要求它正是该double的最短十进制表示
+     * 
+     * <p>这时列值（Double.toString的结果）与字面量的十进制大小关系和两个double的大小关系一致。</p>
+     * 
+     * @return double值，不满足条件时返回NaN
+     */
+    private static double exactDouble(NumericValue number) {
+        double value = number.doubleValue();
+        if (Double.isInfinite(value)
+                || new BigDecimal(Double.toString(value)).compareTo(number.toBigDecimal()) != 0) {
+            return Double.NaN;
+        }
+        return value;
+    }
+    
+    /**
+     * 判断double值的字符串形式是否为规范形式的数字
+     */
+    private static boolean isPlain(double value) {
+        double abs = Math.abs(value);
+        return (abs >= MIN_PLAIN && abs < MAX_PLAIN) || Double.doubleToRawLongBits(value) == 0L;
+    }
+    
+    // ========== 核函数 ==========
+    
+    /**
+     * 按批执行的过滤核函数
+     */
+    private abstract static class Kernel {
+        
+        /**
+         * 过滤列批中被选中的行
+         * 
+         * @param batch 列批
+         * @return 压缩后选择向量中的行数
+         */
+        abstract int filter(ColumnBatch batch);
+    }
+    
+    /**
+     * 区间条件的原始形式，用于NULL行和需要逐行比较的行
+     */
+    private static final class RangeBounds {
+        private final Object low;
+        private final boolean lowInclusive;
+        private final Object high;
+        private final boolean highInclusive;
+        private final boolean negate;
+        
+        RangeBounds(Object low, boolean lowInclusive, Object high, boolean highInclusive,
+                    boolean negate) {
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+            this.negate = negate;
+        }
+        
+        /**
+         * 按逐行比较的语义判断值是否满足条件
+         */
+        boolean test(String value) {
+            boolean inRange = true;
+            if (low != null) {
+                int cmp = ExpressionEvaluator.compareValues(value, low);
+                inRange = lowInclusive ? cmp >= 0 : cmp > 0;
+            }
+            if (inRange && high != null) {
+                int cmp = ExpressionEvaluator.compareValues(value, high);
+                inRange = highInclusive ? cmp <= 0 : cmp < 0;
+            }
+            return inRange != negate;
+        }
+    }
+    
+    private static final class LongRange extends Kernel {
+        private final ColumnVector vector;
+        private final long lo;
+        private final long hi;
+        private final boolean negate;
+        private final boolean nullMatch;
+        
+        LongRange(ColumnVector vector, long lo, long hi, RangeBounds bounds) {
+            this.vector = vector;
+            this.lo = lo;
+            this.hi = hi;
+            this.negate = bounds.negate;
+            this.nullMatch = bounds.test(null);
+        }
+        
+        @Override
+        int filter(ColumnBatch batch) {
+            int count = batch.count;
+            int[] selection = batch.selection;
+            long[] values = batch.longs;
+            boolean[] nulls = batch.nulls;
+            boolean[] matches = batch.matches;
+            vector.getLongs(selection, 0, count, values);
+            vector.getNulls(selection, 0, count, nulls);
+            for (int i = 0; i < count; i++) {
+                matches[i] = (values[i] >= lo & values[i] <= hi) != negate;
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                selection[selected] = selection[i];
+                selected += (nulls[i] ? nullMatch : matches[i]) ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+    
+    private static final class DoubleRange extends Kernel {
+        private final ColumnVector vector;
+        private final double lo;
+        private final double hi;
+        private final RangeBounds bounds;
+        private final boolean nullMatch;
+        
+        DoubleRange(ColumnVector vector, double lo, double hi, RangeBounds bounds) {
+            this.vector = vector;
+            this.lo = lo;
+            this.hi = hi;
+            this.bounds = bounds;
+            this.nullMatch = bounds.test(null);
+        }
+        
+        @Override
+        int filter(ColumnBatch batch) {
+            int count = batch.count;
+            int[] selection = batch.selection;
+            double[] values = batch.doubles;
+            boolean[] nulls = batch.nulls;
+            boolean[] matches = batch.matches;
+            boolean negate = bounds.negate;
+            vector.getDoubles(selection, 0, count, values);
+            vector.getNulls(selection, 0, count, nulls);
+            for (int i = 0; i < count; i++) {
+                matches[i] = (values[i] >= lo & values[i] <= hi) != negate;
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int row = selection[i];
+                boolean match;
+                if (nulls[i]) {
+                    match = nullMatch;
+                } else if (isPlain(values[i])) {
+                    match = matches[i];
+                } else {
+                    match = bounds.test(vector.getString(row));
+                }
+                selection[selected] = row;
+                selected += match ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+    
+    private static final class NullTest extends Kernel {
+        private final ColumnVector vector;
+        private final boolean not;
+        
+        NullTest(ColumnVector vector, boolean not) {
+            this.vector = vector;
+            this.not = not;
+        }
+        
+        @Override
+        int filter(ColumnBatch batch) {
+            int count = batch.count;
+            int[] selection = batch.selection;
+            boolean[] nulls = batch.nulls;
+            vector.getNulls(selection, 0, count, nulls);
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                selection[selected] = selection[i];
+                selected += nulls[i] != not ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+}
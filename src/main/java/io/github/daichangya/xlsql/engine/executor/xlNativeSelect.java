@@ -18,12 +18,14 @@ import java.util.logging.Logger;
 
 import io.github.daichangya.xlsql.database.ADatabase;
 import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
 import io.github.daichangya.xlsql.engine.parser.NativeSqlParser;
 import io.github.daichangya.xlsql.engine.plan.JoinInfo;
 import io.github.daichangya.xlsql.engine.plan.QueryPlan;
 import io.github.daichangya.xlsql.engine.plan.TableInfo;
 import io.github.daichangya.xlsql.engine.resultset.xlNativeResultSet;
 
+import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.statement.select.PlainSelect;
 
 /**
@@ -50,6 +52,9 @@ public class xlNativeSelect {
     /** Excel数据存储对象 */
     private final ADatabase datastore;
     
+    /** 过滤和聚合的并行度（每个连接可以单独设置） */
+    private volatile int parallelism = ParallelExecution.defaultParallelism();
+    
     /**
      * 创建xlNativeSelect实例
      * 
@@ -62,6 +67,24 @@ public class xlNativeSelect {
         this.datastore = datastore;
     }
     
+    /**
+     * 设置过滤和聚合的并行度
+     * 
+     * @param parallelism 并行度，1表示顺序执行（超出1到{@link ParallelExecution#MAX_PARALLELISM}时取最近的边界值）
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.min(ParallelExecution.MAX_PARALLELISM, Math.max(1, parallelism));
+    }
+    
+    /**
+     * 获取过滤和聚合的并行度
+     * 
+     * @return 并行度
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+    
     /**
      * 执行SQL查询
      * 
@@ -78,11 +101,28 @@ public class xlNativeSelect {
      * </ul>
      * </p>
      * 
+     * <p>返回TYPE_FORWARD_ONLY结果集。</p>
+     * 
      * @param sql SQL查询语句
      * @return 查询结果集
      * @throws SQLException 如果查询失败则抛出异常
      */
     public ResultSet executeQuery(String sql) throws SQLException {
+        return executeQuery(sql, ResultSet.TYPE_FORWARD_ONLY);
+    }
+    
+    /**
+     * 执行SQL查询
+     * 
+     * <p>按需读取行的TYPE_FORWARD_ONLY结果集只保留当前行；
+     * 可滚动的结果集保留已读取的行以支持前后滚动。</p>
+     * 
+     * @param sql SQL查询语句
+     * @param resultSetType 结果集类型（TYPE_FORWARD_ONLY以外的类型都按TYPE_SCROLL_INSENSITIVE处理）
+     * @return 查询结果集
+     * @throws SQLException 如果查询失败则抛出异常
+     */
+    public ResultSet executeQuery(String sql, int resultSetType) throws SQLException {
         if (sql == null || sql.trim().isEmpty()) {
             throw new SQLException("SQL statement cannot be null or empty");
         }
@@ -98,48 +138,119 @@ public class xlNativeSelect {
         QueryPlan plan = adapter.toQueryPlan(plainSelect);
         
         // 2. 加载表数据
-        List<TableInfo> tables = loadTables(plan);
+        List<TableInfo> tables = loadTables(plan, ProjectionPushdown.plan(plainSelect));
         
-        // 3. 执行FROM和JOIN
-        List<String[]> rows = executeFromAndJoins(plan, tables);
+        // 单表查询：能直接在列向量上完成的部分不再展开为行
+        boolean scrollable = resultSetType != ResultSet.TYPE_FORWARD_ONLY;
+        if (plan.getJoins().isEmpty()) {
+            ResultSet columnResult = executeOnColumns(plan, plainSelect, tables, scrollable);
+            if (columnResult != null) {
+                return columnResult;
+            }
+        }
         
-        // 4. 应用WHERE条件（直接使用JSqlParser的Expression）
-        if (plainSelect.getWhere() != null) {
-            rows = applyWhereCondition(rows, plainSelect.getWhere(), tables);
+        // 按算子树执行：结果集按需拉取行，没有阻塞算子时LIMIT读够即停止
+        Map<String, Integer> columnIndexMap = buildColumnIndexMap(tables);
+        boolean aggregate = plan.hasAggregation() || plan.hasGroupBy();
+        Operator root;
+        if (plan.getJoins().isEmpty() && plainSelect.getWhere() != null) {
+            TableInfo mainTable = plan.getMainTable();
+            if (plan.getLimit() != null && plan.getOrderBy().isEmpty() && !aggregate) {
+                // 3-4. 单表WHERE + LIMIT：逐行过滤，读够LIMIT行后不再扫描
+                List<CompiledExpression> conjuncts = new ExpressionCompiler(columnIndexMap, tables)
+                        .compileAll(ConditionEvaluator.splitConjuncts(plainSelect.getWhere()));
+                root = new FilterOperator(new ScanOperator(mainTable, null), conjuncts, 1);
+            } else {
+                // 3-4. 单表WHERE：先在列向量上过滤，只展开满足条件的行
+                int[] selection = new ConditionEvaluator(parallelism).filter(plainSelect.getWhere(), mainTable,
+                        columnIndexMap, tables);
+                root = new ScanOperator(mainTable, selection);
+            }
+        } else {
+            // 3. 规划WHERE下推：单表条件在JOIN之前过滤各表
+            PredicatePushdown pushdown = PredicatePushdown.plan(plainSelect.getWhere(), tables,
+                    plan.getJoins(), columnIndexMap);
+            
+            // 执行FROM和JOIN；JOIN结果只包含之后仍被引用的列，列映射随之转换
+            GatherOperator joined = executeFromAndJoins(plan, tables, pushdown,
+                    ProjectionPushdown.planAfterJoins(plainSelect));
+            columnIndexMap = joined.outputColumnIndexMap(columnIndexMap);
+            root = joined;
+            
+            // 4. 对JOIN结果应用剩余的WHERE条件（跨表条件）
+            if (!pushdown.getResidual().isEmpty()) {
+                List<CompiledExpression> conjuncts =
+                        new ExpressionCompiler(columnIndexMap, tables).compileAll(pushdown.getResidual());
+                root = new FilterOperator(root, conjuncts, parallelism);
+            }
         }
         
         // 5. 执行聚合和分组
-        if (plan.hasAggregation() || plan.hasGroupBy()) {
-            Map<String, Integer> columnIndexMap = buildColumnIndexMap(tables);
-            AggregationExecutor aggExecutor = new AggregationExecutor();
-            rows = aggExecutor.execute(rows, plan, columnIndexMap);
+        if (aggregate) {
+            root = new AggregateOperator(root, plan, columnIndexMap, parallelism);
         }
         
         // 6. 构建结果集（包括列选择、排序、LIMIT）
+        ResultSetBuilder builder = new ResultSetBuilder(parallelism, scrollable);
+        return builder.build(root, plan, columnIndexMap, tables);
+    }
+    
+    /**
+     * 直接在主表的列向量上执行单表查询
+     * 
+     * <p>聚合从列向量读取基本类型值、按字典编码分组；无WHERE的简单投影与表共享列向量。
+     * 其他情况返回null，由按行执行的通用路径处理。</p>
+     * 
+     * @param plan 查询计划
+     * @param plainSelect 解析后的SELECT语句
+     * @param tables 表信息列表（只包含主表）
+     * @param scrollable 按需读取的结果集是否可滚动
+     * @return 查询结果集，不适用时返回null
+     * @throws SQLException 如果执行失败则抛出异常
+     */
+    private ResultSet executeOnColumns(QueryPlan plan, PlainSelect plainSelect,
+                                       List<TableInfo> tables, boolean scrollable) throws SQLException {
+        TableInfo mainTable = plan.getMainTable();
         Map<String, Integer> columnIndexMap = buildColumnIndexMap(tables);
-        ResultSetBuilder builder = new ResultSetBuilder();
-        return builder.build(rows, plan, columnIndexMap, tables);
+        ResultSetBuilder builder = new ResultSetBuilder(parallelism, scrollable);
+        
+        AggregationExecutor aggExecutor = new AggregationExecutor(parallelism);
+        if (aggExecutor.canExecuteOnColumns(mainTable, plan, columnIndexMap)) {
+            int[] selection = plainSelect.getWhere() != null
+                    ? new ConditionEvaluator(parallelism).filter(plainSelect.getWhere(), mainTable,
+                            columnIndexMap, tables)
+                    : null;
+            List<String[]> rows = aggExecutor.executeOnColumns(mainTable, selection, plan, columnIndexMap);
+            return builder.build(rows, plan, columnIndexMap, tables);
+        }
+        
+        if (plainSelect.getWhere() == null && mainTable.getColumns() != null
+                && builder.canBuildFromColumns(plan, columnIndexMap)) {
+            return builder.buildFromColumns(mainTable, plan, columnIndexMap, tables);
+        }
+        return null;
     }
     
     /**
      * 加载表数据
      * 
      * @param plan 查询计划
+     * @param projection 列裁剪计划
      * @return 表信息列表
      * @throws SQLException 如果加载失败则抛出异常
      */
-    private List<TableInfo> loadTables(QueryPlan plan) throws SQLException {
+    private List<TableInfo> loadTables(QueryPlan plan, ProjectionPushdown projection) throws SQLException {
         List<TableInfo> tables = new ArrayList<>();
         
         // 加载主表
         TableInfo mainTable = plan.getMainTable();
-        loadTableData(mainTable);
+        loadTableData(mainTable, projection);
         tables.add(mainTable);
         
         // 加载JOIN表
         for (JoinInfo join : plan.getJoins()) {
             TableInfo joinTable = join.getTable();
-            loadTableData(joinTable);
+            loadTableData(joinTable, projection);
             tables.add(joinTable);
         }
         
@@ -147,19 +258,26 @@ public class xlNativeSelect {
     }
     
     /**
-     * 加载表数据
+     * 加载表数据（只保留查询引用的列）
      * 
      * @param table 表信息
+     * @param projection 列裁剪计划
      * @throws SQLException 如果加载失败则抛出异常
      */
-    private void loadTableData(TableInfo table) throws SQLException {
+    private void loadTableData(TableInfo table, ProjectionPushdown projection) throws SQLException {
         try {
             String[] columnNames = datastore.getColumnNames(table.getWorkbook(), table.getSheet());
             String[] columnTypes = datastore.getColumnTypes(table.getWorkbook(), table.getSheet());
-            String[][] values = datastore.getValues(table.getWorkbook(), table.getSheet());
             int rowCount = datastore.getRows(table.getWorkbook(), table.getSheet());
             
-            table.loadData(columnNames, columnTypes, values, rowCount);
+            int[] required = projection.requiredColumns(columnNames);
+            ColumnVector[] columns = datastore.getColumns(table.getWorkbook(), table.getSheet(), required);
+            if (required != null) {
+                table.loadData(ProjectionPushdown.pick(columnNames, required),
+                        ProjectionPushdown.pick(columnTypes, required), columns, rowCount);
+            } else {
+                table.loadData(columnNames, columnTypes, columns, rowCount);
+            }
         } catch (xlDatabaseException e) {
             throw new SQLException("Failed to load table data: " + table.getFullName() + 
                                  " - " + e.getMessage(), e);
@@ -169,60 +287,105 @@ public class xlNativeSelect {
     }
     
     /**
-     * 执行FROM和JOIN操作
+     * 构建FROM和JOIN的算子
+     * 
+     * <p>JOIN之间只传递各基表的行号（见{@link RowIdOperator}），
+     * 最后由{@link GatherOperator}一次性读取JOIN之后仍被引用的列，
+     * 不再在每一级JOIN复制整行。</p>
      * 
      * @param plan 查询计划
      * @param tables 表信息列表
-     * @return JOIN后的数据行列表
+     * @param pushdown WHERE下推计划
+     * @param afterJoins JOIN之后仍被引用的列
+     * @return 输出JOIN结果的算子（未打开）
      * @throws SQLException 如果执行失败则抛出异常
      */
-    private List<String[]> executeFromAndJoins(QueryPlan plan, List<TableInfo> tables) 
+    private GatherOperator executeFromAndJoins(QueryPlan plan, List<TableInfo> tables,
+                                               PredicatePushdown pushdown, ProjectionPushdown afterJoins) 
             throws SQLException {
         TableInfo mainTable = plan.getMainTable();
         
-        // 将主表数据转换为行列表
-        List<String[]> rows = convertTableToRows(mainTable);
+        // 扫描主表（只包含满足下推条件的行）
+        RowIdOperator rows;
+        if (pushdown.getTableConjuncts(0).isEmpty()) {
+            rows = new RowIdScanOperator(mainTable, null);
+        } else {
+            rows = new RowIdScanOperator(mainTable, filterTable(mainTable, pushdown.getTableConjuncts(0), tables));
+        }
         Map<String, Integer> columnIndexMap = buildColumnIndexMapForTable(mainTable, 0);
+        JoinedTables layout = new JoinedTables(mainTable);
+        List<int[]> gathered = new ArrayList<>();
+        gathered.add(gatheredColumns(mainTable, 0, afterJoins));
         
         // 执行JOIN
-        JoinExecutor joinExecutor = new JoinExecutor();
         int leftColumnCount = mainTable.getColumnNames().length;
         
-        for (JoinInfo join : plan.getJoins()) {
+        for (int j = 0; j < plan.getJoins().size(); j++) {
+            JoinInfo join = plan.getJoins().get(j);
             // 更新列索引映射（包含之前所有表的列）
             Map<String, Integer> updatedColumnIndexMap = new HashMap<>(columnIndexMap);
             TableInfo rightTable = join.getTable();
+            List<Expression> rightConjuncts = pushdown.getTableConjuncts(j + 1);
+            if (!rightConjuncts.isEmpty()) {
+                rightTable = rightTable.select(filterTable(rightTable, rightConjuncts, tables));
+            }
             Map<String, Integer> rightColumnIndexMap = buildColumnIndexMapForTable(rightTable, leftColumnCount);
             updatedColumnIndexMap.putAll(rightColumnIndexMap);
             
             // 执行JOIN
-            rows = joinExecutor.execute(rows, rightTable, join, columnIndexMap);
+            rows = new HashJoinOperator(rows, layout, rightTable, join, columnIndexMap);
+            layout = layout.join(rightTable);
+            gathered.add(gatheredColumns(rightTable, leftColumnCount, afterJoins));
             
             // 更新列索引映射和列数
             columnIndexMap = updatedColumnIndexMap;
             leftColumnCount += rightTable.getColumnNames().length;
         }
         
-        return rows;
+        int count = 0;
+        for (int[] columns : gathered) {
+            count += columns.length;
+        }
+        int[] columns = new int[count];
+        count = 0;
+        for (int[] tableColumns : gathered) {
+            System.arraycopy(tableColumns, 0, columns, count, tableColumns.length);
+            count += tableColumns.length;
+        }
+        return new GatherOperator(rows, layout, columns);
     }
     
     /**
-     * 将表数据转换为行列表
+     * 计算一张表在JOIN结果中需要读取的列
      * 
      * @param table 表信息
-     * @return 数据行列表
+     * @param columnOffset 表的第一列在JOIN结果中的下标
+     * @param afterJoins JOIN之后仍被引用的列
+     * @return JOIN结果中的列下标（升序）
      */
-    private List<String[]> convertTableToRows(TableInfo table) {
-        List<String[]> rows = new ArrayList<>();
-        
-        for (int i = 0; i < table.getRowCount(); i++) {
-            String[] row = table.getRow(i);
-            if (row != null) {
-                rows.add(row);
-            }
+    private int[] gatheredColumns(TableInfo table, int columnOffset, ProjectionPushdown afterJoins) {
+        String[] columnNames = table.getColumnNames();
+        int[] required = afterJoins.requiredColumns(columnNames);
+        int[] columns = new int[required != null ? required.length : columnNames.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columnOffset + (required != null ? required[i] : i);
         }
-        
-        return rows;
+        return columns;
+    }
+    
+    /**
+     * 用下推的条件过滤单张表
+     * 
+     * @param table 表信息
+     * @param conjuncts 只引用该表的条件
+     * @param tables 表信息列表
+     * @return 满足条件的行索引（升序）
+     * @throws SQLException 如果过滤失败则抛出异常
+     */
+    private int[] filterTable(TableInfo table, List<Expression> conjuncts,
+                              List<TableInfo> tables) throws SQLException {
+        return new ConditionEvaluator(parallelism).filter(conjuncts, table,
+                buildColumnIndexMapForTable(table, 0), tables);
     }
     
     /**
@@ -270,38 +433,6 @@ public class xlNativeSelect {
         return map;
     }
     
-    /**
-     * 应用WHERE条件过滤（使用JSqlParser Expression）
-     * 
-     * @param rows 数据行列表
-     * @param whereExpression WHERE表达式
-     * @param tables 表信息列表
-     * @return 过滤后的数据行列表
-     * @throws SQLException 如果过滤失败则抛出异常
-     */
-    private List<String[]> applyWhereCondition(List<String[]> rows, 
-                                               net.sf.jsqlparser.expression.Expression whereExpression,
-                                               List<TableInfo> tables) throws SQLException {
-        ConditionEvaluator evaluator = new ConditionEvaluator();
-        Map<String, Integer> columnIndexMap = buildColumnIndexMap(tables);
-        
-        List<String[]> filteredRows = new ArrayList<>();
-        
-        for (int i = 0; i < rows.size(); i++) {
-            String[] row = rows.get(i);
-            boolean matches = evaluator.evaluate(whereExpression, row, columnIndexMap, tables);
-            // 调试：打印WHERE条件评估结果
-            if (rows.size() <= 5) { // 只对少量数据打印调试信息
-                logger.info("Row " + i + " WHERE evaluation: " + matches + ", row data: " + java.util.Arrays.toString(row));
-            }
-            if (matches) {
-                filteredRows.add(row);
-            }
-        }
-        
-        return filteredRows;
-    }
-    
     /**
      * 查询数据（兼容ASqlSelect接口）
      * 
@@ -317,10 +448,10 @@ public class xlNativeSelect {
         try {
             String[] columnNames = datastore.getColumnNames(workbook, sheet);
             String[] columnTypes = datastore.getColumnTypes(workbook, sheet);
-            String[][] values = datastore.getValues(workbook, sheet);
             int rowCount = datastore.getRows(workbook, sheet);
             
-            return new xlNativeResultSet(columnNames, columnTypes, values, rowCount);
+            return xlNativeResultSet.fromColumns(columnNames, columnTypes,
+                    datastore.getColumns(workbook, sheet, null), rowCount);
             
         } catch (xlDatabaseException e) {
             throw new SQLException("Failed to query Excel data: " + e.getMessage(), e);
@@ -22,12 +22,19 @@ package io.github.daichangya.xlsql.engine.plan;
 import java.util.HashMap;
 import java.util.Map;
 
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
+import io.github.daichangya.xlsql.engine.column.StringColumnVector;
+
 /**
  * TableInfo - 表信息
  * 
  * <p>存储Excel表（工作簿和工作表）的元数据和数据。
  * 用于查询计划执行时访问表信息。</p>
  * 
+ * <p>数据以类型化的列向量保存（见{@link ColumnVector}），
+ * 数值列不再以字符串形式存放。</p>
+ * 
  * @author daichangya
  */
 public class TableInfo {
@@ -47,8 +54,8 @@ public class TableInfo {
     /** 列类型数组 */
     private String[] columnTypes;
     
-    /** 数据值矩阵（String[列][行]） */
-    private String[][] data;
+    /** 列向量（每列一个） */
+    private ColumnVector[] columns;
     
     /** 行数（不包括标题行） */
     private int rowCount;
@@ -79,10 +86,31 @@ public class TableInfo {
      */
     public void loadData(String[] columnNames, String[] columnTypes, 
                        String[][] data, int rowCount) {
+        loadData(columnNames, columnTypes,
+                data != null ? ColumnVectors.encodeAll(data) : null, rowCount);
+    }
+    
+    /**
+     * 加载已编码的表数据
+     * 
+     * @param columnNames 列名数组
+     * @param columnTypes 列类型数组
+     * @param columns 列向量数组（可以为null，列数不足时缺少的列视为NULL）
+     * @param rowCount 行数
+     */
+    public void loadData(String[] columnNames, String[] columnTypes,
+                         ColumnVector[] columns, int rowCount) {
         this.columnNames = columnNames;
         this.columnTypes = columnTypes;
-        this.data = data;
         this.rowCount = rowCount;
+        this.columns = null;
+        if (columns != null) {
+            this.columns = new ColumnVector[columnNames.length];
+            for (int i = 0; i < columnNames.length; i++) {
+                this.columns[i] = i < columns.length && columns[i] != null
+                        ? columns[i] : new StringColumnVector(new String[0]);
+            }
+        }
         
         // 构建列名到索引的映射
         this.columnIndexMap = new HashMap<>();
@@ -112,22 +140,52 @@ public class TableInfo {
      * @return 该行的数据数组，如果行索引无效返回null
      */
     public String[] getRow(int rowIndex) {
-        if (rowIndex < 0 || rowIndex >= rowCount || data == null) {
+        if (rowIndex < 0 || rowIndex >= rowCount || columns == null) {
             return null;
         }
         
-        // 将列优先的数据矩阵转换为行优先
-        String[] row = new String[columnNames.length];
-        for (int i = 0; i < columnNames.length; i++) {
-            if (i < data.length && rowIndex < data[i].length) {
-                row[i] = data[i][rowIndex];
-            } else {
-                row[i] = null;
-            }
+        // 将列向量转换为行
+        String[] row = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = columns[i].getString(rowIndex);
         }
         return row;
     }
     
+    /**
+     * 按行索引抽取子表
+     * 
+     * <p>返回的TableInfo与原表有相同的名称、别名和列结构，只包含指定的行。</p>
+     * 
+     * @param rows 行索引数组（升序）
+     * @return 新的TableInfo
+     */
+    public TableInfo select(int[] rows) {
+        TableInfo result = new TableInfo(workbook, sheet, alias);
+        ColumnVector[] selected = null;
+        if (columns != null) {
+            selected = new ColumnVector[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                selected[i] = columns[i].gather(rows);
+            }
+        }
+        result.loadData(columnNames, columnTypes, selected, selected != null ? rows.length : 0);
+        return result;
+    }
+    
+    /**
+     * 获取指定列的列向量
+     * 
+     * @param columnIndex 列索引（从0开始）
+     * @return 列向量，如果数据未加载或索引无效返回null
+     */
+    public ColumnVector getColumn(int columnIndex) {
+        if (columns == null || columnIndex < 0 || columnIndex >= columns.length) {
+            return null;
+        }
+        return columns[columnIndex];
+    }
+    
     // Getters
     
     public String getWorkbook() {
@@ -150,7 +208,32 @@ public class TableInfo {
         return columnTypes;
     }
     
+    /**
+     * 获取全部列向量
+     * 
+     * @return 列向量数组（只读），数据未加载时返回null
+     */
+    public ColumnVector[] getColumns() {
+        return columns;
+    }
+    
+    /**
+     * 获取字符串形式的数据矩阵
+     * 
+     * <p>每次调用都会从列向量重新生成矩阵，仅用于兼容旧代码。</p>
+     * 
+     * @return 数据值矩阵（String[列][行]），数据未加载时返回null
+     * @deprecated 使用{@link #getColumns()}直接访问列向量
+     */
+    @Deprecated
     public String[][] getData() {
+        if (columns == null) {
+            return null;
+        }
+        String[][] data = new String[columns.length][];
+        for (int i = 0; i < columns.length; i++) {
+            data[i] = columns[i].toStrings();
+        }
         return data;
     }
     
@@ -0,0 +1,48 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.resultset;
+
+import java.sql.SQLException;
+
+/**
+ * RowSource - 按需读取的行来源
+ * 
+ * <p>{@link xlNativeResultSet}只在游标需要时才从行来源读取下一行，
+ * 因此查询可以边执行边返回结果，读到需要的行数后即可停止。</p>
+ * 
+ * @author daichangya
+ */
+public interface RowSource {
+    
+    /**
+     * 读取下一行
+     * 
+     * @return 数据行；没有更多行时返回null
+     * @throws SQLException 如果读取失败则抛出异常
+     */
+    String[] next() throws SQLException;
+    
+    /**
+     * 关闭行来源，释放占用的资源
+     * 
+     * @throws SQLException 如果关闭失败则抛出异常
+     */
+    void close() throws SQLException;
+}
@@ -31,12 +31,24 @@ import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
+import io.github.daichangya.xlsql.engine.column.VectorType;
 
 /**
  * xlNativeResultSet - 自研引擎的结果集实现
  * 
  * <p>基于内存数据实现ResultSet接口，用于自研SQL引擎返回查询结果。
- * 数据直接从Excel读取，存储在内存中。</p>
+ * 数据直接从Excel读取，以列向量形式存储在内存中，
+ * 数值列的getDouble/getLong等方法直接读取基本类型值，不再解析字符串。</p>
+ * 
+ * <p>通过{@link #fromSource(String[], String[], RowSource, boolean)}创建的结果集按需从行来源读取行，
+ * {@link #next()}每次最多读取一行。TYPE_FORWARD_ONLY结果集只保留当前行和{@link #isLast()}预读的一行，
+ * 滚动方法抛出SQLException；TYPE_SCROLL_INSENSITIVE结果集把已读取的行保留在内存中以支持前后滚动，
+ * 只有{@link #last()}、{@link #afterLast()}和从末尾定位的方法才会读完剩余的行。</p>
  * 
  * @author daichangya
  */
@@ -48,11 +60,23 @@ public class xlNativeResultSet implements ResultSet {
     /** 列类型数组 */
     private final String[] columnTypes;
     
-    /** 数据值矩阵（String[列][行]） */
-    private final String[][] values;
+    /** 列向量 */
+    private final ColumnVector[] columns;
+    
+    /** 总行数（按需读取时为已读取的行数） */
+    private int rowCount;
+    
+    /** 尚未读完的行来源（读完或不按需读取时为null） */
+    private RowSource source;
     
-    /** 总行数 */
-    private final int rowCount;
+    /** 可滚动的按需读取结果集已读取的行 */
+    private final List<String[]> fetchedRows;
+    
+    /** 只能向前的按需读取结果集最近读取的两行（按行索引的奇偶存放），其他结果集为null */
+    private final String[][] window;
+    
+    /** 是否为可滚动的按需读取结果集 */
+    private final boolean scrollable;
     
     /** 当前行索引（从0开始，-1表示在首行之前） */
     private int currentRow = -1;
@@ -70,21 +94,69 @@ public class xlNativeResultSet implements ResultSet {
      */
     public xlNativeResultSet(String[] columnNames, String[] columnTypes, 
                              String[][] values, int rowCount) {
+        this(columnNames, columnTypes, ColumnVectors.wrap(values), rowCount);
+    }
+    
+    /**
+     * 基于列向量创建结果集
+     * 
+     * @param columnNames 列名数组
+     * @param columnTypes 列类型数组
+     * @param columns 列向量数组（只读，可与TableInfo共享）
+     * @param rowCount 总行数
+     * @return 结果集
+     */
+    public static xlNativeResultSet fromColumns(String[] columnNames, String[] columnTypes,
+                                                ColumnVector[] columns, int rowCount) {
+        return new xlNativeResultSet(columnNames, columnTypes, columns, rowCount);
+    }
+    
+    /**
+     * 基于行来源创建按需读取的结果集
+     * 
+     * @param columnNames 列名数组
+     * @param columnTypes 列类型数组
+     * @param source 行来源（结果集关闭时一并关闭）
+     * @param scrollable true创建TYPE_SCROLL_INSENSITIVE结果集（保留已读取的行），
+     *                   false创建TYPE_FORWARD_ONLY结果集（只保留当前行）
+     * @return 结果集
+     */
+    public static xlNativeResultSet fromSource(String[] columnNames, String[] columnTypes,
+                                               RowSource source, boolean scrollable) {
+        return new xlNativeResultSet(columnNames, columnTypes, source, scrollable);
+    }
+    
+    private xlNativeResultSet(String[] columnNames, String[] columnTypes,
+                              ColumnVector[] columns, int rowCount) {
         this.columnNames = columnNames != null ? columnNames : new String[0];
         this.columnTypes = columnTypes != null ? columnTypes : new String[0];
-        this.values = values != null ? values : new String[0][0];
+        this.columns = columns != null ? columns : new ColumnVector[0];
         // 直接使用传入的rowCount参数，因为它反映了实际的数据行数（来自selectedRows.size()）
         this.rowCount = rowCount;
+        this.fetchedRows = null;
+        this.window = null;
+        this.scrollable = false;
+    }
+    
+    private xlNativeResultSet(String[] columnNames, String[] columnTypes, RowSource source,
+                              boolean scrollable) {
+        this.columnNames = columnNames != null ? columnNames : new String[0];
+        this.columnTypes = columnTypes != null ? columnTypes : new String[0];
+        this.scrollable = scrollable;
+        this.fetchedRows = scrollable ? new ArrayList<>() : null;
+        this.window = scrollable ? null : new String[2][];
+        this.columns = new ColumnVector[this.columnNames.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new FetchedColumn(i);
+        }
+        this.source = source;
+        this.rowCount = 0;
     }
     
     @Override
     public boolean next() throws SQLException {
         checkClosed();
-        // 如果rowCount为0，直接返回false
-        if (rowCount == 0) {
-            return false;
-        }
-        if (currentRow < rowCount - 1) {
+        if (currentRow < rowCount - 1 || fetch(currentRow + 1)) {
             currentRow++;
             return true;
         }
@@ -93,7 +165,80 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
         closed = true;
+        closeSource();
+    }
+    
+    /**
+     * 按需读取行，直到第row行（从0开始）可用或行来源读完
+     * 
+     * @param row 需要的行索引
+     * @return 如果该行存在返回true
+     * @throws SQLException 如果读取失败则抛出异常
+     */
+    private boolean fetch(int row) throws SQLException {
+        while (row >= rowCount && source != null) {
+            String[] next = source.next();
+            if (next == null) {
+                closeSource();
+            } else {
+                if (window != null) {
+                    window[rowCount & 1] = next;
+                } else {
+                    fetchedRows.add(next);
+                }
+                rowCount++;
+            }
+        }
+        return row < rowCount;
+    }
+    
+    /**
+     * 获取按需读取的一行
+     * 
+     * @param row 行索引
+     * @return 数据行；该行不存在或已不再保留时返回null
+     */
+    private String[] fetchedRow(int row) {
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        if (window != null) {
+            return row >= rowCount - 2 ? window[row & 1] : null;
+        }
+        return fetchedRows.get(row);
+    }
+    
+    /**
+     * 检查结果集是否支持滚动
+     * 
+     * @throws SQLException 如果是只能向前的按需读取结果集
+     */
+    private void checkScrollable() throws SQLException {
+        checkClosed();
+        if (window != null) {
+            throw new SQLException("Result set is TYPE_FORWARD_ONLY");
+        }
+    }
+    
+    /**
+     * 读完行来源中剩余的行
+     * 
+     * @throws SQLException 如果读取失败则抛出异常
+     */
+    private void fetchAll() throws SQLException {
+        fetch(Integer.MAX_VALUE - 1);
+    }
+    
+    private void closeSource() throws SQLException {
+        RowSource current = source;
+        source = null;
+        if (current != null) {
+            current.close();
+        }
     }
     
     @Override
@@ -109,16 +254,11 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public String getString(int columnIndex) throws SQLException {
-        checkClosed();
-        checkRow();
-        if (columnIndex < 1 || columnIndex > columnNames.length) {
-            throw new SQLException("Column index out of range: " + columnIndex);
-        }
-        int colIndex = columnIndex - 1; // 转换为0-based
-        if (colIndex >= values.length || currentRow >= values[colIndex].length) {
+        ColumnVector column = getColumn(columnIndex);
+        if (column == null) {
             return null;
         }
-        String value = values[colIndex][currentRow];
+        String value = column.getString(currentRow);
         return (value == null || value.isEmpty()) ? null : value;
     }
     
@@ -158,6 +298,42 @@ public class xlNativeResultSet implements ResultSet {
         }
     }
     
+    /**
+     * 获取当前行指定列所在的列向量
+     * 
+     * @param columnIndex 列索引（从1开始）
+     * @return 列向量，如果该列没有数据返回null
+     * @throws SQLException 如果结果集已关闭、未定位到行或索引越界
+     */
+    private ColumnVector getColumn(int columnIndex) throws SQLException {
+        checkClosed();
+        checkRow();
+        if (columnIndex < 1 || columnIndex > columnNames.length) {
+            throw new SQLException("Column index out of range: " + columnIndex);
+        }
+        int colIndex = columnIndex - 1; // 转换为0-based
+        if (colIndex >= columns.length || columns[colIndex] == null) {
+            return null;
+        }
+        return columns[colIndex];
+    }
+    
+    /**
+     * 获取当前行指定列的类型化列向量
+     * 
+     * @param columnIndex 列索引（从1开始）
+     * @param type 需要的存储类型
+     * @return 如果该单元格以指定类型存储则返回列向量，否则返回null（调用方回退到字符串解析）
+     * @throws SQLException 如果结果集已关闭、未定位到行或索引越界
+     */
+    private ColumnVector getTypedColumn(int columnIndex, VectorType type) throws SQLException {
+        ColumnVector column = getColumn(columnIndex);
+        if (column != null && column.getType() == type && column.hasValue(currentRow)) {
+            return column;
+        }
+        return null;
+    }
+    
     private void checkRow() throws SQLException {
         if (currentRow < 0) {
             throw new SQLException("ResultSet is not positioned on a row. Call next() first.");
@@ -171,6 +347,10 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumn(columnIndex, VectorType.BOOLEAN);
+        if (column != null) {
+            return column.getBoolean(currentRow);
+        }
         String value = getString(columnIndex);
         return value != null && (value.equalsIgnoreCase("true") || value.equals("1") || value.equalsIgnoreCase("Y"));
     }
@@ -182,6 +362,11 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public int getInt(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumn(columnIndex, VectorType.LONG);
+        if (column != null) {
+            long value = column.getLong(currentRow);
+            return value == (int) value ? (int) value : 0;
+        }
         String value = getString(columnIndex);
         if (value == null || value.isEmpty()) {
             return 0;
@@ -200,6 +385,10 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public long getLong(int columnIndex) throws SQLException {
+        ColumnVector column = getTypedColumn(columnIndex, VectorType.LONG);
+        if (column != null) {
+            return column.getLong(currentRow);
+        }
         String value = getString(columnIndex);
         if (value == null || value.isEmpty()) {
             return 0;
@@ -218,6 +407,10 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public double getDouble(int columnIndex) throws SQLException {
+        ColumnVector column = getColumn(columnIndex);
+        if (column != null && column.isNumeric() && column.hasValue(currentRow)) {
+            return column.getDouble(currentRow);
+        }
         String value = getString(columnIndex);
         if (value == null || value.isEmpty()) {
             return 0.0;
@@ -236,6 +429,13 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        ColumnVector column = getColumn(columnIndex);
+        if (column != null && column.isNumeric() && column.hasValue(currentRow)) {
+            // BigDecimal.valueOf(double)基于Double.toString，与解析原始字符串的结果一致
+            return column.getType() == VectorType.LONG
+                    ? BigDecimal.valueOf(column.getLong(currentRow))
+                    : BigDecimal.valueOf(column.getDouble(currentRow));
+        }
         String value = getString(columnIndex);
         if (value == null || value.isEmpty()) {
             return null;
@@ -602,7 +802,7 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public int getType() throws SQLException {
-        return ResultSet.TYPE_FORWARD_ONLY;
+        return scrollable ? ResultSet.TYPE_SCROLL_INSENSITIVE : ResultSet.TYPE_FORWARD_ONLY;
     }
     
     @Override
@@ -631,25 +831,27 @@ public class xlNativeResultSet implements ResultSet {
     @Override
     public boolean isLast() throws SQLException {
         checkClosed();
+        fetch(currentRow + 1);
         return currentRow == rowCount - 1;
     }
     
     @Override
     public void beforeFirst() throws SQLException {
-        checkClosed();
+        checkScrollable();
         currentRow = -1;
     }
     
     @Override
     public void afterLast() throws SQLException {
-        checkClosed();
+        checkScrollable();
+        fetchAll();
         currentRow = rowCount;
     }
     
     @Override
     public boolean first() throws SQLException {
-        checkClosed();
-        if (rowCount > 0) {
+        checkScrollable();
+        if (fetch(0)) {
             currentRow = 0;
             return true;
         }
@@ -658,7 +860,8 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public boolean last() throws SQLException {
-        checkClosed();
+        checkScrollable();
+        fetchAll();
         if (rowCount > 0) {
             currentRow = rowCount - 1;
             return true;
@@ -674,9 +877,9 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public boolean absolute(int row) throws SQLException {
-        checkClosed();
+        checkScrollable();
         if (row > 0) {
-            if (row <= rowCount) {
+            if (fetch(row - 1)) {
                 currentRow = row - 1;
                 return true;
             } else {
@@ -684,6 +887,7 @@ public class xlNativeResultSet implements ResultSet {
                 return false;
             }
         } else if (row < 0) {
+            fetchAll();
             int absRow = rowCount + row + 1;
             if (absRow >= 1) {
                 currentRow = absRow - 1;
@@ -700,12 +904,12 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public boolean relative(int rows) throws SQLException {
-        checkClosed();
+        checkScrollable();
         int newRow = currentRow + rows;
         if (newRow < -1) {
             currentRow = -1;
             return false;
-        } else if (newRow >= rowCount) {
+        } else if (!fetch(newRow)) {
             currentRow = rowCount;
             return false;
         } else {
@@ -716,7 +920,7 @@ public class xlNativeResultSet implements ResultSet {
     
     @Override
     public boolean previous() throws SQLException {
-        checkClosed();
+        checkScrollable();
         if (currentRow > 0) {
             currentRow--;
             return true;
@@ -1226,5 +1430,61 @@ public class xlNativeResultSet implements ResultSet {
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         return false;
     }
+    
+    /**
+     * 已读取行中一列的只读视图（只在结果集内部使用，随读取的行增长）
+     */
+    private final class FetchedColumn extends ColumnVector {
+        private final int column;
+        
+        FetchedColumn(int column) {
+            this.column = column;
+        }
+        
+        @Override
+        public VectorType getType() {
+            return VectorType.STRING;
+        }
+        
+        @Override
+        public int size() {
+            return rowCount;
+        }
+        
+        @Override
+        public boolean isNull(int row) {
+            return getString(row) == null;
+        }
+        
+        @Override
+        public boolean isBlank(int row) {
+            String value = getString(row);
+            return value != null && value.isEmpty();
+        }
+        
+        @Override
+        public boolean hasBlanks() {
+            for (int i = 0; i < rowCount; i++) {
+                if (isBlank(i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        public String getString(int row) {
+            String[] values = fetchedRow(row);
+            return values != null && column < values.length ? values[column] : null;
+        }
+        
+        @Override
+        public ColumnVector gather(int[] rowIndexes) {
+            String[] result = new String[rowIndexes.length];
+            for (int i = 0; i < rowIndexes.length; i++) {
+                result[i] = getString(rowIndexes[i]);
+            }
+            return ColumnVectors.wrap(new String[][] {result})[0];
+        }
+    }
 }
-
@@ -65,7 +65,18 @@ public class xlNativePreparedStatement extends xlNativeStatement implements Prep
      * @param sql 预编译的SQL语句
      */
     public xlNativePreparedStatement(xlConnectionNative con, String sql) {
-        super(con);
+        this(con, sql, ResultSet.TYPE_FORWARD_ONLY);
+    }
+    
+    /**
+     * 创建xlNativePreparedStatement实例
+     * 
+     * @param con 关联的xlConnectionNative对象
+     * @param sql 预编译的SQL语句
+     * @param resultSetType 结果集类型（TYPE_SCROLL_SENSITIVE按TYPE_SCROLL_INSENSITIVE处理）
+     */
+    public xlNativePreparedStatement(xlConnectionNative con, String sql, int resultSetType) {
+        super(con, resultSetType);
         this.sql = sql;
         // 简化实现：假设最多100个参数
         this.parameters = new Object[100];
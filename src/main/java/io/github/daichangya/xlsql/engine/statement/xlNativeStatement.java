@@ -57,16 +57,31 @@ public class xlNativeStatement implements Statement {
     /** 当前更新计数（用于支持 execute() + getUpdateCount() 模式） */
     private int currentUpdateCount = -1;
     
+    /** 结果集类型（TYPE_FORWARD_ONLY或TYPE_SCROLL_INSENSITIVE） */
+    private final int resultSetType;
+    
     /**
-     * 创建xlNativeStatement实例
+     * 创建xlNativeStatement实例（结果集为TYPE_FORWARD_ONLY）
      * 
      * @param con 关联的xlConnectionNative对象
      */
     public xlNativeStatement(xlConnectionNative con) {
+        this(con, ResultSet.TYPE_FORWARD_ONLY);
+    }
+    
+    /**
+     * 创建xlNativeStatement实例
+     * 
+     * @param con 关联的xlConnectionNative对象
+     * @param resultSetType 结果集类型（TYPE_SCROLL_SENSITIVE按TYPE_SCROLL_INSENSITIVE处理）
+     */
+    public xlNativeStatement(xlConnectionNative con, int resultSetType) {
         if (con == null) {
             throw new NullPointerException("Connection cannot be null");
         }
         this.xlCon = con;
+        this.resultSetType = resultSetType == ResultSet.TYPE_FORWARD_ONLY
+                ? ResultSet.TYPE_FORWARD_ONLY : ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
     
     @Override
@@ -84,7 +99,7 @@ public class xlNativeStatement implements Statement {
         
         long startTime = System.currentTimeMillis();
         try {
-            ResultSet resultSet = engine.executeQuery(sql);
+            ResultSet resultSet = engine.executeQuery(sql, resultSetType);
             
             // 保存结果集，用于 getResultSet() 调用
             currentResultSet = resultSet;
@@ -92,19 +107,8 @@ public class xlNativeStatement implements Statement {
             
             long executionTime = System.currentTimeMillis() - startTime;
             
-            // 获取结果行数（如果可能）
-            int rowCount = -1;
-            if (resultSet != null) {
-                try {
-                    resultSet.last();
-                    rowCount = resultSet.getRow();
-                    resultSet.beforeFirst();
-                } catch (SQLException e) {
-                    // 无法获取行数，忽略
-                }
-            }
-            
-            XlSqlLogger.logSql(xlNativeStatement.class, sql, executionTime, rowCount);
+            // 结果集按需读取行，执行时不知道总行数，不为记录日志而读完结果
+            XlSqlLogger.logSql(xlNativeStatement.class, sql, executionTime, -1);
             return resultSet;
         } catch (SQLException e) {
             long executionTime = System.currentTimeMillis() - startTime;
@@ -182,7 +186,7 @@ public class xlNativeStatement implements Statement {
                             throw new SQLException("Native engine not initialized");
                         }
                         // 保存结果集，用于后续 getResultSet() 调用（DBeaver 需要）
-                        ResultSet rs = engine.executeQuery(sqlCommand);
+                        ResultSet rs = engine.executeQuery(sqlCommand, resultSetType);
                         currentResultSet = rs;
                         currentUpdateCount = -1;
                         ret = true;
@@ -343,7 +347,7 @@ public class xlNativeStatement implements Statement {
     
     @Override
     public int getResultSetType() throws SQLException {
-        return ResultSet.TYPE_FORWARD_ONLY;
+        return resultSetType;
     }
     
     @Override
@@ -0,0 +1,582 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.engine.value;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * NumericValue - 类型化的数值
+ * 
+ * <p>引擎中的数值以字符串形式在行之间传递，比较和算术过去通过{@code new BigDecimal(s)}
+ * 并捕获{@link NumberFormatException}来区分数字和文本。本类用一次扫描完成语法检查和解析，
+ * 不依赖异常，并按数值的来源选择表示：</p>
+ * <ul>
+ *   <li>十进制：long型非标度值加标度，覆盖不超过18位有效数字的整数和小数（最常见的情况）</li>
+ *   <li>双精度：由double构造的值，两个双精度值之间直接比较基本类型</li>
+ *   <li>大数：超出long范围时退回{@link BigDecimal}</li>
+ * </ul>
+ * 
+ * <p>可解析的字符串与{@link BigDecimal#BigDecimal(String)}接受的语法一致（仅限ASCII数字），
+ * 比较、算术结果及{@link #toString()}与对应的BigDecimal运算完全相同。</p>
+ * 
+ * @author daichangya
+ */
+public final class NumericValue extends Number implements Comparable<NumericValue> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** 表示：long非标度值 + 标度 */
+    private static final int DECIMAL = 0;
+    
+    /** 表示：double */
+    private static final int DOUBLE = 1;
+    
+    /** 表示：BigDecimal */
+    private static final int BIG = 2;
+    
+    /** long能完整容纳的十进制位数 */
+    private static final int MAX_LONG_DIGITS = 18;
+    
+    /** 10的幂（0到18） */
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+    
+    /** 数值0 */
+    public static final NumericValue ZERO = new NumericValue(0L, 0);
+    
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    
+    private final int kind;
+    
+    private final long unscaled;
+    
+    private final int scale;
+    
+    private final double doubleValue;
+    
+    private final BigDecimal big;
+    
+    /** 双精度值对应的十进制表示（按需计算） */
+    private transient NumericValue decimal;
+    
+    private NumericValue(long unscaled, int scale) {
+        this.kind = DECIMAL;
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.doubleValue = 0;
+        this.big = null;
+    }
+    
+    private NumericValue(double doubleValue) {
+        this.kind = DOUBLE;
+        this.unscaled = 0;
+        this.scale = 0;
+        this.doubleValue = doubleValue;
+        this.big = null;
+    }
+    
+    private NumericValue(BigDecimal big) {
+        this.kind = BIG;
+        this.unscaled = 0;
+        this.scale = big.scale();
+        this.doubleValue = 0;
+        this.big = big;
+    }
+    
+    // ========== 构造 ==========
+    
+    /**
+     * 由long构造
+     * 
+     * @param value 值
+     * @return 数值
+     */
+    public static NumericValue of(long value) {
+        return value == 0 ? ZERO : new NumericValue(value, 0);
+    }
+    
+    /**
+     * 由double构造
+     * 
+     * @param value 值
+     * @return 数值；NaN和无穷大没有对应的十进制数，返回null
+     */
+    public static NumericValue of(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return new NumericValue(value);
+    }
+    
+    /**
+     * 由BigDecimal构造
+     * 
+     * @param value 值
+     * @return 数值
+     */
+    public static NumericValue of(BigDecimal value) {
+        if (value.unscaledValue().bitLength() < 63) {
+            return new NumericValue(value.unscaledValue().longValue(), value.scale());
+        }
+        return new NumericValue(value);
+    }
+    
+    /**
+     * 把任意对象转换为数值
+     * 
+     * @param value 值（Number或字符串）
+     * @return 数值；null或无法解析时返回null
+     */
+    public static NumericValue valueOf(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof NumericValue) {
+            return (NumericValue) value;
+        }
+        if (value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return of(((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return of(((Number) value).doubleValue());
+        }
+        if (value instanceof BigDecimal) {
+            return of((BigDecimal) value);
+        }
+        return parse(value.toString());
+    }
+    
+    /**
+     * 解析字符串
+     * 
+     * <p>语法与{@link BigDecimal#BigDecimal(String)}相同：可选符号、数字和小数点、可选指数；
+     * 不接受前后空白。</p>
+     * 
+     * @param text 字符串
+     * @return 数值；不是数字时返回null（不抛出异常）
+     */
+    public static NumericValue parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        
+        long value = 0;
+        int digits = 0;
+        int significant = 0;
+        int fraction = 0;
+        boolean dot = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (dot) {
+                    fraction++;
+                }
+                if (significant > 0 || c != '0') {
+                    significant++;
+                    if (significant <= MAX_LONG_DIGITS) {
+                        value = value * 10 + (c - '0');
+                    }
+                }
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        
+        long exponent = 0;
+        if (i < length) {
+            char c = text.charAt(i++);
+            if (c != 'e' && c != 'E') {
+                return null;
+            }
+            boolean negativeExponent = false;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            int exponentDigits = 0;
+            for (; i < length; i++) {
+                c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                exponentDigits++;
+                if (exponent <= Integer.MAX_VALUE) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (exponentDigits == 0 || exponent > Integer.MAX_VALUE) {
+                return null;
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        
+        long scale = fraction - exponent;
+        if (scale > Integer.MAX_VALUE || scale < Integer.MIN_VALUE) {
+            // BigDecimal同样拒绝超出int范围的标度
+            return null;
+        }
+        if (significant > MAX_LONG_DIGITS) {
+            return new NumericValue(new BigDecimal(text));
+        }
+        return new NumericValue(negative ? -value : value, (int) scale);
+    }
+    
+    // ========== 比较 ==========
+    
+    /**
+     * 按数值比较（与{@link BigDecimal#compareTo(BigDecimal)}一致，忽略标度差异）
+     */
+    @Override
+    public int compareTo(NumericValue other) {
+        if (kind == DOUBLE && other.kind == DOUBLE) {
+            // Double.toString是最短的唯一表示，两个double的大小关系与其十进制值一致
+            return doubleValue < other.doubleValue ? -1 : (doubleValue > other.doubleValue ? 1 : 0);
+        }
+        NumericValue a = toDecimal();
+        NumericValue b = other.toDecimal();
+        if (a.kind == DECIMAL && b.kind == DECIMAL) {
+            if (a.scale == b.scale) {
+                return Long.compare(a.unscaled, b.unscaled);
+            }
+            int signA = Long.signum(a.unscaled);
+            int signB = Long.signum(b.unscaled);
+            if (signA != signB || signA == 0) {
+                return Integer.compare(signA, signB);
+            }
+            if (a.scale < b.scale) {
+                long aligned = scaleUp(a.unscaled, (long) b.scale - a.scale);
+                if (aligned != Long.MIN_VALUE) {
+                    return Long.compare(aligned, b.unscaled);
+                }
+            } else {
+                long aligned = scaleUp(b.unscaled, (long) a.scale - b.scale);
+                if (aligned != Long.MIN_VALUE) {
+                    return Long.compare(a.unscaled, aligned);
+                }
+            }
+        }
+        return a.toBigDecimal().compareTo(b.toBigDecimal());
+    }
+    
+    /**
+     * 比较两个字符串：都能解析为数字时按数值比较，否则按字符串比较
+     * 
+     * @param left 左值（非null）
+     * @param right 右值（非null）
+     * @return 比较结果
+     */
+    public static int compare(String left, String right) {
+        NumericValue leftNumber = parse(left);
+        if (leftNumber != null) {
+            NumericValue rightNumber = parse(right);
+            if (rightNumber != null) {
+                return leftNumber.compareTo(rightNumber);
+            }
+        }
+        return left.compareTo(right);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof NumericValue && compareTo((NumericValue) obj) == 0;
+    }
+    
+    @Override
+    public int hashCode() {
+        NumericValue value = toDecimal();
+        if (value.kind == BIG) {
+            if (value.big.signum() == 0) {
+                return 0;
+            }
+            BigDecimal stripped = value.big.stripTrailingZeros();
+            if (stripped.unscaledValue().bitLength() >= 63) {
+                return stripped.hashCode();
+            }
+            return hash(stripped.unscaledValue().longValue(), stripped.scale());
+        }
+        if (value.unscaled == 0) {
+            return 0;
+        }
+        long u = value.unscaled;
+        long s = value.scale;
+        while (u % 10 == 0) {
+            u /= 10;
+            s--;
+        }
+        return hash(u, s);
+    }
+    
+    private static int hash(long unscaled, long scale) {
+        return 31 * Long.hashCode(unscaled) + Long.hashCode(scale);
+    }
+    
+    // ========== 算术 ==========
+    
+    /**
+     * 加法（结果与BigDecimal.add一致）
+     * 
+     * @param other 另一个数值
+     * @return 和
+     */
+    public NumericValue add(NumericValue other) {
+        NumericValue a = toDecimal();
+        NumericValue b = other.toDecimal();
+        if (a.kind == DECIMAL && b.kind == DECIMAL) {
+            int resultScale = Math.max(a.scale, b.scale);
+            long x = scaleUp(a.unscaled, (long) resultScale - a.scale);
+            long y = scaleUp(b.unscaled, (long) resultScale - b.scale);
+            long sum = x + y;
+            if (x != Long.MIN_VALUE && y != Long.MIN_VALUE && ((x ^ sum) & (y ^ sum)) >= 0) {
+                return new NumericValue(sum, resultScale);
+            }
+        }
+        return of(a.toBigDecimal().add(b.toBigDecimal()));
+    }
+    
+    /**
+     * 减法（结果与BigDecimal.subtract一致）
+     * 
+     * @param other 另一个数值
+     * @return 差
+     */
+    public NumericValue subtract(NumericValue other) {
+        return add(other.negate());
+    }
+    
+    /**
+     * 乘法（结果与BigDecimal.multiply一致）
+     * 
+     * @param other 另一个数值
+     * @return 积
+     */
+    public NumericValue multiply(NumericValue other) {
+        NumericValue a = toDecimal();
+        NumericValue b = other.toDecimal();
+        if (a.kind == DECIMAL && b.kind == DECIMAL) {
+            long resultScale = (long) a.scale + b.scale;
+            long x = a.unscaled;
+            long y = b.unscaled;
+            long product = x * y;
+            boolean overflow = ((Math.abs(x) | Math.abs(y)) >>> 31 != 0)
+                    && ((y != 0 && product / y != x) || (x == Long.MIN_VALUE && y == -1));
+            if (!overflow && resultScale == (int) resultScale) {
+                return new NumericValue(product, (int) resultScale);
+            }
+        }
+        return of(a.toBigDecimal().multiply(b.toBigDecimal()));
+    }
+    
+    /**
+     * 除法
+     * 
+     * @param other 除数（不能为0）
+     * @param resultScale 结果标度
+     * @param rounding 舍入方式
+     * @return 商
+     */
+    public NumericValue divide(NumericValue other, int resultScale, RoundingMode rounding) {
+        return of(toBigDecimal().divide(other.toBigDecimal(), resultScale, rounding));
+    }
+    
+    /**
+     * 取余（结果与BigDecimal.remainder一致，除数为0时同样抛出ArithmeticException）
+     * 
+     * @param other 除数
+     * @return 余数
+     */
+    public NumericValue remainder(NumericValue other) {
+        NumericValue a = toDecimal();
+        NumericValue b = other.toDecimal();
+        if (a.kind == DECIMAL && b.kind == DECIMAL && a.scale == 0 && b.scale == 0 && b.unscaled != 0) {
+            return of(a.unscaled % b.unscaled);
+        }
+        return of(a.toBigDecimal().remainder(b.toBigDecimal()));
+    }
+    
+    /**
+     * 取反
+     * 
+     * @return 相反数
+     */
+    public NumericValue negate() {
+        if (kind == DECIMAL && unscaled != Long.MIN_VALUE) {
+            return new NumericValue(-unscaled, scale);
+        }
+        if (kind == DOUBLE) {
+            return new NumericValue(-doubleValue);
+        }
+        return of(toBigDecimal().negate());
+    }
+    
+    /**
+     * 符号
+     * 
+     * @return -1、0或1
+     */
+    public int signum() {
+        switch (kind) {
+            case DECIMAL:
+                return Long.signum(unscaled);
+            case DOUBLE:
+                return doubleValue < 0 ? -1 : (doubleValue > 0 ? 1 : 0);
+            default:
+                return big.signum();
+        }
+    }
+    
+    // ========== 转换 ==========
+    
+    /**
+     * 转换为BigDecimal
+     * 
+     * @return 等值的BigDecimal（标度与解析的原始字符串一致）
+     */
+    public BigDecimal toBigDecimal() {
+        switch (kind) {
+            case DECIMAL:
+                return BigDecimal.valueOf(unscaled, scale);
+            case DOUBLE:
+                return BigDecimal.valueOf(doubleValue);
+            default:
+                return big;
+        }
+    }
+    
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+    
+    @Override
+    public long longValue() {
+        if (kind == DECIMAL && scale == 0) {
+            return unscaled;
+        }
+        if (kind == DOUBLE) {
+            return (long) doubleValue;
+        }
+        return toBigDecimal().longValue();
+    }
+    
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+    
+    @Override
+    public double doubleValue() {
+        if (kind == DOUBLE) {
+            return doubleValue;
+        }
+        if (kind == DECIMAL && scale == 0) {
+            return unscaled;
+        }
+        return toBigDecimal().doubleValue();
+    }
+    
+    /**
+     * 字符串表示，与{@link BigDecimal#toString()}相同
+     */
+    @Override
+    public String toString() {
+        if (kind == DECIMAL) {
+            if (scale == 0) {
+                return Long.toString(unscaled);
+            }
+            if (scale > 0 && unscaled != Long.MIN_VALUE) {
+                String digits = Long.toString(Math.abs(unscaled));
+                int adjusted = digits.length() - 1 - scale;
+                if (adjusted >= -6) {
+                    StringBuilder sb = new StringBuilder(digits.length() + 3);
+                    if (unscaled < 0) {
+                        sb.append('-');
+                    }
+                    if (digits.length() > scale) {
+                        sb.append(digits, 0, digits.length() - scale).append('.')
+                          .append(digits, digits.length() - scale, digits.length());
+                    } else {
+                        sb.append("0.");
+                        for (int i = digits.length(); i < scale; i++) {
+                            sb.append('0');
+                        }
+                        sb.append(digits);
+                    }
+                    return sb.toString();
+                }
+            }
+        }
+        return toBigDecimal().toString();
+    }
+    
+    /**
+     * 十进制表示（双精度值按Double.toString转换）
+     */
+    private NumericValue toDecimal() {
+        if (kind != DOUBLE) {
+            return this;
+        }
+        NumericValue result = decimal;
+        if (result == null) {
+            result = parse(Double.toString(doubleValue));
+            decimal = result;
+        }
+        return result;
+    }
+    
+    /**
+     * 把非标度值乘以10的若干次幂
+     * 
+     * @return 结果；溢出时返回Long.MIN_VALUE
+     */
+    private static long scaleUp(long value, long power) {
+        if (power == 0) {
+            return value;
+        }
+        if (power < 0 || power > MAX_LONG_DIGITS || value == Long.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        long factor = POWERS_OF_TEN[(int) power];
+        if (Math.abs(value) > Long.MAX_VALUE / factor) {
+            return Long.MIN_VALUE;
+        }
+        return value * factor;
+    }
+}
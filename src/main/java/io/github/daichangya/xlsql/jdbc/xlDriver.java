@@ -34,6 +34,7 @@ import java.util.logging.Logger;
 
 import io.github.daichangya.xlsql.database.xlException;
 import io.github.daichangya.xlsql.database.xlInstance;
+import io.github.daichangya.xlsql.engine.executor.ParallelExecution;
 import io.github.daichangya.xlsql.util.XlSqlLogger;
 
 /**
@@ -118,7 +119,8 @@ public class xlDriver implements Driver {
      * </ol>
      * 
      * @param url JDBC连接URL，格式：jdbc:xlsql:excel:/path/to/excel/files
-     * @param info 连接属性，可包含"config"属性指定配置文件
+     * @param info 连接属性，可包含"config"属性指定配置文件；
+     *             自研引擎还支持"xlsql.query.parallelism"指定本连接的查询并行度
      * @return 到Excel数据库的JDBC连接对象
      * @throws SQLException 如果连接失败则抛出异常
      */
@@ -142,6 +144,15 @@ public class xlDriver implements Driver {
                 // 自研引擎不需要外部数据库连接
                 String databasePath = resolveDatabasePath(url, instance);
                 xlConnection connection = xlConnection.factory(databasePath, null, null);
+                String parallelism = info.getProperty(ParallelExecution.PROP_PARALLELISM);
+                if (parallelism != null) {
+                    try {
+                        connection.setClientInfo(ParallelExecution.PROP_PARALLELISM, parallelism);
+                    } catch (SQLException e) {
+                        connection.close();
+                        throw e;
+                    }
+                }
                 XlSqlLogger.logConnection(xlDriver.class, "Connection established to Native SQL Engine");
                 return connection;
             }
@@ -0,0 +1,117 @@
+/*jsdiff.com
+
+ Copyright (C) 2025 jsdiff
+   jsdiff Information Sciences
+   http://xlsql.jsdiff.com
+   daichangya@163.com
+
+ This program is free software; you can redistribute it and/or modify it under 
+ the terms of the GNU General Public License as published by the Free Software 
+ Foundation; either version 2 of the License, or (at your option) any later 
+ version.
+
+ This program is distributed in the hope that it will be useful, 
+ but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY 
+ or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License for 
+ more details. You should have received a copy of the GNU General Public License 
+ along with this program; if not, write to the Free Software Foundation, 
+ Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+*/
+package io.github.daichangya.xlsql.util;
+
+/**
+ * XlSqlConfig - 运行参数读取工具类
+ * 
+ * <p>与 {@link XlSqlLogger} 的配置方式保持一致：优先读取系统属性，
+ * 其次读取对应的环境变量（键名转大写，点号替换为下划线，
+ * 例如 xlsql.excel.streaming 对应 XLSQL_EXCEL_STREAMING），
+ * 都未配置或格式无效时使用调用方给出的默认值。</p>
+ * 
+ * @author daichangya
+ */
+public final class XlSqlConfig {
+
+    private XlSqlConfig() {
+    }
+
+    /**
+     * 获取字符串配置
+     * 
+     * @param key 配置键（系统属性名）
+     * @param defaultValue 默认值
+     * @return 配置值，未配置时返回默认值
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getenv(toEnvName(key));
+        }
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    /**
+     * 获取布尔配置
+     * 
+     * @param key 配置键（系统属性名）
+     * @param defaultValue 默认值
+     * @return 配置值，未配置时返回默认值
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return "true".equalsIgnoreCase(value) || "yes".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    /**
+     * 获取整数配置
+     * 
+     * @param key 配置键（系统属性名）
+     * @param defaultValue 默认值
+     * @return 配置值，未配置或格式无效时返回默认值
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取长整数配置
+     * 
+     * @param key 配置键（系统属性名）
+     * @param defaultValue 默认值
+     * @return 配置值，未配置或格式无效时返回默认值
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 将系统属性名转换为环境变量名
+     * 
+     * @param key 系统属性名
+     * @return 环境变量名
+     */
+    static String toEnvName(String key) {
+        return key.toUpperCase().replace('.', '_');
+    }
+}
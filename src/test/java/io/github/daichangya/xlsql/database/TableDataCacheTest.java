@@ -0,0 +1,124 @@
+package io.github.daichangya.xlsql.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.VectorType;
+
+/**
+ * Unit tests for TableDataCache class
+ */
+public class TableDataCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = tempDir.resolve("book.xls").toFile();
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+    }
+
+    private String[][] load() {
+        loads.incrementAndGet();
+        return new String[][]{{"a", "b"}, {"1.0", "2.0"}};
+    }
+
+    @Test
+    public void testHitAndMiss() throws Exception {
+        TableDataCache cache = new TableDataCache(1024 * 1024);
+        String[][] first = cache.get(file, "Sheet1", this::load);
+        String[][] second = cache.get(file, "SHEET1", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.size());
+        assertEquals(TableDataCache.estimateBytes(first), cache.getCurrentBytes());
+    }
+
+    @Test
+    public void testColumnsAreEncodedOnceAndReplaceRawValues() throws Exception {
+        TableDataCache cache = new TableDataCache(1024 * 1024);
+        String[][] before = cache.get(file, "Sheet1", this::load);
+        String[] numbers = before[1];
+
+        ColumnVector[] first = cache.getColumns(file, "Sheet1", this::load, new int[]{1});
+        ColumnVector[] second = cache.getColumns(file, "Sheet1", this::load, null);
+        assertEquals(VectorType.DOUBLE, first[0].getType());
+        assertSame(first[0], second[1]);
+        assertEquals(1, loads.get());
+
+        // 已返回的矩阵不被修改，之后的矩阵从列向量还原
+        assertSame(numbers, before[1]);
+        String[][] after = cache.get(file, "Sheet1", this::load);
+        assertNotSame(before, after);
+        assertArrayEquals(before[1], after[1]);
+        assertSame(before[0], after[0]);
+    }
+
+    @Test
+    public void testFileChangeInvalidates() throws Exception {
+        TableDataCache cache = new TableDataCache(1024 * 1024);
+        cache.get(file, "Sheet1", this::load);
+
+        Files.write(file.toPath(), new byte[]{1, 2, 3, 4});
+        cache.get(file, "Sheet1", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLruEviction() throws Exception {
+        long entryBytes = TableDataCache.estimateBytes(load());
+        TableDataCache cache = new TableDataCache(entryBytes * 2);
+        cache.get(file, "A", this::load);
+        cache.get(file, "B", this::load);
+        // touch A so that B becomes the least recently used entry
+        cache.get(file, "A", this::load);
+        cache.get(file, "C", this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        int before = loads.get();
+        cache.get(file, "A", this::load);
+        assertEquals(before, loads.get());
+        cache.get(file, "B", this::load);
+        assertEquals(before + 1, loads.get());
+    }
+
+    @Test
+    public void testZeroBudgetDisablesCaching() throws Exception {
+        TableDataCache cache = new TableDataCache(0);
+        cache.get(file, "Sheet1", this::load);
+        cache.get(file, "Sheet1", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        TableDataCache cache = new TableDataCache(1024 * 1024);
+        cache.get(file, "A", this::load);
+        cache.get(file, "B", this::load);
+        cache.invalidate(file);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCurrentBytes());
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.daichangya.xlsql.database.excel.io;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.daichangya.xlsql.database.excel.xlWorkbook;
+
+/**
+ * Unit tests for SheetSnapshot (persistent columnar snapshot)
+ */
+public class SheetSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File source;
+    private File cacheDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        source = tempDir.resolve("book.xls").toFile();
+        cacheDir = tempDir.resolve("cache").toFile();
+        try (Workbook wb = new HSSFWorkbook()) {
+            Sheet sheet = wb.createSheet("People");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(1).setCellValue("age");
+            Row r1 = sheet.createRow(1);
+            r1.createCell(0).setCellValue("Zoë");
+            r1.createCell(1).setCellValue(30);
+            Row r2 = sheet.createRow(2);
+            r2.createCell(1).setCellValue(41);
+            wb.createSheet("Empty");
+            try (FileOutputStream out = new FileOutputStream(source)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteAndOpen() throws Exception {
+        List<SheetStructure> structures = new XlsSheetReader().readStructures(source);
+        String[][] values = {{"Zoë", ""}, {"30.0", "41.0"}};
+        assertTrue(SheetSnapshot.write(cacheDir, source, source.length(), source.lastModified(),
+                structures, Collections.singletonMap("People", values)));
+
+        SheetSnapshot snapshot = SheetSnapshot.open(cacheDir, source);
+        assertNotNull(snapshot);
+        assertTrue(snapshot.isCurrent());
+        assertEquals(2, snapshot.getStructures().size());
+        SheetStructure people = snapshot.getStructures().get(0);
+        assertEquals("People", people.getSheetName());
+        assertEquals(3, people.getRowCount());
+        assertArrayEquals(new String[]{"name", "age"}, people.getHeaderValues());
+        assertArrayEquals(new String[]{"VARCHAR", "DOUBLE"}, people.getFirstRowTypes());
+        assertFalse(snapshot.getStructures().get(1).hasHeaderRow());
+
+        assertArrayEquals(values, snapshot.readValues("people"));
+        assertNull(snapshot.readValues("Empty"));
+    }
+
+    @Test
+    public void testReadStructuresCollectsValues() throws Exception {
+        XlsSheetReader reader = new XlsSheetReader();
+        Map<String, String[][]> values = new HashMap<>();
+        List<SheetStructure> structures = reader.readStructures(source, values);
+
+        assertEquals(2, structures.size());
+        assertEquals(3, structures.get(0).getRowCount());
+        assertArrayEquals(reader.readValues(source, "People", 2, 3), values.get("People"));
+        assertEquals(0, values.get("Empty").length);
+    }
+
+    @Test
+    public void testStaleSnapshotIsIgnored() throws Exception {
+        List<SheetStructure> structures = new XlsSheetReader().readStructures(source);
+        SheetSnapshot.write(cacheDir, source, source.length(), source.lastModified() - 1000,
+                structures, Collections.<String, String[][]>emptyMap());
+
+        assertNull(SheetSnapshot.open(cacheDir, source));
+    }
+
+    @Test
+    public void testMissingSnapshot() {
+        assertNull(SheetSnapshot.open(cacheDir, source));
+    }
+
+    @Test
+    public void testWorkbookMountUsesSnapshot() throws Exception {
+        System.setProperty(SheetSnapshot.PROP_DIR, cacheDir.getPath());
+        try {
+            xlWorkbook first = new xlWorkbook(source, "book");
+            assertTrue(SheetSnapshot.snapshotFile(cacheDir, source).isFile());
+
+            xlWorkbook second = new xlWorkbook(source, "book");
+            Map<String, ?> files = second.getFiles();
+            assertEquals(first.getFiles().keySet(), files.keySet());
+            assertArrayEquals(first.getFiles().get("PEOPLE").getValues(),
+                    second.getFiles().get("PEOPLE").getValues());
+            assertArrayEquals(new String[]{"Zoë", ""}, second.getFiles().get("PEOPLE").getValues()[0]);
+        } finally {
+            System.clearProperty(SheetSnapshot.PROP_DIR);
+        }
+    }
+
+    @Test
+    public void testSnapshotWriteFailureDoesNotFailMount() throws Exception {
+        // 快照目录是一个普通文件，无法写入
+        assertTrue(cacheDir.createNewFile());
+        System.setProperty(SheetSnapshot.PROP_DIR, cacheDir.getPath());
+        try {
+            xlWorkbook workbook = new xlWorkbook(source, "book");
+            assertTrue(workbook.getFiles().get("PEOPLE").isValid());
+            assertArrayEquals(new String[]{"30.0", "41.0"}, workbook.getFiles().get("PEOPLE").getValues()[1]);
+        } finally {
+            System.clearProperty(SheetSnapshot.PROP_DIR);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.daichangya.xlsql.database.excel.io;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit tests for XlsSheetReader (HSSF event model .xls reader)
+ */
+public class XlsSheetReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+    private final XlsSheetReader reader = new XlsSheetReader();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = tempDir.resolve("stream.xls").toFile();
+        try (Workbook wb = new HSSFWorkbook()) {
+            Sheet first = wb.createSheet("First");
+            first.createRow(0).createCell(0).setCellValue("only");
+            first.createRow(1).createCell(0).setCellValue("x");
+
+            Sheet data = wb.createSheet("Data");
+            Row header = data.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("name");
+            header.createCell(2).setCellValue("active");
+            header.createCell(3).setCellValue("total");
+
+            Row r1 = data.createRow(1);
+            r1.createCell(0).setCellValue(1);
+            r1.createCell(1).setCellValue("Alice");
+            r1.createCell(2).setCellValue(true);
+            r1.createCell(3).setCellFormula("A2*2");
+
+            Row r2 = data.createRow(2);
+            r2.createCell(0).setCellValue(2.5);
+            r2.createCell(1);
+            r2.createCell(2).setCellValue(false);
+
+            // row 3 is missing on purpose
+            Row r4 = data.createRow(4);
+            r4.createCell(0).setCellValue(3);
+
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    @Test
+    public void testGetSheetNames() throws Exception {
+        assertArrayEquals(new String[]{"First", "Data"}, reader.getSheetNames(file));
+    }
+
+    @Test
+    public void testReadStructure() throws Exception {
+        SheetStructure structure = reader.readStructure(file, "DATA");
+        assertNotNull(structure);
+        assertEquals("Data", structure.getSheetName());
+        // probe mode takes the row count from the DIMENSIONS record (rows 0..4)
+        assertEquals(5, structure.getRowCount());
+        assertEquals(4, structure.getHeaderCellCount());
+        assertArrayEquals(new String[]{"id", "name", "active", "total"}, structure.getHeaderValues());
+        assertArrayEquals(new String[]{"DOUBLE", "VARCHAR", "BIT", "VARCHAR"}, structure.getFirstRowTypes());
+    }
+
+    @Test
+    public void testReadStructures() throws Exception {
+        List<SheetStructure> structures = reader.readStructures(file);
+        assertEquals(2, structures.size());
+        assertEquals("First", structures.get(0).getSheetName());
+        assertEquals(2, structures.get(0).getRowCount());
+        assertArrayEquals(new String[]{"only"}, structures.get(0).getHeaderValues());
+        assertEquals("Data", structures.get(1).getSheetName());
+        assertEquals(5, structures.get(1).getRowCount());
+        assertArrayEquals(new String[]{"DOUBLE", "VARCHAR", "BIT", "VARCHAR"},
+                structures.get(1).getFirstRowTypes());
+    }
+
+    @Test
+    public void testReadStructure_FullScan() throws Exception {
+        System.setProperty(SheetReaderFactory.PROP_PROBE, "false");
+        try {
+            SheetStructure structure = reader.readStructure(file, "Data");
+            // without the probe the physical rows are counted
+            assertEquals(4, structure.getRowCount());
+            assertArrayEquals(new String[]{"DOUBLE", "VARCHAR", "BIT", "VARCHAR"}, structure.getFirstRowTypes());
+        } finally {
+            System.clearProperty(SheetReaderFactory.PROP_PROBE);
+        }
+    }
+
+    @Test
+    public void testReadStructure_MissingSheet() throws Exception {
+        assertNull(reader.readStructure(file, "Nope"));
+    }
+
+    @Test
+    public void testReadValues() throws Exception {
+        String[][] values = reader.readValues(file, "Data", 4, 4);
+        assertEquals(4, values.length);
+        assertEquals(3, values[0].length);
+        assertArrayEquals(new String[]{"1.0", "2.5", null}, values[0]);
+        assertArrayEquals(new String[]{"Alice", "", null}, values[1]);
+        assertArrayEquals(new String[]{"true", "false", null}, values[2]);
+        assertArrayEquals(new String[]{"", "", null}, values[3]);
+    }
+
+    @Test
+    public void testReadValues_FirstSheet() throws Exception {
+        String[][] values = reader.readValues(file, "First", 1, 2);
+        assertArrayEquals(new String[]{"x"}, values[0]);
+    }
+}
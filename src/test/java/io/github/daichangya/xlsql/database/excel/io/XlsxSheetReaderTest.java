@@ -0,0 +1,135 @@
+package io.github.daichangya.xlsql.database.excel.io;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for XlsxSheetReader (streaming .xlsx reader)
+ */
+public class XlsxSheetReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+    private final XlsxSheetReader reader = new XlsxSheetReader();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = tempDir.resolve("stream.xlsx").toFile();
+        try (Workbook wb = new XSSFWorkbook()) {
+            Sheet data = wb.createSheet("Data");
+            Row header = data.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("name");
+            header.createCell(2).setCellValue("active");
+            header.createCell(3).setCellValue("total");
+
+            Row r1 = data.createRow(1);
+            r1.createCell(0).setCellValue(1);
+            r1.createCell(1).setCellValue("Alice");
+            r1.createCell(2).setCellValue(true);
+            r1.createCell(3).setCellFormula("A2*2");
+
+            // row 2 is missing on purpose
+            Row r3 = data.createRow(3);
+            r3.createCell(0).setCellValue(2.5);
+            r3.createCell(2).setCellValue(false);
+
+            Sheet bad = wb.createSheet("Bad");
+            bad.createRow(0).createCell(0).setCellValue(42);
+
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                wb.write(out);
+            }
+        }
+    }
+
+    @Test
+    public void testGetSheetNames() throws Exception {
+        assertArrayEquals(new String[]{"Data", "Bad"}, reader.getSheetNames(file));
+    }
+
+    @Test
+    public void testReadStructure() throws Exception {
+        SheetStructure structure = reader.readStructure(file, "data");
+        assertNotNull(structure);
+        assertTrue(structure.hasHeaderRow());
+        assertEquals(3, structure.getRowCount());
+        assertEquals(4, structure.getHeaderCellCount());
+        assertArrayEquals(new String[]{"id", "name", "active", "total"}, structure.getHeaderValues());
+        assertArrayEquals(new String[]{"DOUBLE", "VARCHAR", "BIT", "VARCHAR"}, structure.getFirstRowTypes());
+    }
+
+    @Test
+    public void testReadStructure_NonStringHeader() throws Exception {
+        SheetStructure structure = reader.readStructure(file, "Bad");
+        assertNotNull(structure);
+        assertNull(structure.getHeaderValues()[0]);
+        assertNull(structure.getFirstRowTypes());
+    }
+
+    @Test
+    public void testReadStructures() throws Exception {
+        List<SheetStructure> structures = reader.readStructures(file);
+        assertEquals(2, structures.size());
+        assertEquals("Data", structures.get(0).getSheetName());
+        assertEquals(3, structures.get(0).getRowCount());
+        assertEquals("Bad", structures.get(1).getSheetName());
+        assertEquals(1, structures.get(1).getRowCount());
+    }
+
+    @Test
+    public void testReadStructuresWithValues() throws Exception {
+        Map<String, String[][]> values = new HashMap<>();
+        List<SheetStructure> structures = reader.readStructures(file, values);
+        assertEquals(2, structures.size());
+        assertEquals(3, structures.get(0).getRowCount());
+        assertArrayEquals(reader.readValues(file, "Data", 4, 3), values.get("Data"));
+    }
+
+    @Test
+    public void testReadStructure_MissingSheet() throws Exception {
+        assertNull(reader.readStructure(file, "Nope"));
+    }
+
+    @Test
+    public void testReadValues() throws Exception {
+        String[][] values = reader.readValues(file, "Data", 4, 3);
+        assertEquals(4, values.length);
+        assertEquals(2, values[0].length);
+        assertEquals("1.0", values[0][0]);
+        assertEquals("Alice", values[1][0]);
+        assertEquals("true", values[2][0]);
+        assertEquals("", values[3][0]);
+        // row 2 is missing; row 3 lies beyond the physical row count, as in the POI usermodel
+        assertNull(values[0][1]);
+    }
+
+    @Test
+    public void testColumnIndex() {
+        assertEquals(0, XlsxSheetReader.columnIndex("A1"));
+        assertEquals(27, XlsxSheetReader.columnIndex("AB12"));
+        assertEquals(-1, XlsxSheetReader.columnIndex("12"));
+    }
+
+    @Test
+    public void testRowNumber() {
+        assertEquals(1, XlsxSheetReader.rowNumber("A1"));
+        assertEquals(1048576, XlsxSheetReader.rowNumber("XFD1048576"));
+        assertEquals(-1, XlsxSheetReader.rowNumber("AB"));
+    }
+}
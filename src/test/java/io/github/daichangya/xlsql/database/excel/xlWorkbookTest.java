@@ -0,0 +1,114 @@
+package io.github.daichangya.xlsql.database.excel;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.github.daichangya.xlsql.database.AFile;
+
+/**
+ * Unit tests for xlWorkbook mounting (eager and lazy)
+ */
+public class xlWorkbookTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File dir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dir = tempDir.toFile();
+        try (Workbook wb = new HSSFWorkbook()) {
+            Sheet good = wb.createSheet("Good");
+            Row header = good.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("name");
+            Row row = good.createRow(1);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellValue("a");
+
+            Sheet bad = wb.createSheet("Bad");
+            bad.createRow(0).createCell(0).setCellValue(1);
+
+            try (FileOutputStream out = new FileOutputStream(new File(dir, "book.xls"))) {
+                wb.write(out);
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.clearProperty(xlWorkbook.PROP_LAZY);
+    }
+
+    @Test
+    public void testEagerMount() throws Exception {
+        xlWorkbook wb = new xlWorkbook(new File(dir, "book.xls"), "book");
+        assertEquals(2, wb.getFiles().size());
+        assertEquals(1, wb.getValidFiles().size());
+        assertTrue(wb.getValidFiles().containsKey("GOOD"));
+    }
+
+    @Test
+    public void testLazyMountDefersValidation() throws Exception {
+        System.setProperty(xlWorkbook.PROP_LAZY, "true");
+        xlWorkbook wb = new xlWorkbook(new File(dir, "book.xls"), "book");
+
+        // both sheets are registered from the sheet list alone
+        assertEquals(2, wb.getFiles().size());
+        assertEquals(2, wb.getValidFiles().size());
+
+        assertTrue(wb.getFiles().get("GOOD").isValid());
+        assertFalse(wb.getFiles().get("BAD").isValid());
+        assertArrayEquals(new String[]{"1.0"}, wb.getFiles().get("GOOD").getValues()[0]);
+    }
+
+    @Test
+    public void testLazyMountTables() throws Exception {
+        System.setProperty(xlWorkbook.PROP_LAZY, "true");
+        xlDatabase db = new xlDatabase(dir);
+
+        assertEquals(Arrays.asList("Good"), Arrays.asList(db.getTables("book")));
+        assertArrayEquals(new String[]{"id", "name"}, db.getColumnNames("book", "Good"));
+        assertArrayEquals(new String[]{"DOUBLE", "VARCHAR"}, db.getColumnTypes("book", "Good"));
+        assertEquals(1, db.getRows("book", "Good"));
+    }
+
+    @Test
+    public void testLazyResolutionIsThreadSafe() throws Exception {
+        System.setProperty(xlWorkbook.PROP_LAZY, "true");
+        xlWorkbook wb = new xlWorkbook(new File(dir, "book.xls"), "book");
+        AFile good = wb.getFiles().get("GOOD");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String[][]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit((Callable<String[][]>) good::getValues));
+            }
+            for (Future<String[][]> result : results) {
+                assertArrayEquals(new String[]{"a"}, result.get()[1]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
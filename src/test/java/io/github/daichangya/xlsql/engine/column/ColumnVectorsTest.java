@@ -0,0 +1,132 @@
+package io.github.daichangya.xlsql.engine.column;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for ColumnVectors class
+ */
+public class ColumnVectorsTest {
+
+    @Test
+    public void testDoubleColumn() {
+        String[] values = {"1.0", "2.5", "", null, "-3.0E-5"};
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertEquals(VectorType.DOUBLE, vector.getType());
+        assertTrue(vector.isNumeric());
+        assertEquals(2.5, vector.getDouble(1));
+        assertTrue(vector.isBlank(2));
+        assertTrue(vector.isNull(3));
+        assertFalse(vector.hasValue(2));
+        assertTrue(vector.hasBlanks());
+        assertArrayEquals(values, vector.toStrings());
+    }
+
+    @Test
+    public void testLongColumn() {
+        String[] values = {"1", "-20", "0", null};
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertEquals(VectorType.LONG, vector.getType());
+        assertEquals(-20L, vector.getLong(1));
+        assertEquals(-20.0, vector.getDouble(1));
+        assertFalse(vector.hasBlanks());
+        assertArrayEquals(values, vector.toStrings());
+    }
+
+    @Test
+    public void testBooleanColumn() {
+        String[] values = {"true", "false", "", "true"};
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertEquals(VectorType.BOOLEAN, vector.getType());
+        assertTrue(vector.getBoolean(0));
+        assertFalse(vector.getBoolean(1));
+        assertArrayEquals(values, vector.toStrings());
+    }
+
+    @Test
+    public void testNonCanonicalValuesStayText() {
+        // 无法无损还原的值必须保留为文本
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"007"}).getType());
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"1.50"}).getType());
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"-0"}).getType());
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"NaN"}).getType());
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"1234567890123456789"}).getType());
+    }
+
+    @Test
+    public void testMixedColumnStaysText() {
+        String[] values = {"1.0", "abc", "2.0"};
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertEquals(VectorType.STRING, vector.getType());
+        assertArrayEquals(values, vector.toStrings());
+
+        // 整数与浮点文本不能混存
+        assertEquals(VectorType.STRING, ColumnVectors.encode(new String[]{"1", "2.0"}).getType());
+    }
+
+    @Test
+    public void testEmptyColumn() {
+        ColumnVector vector = ColumnVectors.encode(new String[]{null, ""});
+        assertEquals(VectorType.STRING, vector.getType());
+        assertNull(vector.getString(0));
+        assertEquals("", vector.getString(1));
+        assertNull(vector.getString(5));
+    }
+
+    @Test
+    public void testEncodeAllIsMemoized() {
+        String[][] data = {{"1.0", "2.0"}, {"a", "b"}};
+        ColumnVector[] first = ColumnVectors.encodeAll(data);
+        ColumnVector[] second = ColumnVectors.encodeAll(data);
+
+        assertSame(first, second);
+        assertEquals(VectorType.DOUBLE, first[0].getType());
+        assertEquals(VectorType.STRING, first[1].getType());
+        assertEquals(0, ColumnVectors.encodeAll(null).length);
+    }
+
+    @Test
+    public void testEncodeColumnsOnlyEncodesRequested() {
+        String[][] data = {{"1", "2"}, {"a", "b"}, {"true", "false"}};
+        ColumnVector[] picked = ColumnVectors.encodeColumns(data, new int[]{2, 5});
+
+        assertEquals(2, picked.length);
+        assertEquals(VectorType.BOOLEAN, picked[0].getType());
+        assertNull(picked[1]);
+        assertSame(picked[0], ColumnVectors.encodeAll(data)[2]);
+        assertEquals(VectorType.LONG, ColumnVectors.encodeAll(data)[0].getType());
+    }
+
+    @Test
+    public void testDictionaryColumn() {
+        String[] values = {"east", "west", new String("east"), null, "", "west"};
+        String[] expected = values.clone();
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertTrue(vector instanceof DictionaryColumnVector);
+        assertEquals(VectorType.STRING, vector.getType());
+        DictionaryColumnVector dictionary = (DictionaryColumnVector) vector;
+        assertEquals(3, dictionary.getDictionarySize());
+        assertEquals(dictionary.getCode(0), dictionary.getCode(2));
+        assertEquals(DictionaryColumnVector.NULL_CODE, dictionary.getCode(3));
+        assertEquals(dictionary.lookup("west"), dictionary.getCode(5));
+        assertEquals(DictionaryColumnVector.NULL_CODE, dictionary.lookup("north"));
+        assertTrue(vector.isBlank(4));
+        assertTrue(vector.isNull(3));
+        assertArrayEquals(expected, vector.toStrings());
+
+        // 输入数组不被修改
+        assertNotSame(values[0], values[2]);
+    }
+
+    @Test
+    public void testHighCardinalityStaysPlain() {
+        ColumnVector vector = ColumnVectors.encode(new String[]{"a", "b", "c", "a"});
+        assertTrue(vector instanceof StringColumnVector);
+    }
+}
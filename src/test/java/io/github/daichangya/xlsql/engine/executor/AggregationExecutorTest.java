@@ -19,7 +19,9 @@
 */
 package io.github.daichangya.xlsql.engine.executor;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -29,6 +31,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,7 @@ import org.junit.jupiter.api.Test;
 import io.github.daichangya.xlsql.engine.model.AggregateFunction;
 import io.github.daichangya.xlsql.engine.model.AggregateType;
 import io.github.daichangya.xlsql.engine.plan.QueryPlan;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
 
 /**
  * AggregationExecutorTest - 聚合执行器单元测试
@@ -210,6 +214,136 @@ public class AggregationExecutorTest {
         assertEquals(3, result.size()); // 3个分组：(A,X), (A,Y), (B,X)
     }
 
+    @Test
+    public void testGroupByKeepsFirstAppearanceOrderAndNullGroup() throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"B", "1", "1.0"});
+        rows.add(new String[]{null, "2", "2.0"});
+        rows.add(new String[]{"NULL", "3", "3.0"});
+        rows.add(new String[]{"A", "4", "4.0"});
+        rows.add(new String[]{"B", "5", "5.0"});
+        rows.add(new String[]{null, "6", "6.0"});
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addGroupByColumn("CATEGORY");
+        plan.getSelectColumns().add("CATEGORY");
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.SUM, "VALUE", false, "total"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "AMOUNT", false, "top"));
+        
+        List<String[]> result = executor.execute(rows, plan, columnIndexMap);
+        
+        assertEquals(4, result.size());
+        assertArrayEquals(new String[]{"B", "6", "5.0"}, result.get(0));
+        assertArrayEquals(new String[]{null, "8", "6.0"}, result.get(1));
+        assertArrayEquals(new String[]{"NULL", "3", "3.0"}, result.get(2));
+        assertArrayEquals(new String[]{"A", "4", "4.0"}, result.get(3));
+    }
+
+    @Test
+    public void testAvgDistinct() throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"A", "10", null});
+        rows.add(new String[]{"A", "10", null});
+        rows.add(new String[]{"A", "40", null});
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.AVG, "VALUE", true, "avg"));
+        
+        List<String[]> result = executor.execute(rows, plan, columnIndexMap);
+        
+        assertEquals(0, new BigDecimal("25").compareTo(new BigDecimal(result.get(0)[0])));
+    }
+
+    @Test
+    public void testParallelAggregationMatchesSequential() throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            String category = random.nextInt(50) == 0 ? null : "C" + random.nextInt(40);
+            String value = random.nextInt(20) == 0 ? null : String.valueOf(random.nextInt(1000));
+            rows.add(new String[]{category, value, (random.nextInt(100000) / 100.0) + ""});
+        }
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addGroupByColumn("CATEGORY");
+        plan.getSelectColumns().add("CATEGORY");
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.COUNT, "*", false, "cnt"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.COUNT, "VALUE", true, "dcnt"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.SUM, "AMOUNT", false, "total"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.AVG, "VALUE", false, "avg"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MIN, "AMOUNT", false, "low"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "VALUE", false, "high"));
+        
+        List<String[]> sequential = new AggregationExecutor(1).execute(rows, plan, columnIndexMap);
+        List<String[]> parallel = new AggregationExecutor(4).execute(rows, plan, columnIndexMap);
+        
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertArrayEquals(sequential.get(i), parallel.get(i));
+        }
+        
+        plan.getGroupByColumns().clear();
+        plan.getSelectColumns().clear();
+        assertArrayEquals(new AggregationExecutor(1).execute(rows, plan, columnIndexMap).get(0),
+                new AggregationExecutor(4).execute(rows, plan, columnIndexMap).get(0));
+    }
+
+    @Test
+    public void testStreamingAggregationMatchesList() throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            String category = random.nextInt(50) == 0 ? null : "C" + random.nextInt(40);
+            rows.add(new String[]{category, String.valueOf(random.nextInt(1000)),
+                    (random.nextInt(100000) / 100.0) + ""});
+        }
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addGroupByColumn("CATEGORY");
+        plan.getSelectColumns().add("CATEGORY");
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.COUNT, "*", false, "cnt"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.SUM, "AMOUNT", false, "total"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "VALUE", false, "high"));
+        
+        List<String[]> expected = new AggregationExecutor(1).execute(rows, plan, columnIndexMap);
+        // 并行度为2时每批拉取32768行，100000行分4批合并
+        for (int parallelism : new int[]{1, 2}) {
+            List<String[]> streamed = new AggregationExecutor(parallelism)
+                    .execute(listOperator(rows), plan, columnIndexMap);
+            assertEquals(expected.size(), streamed.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), streamed.get(i));
+            }
+        }
+        
+        // 没有输入行的全局聚合仍输出一行
+        plan.getGroupByColumns().clear();
+        plan.getSelectColumns().clear();
+        List<String[]> empty = new AggregationExecutor(2)
+                .execute(listOperator(new ArrayList<>()), plan, columnIndexMap);
+        assertEquals(1, empty.size());
+        assertEquals("0", empty.get(0)[0]);
+    }
+
+    private static Operator listOperator(List<String[]> rows) {
+        return new Operator() {
+            private int position;
+            
+            @Override
+            public void open() {
+            }
+            
+            @Override
+            public String[] next() {
+                return position < rows.size() ? rows.get(position++) : null;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+    }
+
     @Test
     public void testCountWithNulls() throws SQLException {
         // 创建包含NULL值的数据
@@ -280,5 +414,74 @@ public class AggregationExecutorTest {
         assertTrue(foundCount && foundSum && foundMax && foundMin, 
                   "Should find all aggregate values");
     }
-}
 
+    @Test
+    public void testExecuteOnColumnsMatchesRowPath() throws SQLException {
+        TableInfo table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"CATEGORY", "VALUE", "AMOUNT"},
+                new String[]{"VARCHAR", "DOUBLE", "DOUBLE"},
+                new String[][]{
+                    {"A", "A", "B", "B", "C"},
+                    {"10", "20", "30", "40", "50"},
+                    {"100.0", "200.0", "300.0", "400.0", "500.0"}
+                }, 5);
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.COUNT, "*", false, "cnt"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.SUM, "VALUE", false, "s"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.AVG, "AMOUNT", false, "a"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "AMOUNT", false, "mx"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MIN, "VALUE", false, "mn"));
+        
+        assertTrue(executor.canExecuteOnColumns(table, plan, columnIndexMap));
+        String[] expected = executor.execute(testRows, plan, columnIndexMap).get(0);
+        String[] actual = executor.executeOnColumns(table, null, plan, columnIndexMap).get(0);
+        assertArrayEquals(expected, actual);
+        
+        // 只聚合选中的行
+        String[] selected = executor.executeOnColumns(table, new int[]{2, 3}, plan, columnIndexMap).get(0);
+        assertEquals("2", selected[0]);
+        assertEquals("70", selected[1]);
+        assertEquals("400.0", selected[3]);
+        assertEquals("30", selected[4]);
+    }
+
+    @Test
+    public void testCanExecuteOnColumnsRejectsText() {
+        TableInfo table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"CATEGORY", "VALUE", "AMOUNT"},
+                new String[]{"VARCHAR", "DOUBLE", "DOUBLE"},
+                new String[][]{{"A"}, {"10"}, {"100.0"}}, 1);
+        
+        QueryPlan plan = new QueryPlan();
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "CATEGORY", false, "mx"));
+        assertFalse(executor.canExecuteOnColumns(table, plan, columnIndexMap));
+    }
+
+    @Test
+    public void testGroupByOnDictionaryCodes() throws SQLException {
+        TableInfo table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"CATEGORY", "VALUE", "AMOUNT"},
+                new String[]{"VARCHAR", "DOUBLE", "DOUBLE"},
+                new String[][]{
+                    {"A", "A", "B", "B", "A", null},
+                    {"10", "20", "30", "40", "50", "60"},
+                    {"x", "y", "x", "z", "y", "x"}
+                }, 6);
+        
+        QueryPlan plan = new QueryPlan();
+        plan.setSelectColumns(new ArrayList<>(java.util.Arrays.asList("CATEGORY")));
+        plan.addGroupByColumn("CATEGORY");
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.SUM, "VALUE", false, "s"));
+        plan.addAggregateFunction(new AggregateFunction(AggregateType.MAX, "AMOUNT", false, "mx"));
+        
+        assertTrue(executor.canExecuteOnColumns(table, plan, columnIndexMap));
+        List<String[]> result = executor.executeOnColumns(table, null, plan, columnIndexMap);
+        
+        // 分组按首次出现的顺序输出
+        assertEquals(3, result.size());
+        assertArrayEquals(new String[]{"A", "80", "y"}, result.get(0));
+        assertArrayEquals(new String[]{"B", "70", "z"}, result.get(1));
+        assertArrayEquals(new String[]{null, "60", "x"}, result.get(2));
+    }
+}
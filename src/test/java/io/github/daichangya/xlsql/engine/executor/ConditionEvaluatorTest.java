@@ -19,6 +19,8 @@
 */
 package io.github.daichangya.xlsql.engine.executor;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -36,6 +38,9 @@ import io.github.daichangya.xlsql.engine.model.AggregateType;
 import io.github.daichangya.xlsql.engine.plan.TableInfo;
 import io.github.daichangya.xlsql.engine.plan.WhereCondition;
 
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
 /**
  * ConditionEvaluatorTest - 条件评估器单元测试
  * 
@@ -162,6 +167,25 @@ public class ConditionEvaluatorTest {
         assertFalse(result, "COUNT(*) > 10 should be false when count=5");
     }
 
+    @Test
+    public void testCompiledHavingMatchesEvaluateHaving() throws SQLException {
+        WhereCondition left = new WhereCondition("COUNT(*)", ">", "1");
+        WhereCondition right = new WhereCondition("total", "<", "100");
+        WhereCondition having = new WhereCondition(left, "AND", right);
+        ConditionEvaluator.HavingPredicate compiled = evaluator.compileHaving(having);
+
+        for (long count = 0; count < 3; count++) {
+            for (int total = 90; total <= 110; total += 20) {
+                Map<String, Object> aggregateValues = new HashMap<>();
+                aggregateValues.put("COUNT(*)", count);
+                aggregateValues.put("TOTAL", total);
+                assertEquals(evaluator.evaluateHaving(having, aggregateValues),
+                        compiled.test(aggregateValues), "count=" + count + ", total=" + total);
+            }
+        }
+        assertTrue(evaluator.compileHaving(null).test(new HashMap<String, Object>()));
+    }
+
     @Test
     public void testNullCondition() throws SQLException {
         // 测试NULL条件
@@ -178,5 +202,77 @@ public class ConditionEvaluatorTest {
         boolean result = evaluator.evaluate((WhereCondition) null, testRow, columnIndexMap, tables);
         assertTrue(result, "Null condition should return true");
     }
-}
 
+    @Test
+    public void testFilterOnDictionaryCodes() throws Exception {
+        TableInfo table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"REGION", "AMOUNT"}, new String[]{"VARCHAR", "DOUBLE"},
+                new String[][]{
+                    {"east", "west", "east", null, "north", "east"},
+                    {"1.0", "2.0", "3.0", "4.0", "5.0", "6.0"}
+                }, 6);
+        Map<String, Integer> map = new HashMap<>();
+        map.put("REGION", 0);
+        map.put("AMOUNT", 1);
+        List<TableInfo> single = new ArrayList<>();
+        single.add(table);
+
+        assertArrayEquals(new int[]{0, 2, 5},
+                evaluator.filter(parse("region = 'east'"), table, map, single));
+        assertArrayEquals(new int[]{1, 3, 4},
+                evaluator.filter(parse("region <> 'east'"), table, map, single));
+        assertArrayEquals(new int[]{1, 4},
+                evaluator.filter(parse("region IN ('west', 'north', 'south')"), table, map, single));
+        assertArrayEquals(new int[]{2, 5},
+                evaluator.filter(parse("region = 'east' AND amount > 2"), table, map, single));
+        assertArrayEquals(new int[0],
+                evaluator.filter(parse("region = 'south'"), table, map, single));
+
+        // 与逐行求值的结果一致
+        for (String where : new String[]{"region = 'east' OR region = 'west'", "'west' = region"}) {
+            Expression expression = parse(where);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < table.getRowCount(); i++) {
+                if (evaluator.evaluate(expression, table.getRow(i), map, single)) {
+                    expected.add(i);
+                }
+            }
+            int[] actual = evaluator.filter(expression, table, map, single);
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual, where);
+        }
+    }
+
+    @Test
+    public void testParallelFilterMatchesSequential() throws Exception {
+        int rows = 100000;
+        String[] regions = new String[rows];
+        String[] amounts = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            regions[i] = i % 7 == 0 ? null : "r" + (i % 5);
+            amounts[i] = String.valueOf((i * 31 % 1000) / 10.0);
+        }
+        TableInfo table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"REGION", "AMOUNT"}, new String[]{"VARCHAR", "DOUBLE"},
+                new String[][]{regions, amounts}, rows);
+        Map<String, Integer> map = new HashMap<>();
+        map.put("REGION", 0);
+        map.put("AMOUNT", 1);
+        List<TableInfo> single = new ArrayList<>();
+        single.add(table);
+
+        for (String where : new String[]{"amount > 50", "region = 'r1' AND amount < 20",
+                "region LIKE '%3' OR amount BETWEEN 10 AND 11", "region IS NULL"}) {
+            Expression expression = parse(where);
+            int[] expected = new ConditionEvaluator(1).filter(expression, table, map, single);
+            // 7个区间：并行度小于区间数时每个任务处理一段连续的区间
+            for (int parallelism : new int[]{2, 4, 16}) {
+                assertArrayEquals(expected,
+                        new ConditionEvaluator(parallelism).filter(expression, table, map, single), where);
+            }
+        }
+    }
+
+    private static Expression parse(String expression) throws Exception {
+        return CCJSqlParserUtil.parseCondExpression(expression);
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+/**
+ * Unit tests for ExpressionCompiler class
+ */
+public class ExpressionCompilerTest {
+
+    private static final String[][] ROWS = {
+        {"Alice", "100.0", "Beijing", "30"},
+        {"bob", "250.5", "", "45"},
+        {"Carol", null, "Shanghai", null},
+        {"", "-3.0", "Beijing", "0"},
+    };
+
+    private static final String[] EXPRESSIONS = {
+        "name = 'Alice'",
+        "t.name <> 'Alice'",
+        "amount > 100",
+        "amount >= 100.0 AND city = 'Beijing'",
+        "amount < 0 OR age = 45",
+        "NOT (city = 'Beijing')",
+        "amount BETWEEN 0 AND 200",
+        "amount NOT BETWEEN 0 AND 200",
+        "city IN ('Beijing', 'Shenzhen')",
+        "city NOT IN ('Beijing', 'Shenzhen')",
+        "amount IN (100, 250.5, -3)",
+        "age IN ('30', 45.0, 1.0E2)",
+        "amount NOT IN (100, NULL)",
+        "amount + 1 IN (101, 1, -2)",
+        "city IN (name, 'Shanghai')",
+        "name LIKE 'A%'",
+        "name NOT LIKE '%o%'",
+        "name LIKE '%e'",
+        "name LIKE 'A_i%e'",
+        "city LIKE name",
+        "amount IS NULL",
+        "age IS NOT NULL",
+        "amount * 2 + 1",
+        "amount / 0",
+        "age % 7",
+        "name || '-' || city",
+        "UPPER(name)",
+        "LENGTH(city)",
+        "TRIM(name)",
+        "missing = 1",
+        "CASE WHEN age > 40 THEN 'old' ELSE 'young' END",
+    };
+
+    private Map<String, Integer> columnIndexMap;
+    private List<TableInfo> tables;
+
+    @BeforeEach
+    public void setUp() {
+        columnIndexMap = new HashMap<>();
+        String[] names = {"NAME", "AMOUNT", "CITY", "AGE"};
+        for (int i = 0; i < names.length; i++) {
+            columnIndexMap.put(names[i], i);
+            columnIndexMap.put("T." + names[i], i);
+        }
+        tables = new ArrayList<>();
+    }
+
+    @Test
+    public void testMatchesExpressionEvaluator() throws Exception {
+        ExpressionCompiler compiler = new ExpressionCompiler(columnIndexMap, tables);
+        for (String sql : EXPRESSIONS) {
+            Expression expression = CCJSqlParserUtil.parseExpression(sql);
+            CompiledExpression compiled = compiler.compile(expression);
+            for (String[] row : ROWS) {
+                ExpressionEvaluator evaluator = new ExpressionEvaluator();
+                Object expected = evaluator.evaluate(expression, row, columnIndexMap, tables);
+                assertEquals(String.valueOf(expected), String.valueOf(compiled.evaluate(row)),
+                        sql + " on " + java.util.Arrays.toString(row));
+                assertEquals(evaluator.evaluateAsBoolean(expression, row, columnIndexMap, tables),
+                        compiled.test(row), sql + " on " + java.util.Arrays.toString(row));
+            }
+        }
+    }
+
+    @Test
+    public void testNotInvertsPredicates() throws Exception {
+        ExpressionCompiler compiler = new ExpressionCompiler(columnIndexMap, tables);
+        String[] row = ROWS[0];
+
+        assertTrue(compiler.compile(CCJSqlParserUtil.parseExpression("city IN ('Beijing')")).test(row));
+        assertFalse(compiler.compile(CCJSqlParserUtil.parseExpression("city NOT IN ('Beijing')")).test(row));
+        assertFalse(compiler.compile(CCJSqlParserUtil.parseExpression("name NOT LIKE 'Al%'")).test(row));
+        assertFalse(compiler.compile(CCJSqlParserUtil.parseExpression("NOT name = 'Alice'")).test(row));
+    }
+
+    @Test
+    public void testUnresolvedColumnIsNull() throws Exception {
+        CompiledExpression compiled = new ExpressionCompiler(columnIndexMap, tables)
+                .compile(CCJSqlParserUtil.parseExpression("nosuch"));
+
+        assertNull(compiled.evaluate(ROWS[0]));
+        assertFalse(compiled.test(ROWS[0]));
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+/**
+ * Unit tests for ExternalSorter class
+ */
+public class ExternalSorterTest {
+
+    private static final RowOrder BY_FIRST = new RowOrder(new int[] {0}, new boolean[] {false});
+
+    private static final Comparator<String[]> EXPECTED = (a, b) -> {
+        if (a[0] == null || b[0] == null) {
+            return a[0] == null ? (b[0] == null ? 0 : -1) : 1;
+        }
+        return NumericValue.compare(a[0], b[0]);
+    };
+
+    private static List<String[]> randomRows(int count, long seed) {
+        Random random = new Random(seed);
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String key = random.nextInt(10) == 0 ? null : String.valueOf(random.nextInt(50)) + ".0";
+            // 第二列记录原始位置，用于检查稳定性
+            rows.add(new String[] {key, String.valueOf(i), random.nextBoolean() ? null : "值" + i});
+        }
+        return rows;
+    }
+
+    private static List<String[]> drain(ExternalSorter.SortedRows sorted) {
+        List<String[]> result = new ArrayList<>();
+        while (sorted.hasNext()) {
+            result.add(sorted.next());
+        }
+        return result;
+    }
+
+    private static int runFileCount() {
+        File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name.startsWith("xlsql-sort-") && name.endsWith(".run"));
+        return files == null ? 0 : files.length;
+    }
+
+    @Test
+    public void testInMemorySortIsStable() throws Exception {
+        List<String[]> rows = randomRows(500, 1);
+        List<String[]> expected = new ArrayList<>(rows);
+        Collections.sort(expected, EXPECTED);
+
+        try (ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, Long.MAX_VALUE, 1).sort(rows.iterator())) {
+            assertFalse(sorted.isSpilled());
+            List<String[]> actual = drain(sorted);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testSpilledSortMatchesStableSort() throws Exception {
+        int before = runFileCount();
+        List<String[]> rows = randomRows(5000, 2);
+        List<String[]> expected = new ArrayList<>(rows);
+        Collections.sort(expected, EXPECTED);
+
+        try (ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, 8 * 1024, 1).sort(rows.iterator())) {
+            assertTrue(sorted.isSpilled());
+            List<String[]> actual = drain(sorted);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), actual.get(i), "row " + i);
+            }
+        }
+        assertEquals(before, runFileCount());
+    }
+
+    @Test
+    public void testCloseBeforeExhaustionDeletesRuns() throws Exception {
+        int before = runFileCount();
+        ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, 1024, 1).sort(randomRows(2000, 3).iterator());
+        assertTrue(sorted.isSpilled());
+        assertTrue(runFileCount() > before);
+        sorted.next();
+        sorted.close();
+        assertEquals(before, runFileCount());
+    }
+
+    @Test
+    public void testParallelBufferSortMatchesStableSort() throws Exception {
+        List<String[]> rows = randomRows(100000, 4);
+        List<String[]> expected = new ArrayList<>(rows);
+        Collections.sort(expected, EXPECTED);
+
+        try (ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, Long.MAX_VALUE, 4).sort(rows.iterator())) {
+            List<String[]> actual = drain(sorted);
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), actual.get(i), "row " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testNullRowsAndEmptyInput() throws Exception {
+        // null行的排序列按缺失处理，与任何行都相等，保持原有顺序
+        List<String[]> rows = Arrays.asList(null, new String[] {"1.0", null}, null);
+        try (ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, 1, 1).sort(rows.iterator())) {
+            assertTrue(sorted.isSpilled());
+            List<String[]> actual = drain(sorted);
+            assertEquals(3, actual.size());
+            assertNull(actual.get(0));
+            assertArrayEquals(new String[] {"1.0", null}, actual.get(1));
+            assertNull(actual.get(2));
+        }
+        try (ExternalSorter.SortedRows sorted = new ExternalSorter(BY_FIRST, 1, 1)
+                .sort(Collections.<String[]>emptyIterator())) {
+            assertFalse(sorted.hasNext());
+        }
+    }
+}
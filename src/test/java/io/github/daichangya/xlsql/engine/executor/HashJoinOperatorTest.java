@@ -0,0 +1,241 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.model.JoinType;
+import io.github.daichangya.xlsql.engine.plan.JoinCondition;
+import io.github.daichangya.xlsql.engine.plan.JoinInfo;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+
+/**
+ * Unit tests for HashJoinOperator class
+ */
+public class HashJoinOperatorTest {
+
+    private static final String[] KEYS = {"1", "2", "3", "4", "", null};
+
+    private static List<String[]> drain(Operator operator) throws Exception {
+        operator.open();
+        List<String[]> rows = new ArrayList<>();
+        String[] row;
+        while ((row = operator.next()) != null) {
+            rows.add(row);
+        }
+        operator.close();
+        return rows;
+    }
+
+    private static int[] allColumns(JoinedTables layout) {
+        int[] columns = new int[layout.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = i;
+        }
+        return columns;
+    }
+
+    private static TableInfo table(String sheet, String[] columns, String[][] data, int rows) {
+        String[] types = new String[columns.length];
+        java.util.Arrays.fill(types, "VARCHAR");
+        TableInfo table = new TableInfo("wb", sheet, null);
+        table.loadData(columns, types, data, rows);
+        return table;
+    }
+
+    /**
+     * 连接两张表并读取全部列
+     */
+    private static List<String[]> join(TableInfo leftTable, Map<String, Integer> leftMap,
+                                       TableInfo rightTable, JoinType type, String leftColumn,
+                                       String rightColumn) throws Exception {
+        JoinInfo join = new JoinInfo(type, rightTable, new JoinCondition(leftColumn, rightColumn, "="));
+        JoinedTables layout = new JoinedTables(leftTable);
+        RowIdOperator joined = new HashJoinOperator(new RowIdScanOperator(leftTable, null), layout,
+                rightTable, join, leftMap);
+        layout = layout.join(rightTable);
+        return drain(new GatherOperator(joined, layout, allColumns(layout)));
+    }
+
+    /**
+     * 嵌套循环连接，作为哈希连接的参照结果
+     */
+    private static List<String[]> nestedLoopJoin(TableInfo leftTable, int leftKey, TableInfo rightTable,
+                                                 int rightKey, JoinType type) {
+        int leftWidth = leftTable.getColumnNames().length;
+        int rightWidth = rightTable.getColumnNames().length;
+        List<String[]> result = new ArrayList<>();
+        boolean[] rightMatched = new boolean[rightTable.getRowCount()];
+        if (type == JoinType.RIGHT) {
+            for (int r = 0; r < rightTable.getRowCount(); r++) {
+                String[] rightRow = rightTable.getRow(r);
+                boolean matched = false;
+                for (int l = 0; l < leftTable.getRowCount(); l++) {
+                    String[] leftRow = leftTable.getRow(l);
+                    if (leftRow[leftKey] != null && leftRow[leftKey].equals(rightRow[rightKey])) {
+                        result.add(concat(leftRow, rightRow));
+                        matched = true;
+                    }
+                }
+                if (!matched) {
+                    result.add(concat(new String[leftWidth], rightRow));
+                }
+            }
+            return result;
+        }
+        for (int l = 0; l < leftTable.getRowCount(); l++) {
+            String[] leftRow = leftTable.getRow(l);
+            boolean matched = false;
+            for (int r = 0; r < rightTable.getRowCount(); r++) {
+                String[] rightRow = rightTable.getRow(r);
+                if (leftRow[leftKey] != null && leftRow[leftKey].equals(rightRow[rightKey])) {
+                    result.add(concat(leftRow, rightRow));
+                    matched = true;
+                    rightMatched[r] = true;
+                }
+            }
+            if (!matched && type != JoinType.INNER) {
+                result.add(concat(leftRow, new String[rightWidth]));
+            }
+        }
+        if (type == JoinType.FULL_OUTER) {
+            for (int r = 0; r < rightTable.getRowCount(); r++) {
+                if (!rightMatched[r]) {
+                    result.add(concat(new String[leftWidth], rightTable.getRow(r)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static String[] concat(String[] left, String[] right) {
+        String[] row = java.util.Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, row, left.length, right.length);
+        return row;
+    }
+
+    @Test
+    public void testMatchesNestedLoopJoin() throws Exception {
+        // 左侧200行时在右表上建哈希表，20行时在左侧建哈希表
+        assertMatchesNestedLoopJoin(200);
+        assertMatchesNestedLoopJoin(20);
+        assertMatchesNestedLoopJoin(0);
+    }
+
+    private static void assertMatchesNestedLoopJoin(int leftCount) throws Exception {
+        Random random = new Random(23);
+        String[][] leftData = new String[2][leftCount];
+        for (int i = 0; i < leftCount; i++) {
+            leftData[0][i] = "L" + i;
+            leftData[1][i] = KEYS[random.nextInt(KEYS.length)];
+        }
+        TableInfo leftTable = table("left", new String[] {"id", "lkey"}, leftData, leftCount);
+        String[][] rightData = new String[2][60];
+        for (int i = 0; i < 60; i++) {
+            rightData[0][i] = KEYS[random.nextInt(KEYS.length)];
+            rightData[1][i] = "R" + i;
+        }
+        TableInfo rightTable = table("right", new String[] {"key", "name"}, rightData, 60);
+        Map<String, Integer> leftMap = new HashMap<>();
+        leftMap.put("ID", 0);
+        leftMap.put("LKEY", 1);
+
+        for (JoinType type : JoinType.values()) {
+            List<String[]> expected = nestedLoopJoin(leftTable, 1, rightTable, 0, type);
+            List<String[]> actual = join(leftTable, leftMap, rightTable, type, "LKEY", "key");
+            assertEquals(expected.size(), actual.size(), type + " with " + leftCount + " left rows");
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), actual.get(i), type + " row " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiJoinGathersOnlyRequestedColumns() throws Exception {
+        TableInfo orders = table("orders", new String[] {"oid", "cid", "pid"},
+                new String[][] {{"o1", "o2", "o3"}, {"c1", "c2", "c9"}, {"p1", "p1", "p2"}}, 3);
+        TableInfo customers = table("customers", new String[] {"cid", "cname"},
+                new String[][] {{"c1", "c2"}, {"Alice", "Bob"}}, 2);
+        TableInfo products = table("products", new String[] {"pid", "pname"},
+                new String[][] {{"p1", "p2"}, {"Pen", "Ink"}}, 2);
+        Map<String, Integer> map = new HashMap<>();
+        map.put("OID", 0);
+        map.put("CID", 1);
+        map.put("PID", 2);
+
+        JoinedTables layout = new JoinedTables(orders);
+        RowIdOperator rows = new HashJoinOperator(new RowIdScanOperator(orders, null), layout, customers,
+                new JoinInfo(JoinType.LEFT, customers, new JoinCondition("CID", "cid", "=")), map);
+        layout = layout.join(customers);
+        rows = new HashJoinOperator(rows, layout, products,
+                new JoinInfo(JoinType.INNER, products, new JoinCondition("PID", "pid", "=")), map);
+        layout = layout.join(products);
+
+        // 只读取oid、cname和pname，输出行不为连接键占位
+        GatherOperator gather = new GatherOperator(rows, layout, new int[] {0, 4, 6});
+        List<String[]> result = drain(gather);
+        assertEquals(3, result.size());
+        assertArrayEquals(new String[] {"o1", "Alice", "Pen"}, result.get(0));
+        assertArrayEquals(new String[] {"o2", "Bob", "Pen"}, result.get(1));
+        assertArrayEquals(new String[] {"o3", null, "Ink"}, result.get(2));
+
+        Map<String, Integer> joinedMap = new HashMap<>(map);
+        joinedMap.put("CNAME", 4);
+        joinedMap.put("PNAME", 6);
+        Map<String, Integer> outputMap = gather.outputColumnIndexMap(joinedMap);
+        assertEquals(Integer.valueOf(0), outputMap.get("OID"));
+        assertEquals(Integer.valueOf(1), outputMap.get("CNAME"));
+        assertEquals(Integer.valueOf(2), outputMap.get("PNAME"));
+        assertNull(outputMap.get("CID"));
+        assertNull(outputMap.get("PID"));
+    }
+
+    @Test
+    public void testInnerJoinPullsLeftRowsOnDemand() throws Exception {
+        String[][] leftData = new String[2][100];
+        for (int i = 0; i < 100; i++) {
+            leftData[0][i] = "L" + i;
+            leftData[1][i] = "1";
+        }
+        TableInfo leftTable = table("left", new String[] {"id", "lkey"}, leftData, 100);
+        TableInfo rightTable = table("right", new String[] {"key"}, new String[][] {{"1", "1"}}, 2);
+        Map<String, Integer> leftMap = new HashMap<>();
+        leftMap.put("LKEY", 1);
+        JoinInfo join = new JoinInfo(JoinType.INNER, rightTable, new JoinCondition("LKEY", "key", "="));
+
+        int[] pulled = new int[1];
+        RowIdScanOperator scan = new RowIdScanOperator(leftTable, null);
+        RowIdOperator counting = new RowIdOperator() {
+            @Override
+            public void open() {
+                scan.open();
+            }
+
+            @Override
+            public int[] next() {
+                int[] rowIds = scan.next();
+                if (rowIds != null) {
+                    pulled[0]++;
+                }
+                return rowIds;
+            }
+
+            @Override
+            public void close() {
+                scan.close();
+            }
+        };
+        JoinedTables layout = new JoinedTables(leftTable);
+        RowIdOperator joined = new HashJoinOperator(counting, layout, rightTable, join, leftMap);
+        layout = layout.join(rightTable);
+        Operator limited = new LimitOperator(new GatherOperator(joined, layout, allColumns(layout)), 3, null);
+        assertEquals(3, drain(limited).size());
+        assertEquals(2, pulled[0]);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for InValueSet class
+ */
+public class InValueSetTest {
+
+    private static final Object[] ITEMS = {
+        "Beijing", "", " 7", "1.0", 5L, 0L, -3L, 2.5, 1.0E10, Double.NaN, new BigDecimal("1.50"), Boolean.TRUE,
+    };
+
+    private static final Object[] VALUES = {
+        null, "Beijing", "beijing", "", " ", "7", " 7", "1.0", "1", "5", "5.0", "005", " 5", "5 ", "0", "00", "-3",
+        "-3.0", "2.5", "2.50", "1.0E10", "10000000000", "NaN", "1.5", "1.50", "true", "abc", 5L, 2.5, 1.0,
+        new BigDecimal("5.00"), Boolean.TRUE,
+    };
+
+    @Test
+    public void testMatchesLinearComparison() {
+        for (int size = 0; size <= ITEMS.length; size++) {
+            Object[] items = new Object[size];
+            System.arraycopy(ITEMS, 0, items, 0, size);
+            InValueSet set = new InValueSet(items);
+            for (Object value : VALUES) {
+                boolean expected = false;
+                for (Object item : items) {
+                    expected |= ExpressionEvaluator.compareValues(value, item) == 0;
+                }
+                assertEquals(expected, set.contains(value), value + " in " + java.util.Arrays.toString(items));
+            }
+        }
+    }
+
+    @Test
+    public void testNullItem() {
+        assertTrue(new InValueSet(new Object[]{1L, null}).contains(null));
+        assertFalse(new InValueSet(new Object[]{1L}).contains(null));
+    }
+}
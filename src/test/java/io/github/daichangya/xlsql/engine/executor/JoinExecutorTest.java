@@ -195,5 +195,39 @@ public class JoinExecutorTest {
             executor.execute(leftRows, rightTable, invalidJoin, leftColumnIndexMap);
         });
     }
-}
 
+    @Test
+    public void testInnerJoinOrderAndNullsWithEitherBuildSide() throws SQLException {
+        // 右表比左表大时在左表上建哈希表，输出顺序仍按左表行、再按右表行
+        TableInfo bigRight = new TableInfo("test2", "customers", null);
+        bigRight.loadData(new String[]{"customer_id", "name"}, new String[]{"VARCHAR", "VARCHAR"},
+                new String[][]{
+                    {"102", "101", null, "101", "103", "102", "104"},
+                    {"B1", "A1", "N", "A2", "C", "B2", "D"}
+                }, 7);
+        List<String[]> left = new ArrayList<>();
+        left.add(new String[]{"1", "101"});
+        left.add(new String[]{"2", null});
+        left.add(new String[]{"3", "102"});
+        JoinInfo join = new JoinInfo(JoinType.INNER, bigRight,
+                new JoinCondition("CUSTOMER_ID", "customer_id", "="));
+        
+        List<String[]> result = executor.execute(left, bigRight, join, leftColumnIndexMap);
+        assertEquals(4, result.size());
+        assertEquals("1|A1", result.get(0)[0] + "|" + result.get(0)[3]);
+        assertEquals("1|A2", result.get(1)[0] + "|" + result.get(1)[3]);
+        assertEquals("3|B1", result.get(2)[0] + "|" + result.get(2)[3]);
+        assertEquals("3|B2", result.get(3)[0] + "|" + result.get(3)[3]);
+        
+        // 左表更大时在右表上建哈希表，结果相同
+        List<String[]> bigLeft = new ArrayList<>(left);
+        for (int i = 0; i < 10; i++) {
+            bigLeft.add(new String[]{"x" + i, "999"});
+        }
+        List<String[]> result2 = executor.execute(bigLeft, bigRight, join, leftColumnIndexMap);
+        assertEquals(4, result2.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(String.join("|", result.get(i)), String.join("|", result2.get(i)));
+        }
+    }
+}
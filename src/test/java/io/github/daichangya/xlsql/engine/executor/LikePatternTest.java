@@ -0,0 +1,54 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LikePattern class
+ */
+public class LikePatternTest {
+
+    @Test
+    public void testFastPaths() {
+        assertTrue(LikePattern.compile("abc%").matches("abcdef"));
+        assertFalse(LikePattern.compile("abc%").matches("xabc"));
+        assertTrue(LikePattern.compile("%def").matches("abcdef"));
+        assertFalse(LikePattern.compile("%def").matches("defx"));
+        assertTrue(LikePattern.compile("%cd%").matches("abcdef"));
+        assertTrue(LikePattern.compile("%%cd%%").matches("cd"));
+        assertFalse(LikePattern.compile("%cd%").matches("ab"));
+        assertTrue(LikePattern.compile("abc").matches("abc"));
+        assertFalse(LikePattern.compile("abc").matches("abcd"));
+        assertTrue(LikePattern.compile("%").matches(""));
+        assertTrue(LikePattern.compile("%%").matches("anything"));
+        assertTrue(LikePattern.compile("").matches(""));
+        assertFalse(LikePattern.compile("").matches("a"));
+    }
+
+    @Test
+    public void testGeneralPatterns() {
+        assertTrue(LikePattern.compile("a_c").matches("abc"));
+        assertFalse(LikePattern.compile("a_c").matches("abbc"));
+        assertTrue(LikePattern.compile("a%c%e").matches("abcde"));
+        assertFalse(LikePattern.compile("a%c%e").matches("abcd"));
+        assertTrue(LikePattern.compile("%a_").matches("xxab"));
+    }
+
+    @Test
+    public void testRegexMetacharactersAreLiteral() {
+        assertTrue(LikePattern.compile("1.5%").matches("1.5kg"));
+        assertFalse(LikePattern.compile("1.5%").matches("105kg"));
+        assertTrue(LikePattern.compile("a+b_").matches("a+bc"));
+        assertFalse(LikePattern.compile("a+b_").matches("aabc"));
+        assertTrue(LikePattern.compile("(x)%[y]").matches("(x) and [y]"));
+        assertTrue(LikePattern.compile("%\\E%").matches("a\\Eb"));
+        assertTrue(LikePattern.compile("a%b").matches("a\nb"));
+    }
+
+    @Test
+    public void testCachedPatternsAreShared() {
+        assertSame(LikePattern.of("x_y%"), LikePattern.of("x_y%"));
+        assertTrue(LikePattern.of("x_y%").matches("xzy!"));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for LimitOperator class
+ */
+public class LimitOperatorTest {
+
+    /**
+     * 记录被拉取行数的输入
+     */
+    private static final class CountingOperator implements Operator {
+        private final int rows;
+        private int pulled;
+        private boolean closed;
+
+        CountingOperator(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void open() {
+            pulled = 0;
+        }
+
+        @Override
+        public String[] next() {
+            if (pulled >= rows) {
+                return null;
+            }
+            pulled++;
+            return new String[] {String.valueOf(pulled)};
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static List<String> drain(Operator operator) throws Exception {
+        operator.open();
+        List<String> values = new ArrayList<>();
+        String[] row;
+        while ((row = operator.next()) != null) {
+            values.add(row[0]);
+        }
+        operator.close();
+        return values;
+    }
+
+    @Test
+    public void testStopsPullingAfterLimit() throws Exception {
+        CountingOperator input = new CountingOperator(1000);
+        assertEquals(Arrays.asList("3", "4", "5"), drain(new LimitOperator(input, 3, 2)));
+        assertEquals(5, input.pulled);
+        assertTrue(input.closed);
+    }
+
+    @Test
+    public void testZeroNegativeAndMissingLimit() throws Exception {
+        CountingOperator input = new CountingOperator(10);
+        assertTrue(drain(new LimitOperator(input, 0, null)).isEmpty());
+        assertEquals(0, input.pulled);
+
+        assertEquals(10, drain(new LimitOperator(new CountingOperator(10), -1, null)).size());
+        assertEquals(Arrays.asList("9", "10"), drain(new LimitOperator(new CountingOperator(10), null, 8)));
+        assertTrue(drain(new LimitOperator(new CountingOperator(10), 5, 20)).isEmpty());
+    }
+
+    @Test
+    public void testFilterStreamsIntoLimit() throws Exception {
+        CountingOperator input = new CountingOperator(1000);
+        List<CompiledExpression> evenOnly = Arrays.<CompiledExpression>asList(new CompiledExpression() {
+            @Override
+            Object evaluate(String[] row) {
+                return Integer.parseInt(row[0]) % 2 == 0;
+            }
+        });
+        assertEquals(Arrays.asList("2", "4", "6"), drain(new LimitOperator(new FilterOperator(input, evenOnly, 1), 3, null)));
+        assertEquals(6, input.pulled);
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.model.JoinType;
+import io.github.daichangya.xlsql.engine.plan.JoinCondition;
+import io.github.daichangya.xlsql.engine.plan.JoinInfo;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+/**
+ * Unit tests for PredicatePushdown class
+ */
+public class PredicatePushdownTest {
+
+    private TableInfo orders;
+    private TableInfo customers;
+    private Map<String, Integer> columnIndexMap;
+
+    @BeforeEach
+    public void setUp() {
+        orders = new TableInfo("test1", "orders", "o");
+        orders.loadData(new String[]{"id", "customer_id", "amount"},
+                new String[]{"INTEGER", "INTEGER", "DOUBLE"},
+                new String[][]{{"1", "2", "3"}, {"101", "102", "101"}, {"100.0", "200.0", "150.0"}}, 3);
+        customers = new TableInfo("test2", "customers", "c");
+        customers.loadData(new String[]{"customer_id", "city"},
+                new String[]{"INTEGER", "VARCHAR"},
+                new String[][]{{"101", "102"}, {"Beijing", "Shanghai"}}, 2);
+
+        columnIndexMap = new HashMap<>();
+        String[] names = {"O.ID", "O.CUSTOMER_ID", "O.AMOUNT", "C.CUSTOMER_ID", "C.CITY"};
+        for (int i = 0; i < names.length; i++) {
+            columnIndexMap.put(names[i], i);
+            columnIndexMap.put(names[i].substring(2), i);
+        }
+    }
+
+    private PredicatePushdown plan(String where, JoinType type) throws Exception {
+        Expression expression = CCJSqlParserUtil.parseCondExpression(where);
+        JoinInfo join = new JoinInfo(type, customers, new JoinCondition("CUSTOMER_ID", "customer_id", "="));
+        return PredicatePushdown.plan(expression, Arrays.asList(orders, customers),
+                new ArrayList<>(Arrays.asList(join)), columnIndexMap);
+    }
+
+    @Test
+    public void testSplitsConjunctsByTable() throws Exception {
+        PredicatePushdown pushdown = plan(
+                "o.amount > 120 AND c.city = 'Beijing' AND o.amount < c.customer_id", JoinType.INNER);
+
+        assertEquals(1, pushdown.getTableConjuncts(0).size());
+        assertEquals("o.amount > 120", pushdown.getTableConjuncts(0).get(0).toString());
+        assertEquals(1, pushdown.getTableConjuncts(1).size());
+        assertEquals("c.city = 'Beijing'", pushdown.getTableConjuncts(1).get(0).toString());
+        assertEquals(1, pushdown.getResidual().size());
+    }
+
+    @Test
+    public void testUnqualifiedColumnResolvesToLastTable() throws Exception {
+        PredicatePushdown pushdown = plan("customer_id = 101 AND id = 1", JoinType.INNER);
+
+        assertEquals("id = 1", pushdown.getTableConjuncts(0).get(0).toString());
+        assertEquals("customer_id = 101", pushdown.getTableConjuncts(1).get(0).toString());
+        assertTrue(pushdown.getResidual().isEmpty());
+    }
+
+    @Test
+    public void testOuterJoinNullableSideIsNotPushed() throws Exception {
+        PredicatePushdown left = plan("o.amount > 120 AND c.city = 'Beijing'", JoinType.LEFT);
+        assertEquals(1, left.getTableConjuncts(0).size());
+        assertTrue(left.getTableConjuncts(1).isEmpty());
+        assertEquals(1, left.getResidual().size());
+
+        PredicatePushdown right = plan("o.amount > 120 AND c.city = 'Beijing'", JoinType.RIGHT);
+        assertTrue(right.getTableConjuncts(0).isEmpty());
+        assertEquals(1, right.getTableConjuncts(1).size());
+        assertEquals(1, right.getResidual().size());
+    }
+
+    @Test
+    public void testOrAndConstantsStayResidual() throws Exception {
+        PredicatePushdown pushdown = plan("(o.amount > 120 OR c.city = 'Beijing') AND 1 = 1", JoinType.INNER);
+
+        assertTrue(pushdown.getTableConjuncts(0).isEmpty());
+        assertTrue(pushdown.getTableConjuncts(1).isEmpty());
+        assertEquals(2, pushdown.getResidual().size());
+    }
+
+    @Test
+    public void testSelectGathersRows() {
+        TableInfo selected = orders.select(new int[]{0, 2});
+
+        assertEquals(2, selected.getRowCount());
+        assertArrayEquals(new String[]{"3", "101", "150.0"}, selected.getRow(1));
+        assertEquals("o", selected.getAlias());
+    }
+}
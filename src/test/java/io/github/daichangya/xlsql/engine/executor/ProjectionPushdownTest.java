@@ -0,0 +1,69 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.parser.NativeSqlParser;
+
+/**
+ * Unit tests for ProjectionPushdown class
+ */
+public class ProjectionPushdownTest {
+
+    private static final String[] ORDERS = {"id", "customer_id", "amount", "status", "note"};
+    private static final String[] CUSTOMERS = {"customer_id", "name", "city", "phone"};
+
+    private ProjectionPushdown plan(String sql) throws Exception {
+        return ProjectionPushdown.plan(new NativeSqlParser().parse(sql));
+    }
+
+    @Test
+    public void testCollectsColumnsFromAllClauses() throws Exception {
+        ProjectionPushdown projection = plan(
+                "SELECT o.id, c.name FROM test1_orders o INNER JOIN test2_customers c "
+                + "ON o.customer_id = c.customer_id WHERE o.status = 'open' ORDER BY c.city");
+
+        assertArrayEquals(new int[]{0, 1, 3}, projection.requiredColumns(ORDERS));
+        assertArrayEquals(new int[]{0, 1, 2}, projection.requiredColumns(CUSTOMERS));
+    }
+
+    @Test
+    public void testAfterJoinsIgnoresJoinConditions() throws Exception {
+        ProjectionPushdown projection = ProjectionPushdown.planAfterJoins(new NativeSqlParser().parse(
+                "SELECT o.id, c.name FROM test1_orders o INNER JOIN test2_customers c "
+                + "ON o.customer_id = c.customer_id WHERE o.status = 'open' ORDER BY c.city"));
+
+        assertArrayEquals(new int[]{0, 3}, projection.requiredColumns(ORDERS));
+        assertArrayEquals(new int[]{1, 2}, projection.requiredColumns(CUSTOMERS));
+    }
+
+    @Test
+    public void testGroupByAndHaving() throws Exception {
+        ProjectionPushdown projection = plan(
+                "SELECT status, COUNT(*) FROM test1_orders GROUP BY status HAVING SUM(amount) > 10");
+
+        assertArrayEquals(new int[]{2, 3}, projection.requiredColumns(ORDERS));
+    }
+
+    @Test
+    public void testColumnNamesAreCaseInsensitive() throws Exception {
+        ProjectionPushdown projection = plan("SELECT ID, Amount FROM test1_orders");
+
+        assertArrayEquals(new int[]{0, 2}, projection.requiredColumns(ORDERS));
+    }
+
+    @Test
+    public void testStarAndSubqueryKeepAllColumns() throws Exception {
+        assertNull(plan("SELECT * FROM test1_orders").requiredColumns(ORDERS));
+        assertNull(plan("SELECT o.* FROM test1_orders o").requiredColumns(ORDERS));
+        assertNull(plan("SELECT id FROM test1_orders WHERE amount > (SELECT 1)")
+                .requiredColumns(ORDERS));
+    }
+
+    @Test
+    public void testPick() {
+        assertArrayEquals(new String[]{"id", "amount"}, ProjectionPushdown.pick(ORDERS, new int[]{0, 2}));
+        assertNull(ProjectionPushdown.pick(null, new int[]{0}));
+    }
+}
@@ -376,5 +376,67 @@ public class ResultSetBuilderTest {
         assertTrue(rs.next());
         assertEquals("28", rs.getString("age")); // David, age=28
     }
-}
 
+    @Test
+    public void testTopNMatchesFullSortWithTies() {
+        Random random = new Random(11);
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(new String[]{String.valueOf(i), String.valueOf(random.nextInt(50))});
+        }
+        Comparator<String[]> comparator =
+                (a, b) -> Integer.compare(Integer.parseInt(b[1]), Integer.parseInt(a[1]));
+        
+        List<String[]> sorted = new ArrayList<>(rows);
+        sorted.sort(comparator);
+        for (int n : new int[]{1, 7, 100, 1999}) {
+            List<String[]> top = ResultSetBuilder.topN(rows, comparator, n);
+            assertEquals(n, top.size());
+            for (int i = 0; i < n; i++) {
+                assertSame(sorted.get(i), top.get(i), "n=" + n + ", i=" + i);
+            }
+        }
+    }
+    
+    @Test
+    public void testBuildWithOrderByLimitAndOffset() throws SQLException {
+        // SELECT * ORDER BY salary DESC LIMIT 2 OFFSET 1
+        plan.setMainTable(table);
+        plan.addOrderBy(new OrderByItem("salary", OrderByItem.SortDirection.DESC));
+        plan.setLimit(2);
+        plan.setOffset(1);
+        
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(table.getRow(i));
+        }
+        
+        ResultSet rs = builder.build(rows, plan, columnIndexMap, Arrays.asList(table));
+        
+        assertTrue(rs.next());
+        assertEquals("Eve", rs.getString("name"));
+        assertTrue(rs.next());
+        assertEquals("Bob", rs.getString("name"));
+        assertFalse(rs.next());
+    }
+    
+    @Test
+    public void testBuildWithOrderByAndOffsetOnly() throws SQLException {
+        // SELECT * ORDER BY salary DESC OFFSET 3（完整排序路径）
+        plan.setMainTable(table);
+        plan.addOrderBy(new OrderByItem("salary", OrderByItem.SortDirection.DESC));
+        plan.setOffset(3);
+        
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(table.getRow(i));
+        }
+        
+        ResultSet rs = new ResultSetBuilder(1, true).build(rows, plan, columnIndexMap, Arrays.asList(table));
+        
+        assertTrue(rs.last());
+        assertEquals(2, rs.getRow());
+        plan.setOffset(5);
+        assertFalse(builder.build(rows, plan, columnIndexMap, Arrays.asList(table)).next());
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.value.NumericValue;
+
+/**
+ * Unit tests for RowOrder class
+ */
+public class RowOrderTest {
+
+    private static final String[] VALUES = {
+        null, "", " ", "0", "0.0", "-0", "1", "1.0", "1.00", "2", "10", "-3.5", "abc", "ABC", "1e3", "1E+3",
+        "1000", "9007199254740993", "9007199254740992", "123456789012345678901234567890",
+        "1E400", "-1E400", "0.1", "0.10000000000000001", "NaN", "Infinity", " 5", "5 ", "x1",
+    };
+
+    private static int expected(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return NumericValue.compare(a, b);
+    }
+
+    @Test
+    public void testMatchesPairwiseCompare() {
+        RowOrder order = new RowOrder(new int[] {0}, new boolean[] {false});
+        for (String a : VALUES) {
+            for (String b : VALUES) {
+                int actual = order.compare(order.key(new String[] {a}), order.key(new String[] {b}));
+                assertEquals(Integer.signum(expected(a, b)), Integer.signum(actual), a + " vs " + b);
+            }
+        }
+    }
+
+    @Test
+    public void testMultipleKeysAndDescending() {
+        RowOrder order = new RowOrder(new int[] {1, 0}, new boolean[] {true, false});
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            String[] a = {VALUES[random.nextInt(VALUES.length)], VALUES[random.nextInt(VALUES.length)]};
+            String[] b = {VALUES[random.nextInt(VALUES.length)], VALUES[random.nextInt(VALUES.length)]};
+            int cmp = -expected(a[1], b[1]);
+            if (cmp == 0) {
+                cmp = expected(a[0], b[0]);
+            }
+            assertEquals(Integer.signum(cmp), Integer.signum(order.compare(order.key(a), order.key(b))));
+            assertEquals(Integer.signum(cmp), Integer.signum(order.rows().compare(a, b)));
+        }
+    }
+
+    @Test
+    public void testMissingColumnIsSkipped() {
+        RowOrder order = new RowOrder(new int[] {2, 0}, new boolean[] {false, false});
+        assertTrue(order.compare(order.key(new String[] {"1"}), order.key(new String[] {"2", "x", "0"})) < 0);
+        assertEquals(0, order.compare(order.key(null), order.key(new String[] {"2"})));
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
+
+/**
+ * Unit tests for VectorizedAggregates class
+ */
+public class VectorizedAggregatesTest {
+
+    private static int[] allRows(int count) {
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    @Test
+    public void testSumLongsIsExact() {
+        int count = ColumnBatch.SIZE * 2 + 5;
+        String[] values = new String[count];
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 0; i < count; i++) {
+            if (i % 11 == 0) {
+                values[i] = i % 2 == 0 ? null : "";
+                continue;
+            }
+            long value = i % 3 == 0 ? -999999999999999999L + i : 999999999999999999L - i;
+            values[i] = Long.toString(value);
+            expected = expected.add(BigDecimal.valueOf(value));
+        }
+        ColumnVector vector = ColumnVectors.encode(values);
+
+        assertEquals(expected, VectorizedAggregates.sumLongs(vector, allRows(count), count));
+        assertEquals(BigDecimal.valueOf(999999999999999998L + 999999999999999997L),
+                VectorizedAggregates.sumLongs(vector, new int[]{1, 2}, 2));
+    }
+
+    @Test
+    public void testCountNonNull() {
+        ColumnVector vector = ColumnVectors.encode(new String[]{"1", null, "", "4", null});
+
+        assertEquals(3, VectorizedAggregates.countNonNull(vector, allRows(5), 5));
+        assertEquals(0, VectorizedAggregates.countNonNull(vector, new int[]{1, 4}, 2));
+    }
+
+    @Test
+    public void testMaxMinLongs() {
+        ColumnVector vector = ColumnVectors.encode(new String[]{"7", null, "-12", "30", "5"});
+
+        assertEquals("30", VectorizedAggregates.maxMin(vector, allRows(5), 5, true));
+        assertEquals("-12", VectorizedAggregates.maxMin(vector, allRows(5), 5, false));
+        assertEquals("5", VectorizedAggregates.maxMin(vector, new int[]{4}, 1, true));
+        assertNull(VectorizedAggregates.maxMin(vector, new int[]{1}, 1, true));
+    }
+
+    @Test
+    public void testMaxMinDoublesKeepFirstOfEqualValues() {
+        ColumnVector vector = ColumnVectors.encode(new String[]{"-0.0", "0.0", null, "-1.5", "1.0E10"});
+
+        assertEquals("1.0E10", VectorizedAggregates.maxMin(vector, allRows(5), 5, true));
+        assertEquals("-1.5", VectorizedAggregates.maxMin(vector, allRows(5), 5, false));
+        assertEquals("-0.0", VectorizedAggregates.maxMin(vector, new int[]{0, 1}, 2, true));
+        assertEquals("0.0", VectorizedAggregates.maxMin(vector, new int[]{1, 0}, 2, false));
+        assertNull(VectorizedAggregates.maxMin(vector, new int[]{2}, 1, false));
+    }
+}
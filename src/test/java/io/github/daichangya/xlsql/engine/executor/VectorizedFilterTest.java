@@ -0,0 +1,126 @@
+package io.github.daichangya.xlsql.engine.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.daichangya.xlsql.engine.column.VectorType;
+import io.github.daichangya.xlsql.engine.plan.TableInfo;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+
+/**
+ * Unit tests for VectorizedFilter class
+ */
+public class VectorizedFilterTest {
+
+    private static final String[] QTY = {"5", "-3", null, "", "0", "100", "999999999999999999", "42"};
+
+    private static final String[] PRICE = {"0.1", "1.0E7", null, "", "-0.0", "2.5", "1.5E-4", "100.0",
+        "0.0", "-7.25", "9999999.0"};
+
+    private static final String[] CONDITIONS = {
+        "qty = 5", "qty <> 5", "qty > 0", "qty >= 0", "qty < 42", "qty <= 42",
+        "qty > 4.5", "qty >= 4.5", "qty < 4.5", "qty = 4.5", "qty <> 4.5",
+        "qty > 1.0E30", "qty < 1.0E30", "5 < qty", "100 = qty", "42 >= qty",
+        "qty BETWEEN 0 AND 42", "qty NOT BETWEEN 0 AND 42", "qty BETWEEN 1.5 AND 99.5",
+        "qty IS NULL", "qty IS NOT NULL",
+        "price = 0.1", "price <> 0.1", "price > 0", "price >= 0", "price < 0", "price <= 0.0",
+        "price > 2", "price < 100", "price = 1.0E7", "price > 1000", "price < 0.001",
+        "0.1 < price", "price BETWEEN 0 AND 100", "price NOT BETWEEN 0 AND 100",
+        "price IS NULL", "price IS NOT NULL", "(price > 1) AND qty > 0", "price < 12345678901234567",
+    };
+
+    private TableInfo table;
+    private Map<String, Integer> columnIndexMap;
+    private List<TableInfo> tables;
+
+    @BeforeEach
+    public void setUp() {
+        // 行数跨越多个批，两列的取值周期不同
+        int rows = ColumnBatch.SIZE * 3 + 17;
+        String[] qty = new String[rows];
+        String[] price = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            qty[i] = QTY[i % QTY.length];
+            price[i] = PRICE[i % PRICE.length];
+        }
+        table = new TableInfo("test", "Sheet1", null);
+        table.loadData(new String[]{"QTY", "PRICE"}, new String[]{"INTEGER", "DOUBLE"},
+                new String[][]{qty, price}, rows);
+        columnIndexMap = new HashMap<>();
+        columnIndexMap.put("QTY", 0);
+        columnIndexMap.put("PRICE", 1);
+        tables = new ArrayList<>();
+        tables.add(table);
+    }
+
+    @Test
+    public void testColumnsAreTyped() {
+        assertEquals(VectorType.LONG, table.getColumn(0).getType());
+        assertEquals(VectorType.DOUBLE, table.getColumn(1).getType());
+    }
+
+    @Test
+    public void testMatchesRowByRowEvaluation() throws Exception {
+        for (String where : CONDITIONS) {
+            Expression expression = CCJSqlParserUtil.parseCondExpression(where);
+            List<Integer> expected = new ArrayList<>();
+            ExpressionEvaluator evaluator = new ExpressionEvaluator();
+            for (int i = 0; i < table.getRowCount(); i++) {
+                if (evaluator.evaluateAsBoolean(expression, table.getRow(i), columnIndexMap, tables)) {
+                    expected.add(i);
+                }
+            }
+            int[] actual = new ConditionEvaluator(1).filter(expression, table, columnIndexMap, tables);
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual, where);
+        }
+    }
+
+    @Test
+    public void testCompilesTypedComparisons() throws Exception {
+        for (String where : new String[]{"qty > 0", "5 <= qty", "price BETWEEN 1 AND 2",
+                "price IS NOT NULL", "qty <> 4.5"}) {
+            List<Expression> remaining = new ArrayList<>();
+            VectorizedFilter filter = VectorizedFilter.compile(
+                    ConditionEvaluator.splitConjuncts(CCJSqlParserUtil.parseCondExpression(where)),
+                    table, columnIndexMap, remaining);
+            assertFalse(filter.isEmpty(), where);
+            assertTrue(remaining.isEmpty(), where);
+        }
+    }
+
+    @Test
+    public void testLeavesOtherConditionsToRowEvaluation() throws Exception {
+        // 字符串字面量、列间比较和不能精确表示为double的字面量都按原方式逐行求值
+        for (String where : new String[]{"qty = '5'", "qty = price", "qty + 1 > 2",
+                "price > 12345678901234567", "qty LIKE '4%'"}) {
+            List<Expression> remaining = new ArrayList<>();
+            VectorizedFilter filter = VectorizedFilter.compile(
+                    ConditionEvaluator.splitConjuncts(CCJSqlParserUtil.parseCondExpression(where)),
+                    table, columnIndexMap, remaining);
+            assertTrue(filter.isEmpty(), where);
+            assertEquals(1, remaining.size(), where);
+        }
+    }
+
+    @Test
+    public void testFilterCompactsSelection() throws Exception {
+        List<Expression> remaining = new ArrayList<>();
+        VectorizedFilter filter = VectorizedFilter.compile(
+                ConditionEvaluator.splitConjuncts(CCJSqlParserUtil.parseCondExpression("qty >= 42 AND qty < 1000")),
+                table, columnIndexMap, remaining);
+        ColumnBatch batch = new ColumnBatch();
+        batch.selectRange(0, QTY.length * 2);
+        filter.filter(batch);
+
+        assertEquals(4, batch.count);
+        assertArrayEquals(new int[]{5, 7, 13, 15}, java.util.Arrays.copyOf(batch.selection, batch.count));
+    }
+}
@@ -31,7 +31,10 @@ import java.io.File;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +44,8 @@ import io.github.daichangya.xlsql.database.ADatabase;
 import io.github.daichangya.xlsql.database.AFile;
 import io.github.daichangya.xlsql.database.ASubFolder;
 import io.github.daichangya.xlsql.database.xlDatabaseException;
+import io.github.daichangya.xlsql.engine.column.ColumnVector;
+import io.github.daichangya.xlsql.engine.column.ColumnVectors;
 
 /**
  * xlNativeSelectTest - xlNativeSelect单元测试
@@ -838,6 +843,90 @@ public class xlNativeSelectTest {
         rs.close();
     }
     
+    @Test
+    public void testOrderByAfterProjectionAndPruning() throws SQLException {
+        // 选择列顺序与表中不同，且未用到的列被裁剪
+        assertEquals(Arrays.asList("Alice", "Bob", "Charlie", "David", "Eve"),
+                column(nativeSelect.executeQuery("SELECT age, name FROM test1_Sheet1 ORDER BY name"), 2));
+        assertEquals(Arrays.asList("35", "32", "30", "28", "25"),
+                column(nativeSelect.executeQuery("SELECT age, id FROM test1_Sheet1 ORDER BY age DESC"), 1));
+        assertEquals(Arrays.asList("32", "28", "35", "25", "30"),
+                column(nativeSelect.executeQuery(
+                        "SELECT category, age FROM test1_Sheet1 ORDER BY category DESC, age"), 2));
+        assertEquals(Arrays.asList("Eve", "David"),
+                column(nativeSelect.executeQuery(
+                        "SELECT salary, name FROM test1_Sheet1 ORDER BY name DESC LIMIT 2"), 2));
+        // 排序列不在选择列中
+        assertEquals(Arrays.asList("Charlie", "Eve", "Bob"),
+                column(nativeSelect.executeQuery(
+                        "SELECT name FROM test1_Sheet1 WHERE age > 28 ORDER BY salary DESC"), 1));
+        // 分组结果按选择列和聚合别名排序
+        assertEquals(Arrays.asList("C", "B", "A"),
+                column(nativeSelect.executeQuery(
+                        "SELECT category, SUM(salary) AS total FROM test1_Sheet1 GROUP BY category "
+                        + "ORDER BY category DESC"), 1));
+        assertEquals(Arrays.asList("C", "A", "B"),
+                column(nativeSelect.executeQuery(
+                        "SELECT category, COUNT(*) AS cnt FROM test1_Sheet1 GROUP BY category "
+                        + "ORDER BY cnt, category"), 1));
+    }
+    
+    private static List<String> column(ResultSet rs, int column) throws SQLException {
+        List<String> values = new ArrayList<>();
+        while (rs.next()) {
+            values.add(rs.getString(column));
+        }
+        rs.close();
+        return values;
+    }
+    
+    @Test
+    public void testStreamingResultSetScrolls() throws SQLException {
+        ResultSet rs = nativeSelect.executeQuery("SELECT name FROM test1_Sheet1 WHERE age > 26 LIMIT 3",
+                ResultSet.TYPE_SCROLL_INSENSITIVE);
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, rs.getType());
+        
+        assertTrue(rs.next());
+        assertEquals("Bob", rs.getString("name"));
+        assertFalse(rs.isLast());
+        assertTrue(rs.last());
+        assertEquals(3, rs.getRow());
+        assertEquals("David", rs.getString("name"));
+        assertTrue(rs.absolute(-3));
+        assertEquals("Bob", rs.getString("name"));
+        rs.beforeFirst();
+        
+        int rowCount = 0;
+        while (rs.next()) {
+            rowCount++;
+        }
+        assertEquals(3, rowCount);
+        rs.close();
+        assertThrows(SQLException.class, rs::next);
+    }
+    
+    @Test
+    public void testForwardOnlyResultSetDoesNotScroll() throws SQLException {
+        ResultSet rs = nativeSelect.executeQuery("SELECT name FROM test1_Sheet1 WHERE age > 26 LIMIT 3");
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, rs.getType());
+        
+        assertTrue(rs.next());
+        assertEquals("Bob", rs.getString("name"));
+        assertFalse(rs.isLast());
+        assertEquals("Bob", rs.getString("name"));
+        assertTrue(rs.next());
+        assertTrue(rs.next());
+        assertEquals(3, rs.getRow());
+        assertEquals("David", rs.getString("name"));
+        assertTrue(rs.isLast());
+        assertThrows(SQLException.class, rs::previous);
+        assertThrows(SQLException.class, rs::first);
+        assertThrows(SQLException.class, () -> rs.absolute(1));
+        assertEquals("David", rs.getString("name"));
+        assertFalse(rs.next());
+        rs.close();
+    }
+    
     @Test
     public void testSelectWithWhereAndOrderByAndLimit() throws SQLException {
         ResultSet rs = nativeSelect.executeQuery(
@@ -1076,6 +1165,14 @@ public class xlNativeSelectTest {
             return table.data;
         }
         
+        @Override
+        public ColumnVector[] getColumns(String workbook, String sheet, int[] columnIndexes)
+                throws xlDatabaseException {
+            String[][] data = getValues(workbook, sheet);
+            return columnIndexes != null
+                    ? ColumnVectors.encodeColumns(data, columnIndexes) : ColumnVectors.encodeAll(data);
+        }
+        
         @Override
         public int getRows(String workbook, String sheet) {
             String key = workbook.toUpperCase() + "_" + sheet.toUpperCase();
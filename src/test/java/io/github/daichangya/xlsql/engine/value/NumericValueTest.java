@@ -0,0 +1,130 @@
+package io.github.daichangya.xlsql.engine.value;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for NumericValue class
+ */
+public class NumericValueTest {
+
+    private static final String[] SAMPLES = {
+        "0", "-0", "+0", "00", "0.0", "-0.0", "0.000", "1", "-1", "+7", "007", "10", "100.0", "250.5",
+        "-3.25", ".5", "-.5", "5.", "1e3", "1E+3", "1.5E-3", "-2.0e2", "0.0000001", "1.0E10",
+        "123456789012345678", "1234567890123456789", "99999999999999999999.5", "9223372036854775807",
+        "-9223372036854775808", "0.30000000000000004",
+        "", "-", ".", "+", "e5", "1e", "1e+", "1.2.3", "abc", " 1", "1 ", "1,000", "NaN", "Infinity", "0x1F",
+        "1e99999999999",
+    };
+
+    private static BigDecimal reference(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testParseMatchesBigDecimal() {
+        for (String text : SAMPLES) {
+            BigDecimal expected = reference(text);
+            NumericValue actual = NumericValue.parse(text);
+            if (expected == null) {
+                assertNull(actual, text);
+            } else {
+                assertNotNull(actual, text);
+                assertEquals(expected, actual.toBigDecimal(), text);
+                assertEquals(expected.toString(), actual.toString(), text);
+            }
+        }
+    }
+
+    @Test
+    public void testArithmeticAndComparisonMatchBigDecimal() {
+        List<String> numbers = new ArrayList<>();
+        for (String text : SAMPLES) {
+            if (reference(text) != null) {
+                numbers.add(text);
+            }
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            numbers.add(randomNumber(random));
+        }
+
+        for (String a : numbers) {
+            for (String b : numbers) {
+                BigDecimal x = new BigDecimal(a);
+                BigDecimal y = new BigDecimal(b);
+                NumericValue p = NumericValue.parse(a);
+                NumericValue q = NumericValue.parse(b);
+                String context = a + " , " + b;
+                assertEquals(Integer.signum(x.compareTo(y)), Integer.signum(p.compareTo(q)), context);
+                assertEquals(x.add(y).toString(), p.add(q).toString(), context);
+                assertEquals(x.subtract(y).toString(), p.subtract(q).toString(), context);
+                assertEquals(x.multiply(y).toString(), p.multiply(q).toString(), context);
+                if (y.signum() != 0) {
+                    assertEquals(x.remainder(y).toString(), p.remainder(q).toString(), context);
+                    assertEquals(x.divide(y, 10, RoundingMode.HALF_UP).toString(),
+                            p.divide(q, 10, RoundingMode.HALF_UP).toString(), context);
+                }
+                if (p.equals(q)) {
+                    assertEquals(p.hashCode(), q.hashCode(), context);
+                }
+            }
+        }
+    }
+
+    private static String randomNumber(Random random) {
+        StringBuilder sb = new StringBuilder();
+        if (random.nextBoolean()) {
+            sb.append('-');
+        }
+        int integerDigits = random.nextInt(12);
+        for (int i = 0; i < integerDigits; i++) {
+            sb.append((char) ('0' + random.nextInt(10)));
+        }
+        if (integerDigits == 0 || random.nextBoolean()) {
+            sb.append('.');
+            int fractionDigits = 1 + random.nextInt(8);
+            for (int i = 0; i < fractionDigits; i++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testDoubleValues() {
+        NumericValue a = NumericValue.of(0.1);
+        NumericValue b = NumericValue.parse("0.1");
+        assertEquals(0, a.compareTo(b));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertTrue(NumericValue.of(1.0E10).compareTo(NumericValue.of(9.5E9)) > 0);
+        assertEquals(0, NumericValue.of(-0.0).compareTo(NumericValue.of(0.0)));
+        assertNull(NumericValue.of(Double.NaN));
+        assertEquals("0.3", NumericValue.of(0.1).add(NumericValue.of(0.2)).toString());
+    }
+
+    @Test
+    public void testValueOfAndCompareStrings() {
+        assertEquals("42", NumericValue.valueOf(42L).toString());
+        assertEquals("42", NumericValue.valueOf(42).toString());
+        assertEquals("1.50", NumericValue.valueOf(new BigDecimal("1.50")).toString());
+        assertNull(NumericValue.valueOf("x"));
+        assertNull(NumericValue.valueOf(null));
+
+        assertTrue(NumericValue.compare("10", "9") > 0);
+        assertTrue(NumericValue.compare("10", "9a") < 0);
+        assertEquals(0, NumericValue.compare("1.0", "1"));
+    }
+}
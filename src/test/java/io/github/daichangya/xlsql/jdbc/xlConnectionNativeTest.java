@@ -1,10 +1,13 @@
 package io.github.daichangya.xlsql.jdbc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.ResultSet;
+import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.Test;
 
 import io.github.daichangya.xlsql.base.NativeEngineTestBase;
 import io.github.daichangya.xlsql.engine.connection.xlConnectionNative;
+import io.github.daichangya.xlsql.engine.executor.ParallelExecution;
 
 /**
  * xlConnectionNativeTest - 自研SQL引擎连接测试
@@ -68,5 +72,40 @@ public class xlConnectionNativeTest extends NativeEngineTestBase {
     public void testAutoCommit() throws SQLException {
         assertTrue(con.getAutoCommit(), "Native engine should have auto-commit enabled");
     }
-}
 
+    @Test
+    public void testStatementResultSetType() throws SQLException {
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, con.createStatement().getResultSetType());
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, con.createStatement(
+                ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY).getResultSetType());
+        assertEquals(ResultSet.TYPE_SCROLL_INSENSITIVE, con.prepareStatement("SELECT 1",
+                ResultSet.TYPE_SCROLL_SENSITIVE, ResultSet.CONCUR_READ_ONLY).getResultSetType());
+        assertTrue(con.getMetaData().supportsResultSetType(ResultSet.TYPE_SCROLL_INSENSITIVE));
+        assertFalse(con.getMetaData().supportsResultSetType(ResultSet.TYPE_SCROLL_SENSITIVE));
+    }
+
+    @Test
+    public void testQueryParallelismClientInfo() throws SQLException {
+        xlConnectionNative nativeCon = (xlConnectionNative) con;
+        int original = nativeCon.getQueryParallelism();
+        try {
+            con.setClientInfo(ParallelExecution.PROP_PARALLELISM, "3");
+            assertEquals(3, nativeCon.getQueryParallelism());
+            assertEquals("3", con.getClientInfo(ParallelExecution.PROP_PARALLELISM));
+            assertThrows(SQLClientInfoException.class,
+                    () -> con.setClientInfo(ParallelExecution.PROP_PARALLELISM, "many"));
+            assertThrows(SQLClientInfoException.class,
+                    () -> con.setClientInfo(ParallelExecution.PROP_PARALLELISM, "0"));
+            assertThrows(SQLClientInfoException.class,
+                    () -> con.setClientInfo(ParallelExecution.PROP_PARALLELISM, "-4"));
+            assertThrows(SQLClientInfoException.class,
+                    () -> con.setClientInfo(ParallelExecution.PROP_PARALLELISM, "100000"));
+            assertThrows(SQLException.class,
+                    () -> nativeCon.setQueryParallelism(ParallelExecution.MAX_PARALLELISM + 1));
+            // 无效设置不改变原来的并行度
+            assertEquals(3, nativeCon.getQueryParallelism());
+        } finally {
+            nativeCon.setQueryParallelism(original);
+        }
+    }
+}